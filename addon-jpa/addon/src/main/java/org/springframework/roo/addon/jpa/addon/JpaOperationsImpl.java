@@ -36,6 +36,7 @@ import org.springframework.roo.project.Dependency;
 import org.springframework.roo.project.FeatureNames;
 import org.springframework.roo.project.Path;
 import org.springframework.roo.project.PathResolver;
+import org.springframework.roo.project.PomEditSession;
 import org.springframework.roo.project.ProjectOperations;
 import org.springframework.roo.project.maven.Pom;
 import org.springframework.roo.support.logging.HandlerUtils;
@@ -690,20 +691,25 @@ public class JpaOperationsImpl implements JpaOperations {
       final Element configuration) {
     final List<Element> databaseDependencies =
         XmlUtils.findElements(databaseConfigPrefix + "/dependencies/dependency", configuration);
-    for (final Element dependencyElement : databaseDependencies) {
-
-      // Change scope from provided to test
-      NodeList childNodes = dependencyElement.getChildNodes();
-      for (int i = 0; i < childNodes.getLength(); i++) {
-        final Node node = childNodes.item(i);
-        if (node != null && node.getNodeType() == Node.ELEMENT_NODE
-            && node.getNodeName().equals("scope")) {
-          node.setTextContent("test");
+    final PomEditSession session = getProjectOperations().beginPomEdit(moduleName);
+    try {
+      for (final Element dependencyElement : databaseDependencies) {
+
+        // Change scope from provided to test
+        NodeList childNodes = dependencyElement.getChildNodes();
+        for (int i = 0; i < childNodes.getLength(); i++) {
+          final Node node = childNodes.item(i);
+          if (node != null && node.getNodeType() == Node.ELEMENT_NODE
+              && node.getNodeName().equals("scope")) {
+            node.setTextContent("test");
+          }
         }
-      }
 
-      // Add dependency
-      getProjectOperations().addDependency(moduleName, new Dependency(dependencyElement));
+        // Add dependency
+        getProjectOperations().addDependency(moduleName, new Dependency(dependencyElement));
+      }
+    } finally {
+      session.close();
     }
   }
 
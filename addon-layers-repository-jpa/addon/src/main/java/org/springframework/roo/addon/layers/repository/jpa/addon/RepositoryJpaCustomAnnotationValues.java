@@ -1,5 +1,6 @@
 package org.springframework.roo.addon.layers.repository.jpa.addon;
 
+import org.apache.commons.lang3.Validate;
 import org.springframework.roo.addon.layers.repository.jpa.annotations.RooJpaRepositoryCustom;
 import org.springframework.roo.classpath.PhysicalTypeMetadata;
 import org.springframework.roo.classpath.details.annotations.populator.AbstractAnnotationValues;
@@ -22,6 +23,18 @@ public class RepositoryJpaCustomAnnotationValues extends AbstractAnnotationValue
   @AutoPopulate
   private JavaType defaultSearchResult;
 
+  @AutoPopulate
+  private boolean keyset;
+
+  @AutoPopulate
+  private String keysetSort = "";
+
+  @AutoPopulate
+  private boolean slice;
+
+  @AutoPopulate
+  private int countCacheSeconds;
+
   /**
    * Constructor
    * 
@@ -30,6 +43,9 @@ public class RepositoryJpaCustomAnnotationValues extends AbstractAnnotationValue
   public RepositoryJpaCustomAnnotationValues(final PhysicalTypeMetadata governorPhysicalTypeMetadata) {
     super(governorPhysicalTypeMetadata, RooJavaType.ROO_REPOSITORY_JPA_CUSTOM);
     AutoPopulationUtils.populate(this, annotationMetadata);
+    Validate.isTrue(countCacheSeconds >= 0, "%s of @%s must not be negative, but is %s",
+        RooJpaRepositoryCustom.COUNT_CACHE_SECONDS_ATTRIBUTE,
+        RooJavaType.ROO_REPOSITORY_JPA_CUSTOM.getSimpleTypeName(), countCacheSeconds);
   }
 
   /**
@@ -41,6 +57,15 @@ public class RepositoryJpaCustomAnnotationValues extends AbstractAnnotationValue
     return defaultSearchResult;
   }
 
+  /**
+   * Returns how long the estimated count of entities is cached for
+   * 
+   * @return a number of seconds, or 0 if the repository doesn't estimate counts
+   */
+  public int getCountCacheSeconds() {
+    return countCacheSeconds;
+  }
+
   /**
    * Returns the entity type managed by the annotated repository
    * 
@@ -49,4 +74,31 @@ public class RepositoryJpaCustomAnnotationValues extends AbstractAnnotationValue
   public JavaType getEntity() {
     return entity;
   }
+
+  /**
+   * Returns the field keyset pagination sorts by before the identifier
+   * 
+   * @return a field name, or an empty string to sort by identifier only
+   */
+  public String getKeysetSort() {
+    return keysetSort;
+  }
+
+  /**
+   * Indicates whether the annotated repository pages by keyset too
+   * 
+   * @return see above
+   */
+  public boolean isKeyset() {
+    return keyset;
+  }
+
+  /**
+   * Indicates whether the annotated repository provides count-free slices
+   * 
+   * @return see above
+   */
+  public boolean isSlice() {
+    return slice;
+  }
 }
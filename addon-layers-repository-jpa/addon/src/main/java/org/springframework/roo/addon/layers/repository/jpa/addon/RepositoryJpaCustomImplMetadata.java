@@ -16,6 +16,7 @@ import org.springframework.roo.classpath.PhysicalTypeIdentifierNamingUtils;
 import org.springframework.roo.classpath.PhysicalTypeMetadata;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
 import org.springframework.roo.classpath.details.FieldMetadata;
+import org.springframework.roo.classpath.details.FieldMetadataBuilder;
 import org.springframework.roo.classpath.details.MethodMetadata;
 import org.springframework.roo.classpath.details.MethodMetadataBuilder;
 import org.springframework.roo.classpath.details.annotations.AnnotatedJavaType;
@@ -51,6 +52,11 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
   private Map<FieldMetadata, MethodMetadata> allFindAllReferencedFieldsMethods;
   private Map<JavaType, JavaSymbolName> referencedFieldsIdentifierNames;
   private Map<JavaType, JavaSymbolName> referencedFieldsNames;
+  private MethodMetadata findAllAfterMethod;
+  private List<FieldMetadata> keysetFields;
+  private MethodMetadata findAllSliceMethod;
+  private MethodMetadata estimateCountMethod;
+  private int countCacheSeconds;
 
   public static String createIdentifier(final JavaType javaType, final LogicalPath path) {
     return PhysicalTypeIdentifierNamingUtils.createIdentifier(PROVIDES_TYPE_STRING, javaType, path);
@@ -91,6 +97,17 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
    * @param validFields entity fields to search for (excluded id, reference and collection fields)
    * @param findAllGlobalSearchMethod the findAll metadata 
    * @param allFindAllReferencedFieldsMethods
+   * @param referencedFieldsIdentifierNames
+   * @param referencedFieldsNames
+   * @param findAllAfterMethod the findAllAfter metadata, or <code>null</code> if 
+   *            the repository doesn't page by keyset
+   * @param keysetFields the fields keyset pagination sorts by, ending with the 
+   *            identifier field, or <code>null</code>
+   * @param findAllSliceMethod the findAllSlice metadata, or <code>null</code> if 
+   *            the repository doesn't provide count-free slices
+   * @param estimateCountMethod the estimateCount metadata, or <code>null</code> if 
+   *            the repository doesn't cache counts
+   * @param countCacheSeconds how long estimateCount caches the count for
    */
   public RepositoryJpaCustomImplMetadata(final String identifier, final JavaType aspectName,
       final PhysicalTypeMetadata governorPhysicalTypeMetadata,
@@ -99,7 +116,10 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
       final List<FieldMetadata> validFields, final MethodMetadata findAllGlobalSearchMethod,
       final Map<FieldMetadata, MethodMetadata> allFindAllReferencedFieldsMethods,
       final Map<JavaType, JavaSymbolName> referencedFieldsIdentifierNames,
-      final Map<JavaType, JavaSymbolName> referencedFieldsNames) {
+      final Map<JavaType, JavaSymbolName> referencedFieldsNames,
+      final MethodMetadata findAllAfterMethod, final List<FieldMetadata> keysetFields,
+      final MethodMetadata findAllSliceMethod, final MethodMetadata estimateCountMethod,
+      final int countCacheSeconds) {
     super(identifier, aspectName, governorPhysicalTypeMetadata);
     Validate.notNull(annotationValues, "Annotation values required");
 
@@ -108,6 +128,11 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
     this.allFindAllReferencedFieldsMethods = allFindAllReferencedFieldsMethods;
     this.referencedFieldsIdentifierNames = referencedFieldsIdentifierNames;
     this.referencedFieldsNames = referencedFieldsNames;
+    this.findAllAfterMethod = findAllAfterMethod;
+    this.keysetFields = keysetFields;
+    this.findAllSliceMethod = findAllSliceMethod;
+    this.estimateCountMethod = estimateCountMethod;
+    this.countCacheSeconds = countCacheSeconds;
     this.isDTO = isDTO;
     this.entity = domainType;
 
@@ -123,6 +148,31 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
     // Generate findAll implementation method
     ensureGovernorHasMethod(new MethodMetadataBuilder(getFindAllImpl(idFields, validFields)));
 
+    // Generate findAllSlice implementation method
+    if (findAllSliceMethod != null) {
+      ensureGovernorHasMethod(new MethodMetadataBuilder(getFindAllSliceImpl(idFields,
+          validFields)));
+    }
+
+    // Generate estimateCount implementation method and, unless the governor
+    // declares its own estimateCount, the fields that cache the count
+    if (estimateCountMethod != null) {
+      if (getGovernorMethod(estimateCountMethod.getMethodName()) == null) {
+        ensureGovernorHasField(new FieldMetadataBuilder(getId(), Modifier.PRIVATE,
+            new ArrayList<AnnotationMetadataBuilder>(), new JavaSymbolName("estimatedCount"),
+            JavaType.LONG_PRIMITIVE));
+        ensureGovernorHasField(new FieldMetadataBuilder(getId(), Modifier.PRIVATE,
+            new ArrayList<AnnotationMetadataBuilder>(), new JavaSymbolName(
+                "estimatedCountTime"), JavaType.LONG_PRIMITIVE));
+      }
+      ensureGovernorHasMethod(new MethodMetadataBuilder(getEstimateCountImpl()));
+    }
+
+    // Generate findAllAfter implementation method
+    if (findAllAfterMethod != null) {
+      ensureGovernorHasMethod(new MethodMetadataBuilder(getFindAllAfterImpl(validFields)));
+    }
+
     // ROO-3765: Prevent ITD regeneration applying the same sort to provided map. If this sort is not applied, maybe some
     // method is not in the same order and ITD will be regenerated.
     Map<FieldMetadata, MethodMetadata> allFindAllReferencedFieldsMethodsOrderedByFieldName =
@@ -191,19 +241,12 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
     String entity = this.entity.getSimpleTypeName();
     String entityVariable = StringUtils.uncapitalize(entity);
 
-    List<String> queryList = new ArrayList<String>();
-    for (FieldMetadata field : fields) {
-      queryList.add(String.format("%s.%s", entityVariable, field.getFieldName()));
-    }
-
-
     // Types to import
     JavaType qEntity =
         new JavaType(this.entity.getPackage().getFullyQualifiedPackageName().concat(".Q")
             .concat(entity));
     JavaType returnType = findAllGlobalSearchMethod.getReturnType().getParameters().get(0);
     JavaType pageImpl = new JavaType("org.springframework.data.domain.PageImpl");
-    JavaType constructorExp = new JavaType("com.mysema.query.types.ConstructorExpression");
 
     buildVariables(bodyBuilder, ids);
 
@@ -241,25 +284,7 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
 
     bodyBuilder.appendFormalLine("");
 
-    // List<Entity> results = query.list(ConstructorExpression.create(Entity.class, qEntity.parameter1, qEntity.parameter1, ...));
-    if (!this.isDTO) {
-      bodyBuilder.appendFormalLine(String.format("%1$s<%2$s> results = query.list(%3$s);",
-          new JavaType("java.util.List").getNameIncludingTypeParameters(false, importResolver),
-          returnType.getNameIncludingTypeParameters(false, importResolver), entityVariable));
-    } else if (queryList.isEmpty()) {
-      bodyBuilder.appendFormalLine(String.format(
-          "%1$s<%2$s> results = query.list(%3$s.create(%2$s.class));", new JavaType(
-              "java.util.List").getNameIncludingTypeParameters(false, importResolver), returnType
-              .getNameIncludingTypeParameters(false, importResolver), constructorExp
-              .getNameIncludingTypeParameters(false, importResolver)));
-    } else {
-      bodyBuilder.appendFormalLine(String.format(
-          "%1$s<%2$s> results = query.list(%3$s.create(%2$s.class, %4$s ));", new JavaType(
-              "java.util.List").getNameIncludingTypeParameters(false, importResolver), returnType
-              .getNameIncludingTypeParameters(false, importResolver), constructorExp
-              .getNameIncludingTypeParameters(false, importResolver), StringUtils.join(queryList,
-              ", ")));
-    }
+    buildResultsList(bodyBuilder, fields, entityVariable, returnType);
 
     //return new PageImpl<Entity>(results, pageable, totalFound);
     bodyBuilder.appendFormalLine(String.format("return new %s<%s>(results, %s, totalFound);",
@@ -273,6 +298,284 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
     // instance
   }
 
+  /**
+   * Method that generates the findAllSlice implementation method. It works 
+   * as findAll, but instead of counting all the results it fetches one more 
+   * than the page size to know if there's a next page.
+   * 
+   * @param ids the entity id fields
+   * @param fields the entity fields to search for 
+   *
+   * @return
+   */
+  public MethodMetadata getFindAllSliceImpl(List<FieldMetadata> ids, List<FieldMetadata> fields) {
+
+    // Define method name
+    JavaSymbolName methodName = this.findAllSliceMethod.getMethodName();
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = this.findAllSliceMethod.getParameterTypes();
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = this.findAllSliceMethod.getParameterNames();
+
+    MethodMetadata existingMethod =
+        getGovernorMethod(methodName,
+            AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    if (existingMethod != null) {
+      return existingMethod;
+    }
+
+    // Use provided findAllSlice method to generate its implementation
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC, methodName,
+            findAllSliceMethod.getReturnType(), parameterTypes, parameterNames, null);
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    // Getting variable name to use in the code
+    JavaSymbolName globalSearch = parameterNames.get(0);
+    JavaSymbolName pageable = parameterNames.get(1);
+    String entity = this.entity.getSimpleTypeName();
+    String entityVariable = StringUtils.uncapitalize(entity);
+
+    // Types to import
+    JavaType qEntity =
+        new JavaType(this.entity.getPackage().getFullyQualifiedPackageName().concat(".Q")
+            .concat(entity));
+    JavaType returnType = findAllSliceMethod.getReturnType().getParameters().get(0);
+    JavaType sliceImpl = new JavaType("org.springframework.data.domain.SliceImpl");
+
+    buildVariables(bodyBuilder, ids);
+
+    // QEntity qEntity = QEntity.entity;
+    bodyBuilder.appendFormalLine(String.format("%1$s %2$s = %1$s.%2$s;",
+        qEntity.getNameIncludingTypeParameters(false, importResolver), entityVariable));
+
+    // Construct query
+    buildQuery(bodyBuilder, fields, entityVariable, globalSearch, null, null);
+
+    // if (pageable != null) {
+    bodyBuilder.appendFormalLine(String.format("if (%s != null) {", pageable));
+
+    bodyBuilder.indent();
+
+    if (!fields.isEmpty()) {
+      buildOrderClause(fields, bodyBuilder, entityVariable, pageable);
+    }
+
+    //  query.offset(pageable.getOffset()).limit(pageable.getPageSize() + 1);}
+    bodyBuilder.appendFormalLine(String.format(
+        "query.offset(%1$s.getOffset()).limit(%1$s.getPageSize() + 1);", pageable));
+
+    bodyBuilder.indentRemove();
+
+    // End if
+    bodyBuilder.appendFormalLine("}");
+
+    // query.orderBy(qEntity.id.asc());
+    for (FieldMetadata id : ids) {
+      bodyBuilder.appendFormalLine(String.format("query.orderBy(id%s.asc());", entity));
+    }
+
+    bodyBuilder.appendFormalLine("");
+
+    buildResultsList(bodyBuilder, fields, entityVariable, returnType);
+
+    // boolean hasNext = pageable != null && results.size() > pageable.getPageSize();
+    bodyBuilder.appendFormalLine(String.format(
+        "boolean hasNext = %1$s != null && results.size() > %1$s.getPageSize();", pageable));
+
+    // if (hasNext) {
+    //   results = results.subList(0, pageable.getPageSize());
+    // }
+    bodyBuilder.appendFormalLine("if (hasNext) {");
+    bodyBuilder.indent();
+    bodyBuilder.appendFormalLine(String.format("results = results.subList(0, %s.getPageSize());",
+        pageable));
+    bodyBuilder.indentRemove();
+    bodyBuilder.appendFormalLine("}");
+
+    //return new SliceImpl<Entity>(results, pageable, hasNext);
+    bodyBuilder.appendFormalLine(String.format("return new %s<%s>(results, %s, hasNext);",
+        sliceImpl.getNameIncludingTypeParameters(false, importResolver),
+        returnType.getNameIncludingTypeParameters(false, importResolver), pageable));
+
+    // Sets body to generated method
+    methodBuilder.setBodyBuilder(bodyBuilder);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+    // instance
+  }
+
+  /**
+   * Method that generates the estimateCount implementation method. It counts
+   * all the entities and returns the same count until it's older than the 
+   * configured number of seconds. Declaring this method in the repository 
+   * implementation replaces it, for example to estimate the count from 
+   * database statistics.
+   *
+   * @return
+   */
+  public MethodMetadata getEstimateCountImpl() {
+
+    // Define method name
+    JavaSymbolName methodName = this.estimateCountMethod.getMethodName();
+
+    MethodMetadata existingMethod = getGovernorMethod(methodName);
+    if (existingMethod != null) {
+      return existingMethod;
+    }
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    String entity = this.entity.getSimpleTypeName();
+    String entityVariable = StringUtils.uncapitalize(entity);
+    JavaType qEntity =
+        new JavaType(this.entity.getPackage().getFullyQualifiedPackageName().concat(".Q")
+            .concat(entity));
+
+    // long now = System.currentTimeMillis();
+    bodyBuilder.appendFormalLine("long now = System.currentTimeMillis();");
+
+    // if (now - estimatedCountTime >= 60000L) {
+    bodyBuilder.appendFormalLine(String.format("if (now - estimatedCountTime >= %dL) {",
+        countCacheSeconds * 1000L));
+    bodyBuilder.indent();
+
+    // estimatedCount = getQueryFrom(QEntity.entity).count();
+    bodyBuilder.appendFormalLine(String.format("estimatedCount = getQueryFrom(%s.%s).count();",
+        qEntity.getNameIncludingTypeParameters(false, importResolver), entityVariable));
+    bodyBuilder.appendFormalLine("estimatedCountTime = now;");
+
+    bodyBuilder.indentRemove();
+
+    // End if
+    bodyBuilder.appendFormalLine("}");
+
+    // return estimatedCount;
+    bodyBuilder.appendFormalLine("return estimatedCount;");
+
+    // Synchronized, so that only one request counts when the count expires
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC | Modifier.SYNCHRONIZED, methodName,
+            estimateCountMethod.getReturnType(), estimateCountMethod.getParameterTypes(),
+            estimateCountMethod.getParameterNames(), bodyBuilder);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+    // instance
+  }
+
+  /**
+   * Method that generates the findAllAfter implementation method. Instead of 
+   * counting the results and skipping an offset, it looks for the results 
+   * that sort after the provided keyset values, so the database can seek 
+   * them on an index.
+   * 
+   * @param fields the entity fields to search for 
+   *
+   * @return
+   */
+  public MethodMetadata getFindAllAfterImpl(List<FieldMetadata> fields) {
+
+    // Define method name
+    JavaSymbolName methodName = this.findAllAfterMethod.getMethodName();
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = this.findAllAfterMethod.getParameterTypes();
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = this.findAllAfterMethod.getParameterNames();
+
+    MethodMetadata existingMethod =
+        getGovernorMethod(methodName,
+            AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    if (existingMethod != null) {
+      return existingMethod;
+    }
+
+    // Use provided findAllAfter method to generate its implementation
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC, methodName,
+            findAllAfterMethod.getReturnType(), parameterTypes, parameterNames, null);
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    // Getting variable name to use in the code
+    JavaSymbolName globalSearch = parameterNames.get(0);
+    List<JavaSymbolName> lastValues = parameterNames.subList(1, parameterNames.size() - 1);
+    JavaSymbolName size = parameterNames.get(parameterNames.size() - 1);
+    String entity = this.entity.getSimpleTypeName();
+    String entityVariable = StringUtils.uncapitalize(entity);
+
+    // Types to import
+    JavaType qEntity =
+        new JavaType(this.entity.getPackage().getFullyQualifiedPackageName().concat(".Q")
+            .concat(entity));
+    JavaType returnType = findAllAfterMethod.getReturnType().getParameters().get(0);
+
+    // QEntity qEntity = QEntity.entity;
+    bodyBuilder.appendFormalLine(String.format("%1$s %2$s = %1$s.%2$s;",
+        qEntity.getNameIncludingTypeParameters(false, importResolver), entityVariable));
+
+    // Construct query
+    buildQuery(bodyBuilder, fields, entityVariable, globalSearch, null, null);
+
+    // if (lastSort != null && lastId != null) {
+    List<String> notNullChecks = new ArrayList<String>();
+    for (JavaSymbolName lastValue : lastValues) {
+      notNullChecks.add(String.format("%s != null", lastValue));
+    }
+    bodyBuilder.appendFormalLine(String.format("if (%s) {",
+        StringUtils.join(notNullChecks, " && ")));
+    bodyBuilder.indent();
+
+    // (sort, id) > (lastSort, lastId) is expanded, as JPQL has no row values:
+    // query.where(qEntity.sort.gt(lastSort).or(qEntity.sort.eq(lastSort).and(qEntity.id.gt(lastId))));
+    String after = null;
+    for (int i = keysetFields.size() - 1; i >= 0; i--) {
+      String path = String.format("%s.%s", entityVariable, keysetFields.get(i).getFieldName());
+      if (after == null) {
+        after = String.format("%s.gt(%s)", path, lastValues.get(i));
+      } else {
+        after =
+            String.format("%1$s.gt(%2$s).or(%1$s.eq(%2$s).and(%3$s))", path, lastValues.get(i),
+                after);
+      }
+    }
+    bodyBuilder.appendFormalLine(String.format("query.where(%s);", after));
+
+    bodyBuilder.indentRemove();
+
+    // End if
+    bodyBuilder.appendFormalLine("}");
+
+    // query.orderBy(qEntity.sort.asc(), qEntity.id.asc()).limit(size);
+    List<String> orderSpecifiers = new ArrayList<String>();
+    for (FieldMetadata keysetField : keysetFields) {
+      orderSpecifiers.add(String.format("%s.%s.asc()", entityVariable,
+          keysetField.getFieldName()));
+    }
+    bodyBuilder.appendFormalLine(String.format("query.orderBy(%s).limit(%s);",
+        StringUtils.join(orderSpecifiers, ", "), size));
+
+    bodyBuilder.appendFormalLine("");
+
+    buildResultsList(bodyBuilder, fields, entityVariable, returnType);
+
+    // return results;
+    bodyBuilder.appendFormalLine("return results;");
+
+    // Sets body to generated method
+    methodBuilder.setBodyBuilder(bodyBuilder);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+    // instance
+  }
+
   /**
    * Method that generates the findAll referenced fields implementation method
    * 
@@ -320,19 +623,12 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
     String entity = this.entity.getSimpleTypeName();
     String entityVariable = StringUtils.uncapitalize(entity);
 
-    List<String> queryList = new ArrayList<String>();
-    for (FieldMetadata field : fields) {
-      queryList.add(String.format("%s.%s", entityVariable, field.getFieldName()));
-    }
-
-
     // Types to import
     JavaType qEntity =
         new JavaType(this.entity.getPackage().getFullyQualifiedPackageName().concat(".Q")
             .concat(entity));
     JavaType returnType = findAllGlobalSearchMethod.getReturnType().getParameters().get(0);
     JavaType pageImpl = new JavaType("org.springframework.data.domain.PageImpl");
-    JavaType constructorExp = new JavaType("com.mysema.query.types.ConstructorExpression");
 
     buildVariables(bodyBuilder, ids);
 
@@ -371,25 +667,7 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
 
     bodyBuilder.appendFormalLine("");
 
-    // List<Entity> results = query.list(ConstructorExpression.create(Entity.class, qEntity.parameter1, qEntity.parameter1, ...));
-    if (!this.isDTO) {
-      bodyBuilder.appendFormalLine(String.format("%1$s<%2$s> results = query.list(%3$s);",
-          new JavaType("java.util.List").getNameIncludingTypeParameters(false, importResolver),
-          returnType.getNameIncludingTypeParameters(false, importResolver), entityVariable));
-    } else if (queryList.isEmpty()) {
-      bodyBuilder.appendFormalLine(String.format(
-          "%1$s<%2$s> results = query.list(%3$s.create(%2$s.class));", new JavaType(
-              "java.util.List").getNameIncludingTypeParameters(false, importResolver), returnType
-              .getNameIncludingTypeParameters(false, importResolver), constructorExp
-              .getNameIncludingTypeParameters(false, importResolver)));
-    } else {
-      bodyBuilder.appendFormalLine(String.format(
-          "%1$s<%2$s> results = query.list(%3$s.create(%2$s.class, %4$s ));", new JavaType(
-              "java.util.List").getNameIncludingTypeParameters(false, importResolver), returnType
-              .getNameIncludingTypeParameters(false, importResolver), constructorExp
-              .getNameIncludingTypeParameters(false, importResolver), StringUtils.join(queryList,
-              ", ")));
-    }
+    buildResultsList(bodyBuilder, fields, entityVariable, returnType);
 
     //return new PageImpl<Entity>(results, pageable, totalFound);
     bodyBuilder.appendFormalLine(String.format("return new %s<%s>(results, %s, totalFound);",
@@ -492,6 +770,46 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
   }
 
 
+  /**
+   * Builds the statement that runs the query and stores its results, as
+   * entities or as the search result DTO
+   * 
+   * @param bodyBuilder method body builder
+   * @param fields the entity fields to search for, which build the DTO
+   * @param entityVariable name of the variable that contains the Q entity 
+   * @param returnType the type of the results
+   */
+  private void buildResultsList(InvocableMemberBodyBuilder bodyBuilder, List<FieldMetadata> fields,
+      String entityVariable, JavaType returnType) {
+
+    JavaType constructorExp = new JavaType("com.mysema.query.types.ConstructorExpression");
+
+    List<String> queryList = new ArrayList<String>();
+    for (FieldMetadata field : fields) {
+      queryList.add(String.format("%s.%s", entityVariable, field.getFieldName()));
+    }
+
+    // List<Entity> results = query.list(ConstructorExpression.create(Entity.class, qEntity.parameter1, qEntity.parameter1, ...));
+    if (!this.isDTO) {
+      bodyBuilder.appendFormalLine(String.format("%1$s<%2$s> results = query.list(%3$s);",
+          new JavaType("java.util.List").getNameIncludingTypeParameters(false, importResolver),
+          returnType.getNameIncludingTypeParameters(false, importResolver), entityVariable));
+    } else if (queryList.isEmpty()) {
+      bodyBuilder.appendFormalLine(String.format(
+          "%1$s<%2$s> results = query.list(%3$s.create(%2$s.class));", new JavaType(
+              "java.util.List").getNameIncludingTypeParameters(false, importResolver), returnType
+              .getNameIncludingTypeParameters(false, importResolver), constructorExp
+              .getNameIncludingTypeParameters(false, importResolver)));
+    } else {
+      bodyBuilder.appendFormalLine(String.format(
+          "%1$s<%2$s> results = query.list(%3$s.create(%2$s.class, %4$s ));", new JavaType(
+              "java.util.List").getNameIncludingTypeParameters(false, importResolver), returnType
+              .getNameIncludingTypeParameters(false, importResolver), constructorExp
+              .getNameIncludingTypeParameters(false, importResolver), StringUtils.join(queryList,
+              ", ")));
+    }
+  }
+
   /**
    * Creates a query expression based on the field type and name
    * 
@@ -327,7 +327,11 @@ public class RepositoryJpaCustomImplMetadataProviderImpl extends
     return new RepositoryJpaCustomImplMetadata(metadataIdentificationString, aspectName,
         governorPhysicalTypeMetadata, annotationValues, entity, isDTO, validIdFields, validFields,
         repositoryCustomMetadata.getFindAllGlobalSearchMethod(), referencedFieldsMethods,
-        referencedFieldsIdentifierNames, referencedFieldsNames);
+        referencedFieldsIdentifierNames, referencedFieldsNames,
+        repositoryCustomMetadata.getFindAllAfterMethod(), repositoryCustomMetadata.getKeysetFields(),
+        repositoryCustomMetadata.getFindAllSliceMethod(),
+        repositoryCustomMetadata.getEstimateCountMethod(),
+        repositoryCustomMetadata.getCountCacheSeconds());
   }
 
   private void registerDependency(final String upstreamDependency, final String downStreamDependency) {
@@ -29,6 +29,7 @@ import org.springframework.roo.model.DataType;
 import org.springframework.roo.model.ImportRegistrationResolver;
 import org.springframework.roo.model.JavaSymbolName;
 import org.springframework.roo.model.JavaType;
+import org.springframework.roo.model.JdkJavaType;
 import org.springframework.roo.model.SpringJavaType;
 import org.springframework.roo.project.LogicalPath;
 
@@ -50,6 +51,11 @@ public class RepositoryJpaCustomMetadata extends AbstractItdTypeDetailsProviding
   private JavaType searchResult;
   private Map<FieldMetadata, JavaType> referencedFields;
   private Map<FieldMetadata, MethodMetadata> referencedFieldsFindAllMethods;
+  private List<FieldMetadata> keysetFields;
+  private MethodMetadata findAllAfterMethod;
+  private MethodMetadata findAllSliceMethod;
+  private MethodMetadata estimateCountMethod;
+  private int countCacheSeconds;
 
   public static String createIdentifier(final JavaType javaType, final LogicalPath path) {
     return PhysicalTypeIdentifierNamingUtils.createIdentifier(PROVIDES_TYPE_STRING, javaType, path);
@@ -88,12 +94,14 @@ public class RepositoryJpaCustomMetadata extends AbstractItdTypeDetailsProviding
    * @param searchResult the java type o the search result returned by findAll finder
    * @param globalSearch the class annotated with @RooGlobalSearch 
    * @param referencedFields map that contains referenced field and its identifier field type
+   * @param keysetFields the fields keyset pagination sorts by, ending with the identifier
+   *            field, or <code>null</code> if the repository doesn't page by keyset
    */
   public RepositoryJpaCustomMetadata(final String identifier, final JavaType aspectName,
       final PhysicalTypeMetadata governorPhysicalTypeMetadata,
       final RepositoryJpaCustomAnnotationValues annotationValues, final JavaType domainType,
       final JavaType searchResult, JavaType globalSearch,
-      final Map<FieldMetadata, JavaType> referencedFields) {
+      final Map<FieldMetadata, JavaType> referencedFields, final List<FieldMetadata> keysetFields) {
     super(identifier, aspectName, governorPhysicalTypeMetadata);
     Validate.notNull(annotationValues, "Annotation values required");
     Validate.notNull(globalSearch, "Global search required");
@@ -105,12 +113,32 @@ public class RepositoryJpaCustomMetadata extends AbstractItdTypeDetailsProviding
     this.entity = domainType;
     this.searchResult = searchResult;
     this.referencedFields = referencedFields;
+    this.keysetFields = keysetFields;
+    this.countCacheSeconds = annotationValues.getCountCacheSeconds();
 
     referencedFieldsFindAllMethods = new HashMap<FieldMetadata, MethodMetadata>();
 
     // Generate findAll method
     ensureGovernorHasMethod(new MethodMetadataBuilder(getFindAllGlobalSearchMethod()));
 
+    // Generate findAllSlice method if the repository provides count-free slices
+    if (annotationValues.isSlice()) {
+      findAllSliceMethod = getFindAllSliceGlobalSearchMethod();
+      ensureGovernorHasMethod(new MethodMetadataBuilder(findAllSliceMethod));
+    }
+
+    // Generate estimateCount method if the repository caches counts
+    if (countCacheSeconds > 0) {
+      estimateCountMethod = getEstimateCountAbstractMethod();
+      ensureGovernorHasMethod(new MethodMetadataBuilder(estimateCountMethod));
+    }
+
+    // Generate findAllAfter method if the repository pages by keyset
+    if (keysetFields != null) {
+      findAllAfterMethod = getFindAllAfterGlobalSearchMethod();
+      ensureGovernorHasMethod(new MethodMetadataBuilder(findAllAfterMethod));
+    }
+
     // ROO-3765: Prevent ITD regeneration applying the same sort to provided map. If this sort is not applied, maybe some
     // method is not in the same order and ITD will be regenerated.
     Map<FieldMetadata, JavaType> referencedFieldsOrderedByFieldName =
@@ -171,6 +199,92 @@ public class RepositoryJpaCustomMetadata extends AbstractItdTypeDetailsProviding
     return methodBuilder.build(); // Build and return a MethodMetadata
   }
 
+  /**
+   * Method that generates the findAllSlice method on current interface. It 
+   * works as findAll but doesn't count all the results.
+   * 
+   * @return
+   */
+  private MethodMetadata getFindAllSliceGlobalSearchMethod() {
+    MethodMetadata findAllMethod = getFindAllGlobalSearchMethod();
+
+    // Method name
+    JavaSymbolName methodName = new JavaSymbolName("findAllSlice");
+
+    // Return type
+    JavaType returnType =
+        new JavaType(SpringJavaType.SLICE.getFullyQualifiedTypeName(), 0, DataType.TYPE, null,
+            Arrays.asList(searchResult));
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC + Modifier.ABSTRACT, methodName,
+            returnType, findAllMethod.getParameterTypes(), findAllMethod.getParameterNames(),
+            null);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+  }
+
+  /**
+   * Method that generates the estimateCount method on current interface. 
+   * 
+   * @return
+   */
+  private MethodMetadata getEstimateCountAbstractMethod() {
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC + Modifier.ABSTRACT,
+            new JavaSymbolName("estimateCount"), JavaType.LONG_PRIMITIVE,
+            new ArrayList<AnnotatedJavaType>(), new ArrayList<JavaSymbolName>(), null);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+  }
+
+  /**
+   * Method that generates the findAllAfter method on current interface. It returns
+   * the page of results that follows the provided values of the keyset fields,
+   * which are the values of the last result of the previous page. 
+   * 
+   * @return
+   */
+  private MethodMetadata getFindAllAfterGlobalSearchMethod() {
+
+    // Define method parameter types and parameter names
+    List<AnnotatedJavaType> parameterTypes = new ArrayList<AnnotatedJavaType>();
+    List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
+
+    //Global search parameter
+    parameterTypes.add(new AnnotatedJavaType(globalSearch));
+    parameterNames.add(new JavaSymbolName("globalSearch"));
+
+    // Last values of the keyset fields
+    for (FieldMetadata field : keysetFields) {
+      parameterTypes.add(new AnnotatedJavaType(field.getFieldType().toObjectType()));
+      parameterNames.add(new JavaSymbolName("last".concat(StringUtils.capitalize(field
+          .getFieldName().getSymbolName()))));
+    }
+
+    // Page size parameter
+    parameterTypes.add(new AnnotatedJavaType(JavaType.INT_PRIMITIVE));
+    parameterNames.add(new JavaSymbolName("size"));
+
+    // Method name
+    JavaSymbolName methodName = new JavaSymbolName("findAllAfter");
+
+    // Return type
+    JavaType returnType =
+        new JavaType(JdkJavaType.LIST.getFullyQualifiedTypeName(), 0, DataType.TYPE, null,
+            Arrays.asList(searchResult));
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC + Modifier.ABSTRACT, methodName,
+            returnType, parameterTypes, parameterNames, null);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+  }
+
   /**
    * Method that generates the findAll method for provided referenced field on current interface. 
    * 
@@ -236,4 +350,50 @@ public class RepositoryJpaCustomMetadata extends AbstractItdTypeDetailsProviding
   public Map<FieldMetadata, MethodMetadata> getReferencedFieldsFindAllMethods() {
     return referencedFieldsFindAllMethods;
   }
+
+  /**
+   * This method returns the fields keyset pagination sorts by, ending with 
+   * the identifier field
+   * 
+   * @return the fields, or <code>null</code> if the repository doesn't page by keyset
+   */
+  public List<FieldMetadata> getKeysetFields() {
+    return keysetFields;
+  }
+
+  /**
+   * This method returns the findAllAfter method that pages by keyset
+   * 
+   * @return the method, or <code>null</code> if the repository doesn't page by keyset
+   */
+  public MethodMetadata getFindAllAfterMethod() {
+    return findAllAfterMethod;
+  }
+
+  /**
+   * This method returns the findAllSlice method that doesn't count results
+   * 
+   * @return the method, or <code>null</code> if the repository doesn't provide slices
+   */
+  public MethodMetadata getFindAllSliceMethod() {
+    return findAllSliceMethod;
+  }
+
+  /**
+   * This method returns the estimateCount method
+   * 
+   * @return the method, or <code>null</code> if the repository doesn't cache counts
+   */
+  public MethodMetadata getEstimateCountMethod() {
+    return estimateCountMethod;
+  }
+
+  /**
+   * This method returns how long estimateCount caches the count for
+   * 
+   * @return a number of seconds, or 0 if the repository doesn't cache counts
+   */
+  public int getCountCacheSeconds() {
+    return countCacheSeconds;
+  }
 }
@@ -2,6 +2,7 @@ package org.springframework.roo.addon.layers.repository.jpa.addon;
 
 import static org.springframework.roo.model.RooJavaType.ROO_REPOSITORY_JPA_CUSTOM;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -33,6 +34,7 @@ import org.springframework.roo.metadata.MetadataIdentificationUtils;
 import org.springframework.roo.metadata.internal.MetadataDependencyRegistryTracker;
 import org.springframework.roo.model.JavaSymbolName;
 import org.springframework.roo.model.JavaType;
+import org.springframework.roo.model.JdkJavaType;
 import org.springframework.roo.model.RooJavaType;
 import org.springframework.roo.project.LogicalPath;
 import org.springframework.roo.support.logging.HandlerUtils;
@@ -214,6 +216,12 @@ public class RepositoryJpaCustomMetadataProviderImpl extends
       }
     }
 
+    // Getting the fields to page by keyset, if enabled
+    List<FieldMetadata> keysetFields = null;
+    if (annotationValues.isKeyset()) {
+      keysetFields = getKeysetFields(entity, entityFields, annotationValues.getKeysetSort());
+    }
+
     // Register dependency between JavaBeanMetadata and this one
     final LogicalPath logicalPath =
         PhysicalTypeIdentifier.getPath(getTypeLocationService().getTypeDetails(entity)
@@ -225,7 +233,51 @@ public class RepositoryJpaCustomMetadataProviderImpl extends
 
     return new RepositoryJpaCustomMetadata(metadataIdentificationString, aspectName,
         governorPhysicalTypeMetadata, annotationValues, entity, searchResult, globalSearch,
-        referencedFields);
+        referencedFields, keysetFields);
+  }
+
+  /**
+   * Returns the fields that keyset pagination sorts by: the provided sort
+   * field, if any, followed by the entity identifier, which makes the order
+   * unique.
+   * 
+   * @param entity the entity managed by the repository
+   * @param entityFields all the fields of the entity
+   * @param keysetSort the name of the sort field, or an empty string
+   * @return a non-empty list ending with the identifier field
+   */
+  private List<FieldMetadata> getKeysetFields(JavaType entity, List<FieldMetadata> entityFields,
+      String keysetSort) {
+    List<FieldMetadata> keysetFields = new ArrayList<FieldMetadata>();
+
+    if (StringUtils.isNotBlank(keysetSort)) {
+      FieldMetadata sortField = null;
+      for (FieldMetadata field : entityFields) {
+        if (field.getFieldName().getSymbolName().equals(keysetSort)) {
+          sortField = field;
+          break;
+        }
+      }
+      Validate.notNull(sortField, "ERROR: Entity '%s' doesn't have a field '%s' to sort by",
+          entity.getSimpleTypeName(), keysetSort);
+      Validate.isTrue(isKeysetComparable(sortField.getFieldType()),
+          "ERROR: Keyset sort field '%s' should be a string, number or date", keysetSort);
+      keysetFields.add(sortField);
+    }
+
+    List<FieldMetadata> identifierFields =
+        getPersistenceMemberLocator().getIdentifierFields(entity);
+    Validate.isTrue(
+        identifierFields.size() == 1 && isKeysetComparable(identifierFields.get(0).getFieldType()),
+        "ERROR: Entity '%s' should have a single string or number identifier to page by keyset",
+        entity.getSimpleTypeName());
+    keysetFields.add(identifierFields.get(0));
+
+    return keysetFields;
+  }
+
+  private boolean isKeysetComparable(JavaType type) {
+    return type.equals(JavaType.STRING) || type.isNumber() || JdkJavaType.isDateField(type);
   }
 
   protected void registerDependency(final String upstreamDependency,
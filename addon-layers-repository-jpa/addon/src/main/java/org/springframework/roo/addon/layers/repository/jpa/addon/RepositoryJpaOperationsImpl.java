@@ -33,6 +33,7 @@ import org.springframework.roo.project.FeatureNames;
 import org.springframework.roo.project.Path;
 import org.springframework.roo.project.PathResolver;
 import org.springframework.roo.project.Plugin;
+import org.springframework.roo.project.PomEditSession;
 import org.springframework.roo.project.ProjectOperations;
 import org.springframework.roo.project.Repository;
 import org.springframework.roo.support.logging.HandlerUtils;
@@ -211,8 +212,18 @@ public class RepositoryJpaOperationsImpl implements RepositoryJpaOperations {
 
   }
 
-  @SuppressWarnings({"unchecked", "rawtypes"})
   private void generateConfiguration(JavaType interfaceType, JavaType domainType) {
+    // Write the dependencies, plugins and repositories to the POM in one go
+    final PomEditSession session = getProjectOperations().beginPomEdit(interfaceType.getModule());
+    try {
+      addConfiguration(interfaceType, domainType);
+    } finally {
+      session.close();
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private void addConfiguration(JavaType interfaceType, JavaType domainType) {
 
     final Element configuration = XmlUtils.getConfiguration(getClass());
 
@@ -27,6 +27,28 @@ public @interface RooJpaRepositoryCustom {
    */
   String DTO_ATTRIBUTE = "defaultSearchResult";
 
+  /**
+   * The name of this annotation's attribute that enables keyset pagination.
+   */
+  String KEYSET_ATTRIBUTE = "keyset";
+
+  /**
+   * The name of this annotation's attribute that specifies the field keyset
+   * pagination sorts by.
+   */
+  String KEYSET_SORT_ATTRIBUTE = "keysetSort";
+
+  /**
+   * The name of this annotation's attribute that enables count-free slices.
+   */
+  String SLICE_ATTRIBUTE = "slice";
+
+  /**
+   * The name of this annotation's attribute that specifies how long the
+   * estimated count is cached for.
+   */
+  String COUNT_CACHE_SECONDS_ATTRIBUTE = "countCacheSeconds";
+
   /**
    * The entity managed by the annotated repository
    * 
@@ -41,4 +63,46 @@ public @interface RooJpaRepositoryCustom {
    */
   Class<?> defaultSearchResult(); // No default => mandatory
 
+  /**
+   * Whether the annotated repository also provides a <code>findAllAfter</code>
+   * search that pages by keyset: instead of skipping an offset, each page
+   * starts after the sort and identifier values of the last result of the
+   * previous page, so deep pages cost the same as the first one.
+   * 
+   * @return <code>false</code> by default
+   */
+  boolean keyset() default false;
+
+  /**
+   * The entity field keyset pagination sorts by, before the identifier.
+   * Should not be nullable. Only used when {@link #keyset()} is enabled.
+   * 
+   * @return the field name, or an empty string to sort by identifier only
+   */
+  String keysetSort() default "";
+
+  /**
+   * Whether the annotated repository also provides a <code>findAllSlice</code>
+   * search, which list endpoints use instead of <code>findAll</code>. It
+   * returns a slice without a total: it fetches one more result than the
+   * page size to know if there's a next page, instead of counting all the
+   * results.
+   * 
+   * @return <code>false</code> by default
+   */
+  boolean slice() default false;
+
+  /**
+   * The number of seconds the <code>estimateCount</code> method of the
+   * annotated repository caches the total number of entities for. Datatables
+   * list endpoints show this estimate instead of counting on every request.
+   * To estimate the total some other way, for example from database
+   * statistics, declare <code>estimateCount</code> in the repository
+   * implementation.
+   * 
+   * @return 0 by default, meaning no <code>estimateCount</code> method; must
+   *         not be negative
+   */
+  int countCacheSeconds() default 0;
+
 }
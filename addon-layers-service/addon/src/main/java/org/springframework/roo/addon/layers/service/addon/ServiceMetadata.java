@@ -48,6 +48,9 @@ public class ServiceMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
   private List<FinderMethod> finders;
 
   private MethodMetadata findAllGlobalSearchMethod;
+  private MethodMetadata findAllAfterGlobalSearchMethod;
+  private MethodMetadata findAllSliceGlobalSearchMethod;
+  private MethodMetadata repositoryEstimateCountMethod;
 
   private List<MethodMetadata> allDefinedMethod;
   private Map<FieldMetadata, MethodMetadata> countByReferenceFieldDefinedMethod;
@@ -89,6 +92,13 @@ public class ServiceMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
    * @param readOnly specifies if current entity is defined as readOnly or not
    * @param finders list of finders added to current entity
    * @param findAllGlobalSearchMethod MethodMetadata with findAllGlobalSearch method
+   * @param findAllAfterGlobalSearchMethod MethodMetadata with the findAllAfter method 
+   *            that pages by keyset, or <code>null</code> if the repository doesn't 
+   *            page by keyset
+   * @param findAllSliceGlobalSearchMethod MethodMetadata with the findAllSlice method,
+   *            or <code>null</code> if the repository doesn't provide count-free slices
+   * @param estimateCountMethod MethodMetadata with the estimateCount method, or 
+   *            <code>null</code> if the repository doesn't cache counts
    * @param referencedFieldsFindAllMethods
    * @param countByReferencedFieldsMethods
    * 
@@ -97,6 +107,9 @@ public class ServiceMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
       final PhysicalTypeMetadata governorPhysicalTypeMetadata, final JavaType entity,
       final JavaType identifierType, final boolean readOnly, final List<FinderMethod> finders,
       final MethodMetadata findAllGlobalSearchMethod,
+      final MethodMetadata findAllAfterGlobalSearchMethod,
+      final MethodMetadata findAllSliceGlobalSearchMethod,
+      final MethodMetadata estimateCountMethod,
       final Map<FieldMetadata, MethodMetadata> referencedFieldsFindAllMethods,
       final Map<FieldMetadata, MethodMetadata> countByReferencedFieldsMethods) {
     super(identifier, aspectName, governorPhysicalTypeMetadata);
@@ -109,6 +122,9 @@ public class ServiceMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
     this.identifierType = identifierType;
     this.finders = finders;
     this.findAllGlobalSearchMethod = findAllGlobalSearchMethod;
+    this.findAllAfterGlobalSearchMethod = findAllAfterGlobalSearchMethod;
+    this.findAllSliceGlobalSearchMethod = findAllSliceGlobalSearchMethod;
+    this.repositoryEstimateCountMethod = estimateCountMethod;
     this.referencedFieldsFindAllDefinedMethods = new HashMap<FieldMetadata, MethodMetadata>();
     this.allDefinedMethod = new ArrayList<MethodMetadata>();
     this.countByReferenceFieldDefinedMethod = new HashMap<FieldMetadata, MethodMetadata>();
@@ -161,6 +177,27 @@ public class ServiceMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
     this.allDefinedMethod.add(findAllWithGlobalSearchMethod);
     ensureGovernorHasMethod(new MethodMetadataBuilder(findAllWithGlobalSearchMethod));
 
+    // Generating findAllSlice method that doesn't count results
+    if (findAllSliceGlobalSearchMethod != null) {
+      MethodMetadata findAllSliceMethod = getFindAllSliceMethod();
+      this.allDefinedMethod.add(findAllSliceMethod);
+      ensureGovernorHasMethod(new MethodMetadataBuilder(findAllSliceMethod));
+    }
+
+    // Generating estimateCount method that caches the count
+    if (estimateCountMethod != null) {
+      MethodMetadata serviceEstimateCountMethod = getEstimateCountMethod();
+      this.allDefinedMethod.add(serviceEstimateCountMethod);
+      ensureGovernorHasMethod(new MethodMetadataBuilder(serviceEstimateCountMethod));
+    }
+
+    // Generating findAllAfter method that pages by keyset
+    if (findAllAfterGlobalSearchMethod != null) {
+      MethodMetadata findAllAfterMethod = getFindAllAfterMethod();
+      this.allDefinedMethod.add(findAllAfterMethod);
+      ensureGovernorHasMethod(new MethodMetadataBuilder(findAllAfterMethod));
+    }
+
     // ROO-3765: Prevent ITD regeneration applying the same sort to provided map. If this sort is not applied, maybe some
     // method is not in the same order and ITD will be regenerated.
     Map<FieldMetadata, MethodMetadata> referencedFieldsFindAllMethodsOrderedByFieldName =
@@ -239,6 +276,78 @@ public class ServiceMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
     // instance
   }
 
+  /**
+   * Method that generates method "findAllAfter" method. This method includes
+   * GlobalSearch parameters and returns the results that follow the 
+   * provided keyset values.
+   * 
+   * @return MethodMetadata, or <code>null</code> if the related repository 
+   *            doesn't page by keyset
+   */
+  public MethodMetadata getFindAllAfterMethod() {
+    return getRepositoryCustomMethod(this.findAllAfterGlobalSearchMethod);
+  }
+
+  /**
+   * Method that generates method "findAllSlice" method. This method includes
+   * GlobalSearch parameters and returns a slice of results without counting
+   * them all.
+   * 
+   * @return MethodMetadata, or <code>null</code> if the related repository 
+   *            doesn't provide count-free slices
+   */
+  public MethodMetadata getFindAllSliceMethod() {
+    return getRepositoryCustomMethod(this.findAllSliceGlobalSearchMethod);
+  }
+
+  /**
+   * Method that generates method "estimateCount" method, which returns a 
+   * possibly cached or estimated count of entities.
+   * 
+   * @return MethodMetadata, or <code>null</code> if the related repository 
+   *            doesn't cache counts
+   */
+  public MethodMetadata getEstimateCountMethod() {
+    return getRepositoryCustomMethod(this.repositoryEstimateCountMethod);
+  }
+
+  /**
+   * Method that generates the service method of an optional method of the
+   * related custom repository.
+   * 
+   * @param repositoryMethod the repository method, or <code>null</code>
+   * @return MethodMetadata, or <code>null</code> if there's no repository method
+   */
+  private MethodMetadata getRepositoryCustomMethod(MethodMetadata repositoryMethod) {
+    if (repositoryMethod == null) {
+      return null;
+    }
+
+    // Define method name
+    JavaSymbolName methodName = repositoryMethod.getMethodName();
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = repositoryMethod.getParameterTypes();
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = repositoryMethod.getParameterNames();
+
+    MethodMetadata existingMethod =
+        getGovernorMethod(methodName,
+            AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    if (existingMethod != null) {
+      return existingMethod;
+    }
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC + Modifier.ABSTRACT, methodName,
+            repositoryMethod.getReturnType(), parameterTypes, parameterNames, null);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+    // instance
+  }
+
   /**
    * Method that generates method "findAll" method.
    * 
@@ -283,6 +283,9 @@ public class ServiceMetadataProviderImpl extends AbstractMemberDiscoveringItdMet
     return new ServiceMetadata(metadataIdentificationString, aspectName,
         governorPhysicalTypeMetadata, entity, identifierType, readOnly, finders,
         repositoryCustomMetadata.getFindAllGlobalSearchMethod(),
+        repositoryCustomMetadata.getFindAllAfterMethod(),
+        repositoryCustomMetadata.getFindAllSliceMethod(),
+        repositoryCustomMetadata.getEstimateCountMethod(),
         repositoryCustomMetadata.getReferencedFieldsFindAllMethods(), countByReferencedFieldMethods);
   }
 
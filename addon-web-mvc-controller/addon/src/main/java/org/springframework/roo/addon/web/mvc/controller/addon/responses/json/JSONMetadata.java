@@ -28,6 +28,7 @@ public class JSONMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
 
   private boolean readOnly;
   private MethodMetadata listMethod;
+  private MethodMetadata listAfterMethod;
   private MethodMetadata showMethod;
   private MethodMetadata createMethod;
   private MethodMetadata updateMethod;
@@ -69,6 +70,7 @@ public class JSONMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
    * @param governorPhysicalTypeMetadata the governor, which is expected to
    *            contain a {@link ClassOrInterfaceTypeDetails} (required)
    * @param listMethod MethodMetadata 
+   * @param listAfterMethod MethodMetadata that pages by keyset, or <code>null</code>
    * @param createMethod MethodMetadata 
    * @param updateMethod MethodMetadata 
    * @param deleteMethod MethodMetadata 
@@ -83,7 +85,7 @@ public class JSONMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
    */
   public JSONMetadata(final String identifier, final JavaType aspectName,
       final PhysicalTypeMetadata governorPhysicalTypeMetadata, final MethodMetadata listMethod,
-      final MethodMetadata createMethod, final MethodMetadata updateMethod,
+      final MethodMetadata listAfterMethod, final MethodMetadata createMethod, final MethodMetadata updateMethod,
       final MethodMetadata deleteMethod, final MethodMetadata showMethod,
       final MethodMetadata createBatchMethod, MethodMetadata updateBatchMethod,
       MethodMetadata deleteBatchMethod, MethodMetadata populateHeadersMethod,
@@ -92,6 +94,7 @@ public class JSONMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
 
     this.readOnly = readOnly;
     this.listMethod = listMethod;
+    this.listAfterMethod = listAfterMethod;
     this.createMethod = createMethod;
     this.updateMethod = updateMethod;
     this.deleteMethod = deleteMethod;
@@ -103,6 +106,9 @@ public class JSONMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
     this.populateHeadersMethod = populateHeadersMethod;
 
     ensureGovernorHasMethod(new MethodMetadataBuilder(listMethod));
+    if (listAfterMethod != null) {
+      ensureGovernorHasMethod(new MethodMetadataBuilder(listAfterMethod));
+    }
     if (!readOnly) {
       ensureGovernorHasMethod(new MethodMetadataBuilder(createMethod));
       ensureGovernorHasMethod(new MethodMetadataBuilder(updateMethod));
@@ -134,6 +140,16 @@ public class JSONMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
     return this.listMethod;
   }
 
+  /**
+   * Method that returns list JSON method that pages by keyset
+   * 
+   * @return {@link MethodMetadata}, or <code>null</code> if the related 
+   *            repository doesn't page by keyset
+   */
+  public MethodMetadata getListAfterMethod() {
+    return this.listAfterMethod;
+  }
+
 
   /**
    * Method that returns create JSON method
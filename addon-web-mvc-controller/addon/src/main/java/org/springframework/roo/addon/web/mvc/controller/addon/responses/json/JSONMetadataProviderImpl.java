@@ -247,6 +247,11 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
     MethodMetadata serviceFindOneMethod = serviceMetadata.getFindOneMethod();
     MethodMetadata serviceFindAllGlobalSearchMethod =
         serviceMetadata.getFindAllGlobalSearchMethod();
+    if (serviceMetadata.getFindAllSliceMethod() != null) {
+      // List results without counting them
+      serviceFindAllGlobalSearchMethod = serviceMetadata.getFindAllSliceMethod();
+    }
+    MethodMetadata serviceFindAllAfterMethod = serviceMetadata.getFindAllAfterMethod();
 
     List<MethodMetadata> findersToAdd = new ArrayList<MethodMetadata>();
 
@@ -291,7 +296,9 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
     }
 
     return new JSONMetadata(metadataIdentificationString, aspectName, governorPhysicalTypeMetadata,
-        getListMethod(serviceFindAllGlobalSearchMethod), getCreateMethod(serviceSaveMethod),
+        getListMethod(serviceFindAllGlobalSearchMethod),
+        serviceFindAllAfterMethod == null ? null : getListAfterMethod(serviceFindAllAfterMethod),
+        getCreateMethod(serviceSaveMethod),
         getUpdateMethod(serviceSaveMethod), getDeleteMethod(serviceDeleteMethod),
         getShowMethod(serviceFindOneMethod), getCreateBatchMethod(serviceSaveMethod),
         getUpdateBatchMethod(serviceSaveMethod), getDeleteBatchMethod(serviceDeleteMethod),
@@ -704,6 +711,116 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
     return methodBuilder.build();
   }
 
+  /**
+   * This method provides the "listAfter" method using JSON response type.
+   * It returns the results that follow the provided keyset values, which 
+   * clients take from the last result of the previous page, so it doesn't 
+   * need to count or skip results.
+   * 
+   * @param serviceFindAllAfterMethod
+   * 
+   * @return MethodMetadata
+   */
+  private MethodMetadata getListAfterMethod(MethodMetadata serviceFindAllAfterMethod) {
+
+    // First of all, check if exists other method with the same @RequesMapping to generate
+    MethodMetadata existingMVCMethod =
+        getControllerMVCService().getMVCMethodByRequestMapping(controller.getType(),
+            SpringEnumDetails.REQUEST_METHOD_GET, "/after", null, null,
+            SpringEnumDetails.MEDIA_TYPE_APPLICATION_JSON_VALUE.toString(), "");
+    if (existingMVCMethod != null
+        && !existingMVCMethod.getDeclaredByMetadataId().equals(this.metadataIdentificationString)) {
+      return existingMVCMethod;
+    }
+
+    // Define methodName
+    final JavaSymbolName methodName = new JavaSymbolName("listAfter");
+
+    // Get parameters: search, the last keyset values and the page size
+    List<AnnotatedJavaType> serviceParamTypes = serviceFindAllAfterMethod.getParameterTypes();
+    List<JavaSymbolName> serviceParamNames = serviceFindAllAfterMethod.getParameterNames();
+    List<AnnotatedJavaType> parameterTypes = new ArrayList<AnnotatedJavaType>();
+    final List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
+    Validate.notNull(globalSearch, "Couldn't find GlobalSearch in project.");
+    parameterTypes.add(new AnnotatedJavaType(this.globalSearch));
+    parameterNames.add(new JavaSymbolName("search"));
+    StringBuffer paramsString = new StringBuffer("search");
+    for (int i = 1; i < serviceParamNames.size(); i++) {
+      JavaSymbolName name = serviceParamNames.get(i);
+      AnnotationMetadataBuilder requestParamAnnotation =
+          new AnnotationMetadataBuilder(SpringJavaType.REQUEST_PARAM);
+      requestParamAnnotation.addStringAttribute("value", name.getSymbolName());
+      if (i < serviceParamNames.size() - 1) {
+        // First page has no last values
+        requestParamAnnotation.addBooleanAttribute("required", false);
+      } else {
+        requestParamAnnotation.addStringAttribute("defaultValue", "20");
+      }
+      parameterTypes.add(new AnnotatedJavaType(serviceParamTypes.get(i).getJavaType(),
+          requestParamAnnotation.build()));
+      parameterNames.add(name);
+      paramsString.append(", ").append(name);
+    }
+
+    // Adding annotations
+    final List<AnnotationMetadataBuilder> annotations = new ArrayList<AnnotationMetadataBuilder>();
+
+    // Adding @RequestMapping annotation
+    annotations.add(getControllerMVCService().getRequestMappingAnnotation(
+        SpringEnumDetails.REQUEST_METHOD_GET, "/after", null, null,
+        SpringEnumDetails.MEDIA_TYPE_APPLICATION_JSON_VALUE, ""));
+
+    // Adding @ResponseBody annotation
+    AnnotationMetadataBuilder responseBodyAnnotation =
+        new AnnotationMetadataBuilder(SpringJavaType.RESPONSE_BODY);
+    annotations.add(responseBodyAnnotation);
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    // Generating returnType
+    JavaType returnType = serviceFindAllAfterMethod.getReturnType();
+    List<JavaType> returnParameterTypes = returnType.getParameters();
+    StringBuffer returnTypeParamsString = new StringBuffer();
+    for (int i = 0; i < returnParameterTypes.size(); i++) {
+      addTypeToImport(returnParameterTypes.get(i));
+      if (i > 0) {
+        returnTypeParamsString.append(",");
+      }
+      returnTypeParamsString.append(returnParameterTypes.get(i).getSimpleTypeName());
+
+      // Add module dependency
+      getTypeLocationService().addModuleDependency(this.controller.getType().getModule(),
+          returnParameterTypes.get(i));
+    }
+
+    bodyBuilder.newLine();
+
+    // Keep the page size within the limits Pageable parameters have, so that
+    // a request can't load the whole table at once
+    // size = Math.max(1, Math.min(size, 2000));
+    JavaSymbolName sizeParameter = parameterNames.get(parameterNames.size() - 1);
+    bodyBuilder.appendFormalLine(String.format("%1$s = Math.max(1, Math.min(%1$s, 2000));",
+        sizeParameter));
+
+    // List<ReturnTypeParams> objects = entityService.findAllAfter(search, lastId, size);
+    bodyBuilder.appendFormalLine(String.format("%s<%s> %s = %s.%s(%s);",
+        addTypeToImport(returnType).getSimpleTypeName(), returnTypeParamsString,
+        StringUtils.uncapitalize(this.entityPlural), getServiceField().getFieldName(),
+        serviceFindAllAfterMethod.getMethodName(), paramsString));
+
+    // return objects;
+    bodyBuilder.appendFormalLine(String.format("return %s;",
+        StringUtils.uncapitalize(this.entityPlural)));
+
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(this.metadataIdentificationString, Modifier.PUBLIC, methodName,
+            returnType, parameterTypes, parameterNames, bodyBuilder);
+    methodBuilder.setAnnotations(annotations);
+
+    return methodBuilder.build();
+  }
+
   /**
    * This method provides a finder method  using JSON 
    * response type
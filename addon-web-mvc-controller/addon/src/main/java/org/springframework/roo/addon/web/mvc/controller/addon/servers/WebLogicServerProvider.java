@@ -18,6 +18,7 @@ import org.springframework.roo.project.FeatureNames;
 import org.springframework.roo.project.Path;
 import org.springframework.roo.project.PathResolver;
 import org.springframework.roo.project.Plugin;
+import org.springframework.roo.project.PomEditSession;
 import org.springframework.roo.project.ProjectOperations;
 import org.springframework.roo.project.maven.Pom;
 import org.springframework.roo.support.logging.HandlerUtils;
@@ -92,8 +93,13 @@ public class WebLogicServerProvider implements ServerProvider {
     final List<Element> plugins =
         XmlUtils.findElements("/configuration/server [@id = '" + getName() + "']/plugins/plugin",
             configuration);
-    for (final Element pluginElement : plugins) {
-      getProjectOperations().addBuildPlugin(module.getModuleName(), new Plugin(pluginElement));
+    final PomEditSession session = getProjectOperations().beginPomEdit(module.getModuleName());
+    try {
+      for (final Element pluginElement : plugins) {
+        getProjectOperations().addBuildPlugin(module.getModuleName(), new Plugin(pluginElement));
+      }
+    } finally {
+      session.close();
     }
   }
 
@@ -50,6 +50,7 @@ import org.springframework.roo.project.LogicalPath;
 import org.springframework.roo.project.Path;
 import org.springframework.roo.project.PathResolver;
 import org.springframework.roo.project.Plugin;
+import org.springframework.roo.project.PomEditSession;
 import org.springframework.roo.project.ProjectOperations;
 import org.springframework.roo.project.Property;
 import org.springframework.roo.support.logging.HandlerUtils;
@@ -331,17 +332,25 @@ public class JspOperationsImpl extends AbstractOperations implements JspOperatio
   private void installMavenPlugins(String moduleName) {
     final Element configuration = XmlUtils.getConfiguration(getClass());
 
-    // Add properties
-    List<Element> properties = XmlUtils.findElements("/configuration/properties/*", configuration);
-    for (Element property : properties) {
-      getProjectOperations().addProperty(moduleName, new Property(property));
-    }
+    // Write the properties and plugins to the POM in one go
+    final PomEditSession session = getProjectOperations().beginPomEdit(moduleName);
+    try {
+      // Add properties
+      List<Element> properties =
+          XmlUtils.findElements("/configuration/properties/*", configuration);
+      for (Element property : properties) {
+        getProjectOperations().addProperty(moduleName, new Property(property));
+      }
 
-    // Add Plugins
-    List<Element> elements = XmlUtils.findElements("/configuration/plugins/plugin", configuration);
-    for (Element element : elements) {
-      Plugin plugin = new Plugin(element);
-      getProjectOperations().addBuildPlugin(moduleName, plugin);
+      // Add Plugins
+      List<Element> elements =
+          XmlUtils.findElements("/configuration/plugins/plugin", configuration);
+      for (Element element : elements) {
+        Plugin plugin = new Plugin(element);
+        getProjectOperations().addBuildPlugin(moduleName, plugin);
+      }
+    } finally {
+      session.close();
     }
 
   }
@@ -33,6 +33,7 @@ public class ThymeleafMetadata extends AbstractItdTypeDetailsProvidingMetadataIt
   private MethodMetadata listFormMethod;
   private MethodMetadata listJSONMethod;
   private MethodMetadata listDatatablesJSONMethod;
+  private MethodMetadata listAfterJSONMethod;
   private MethodMetadata createFormMethod;
   private MethodMetadata createMethod;
   private MethodMetadata editFormMethod;
@@ -77,6 +78,7 @@ public class ThymeleafMetadata extends AbstractItdTypeDetailsProvidingMetadataIt
    * @param listFormMethod MethodMetadata
    * @param listJSONMethod MethodMetadata 
    * @param listDatatablesJSONMethod MethodMetadata 
+   * @param listAfterJSONMethod MethodMetadata that pages by keyset, or <code>null</code>
    * @param createFormMethod MethodMetadata
    * @param createMethod MethodMetadata 
    * @param editFormMethod MethodMetadata
@@ -93,7 +95,7 @@ public class ThymeleafMetadata extends AbstractItdTypeDetailsProvidingMetadataIt
   public ThymeleafMetadata(final String identifier, final JavaType aspectName,
       final PhysicalTypeMetadata governorPhysicalTypeMetadata, final MethodMetadata listFormMethod,
       final MethodMetadata listJSONMethod, final MethodMetadata listDatatablesJSONMethod,
-      final MethodMetadata createFormMethod, final MethodMetadata createMethod,
+      final MethodMetadata listAfterJSONMethod, final MethodMetadata createFormMethod, final MethodMetadata createMethod,
       final MethodMetadata editFormMethod, final MethodMetadata updateMethod,
       final MethodMetadata deleteMethod, final MethodMetadata deleteJSONMethod,
       final MethodMetadata showMethod, final List<MethodMetadata> detailsMethods,
@@ -107,6 +109,7 @@ public class ThymeleafMetadata extends AbstractItdTypeDetailsProvidingMetadataIt
     this.listFormMethod = listFormMethod;
     this.listJSONMethod = listJSONMethod;
     this.listDatatablesJSONMethod = listDatatablesJSONMethod;
+    this.listAfterJSONMethod = listAfterJSONMethod;
     this.createFormMethod = createFormMethod;
     this.createMethod = createMethod;
     this.editFormMethod = editFormMethod;
@@ -122,6 +125,9 @@ public class ThymeleafMetadata extends AbstractItdTypeDetailsProvidingMetadataIt
     ensureGovernorHasMethod(new MethodMetadataBuilder(listFormMethod));
     ensureGovernorHasMethod(new MethodMetadataBuilder(listJSONMethod));
     ensureGovernorHasMethod(new MethodMetadataBuilder(listDatatablesJSONMethod));
+    if (listAfterJSONMethod != null) {
+      ensureGovernorHasMethod(new MethodMetadataBuilder(listAfterJSONMethod));
+    }
 
     // Include CUD methods only if provided entity is not a readOnly entity
     if (!readOnly) {
@@ -181,6 +187,16 @@ public class ThymeleafMetadata extends AbstractItdTypeDetailsProvidingMetadataIt
     return this.listDatatablesJSONMethod;
   }
 
+  /**
+   * Method that returns list JSON method that pages by keyset
+   * 
+   * @return the method, or <code>null</code> if the related repository 
+   *            doesn't page by keyset
+   */
+  public MethodMetadata getListAfterJSONMethod() {
+    return this.listAfterJSONMethod;
+  }
+
   /**
    * Method that returns create form Thymeleaf method
    * 
@@ -29,6 +29,7 @@ import org.springframework.roo.addon.web.mvc.controller.addon.ControllerMVCServi
 import org.springframework.roo.addon.web.mvc.controller.addon.ControllerMetadata;
 import org.springframework.roo.addon.web.mvc.views.AbstractViewGeneratorMetadataProvider;
 import org.springframework.roo.addon.web.mvc.views.MVCViewGenerationService;
+import org.springframework.roo.addon.web.mvc.views.ViewContext;
 import org.springframework.roo.classpath.PhysicalTypeCategory;
 import org.springframework.roo.classpath.PhysicalTypeIdentifier;
 import org.springframework.roo.classpath.customdata.taggers.CustomDataKeyDecorator;
@@ -205,15 +206,7 @@ public class ThymeleafMetadataProviderImpl extends AbstractViewGeneratorMetadata
     this.typesToImport = new ArrayList<JavaType>();
 
     // Getting service details
-    ClassOrInterfaceTypeDetails serviceDetails =
-        getTypeLocationService().getTypeDetails(getService());
-
-    final LogicalPath logicalPath =
-        PhysicalTypeIdentifier.getPath(serviceDetails.getDeclaredByMetadataId());
-    final String serviceMetadataKey =
-        ServiceMetadata.createIdentifier(serviceDetails.getType(), logicalPath);
-    final ServiceMetadata serviceMetadata =
-        (ServiceMetadata) getMetadataService().get(serviceMetadataKey);
+    final ServiceMetadata serviceMetadata = getServiceMetadata();
 
     // Getting Global search class
     Set<ClassOrInterfaceTypeDetails> globalSearchClasses =
@@ -264,11 +257,24 @@ public class ThymeleafMetadataProviderImpl extends AbstractViewGeneratorMetadata
     MethodMetadata serviceFindAllGlobalSearchMethod =
         serviceMetadata.getFindAllGlobalSearchMethod();
     MethodMetadata serviceCountMethod = serviceMetadata.getCountMethod();
+    if (serviceMetadata.getEstimateCountMethod() != null) {
+      // Datatables show the total without counting on every request
+      serviceCountMethod = serviceMetadata.getEstimateCountMethod();
+    }
+    boolean slice = serviceMetadata.getFindAllSliceMethod() != null;
+    if (slice) {
+      // List results without counting them
+      serviceFindAllGlobalSearchMethod = serviceMetadata.getFindAllSliceMethod();
+    }
+    MethodMetadata serviceFindAllAfterMethod = serviceMetadata.getFindAllAfterMethod();
 
     return new ThymeleafMetadata(metadataIdentificationString, this.aspectName,
         this.governorPhysicalTypeMetadata, getListFormMethod(),
         getListJSONMethod(serviceFindAllGlobalSearchMethod),
-        getListDatatablesJSONMethod(serviceCountMethod), getCreateFormMethod(),
+        getListDatatablesJSONMethod(serviceCountMethod, slice, serviceFindAllAfterMethod),
+        serviceFindAllAfterMethod == null ? null
+            : getListAfterJSONMethod(serviceFindAllAfterMethod),
+        getCreateFormMethod(),
         getCreateMethod(serviceSaveMethod), getEditFormMethod(),
         getUpdateMethod(serviceSaveMethod), getDeleteMethod(serviceDeleteMethod),
         getDeleteJSONMethod(serviceDeleteMethod), getShowMethod(), getDetailsMethods(),
@@ -753,9 +759,13 @@ public class ThymeleafMetadataProviderImpl extends AbstractViewGeneratorMetadata
     // Generate body
     InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
 
+    // Page or Slice, depending on the service method
+    JavaType listType =
+        new JavaType(serviceFindAllGlobalSearchMethod.getReturnType().getFullyQualifiedTypeName());
+
     // Page<Entity> entityField = serviceField.findAll(search, pageable);
     bodyBuilder.appendFormalLine(String.format("%s<%s> %s = %s.%s(search, pageable);",
-        addTypeToImport(SpringJavaType.PAGE).getSimpleTypeName(), addTypeToImport(this.entity)
+        addTypeToImport(listType).getSimpleTypeName(), addTypeToImport(this.entity)
             .getSimpleTypeName(), getEntityField().getFieldName(),
         getServiceField().getFieldName(), serviceFindAllGlobalSearchMethod.getMethodName()));
 
@@ -765,7 +775,7 @@ public class ThymeleafMetadataProviderImpl extends AbstractViewGeneratorMetadata
 
     // Generating returnType
     JavaType returnType =
-        new JavaType(SpringJavaType.PAGE.getFullyQualifiedTypeName(), 0, DataType.TYPE, null,
+        new JavaType(listType.getFullyQualifiedTypeName(), 0, DataType.TYPE, null,
             Arrays.asList(this.entity));
 
     MethodMetadataBuilder methodBuilder =
@@ -776,15 +786,198 @@ public class ThymeleafMetadataProviderImpl extends AbstractViewGeneratorMetadata
     return methodBuilder.build();
   }
 
+  /**
+   * This method provides the "listAfter" JSON method using JSON response 
+   * type. It returns the results that follow the provided keyset values, 
+   * which clients take from the last result of the previous page. 
+   * Datatables requests rows by offset and by any column, so the Datatables
+   * list method keeps paging by offset.
+   * 
+   * @param serviceFindAllAfterMethod
+   * 
+   * @return MethodMetadata
+   */
+  private MethodMetadata getListAfterJSONMethod(MethodMetadata serviceFindAllAfterMethod) {
+
+    // First of all, check if exists other method with the same @RequesMapping to generate
+    MethodMetadata existingMVCMethod =
+        getControllerMVCService().getMVCMethodByRequestMapping(this.controller.getType(),
+            SpringEnumDetails.REQUEST_METHOD_GET, "/after", null, null,
+            SpringEnumDetails.MEDIA_TYPE_APPLICATION_JSON_VALUE.toString(), "");
+    if (existingMVCMethod != null
+        && !existingMVCMethod.getDeclaredByMetadataId().equals(this.metadataIdentificationString)) {
+      return existingMVCMethod;
+    }
+
+    // Define methodName
+    final JavaSymbolName methodName = new JavaSymbolName("listAfter");
+
+    // Get parameters: search, the last keyset values and the page size
+    List<AnnotatedJavaType> serviceParamTypes = serviceFindAllAfterMethod.getParameterTypes();
+    List<JavaSymbolName> serviceParamNames = serviceFindAllAfterMethod.getParameterNames();
+    List<AnnotatedJavaType> parameterTypes = new ArrayList<AnnotatedJavaType>();
+    final List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
+    parameterTypes.add(AnnotatedJavaType.convertFromJavaType(this.globalSearchType));
+    parameterNames.add(new JavaSymbolName("search"));
+    List<String> paramsString = new ArrayList<String>();
+    paramsString.add("search");
+    for (int i = 1; i < serviceParamNames.size(); i++) {
+      JavaSymbolName name = serviceParamNames.get(i);
+      AnnotationMetadataBuilder requestParamAnnotation =
+          new AnnotationMetadataBuilder(SpringJavaType.REQUEST_PARAM);
+      requestParamAnnotation.addStringAttribute("value", name.getSymbolName());
+      if (i < serviceParamNames.size() - 1) {
+        // First page has no last values
+        requestParamAnnotation.addBooleanAttribute("required", false);
+      } else {
+        requestParamAnnotation.addStringAttribute("defaultValue", "20");
+      }
+      parameterTypes.add(new AnnotatedJavaType(serviceParamTypes.get(i).getJavaType(),
+          requestParamAnnotation.build()));
+      parameterNames.add(name);
+      paramsString.add(name.getSymbolName());
+    }
+
+    // Adding annotations
+    final List<AnnotationMetadataBuilder> annotations = new ArrayList<AnnotationMetadataBuilder>();
+
+    // Adding @RequestMapping annotation
+    annotations.add(getControllerMVCService().getRequestMappingAnnotation(
+        SpringEnumDetails.REQUEST_METHOD_GET, "/after", null, null,
+        SpringEnumDetails.MEDIA_TYPE_APPLICATION_JSON_VALUE, ""));
+
+    // Adding @ResponseBody annotation
+    AnnotationMetadataBuilder responseBodyAnnotation =
+        new AnnotationMetadataBuilder(SpringJavaType.RESPONSE_BODY);
+    annotations.add(responseBodyAnnotation);
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    // Keep the page size within the limits Pageable parameters have, so that
+    // a request can't load the whole table at once
+    // size = Math.max(1, Math.min(size, 2000));
+    JavaSymbolName sizeParameter = parameterNames.get(parameterNames.size() - 1);
+    bodyBuilder.appendFormalLine(String.format("%1$s = Math.max(1, Math.min(%1$s, 2000));",
+        sizeParameter));
+
+    // List<Entity> entityField = serviceField.findAllAfter(search, lastId, size);
+    JavaType returnType = serviceFindAllAfterMethod.getReturnType();
+    JavaType resultType = returnType.getParameters().get(0);
+    bodyBuilder.appendFormalLine(String.format("%s<%s> %s = %s.%s(%s);",
+        addTypeToImport(returnType).getSimpleTypeName(), addTypeToImport(resultType)
+            .getSimpleTypeName(), getEntityField().getFieldName(),
+        getServiceField().getFieldName(), serviceFindAllAfterMethod.getMethodName(), StringUtils
+            .join(paramsString, ", ")));
+
+    // return entityField;
+    bodyBuilder.appendFormalLine(String.format("return %s;", getEntityField().getFieldName()));
+
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(this.metadataIdentificationString, Modifier.PUBLIC, methodName,
+            returnType, parameterTypes, parameterNames, bodyBuilder);
+    methodBuilder.setAnnotations(annotations);
+
+    return methodBuilder.build();
+  }
+
+  @Override
+  protected void fillContext(ViewContext ctx) {
+    // Let the list view send the keyset values of the last row shown when
+    // Datatables move forward one page
+    List<JavaSymbolName> keysetParameters =
+        getDatatablesKeysetParameters(getServiceMetadata().getFindAllAfterMethod());
+    if (keysetParameters != null) {
+      List<String> keysetFields = new ArrayList<String>();
+      for (JavaSymbolName keysetParameter : keysetParameters) {
+        keysetFields.add(getKeysetFieldName(keysetParameter));
+      }
+      ctx.addExtraParameter("keyset", StringUtils.join(keysetFields, ","));
+    }
+  }
+
+  /**
+   * Returns the metadata of the service of the current controller
+   * 
+   * @return ServiceMetadata
+   */
+  private ServiceMetadata getServiceMetadata() {
+    ClassOrInterfaceTypeDetails serviceDetails =
+        getTypeLocationService().getTypeDetails(getService());
+
+    final LogicalPath logicalPath =
+        PhysicalTypeIdentifier.getPath(serviceDetails.getDeclaredByMetadataId());
+    final String serviceMetadataKey =
+        ServiceMetadata.createIdentifier(serviceDetails.getType(), logicalPath);
+    return (ServiceMetadata) getMetadataService().get(serviceMetadataKey);
+  }
+
+  /**
+   * Returns the parameters of the provided "findAllAfter" service method
+   * that take the keyset values of the last row shown, if the Datatables
+   * list method can page forward with it. That requires the method to 
+   * return entities and every keyset value to be a string or a number, 
+   * which Datatables send back as they received them.
+   * 
+   * @param serviceFindAllAfterMethod the method, or <code>null</code> if the 
+   *            related repository doesn't page by keyset
+   * 
+   * @return the parameters, ending with the identifier one, or 
+   *            <code>null</code> if Datatables can't page by keyset
+   */
+  private List<JavaSymbolName> getDatatablesKeysetParameters(
+      MethodMetadata serviceFindAllAfterMethod) {
+    if (serviceFindAllAfterMethod == null
+        || !this.entity.equals(serviceFindAllAfterMethod.getReturnType().getParameters().get(0))) {
+      return null;
+    }
+
+    // Skip the global search and the page size parameters
+    List<AnnotatedJavaType> serviceParamTypes = serviceFindAllAfterMethod.getParameterTypes();
+    List<JavaSymbolName> serviceParamNames = serviceFindAllAfterMethod.getParameterNames();
+    List<JavaSymbolName> keysetParameters = new ArrayList<JavaSymbolName>();
+    for (int i = 1; i < serviceParamNames.size() - 1; i++) {
+      JavaType type = serviceParamTypes.get(i).getJavaType();
+      if (!type.equals(JavaType.STRING) && !type.isNumber()) {
+        return null;
+      }
+      keysetParameters.add(serviceParamNames.get(i));
+    }
+    return keysetParameters;
+  }
+
+  /**
+   * Returns the name of the field whose last value the provided 
+   * "findAllAfter" parameter takes, e.g. "name" for "lastName"
+   * 
+   * @param keysetParameter
+   * 
+   * @return the field name
+   */
+  private String getKeysetFieldName(JavaSymbolName keysetParameter) {
+    return StringUtils.uncapitalize(StringUtils.removeStart(keysetParameter.getSymbolName(),
+        "last"));
+  }
+
   /**
    * This method provides the "list" Datatables JSON method  using JSON 
-   * response type and returns Datatables element
+   * response type and returns Datatables element. 
    * 
-   * @param serviceCountMethod
+   * If the related service pages by keyset, Datatables moving forward one 
+   * page in the keyset order send the keyset values of the last row shown, 
+   * so that the method seeks past that row instead of skipping the rows 
+   * before it. Any other request keeps paging by offset.
+   * 
+   * @param serviceCountMethod the service method that counts all the entities
+   * @param slice whether the "list" JSON method returns a Slice, which has no 
+   *            count of the filtered entities
+   * @param serviceFindAllAfterMethod the service method that pages by keyset, 
+   *            or <code>null</code>
    * 
    * @return MethodMetadata
    */
-  private MethodMetadata getListDatatablesJSONMethod(MethodMetadata serviceCountMethod) {
+  private MethodMetadata getListDatatablesJSONMethod(MethodMetadata serviceCountMethod,
+      boolean slice, MethodMetadata serviceFindAllAfterMethod) {
 
     // First of all, check if exists other method with the same @RequesMapping to generate
     MethodMetadata existingMVCMethod =
@@ -812,6 +1005,22 @@ public class ThymeleafMetadataProviderImpl extends AbstractViewGeneratorMetadata
     parameterNames.add(new JavaSymbolName("pageable"));
     parameterNames.add(new JavaSymbolName("draw"));
 
+    // Optional keyset values of the last row shown
+    List<JavaSymbolName> keysetParameters =
+        getDatatablesKeysetParameters(serviceFindAllAfterMethod);
+    if (keysetParameters != null) {
+      List<AnnotatedJavaType> serviceParamTypes = serviceFindAllAfterMethod.getParameterTypes();
+      for (int i = 0; i < keysetParameters.size(); i++) {
+        AnnotationMetadataBuilder keysetParamAnnotation =
+            new AnnotationMetadataBuilder(SpringJavaType.REQUEST_PARAM);
+        keysetParamAnnotation.addStringAttribute("value", keysetParameters.get(i).getSymbolName());
+        keysetParamAnnotation.addBooleanAttribute("required", false);
+        parameterTypes.add(new AnnotatedJavaType(serviceParamTypes.get(i + 1).getJavaType(),
+            keysetParamAnnotation.build()));
+        parameterNames.add(keysetParameters.get(i));
+      }
+    }
+
     // Adding annotations
     final List<AnnotationMetadataBuilder> annotations = new ArrayList<AnnotationMetadataBuilder>();
 
@@ -827,21 +1036,108 @@ public class ThymeleafMetadataProviderImpl extends AbstractViewGeneratorMetadata
     // Generate body
     InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
 
+    if (keysetParameters != null) {
+      // Keyset order: the sort fields, or the identifier if there are none
+      List<String> conditions = new ArrayList<String>();
+      List<String> sortFields = new ArrayList<String>();
+      for (JavaSymbolName keysetParameter : keysetParameters) {
+        conditions.add(keysetParameter.getSymbolName().concat(" != null"));
+        sortFields.add("\"".concat(getKeysetFieldName(keysetParameter)).concat("\""));
+      }
+      if (sortFields.size() > 1) {
+        sortFields.remove(sortFields.size() - 1);
+      }
+
+      // if (lastName != null && lastId != null
+      //     && new Sort("name").equals(pageable.getSort())) {
+      bodyBuilder.appendFormalLine(String.format("if (%s", StringUtils.join(conditions, " && ")));
+      bodyBuilder.appendFormalLine(String.format("    && new %s(%s).equals(pageable.getSort())) {",
+          addTypeToImport(SpringJavaType.SORT).getSimpleTypeName(),
+          StringUtils.join(sortFields, ", ")));
+      bodyBuilder.indent();
+
+      // Seek past the last row shown, fetching one more row to know if
+      // there is a next page
+      // List<Entity> entityField =
+      //     serviceField.findAllAfter(search, lastName, lastId, pageable.getPageSize() + 1);
+      List<String> paramsString = new ArrayList<String>();
+      paramsString.add("search");
+      for (JavaSymbolName keysetParameter : keysetParameters) {
+        paramsString.add(keysetParameter.getSymbolName());
+      }
+      paramsString.add("pageable.getPageSize() + 1");
+      bodyBuilder.appendFormalLine(String.format("%s<%s> %s =",
+          addTypeToImport(serviceFindAllAfterMethod.getReturnType()).getSimpleTypeName(),
+          addTypeToImport(this.entity).getSimpleTypeName(), getEntityField().getFieldName()));
+      bodyBuilder.appendFormalLine(String.format("    %s.%s(%s);", getServiceField()
+          .getFieldName(), serviceFindAllAfterMethod.getMethodName(), StringUtils.join(
+          paramsString, ", ")));
+
+      // long allAvailableEntity = serviceField.count();
+      bodyBuilder.appendFormalLine(String.format("long allAvailable%s = %s.%s();",
+          this.entity.getSimpleTypeName(), getServiceField().getFieldName(),
+          serviceCountMethod.getMethodName()));
+
+      // As with slices, report one more entity than listed while there's a
+      // next page, which the extra row fetched already adds
+      // long filteredEntity = pageable.getOffset() + entityField.size();
+      bodyBuilder.appendFormalLine(String.format(
+          "long filtered%s = pageable.getOffset() + %s.size();", this.entity.getSimpleTypeName(),
+          getEntityField().getFieldName()));
+
+      // if (entityField.size() > pageable.getPageSize()) {
+      //   entityField = entityField.subList(0, pageable.getPageSize());
+      // }
+      bodyBuilder.appendFormalLine(String.format("if (%s.size() > pageable.getPageSize()) {",
+          getEntityField().getFieldName()));
+      bodyBuilder.indent();
+      bodyBuilder.appendFormalLine(String.format("%1$s = %1$s.subList(0, pageable.getPageSize());",
+          getEntityField().getFieldName()));
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("}");
+
+      // return new DatatablesData<Entity>(entityField, allAvailableEntity, filteredEntity, draw);
+      bodyBuilder.appendFormalLine(String.format(
+          "return new %1$s<%2$s>(%3$s, allAvailable%2$s, filtered%2$s, draw);",
+          addTypeToImport(this.datatablesDataType).getSimpleTypeName(),
+          this.entity.getSimpleTypeName(), getEntityField().getFieldName()));
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("}");
+    }
+
     // Page<Entity> entityField = list(search, pageable);
     bodyBuilder.appendFormalLine(String.format("%s<%s> %s = list(search, pageable);",
-        addTypeToImport(SpringJavaType.PAGE).getSimpleTypeName(), addTypeToImport(this.entity)
-            .getSimpleTypeName(), getEntityField().getFieldName()));
+        addTypeToImport(slice ? SpringJavaType.SLICE : SpringJavaType.PAGE).getSimpleTypeName(),
+        addTypeToImport(this.entity).getSimpleTypeName(), getEntityField().getFieldName()));
 
     // long allAvailableEntity = serviceField.count();
     bodyBuilder.appendFormalLine(String.format("long allAvailable%s = %s.%s();",
         this.entity.getSimpleTypeName(), getServiceField().getFieldName(),
         serviceCountMethod.getMethodName()));
 
-    // return new DatatablesData<Entity>(entityField, allAvailableEntity, draw);
-    bodyBuilder.appendFormalLine(String.format("return new %s<%s>(%s, allAvailable%s, draw);",
-        addTypeToImport(this.datatablesDataType).getSimpleTypeName(),
-        this.entity.getSimpleTypeName(), getEntityField().getFieldName(),
-        this.entity.getSimpleTypeName()));
+    if (slice) {
+      // Slices aren't counted, so while there's a next page report one more
+      // entity than listed so far, which lets Datatables page forward
+      // long filteredEntity = pageable.getOffset() + entityField.getNumberOfElements()
+      //     + (entityField.hasNext() ? 1 : 0);
+      bodyBuilder.appendFormalLine(String.format(
+          "long filtered%1$s = pageable.getOffset() + %2$s.getNumberOfElements()",
+          this.entity.getSimpleTypeName(), getEntityField().getFieldName()));
+      bodyBuilder.appendFormalLine(String.format("    + (%s.hasNext() ? 1 : 0);",
+          getEntityField().getFieldName()));
+
+      // return new DatatablesData<Entity>(entityField.getContent(), allAvailableEntity, filteredEntity, draw);
+      bodyBuilder.appendFormalLine(String.format(
+          "return new %1$s<%2$s>(%3$s.getContent(), allAvailable%2$s, filtered%2$s, draw);",
+          addTypeToImport(this.datatablesDataType).getSimpleTypeName(),
+          this.entity.getSimpleTypeName(), getEntityField().getFieldName()));
+    } else {
+      // return new DatatablesData<Entity>(entityField, allAvailableEntity, draw);
+      bodyBuilder.appendFormalLine(String.format("return new %s<%s>(%s, allAvailable%s, draw);",
+          addTypeToImport(this.datatablesDataType).getSimpleTypeName(),
+          this.entity.getSimpleTypeName(), getEntityField().getFieldName(),
+          this.entity.getSimpleTypeName()));
+    }
 
     // Generating returnType
     JavaType returnType =
@@ -20,6 +20,36 @@ jQuery.extend(jQuery.fn.dataTable.defaults, {
 		'headers' : {
 			'Accept' : 'application/vnd.datatables+json'
 		},
+		'data' : function(data, settings) {
+			/* Tables paged by keyset list their keyset fields in data-keyset.
+			 * Moving forward one page with the same order and search, send the
+			 * keyset values of the last row shown, so the server can seek past
+			 * that row instead of skipping the rows before it. */
+			var jQueryTable = jQuery(settings.nTable);
+			var keyset = jQueryTable.data('keyset');
+			if (!keyset) {
+				return;
+			}
+			var request = {
+				'start' : data.start,
+				'length' : data.length,
+				'query' : JSON.stringify([ data.columns, data.order, data.search ])
+			};
+			var previous = jQueryTable.data('keyset-request');
+			var rows = new jQuery.fn.dataTable.Api(settings).rows().data();
+			if (previous && rows.length === previous.length
+					&& request.start === previous.start + previous.length
+					&& request.length === previous.length
+					&& request.query === previous.query) {
+				var lastRow = rows[rows.length - 1];
+				jQuery.each(String(keyset).split(','), function(index, field) {
+					if (lastRow[field] !== null && lastRow[field] !== undefined) {
+						data['last' + field.charAt(0).toUpperCase() + field.slice(1)] = lastRow[field];
+					}
+				});
+			}
+			jQueryTable.data('keyset-request', request);
+		}
 	},
 	'buttons' : [
 	    'add',
@@ -166,6 +166,9 @@
           <table id="${entityName}Table" 
                  class="table table-striped table-hover table-bordered" 
                  data-row-id="${identifierField}"
+                 <#if keyset??>
+                 data-keyset="${keyset}"
+                 </#if>
                  data-select="single"
                  data-z="${z}"
                  data-order="[[ 0, &quot;asc&quot; ]]"
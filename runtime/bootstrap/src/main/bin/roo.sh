@@ -72,7 +72,29 @@ fi
 
 ANSI="-Droo.console.ansi=true"
 LOG="-Dorg.eclipse.jetty.util.log.class=org.eclipse.jetty.util.log.Slf4jLog -Dorg.apache.felix.http.log.jul=true -Djava.util.logging.config.file=${LOG_CONFIG_FILE_PROPERTIES}"
+
+roo_main() {
+    java $LOG -Dis.apple.terminal=$APPLE_TERMINAL $ROO_OPTS $ANSI "$@" -DdevelopmentMode=false -Dorg.osgi.framework.storage="$ROO_OSGI_FRAMEWORK_STORAGE" -Dorg.osgi.framework.system.packages.extra=org.w3c.dom.traversal -Dfelix.auto.deploy.dir="$ROO_AUTO_DEPLOY_DIRECTORY" -Dfelix.config.properties="file:$ROO_CONFIG_FILE_PROPERTIES" -cp "$ROO_CP" org.springframework.roo.bootstrap.Main
+}
+
+# "roo.sh --daemon <command>" sends the command to a resident Roo for the current project, starting one if needed
+if [ "$1" = "--daemon" ]; then
+    shift
+    java $ROO_OPTS -cp "$ROO_CP" org.springframework.roo.bootstrap.DaemonClient "$@"
+    EXITED=$?
+    if [ $EXITED -eq 98 ]; then
+        # No daemon for this project yet (98 = DaemonClient.NO_DAEMON_EXIT_CODE), so start one and wait for it;
+        # if another invocation started one meanwhile, ours finds it holding .roo/daemon.lock and exits
+        mkdir -p .roo
+        trap '' HUP
+        roo_main -Droo.daemon=true -Djline.terminal=jline.UnsupportedTerminal >> .roo/daemon.log 2>&1 < /dev/null &
+        java $ROO_OPTS -Droo.daemon.wait=300000 -cp "$ROO_CP" org.springframework.roo.bootstrap.DaemonClient "$@"
+        EXITED=$?
+    fi
+    exit $EXITED
+fi
+
 # Hop, hop, hop...
-java $LOG -Dis.apple.terminal=$APPLE_TERMINAL $ROO_OPTS $ANSI -Droo.args="$*" -DdevelopmentMode=false -Dorg.osgi.framework.storage="$ROO_OSGI_FRAMEWORK_STORAGE" -Dorg.osgi.framework.system.packages.extra=org.w3c.dom.traversal -Dfelix.auto.deploy.dir="$ROO_AUTO_DEPLOY_DIRECTORY" -Dfelix.config.properties="file:$ROO_CONFIG_FILE_PROPERTIES" -cp "$ROO_CP" org.springframework.roo.bootstrap.Main
+roo_main -Droo.args="$*"
 EXITED=$?
 # echo Roo exited with code $EXITED
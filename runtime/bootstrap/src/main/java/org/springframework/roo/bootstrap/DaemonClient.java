@@ -0,0 +1,147 @@
+package org.springframework.roo.bootstrap;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Properties;
+
+/**
+ * A thin client for a Spring Roo daemon, i.e. a Roo shell started with
+ * <code>-Droo.daemon=true</code> that stays resident for one project. Sends
+ * its arguments as a command line to the daemon for the current directory (or
+ * <code>roo.home</code>), prints the daemon's output and exits with the
+ * command's exit code.
+ * <p>
+ * Exits with {@link #NO_DAEMON_EXIT_CODE} if there is no daemon for the
+ * project, waiting up to <code>roo.daemon.wait</code> milliseconds (zero by
+ * default) for one to start.
+ *
+ * @since 2.0
+ */
+public class DaemonClient {
+
+  /**
+   * The file, relative to the project's directory, that gives the daemon's
+   * port and token; must match <code>ShellDaemon</code>
+   */
+  private static final String DAEMON_FILE = ".roo/daemon.properties";
+
+  /**
+   * The start of the last line sent by the daemon; must match
+   * <code>ShellDaemon</code>
+   */
+  private static final String EXIT_CODE_PREFIX = "\u0000roo-exit:";
+
+  /**
+   * The exit code when no daemon is running for the project
+   */
+  public static final int NO_DAEMON_EXIT_CODE = 98;
+
+  private static final long POLL_MILLIS = 200;
+
+  public static void main(final String[] args) throws Exception {
+    final StringBuilder commandLine = new StringBuilder();
+    for (final String arg : args) {
+      if (commandLine.length() > 0) {
+        commandLine.append(' ');
+      }
+      commandLine.append(arg);
+    }
+
+    final String rooHome = System.getProperty("roo.home", ".");
+    final File daemonFile = new File(rooHome, DAEMON_FILE);
+    final long deadline = System.currentTimeMillis() + Long.getLong("roo.daemon.wait", 0);
+    Properties properties = readDaemonProperties(daemonFile);
+    Socket socket = connect(properties);
+    while (socket == null && System.currentTimeMillis() < deadline) {
+      Thread.sleep(POLL_MILLIS);
+      properties = readDaemonProperties(daemonFile);
+      socket = connect(properties);
+    }
+    if (socket == null) {
+      System.exit(NO_DAEMON_EXIT_CODE);
+    }
+
+    int exitCode;
+    try {
+      exitCode = execute(socket, properties.getProperty("token"), commandLine.toString());
+    } finally {
+      socket.close();
+    }
+    System.exit(exitCode);
+  }
+
+  /**
+   * Connects to the daemon with the given properties
+   *
+   * @param properties the contents of the file written by the daemon (can be
+   *          <code>null</code>)
+   * @return <code>null</code> if there's no such daemon
+   */
+  private static Socket connect(final Properties properties) {
+    if (properties == null) {
+      return null;
+    }
+    try {
+      return new Socket(InetAddress.getByName(null), Integer.parseInt(properties
+          .getProperty("port")));
+    } catch (final IOException e) {
+      // A stale file left by a daemon that didn't exit cleanly
+      return null;
+    } catch (final NumberFormatException e) {
+      // The daemon is still writing the file
+      return null;
+    }
+  }
+
+  private static int execute(final Socket socket, final String token, final String commandLine)
+      throws IOException {
+    final PrintWriter out =
+        new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), "UTF-8"));
+    out.println(token);
+    out.println(commandLine);
+    out.flush();
+    socket.shutdownOutput();
+
+    final BufferedReader in =
+        new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+    String line;
+    while ((line = in.readLine()) != null) {
+      if (line.startsWith(EXIT_CODE_PREFIX)) {
+        return Integer.parseInt(line.substring(EXIT_CODE_PREFIX.length()));
+      }
+      System.out.println(line);
+    }
+    // The daemon went away without reporting an exit code
+    return 1;
+  }
+
+  private static Properties readDaemonProperties(final File daemonFile) {
+    if (!daemonFile.isFile()) {
+      return null;
+    }
+    final Properties properties = new Properties();
+    InputStream inputStream = null;
+    try {
+      inputStream = new FileInputStream(daemonFile);
+      properties.load(inputStream);
+      return properties;
+    } catch (final IOException e) {
+      return null;
+    } finally {
+      if (inputStream != null) {
+        try {
+          inputStream.close();
+        } catch (final IOException ignored) {
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,397 @@
+package org.springframework.roo.classpath.antlrjavaparser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import com.github.antlrjavaparser.api.Comment;
+import com.github.antlrjavaparser.api.CompilationUnit;
+import com.github.antlrjavaparser.api.Node;
+import com.github.antlrjavaparser.api.body.ClassOrInterfaceDeclaration;
+import com.github.antlrjavaparser.api.body.EnumDeclaration;
+import com.github.antlrjavaparser.api.body.TypeDeclaration;
+
+/**
+ * Carries the changes {@link UpdateCompilationUnitUtils} makes to a parsed
+ * compilation unit over to the source it was parsed from, as lines inserted
+ * into the original text, so that the rest of the file keeps its formatting
+ * and only the changed regions differ.
+ * <p>
+ * Only additions are spliced: imports, annotations of top-level types, and
+ * members of top-level types. For any other change, or when the original
+ * layout doesn't leave a clear place to insert at, {@link #splice} gives up
+ * and the caller prints the whole compilation unit instead.
+ *
+ * @since 2.0
+ */
+final class CompilationUnitSplicer {
+
+  private static final String INDENT = "    ";
+
+  /**
+   * A node of the original compilation unit, as printed, and the lines it
+   * takes up along with its comments
+   */
+  private static class OriginalNode {
+    private final int beginLine;
+    private final int endLine;
+    private final String printed;
+
+    private OriginalNode(final Node node) {
+      int begin = node.getBeginLine();
+      int end = node.getEndLine();
+      if (node.getBeginComments() != null) {
+        for (final Comment comment : node.getBeginComments()) {
+          begin = Math.min(begin, comment.getBeginLine());
+        }
+      }
+      if (node.getEndComments() != null) {
+        for (final Comment comment : node.getEndComments()) {
+          end = Math.max(end, comment.getEndLine());
+        }
+      }
+      beginLine = begin;
+      endLine = end;
+      printed = node.toString();
+    }
+  }
+
+  /**
+   * A top-level type of the original compilation unit
+   */
+  private static class OriginalType {
+    private final List<OriginalNode> annotations;
+    private final int beginLine;
+    private final int endLine;
+    private final String header;
+    private final List<OriginalNode> members;
+
+    private OriginalType(final TypeDeclaration type) {
+      annotations = getOriginalNodes(type.getAnnotations());
+      beginLine = type.getBeginLine();
+      endLine = type.getEndLine();
+      header = getHeader(type);
+      members = getOriginalNodes(type.getMembers());
+    }
+  }
+
+  /**
+   * Takes note of the given compilation unit as parsed from the given source,
+   * before it gets updated.
+   *
+   * @param compilationUnit the compilation unit parsed from the source
+   *            (required)
+   * @param source the source (required)
+   * @return a non-<code>null</code> splicer for that source
+   */
+  static CompilationUnitSplicer snapshot(final CompilationUnit compilationUnit,
+      final String source) {
+    Validate.notNull(compilationUnit, "Compilation unit required");
+    Validate.notNull(source, "Source required");
+    return new CompilationUnitSplicer(compilationUnit, source);
+  }
+
+  /**
+   * Returns a signature of the given type's declaration other than its
+   * annotations and members
+   */
+  private static String getHeader(final TypeDeclaration type) {
+    final StringBuilder header = new StringBuilder();
+    header.append(type.getClass().getName()).append(' ').append(type.getName()).append(' ')
+        .append(type.getModifiers());
+    if (type instanceof ClassOrInterfaceDeclaration) {
+      final ClassOrInterfaceDeclaration clazz = (ClassOrInterfaceDeclaration) type;
+      header.append(clazz.isInterface()).append(print(clazz.getTypeParameters()))
+          .append(print(clazz.getExtends())).append(print(clazz.getImplements()));
+    } else if (type instanceof EnumDeclaration) {
+      final EnumDeclaration enumeration = (EnumDeclaration) type;
+      header.append(print(enumeration.getImplements())).append(print(enumeration.getEntries()));
+    }
+    return header.toString();
+  }
+
+  private static String getIndent(final String line) {
+    return line.substring(0, line.length() - StringUtils.stripStart(line, null).length());
+  }
+
+  private static List<OriginalNode> getOriginalNodes(final List<? extends Node> nodes) {
+    if (nodes == null) {
+      return Collections.emptyList();
+    }
+    final List<OriginalNode> originalNodes = new ArrayList<OriginalNode>(nodes.size());
+    for (final Node node : nodes) {
+      originalNodes.add(new OriginalNode(node));
+    }
+    return originalNodes;
+  }
+
+  private static String getPackageName(final CompilationUnit compilationUnit) {
+    if (compilationUnit.getPackage() == null) {
+      return null;
+    }
+    return compilationUnit.getPackage().getName().toString();
+  }
+
+  private static List<String> print(final List<? extends Node> nodes) {
+    if (nodes == null) {
+      return Collections.emptyList();
+    }
+    final List<String> printed = new ArrayList<String>(nodes.size());
+    for (final Node node : nodes) {
+      printed.add(node.toString());
+    }
+    return printed;
+  }
+
+  private final List<OriginalNode> imports;
+  private final String lineSeparator;
+  /**
+   * The source's lines, without separators; line <i>n</i> is at index
+   * <i>n</i>-1 as per the parser's numbering
+   */
+  private final String[] lines;
+  private final int packageEndLine;
+  private final String packageName;
+  private final List<OriginalType> types = new ArrayList<OriginalType>();
+
+  private CompilationUnitSplicer(final CompilationUnit compilationUnit, final String source) {
+    imports = getOriginalNodes(compilationUnit.getImports());
+    lineSeparator = source.contains("\r\n") ? "\r\n" : "\n";
+    lines = source.split("\r?\n", -1);
+    packageName = getPackageName(compilationUnit);
+    packageEndLine =
+        compilationUnit.getPackage() == null ? 0 : compilationUnit.getPackage().getEndLine();
+    if (compilationUnit.getTypes() != null) {
+      for (final TypeDeclaration type : compilationUnit.getTypes()) {
+        types.add(new OriginalType(type));
+      }
+    }
+  }
+
+  private String getIndent(final OriginalNode original) {
+    if (original.beginLine <= 0 || original.beginLine > lines.length) {
+      return "";
+    }
+    return getIndent(lines[original.beginLine - 1]);
+  }
+
+  /**
+   * Returns the line after the last of the given original nodes, if that
+   * node ends its line, so that others can be inserted after it.
+   *
+   * @return zero if there is no such line
+   */
+  private int getLineAfter(final List<OriginalNode> originals) {
+    if (originals.isEmpty()) {
+      return 0;
+    }
+    final OriginalNode last = originals.get(originals.size() - 1);
+    if (last.endLine <= 0 || last.endLine > lines.length) {
+      return 0;
+    }
+    final String line = lines[last.endLine - 1].trim();
+    final String printed = last.printed.trim();
+    if (line.length() == 0 || printed.length() == 0
+        || line.charAt(line.length() - 1) != printed.charAt(printed.length() - 1)) {
+      return 0;
+    }
+    return last.endLine + 1;
+  }
+
+  /**
+   * Adds the given nodes before the given line, indented as given, each one
+   * optionally followed (or preceded) by a blank line.
+   */
+  private void addInsertion(final Map<Integer, List<String>> insertions, final int line,
+      final List<String> nodes, final String indent, final boolean blankLineBefore,
+      final boolean blankLineAfter) {
+    List<String> inserted = insertions.get(line);
+    if (inserted == null) {
+      inserted = new ArrayList<String>();
+      insertions.put(line, inserted);
+    }
+    for (final String node : nodes) {
+      if (blankLineBefore) {
+        inserted.add("");
+      }
+      for (final String nodeLine : StringUtils.stripEnd(node, null).split("\r?\n")) {
+        inserted.add(nodeLine.length() == 0 ? nodeLine : indent + nodeLine);
+      }
+      if (blankLineAfter) {
+        inserted.add("");
+      }
+    }
+  }
+
+  /**
+   * Indicates whether the original node at the given index starts a line of
+   * its own, after any preceding original node, so that others can be
+   * inserted before it.
+   */
+  private boolean canInsertBefore(final List<OriginalNode> originals, final int index,
+      final int lowerBound) {
+    final OriginalNode original = originals.get(index);
+    if (original.beginLine <= lowerBound || original.beginLine > lines.length) {
+      return false;
+    }
+    if (index > 0 && originals.get(index - 1).endLine >= original.beginLine) {
+      return false;
+    }
+    final String line = lines[original.beginLine - 1].trim();
+    final String printed = original.printed.trim();
+    return line.length() > 0 && printed.length() > 0 && line.charAt(0) == printed.charAt(0);
+  }
+
+  /**
+   * Works out where to insert those of the updated nodes that aren't among
+   * the original ones, which must otherwise be unchanged and in the same
+   * order.
+   *
+   * @param originals the original nodes
+   * @param updated the updated nodes, as printed
+   * @param lowerBound the line that nodes can only be inserted after
+   * @param endLine the line before which to insert nodes following the last
+   *            original node, or zero if there is none
+   * @param endIndent the indent of nodes inserted there
+   * @param separateMembers whether to separate inserted nodes by blank lines
+   * @param insertions the lines to insert, by line to insert them before
+   * @return <code>false</code> if the change can't be made by insertions
+   */
+  private boolean addInsertions(final List<OriginalNode> originals, final List<String> updated,
+      final int lowerBound, final int endLine, final String endIndent,
+      final boolean separateMembers, final Map<Integer, List<String>> insertions) {
+    for (final OriginalNode original : originals) {
+      if (original.beginLine <= 0 || original.endLine > lines.length) {
+        // Unknown position
+        return false;
+      }
+    }
+    int next = 0;
+    final List<String> added = new ArrayList<String>();
+    for (final String node : updated) {
+      if (next < originals.size() && originals.get(next).printed.equals(node)) {
+        if (!added.isEmpty()) {
+          if (!canInsertBefore(originals, next, lowerBound)) {
+            return false;
+          }
+          final int line = originals.get(next).beginLine;
+          addInsertion(insertions, line, added, getIndent(lines[line - 1]), false,
+              separateMembers);
+          added.clear();
+        }
+        next++;
+      } else {
+        added.add(node);
+      }
+    }
+    if (next < originals.size()) {
+      // Removed or changed
+      return false;
+    }
+    if (!added.isEmpty()) {
+      if (endLine <= lowerBound || endLine > lines.length + 1) {
+        return false;
+      }
+      if (!originals.isEmpty() && originals.get(originals.size() - 1).endLine >= endLine) {
+        return false;
+      }
+      addInsertion(insertions, endLine, added, endIndent, separateMembers, false);
+    }
+    return true;
+  }
+
+  /**
+   * Returns the original source with the additions made to the given
+   * compilation unit since the snapshot inserted into it.
+   *
+   * @param updated the compilation unit parsed from the original source,
+   *            then updated (required)
+   * @return <code>null</code> if the changes can't be spliced into the
+   *         original source
+   */
+  String splice(final CompilationUnit updated) {
+    Validate.notNull(updated, "Updated compilation unit required");
+    if (!StringUtils.equals(packageName, getPackageName(updated))) {
+      return null;
+    }
+    final List<TypeDeclaration> updatedTypes =
+        updated.getTypes() == null ? Collections.<TypeDeclaration>emptyList() : updated
+            .getTypes();
+    if (updatedTypes.size() != types.size()) {
+      return null;
+    }
+
+    final Map<Integer, List<String>> insertions = new TreeMap<Integer, List<String>>();
+
+    // New imports go after the existing ones, or after the package
+    // declaration if there are none
+    final List<String> updatedImports = print(updated.getImports());
+    if (imports.isEmpty()) {
+      if (!updatedImports.isEmpty()) {
+        if (packageEndLine <= 0 || packageEndLine > lines.length) {
+          return null;
+        }
+        final List<String> importLines = new ArrayList<String>();
+        importLines.add("");
+        importLines.addAll(updatedImports);
+        addInsertion(insertions, packageEndLine + 1, importLines, "", false, false);
+      }
+    } else if (!addInsertions(imports, updatedImports, packageEndLine, getLineAfter(imports), "",
+        false, insertions)) {
+      return null;
+    }
+
+    for (int i = 0; i < types.size(); i++) {
+      final OriginalType type = types.get(i);
+      final TypeDeclaration updatedType = updatedTypes.get(i);
+      if (!type.header.equals(getHeader(updatedType)) || type.beginLine <= 0
+          || type.endLine < type.beginLine || type.endLine > lines.length) {
+        return null;
+      }
+      // Annotations can only be inserted next to existing ones
+      final String annotationIndent =
+          type.annotations.isEmpty() ? "" : getIndent(type.annotations.get(type.annotations
+              .size() - 1));
+      if (!addInsertions(type.annotations, print(updatedType.getAnnotations()), 0,
+          getLineAfter(type.annotations), annotationIndent, false, insertions)) {
+        return null;
+      }
+      // Members that come last go just before the closing brace
+      final String closingLine = lines[type.endLine - 1];
+      final int membersEndLine = closingLine.trim().startsWith("}") ? type.endLine : 0;
+      final String memberIndent =
+          type.members.isEmpty() ? getIndent(closingLine) + INDENT : getIndent(type.members
+              .get(type.members.size() - 1));
+      if (!addInsertions(type.members, print(updatedType.getMembers()), type.beginLine,
+          membersEndLine, memberIndent, true, insertions)) {
+        return null;
+      }
+    }
+
+    final StringBuilder spliced = new StringBuilder();
+    for (int line = 1; line <= lines.length; line++) {
+      final List<String> inserted = insertions.get(line);
+      if (inserted != null) {
+        for (final String insertedLine : inserted) {
+          spliced.append(insertedLine).append(lineSeparator);
+        }
+      }
+      spliced.append(lines[line - 1]);
+      if (line < lines.length) {
+        spliced.append(lineSeparator);
+      }
+    }
+    final List<String> appended = insertions.get(lines.length + 1);
+    if (appended != null) {
+      for (final String appendedLine : appended) {
+        spliced.append(lineSeparator).append(appendedLine);
+      }
+    }
+    return spliced.toString();
+  }
+}
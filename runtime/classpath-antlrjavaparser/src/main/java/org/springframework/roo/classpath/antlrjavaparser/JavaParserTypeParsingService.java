@@ -6,10 +6,17 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -18,6 +25,7 @@ import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.Service;
 import org.springframework.roo.classpath.PhysicalTypeCategory;
+import org.springframework.roo.classpath.TypeCache;
 import org.springframework.roo.classpath.TypeLocationService;
 import org.springframework.roo.classpath.TypeParsingService;
 import org.springframework.roo.classpath.antlrjavaparser.details.JavaParserAnnotationMetadataBuilder;
@@ -27,6 +35,7 @@ import org.springframework.roo.classpath.antlrjavaparser.details.JavaParserConst
 import org.springframework.roo.classpath.antlrjavaparser.details.JavaParserFieldMetadataBuilder;
 import org.springframework.roo.classpath.antlrjavaparser.details.JavaParserMethodMetadataBuilder;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetailsBuilder;
 import org.springframework.roo.classpath.details.ConstructorMetadata;
 import org.springframework.roo.classpath.details.FieldMetadata;
 import org.springframework.roo.classpath.details.ImportMetadata;
@@ -36,6 +45,7 @@ import org.springframework.roo.metadata.MetadataService;
 import org.springframework.roo.model.JavaPackage;
 import org.springframework.roo.model.JavaSymbolName;
 import org.springframework.roo.model.JavaType;
+import org.springframework.roo.support.logging.HandlerUtils;
 
 import com.github.antlrjavaparser.ASTHelper;
 import com.github.antlrjavaparser.JavaParser;
@@ -58,11 +68,38 @@ import com.github.antlrjavaparser.api.type.ClassOrInterfaceType;
 @Service
 public class JavaParserTypeParsingService implements TypeParsingService {
 
+  private static final Logger LOGGER = HandlerUtils.getLogger(JavaParserTypeParsingService.class);
+
+  /**
+   * The maximum number of threads used to pre-parse compilation units
+   */
+  private static final int MAX_PARSER_THREADS = 8;
+
   @Reference
   MetadataService metadataService;
   @Reference
+  TypeCache typeCache;
+  @Reference
   TypeLocationService typeLocationService;
 
+  /**
+   * Compilation units parsed ahead of time, keyed by file identifier. Each
+   * entry remembers the contents it was parsed from, so a file changed since
+   * then is parsed again.
+   */
+  private final Map<String, PreParsedCompilationUnit> preParsedCompilationUnits =
+      new ConcurrentHashMap<String, PreParsedCompilationUnit>();
+
+  private static class PreParsedCompilationUnit {
+    private final String contents;
+    private final CompilationUnit compilationUnit;
+
+    private PreParsedCompilationUnit(final String contents, final CompilationUnit compilationUnit) {
+      this.contents = contents;
+      this.compilationUnit = compilationUnit;
+    }
+  }
+
   private void addEnumConstant(final List<EnumConstantDeclaration> constants,
       final JavaSymbolName name) {
     // Determine location to insert
@@ -106,16 +143,33 @@ public class JavaParserTypeParsingService implements TypeParsingService {
     Validate.notBlank(fileIdentifier, "Compilation unit path required");
     Validate.notBlank(declaredByMetadataId, "Declaring metadata ID required");
     Validate.notNull(typeName, "Java type to locate required");
-    final File file = new File(fileIdentifier);
     String typeContents = "";
     try {
-      typeContents = FileUtils.readFileToString(file);
+      typeContents = FileUtils.readFileToString(new File(fileIdentifier));
     } catch (final IOException ignored) {
     }
     if (StringUtils.isBlank(typeContents)) {
       return null;
     }
-    return getTypeFromString(typeContents, declaredByMetadataId, typeName);
+    final PreParsedCompilationUnit preParsed = preParsedCompilationUnits.remove(fileIdentifier);
+    // Details are stored against the contents they were parsed from, so
+    // they're only reused for exactly those contents
+    final ClassOrInterfaceTypeDetailsBuilder storedType =
+        typeCache.getStoredTypeDetails(fileIdentifier, typeContents, declaredByMetadataId);
+    if (storedType != null) {
+      resolveSuperclasses(storedType);
+      return storedType.build();
+    }
+    final ClassOrInterfaceTypeDetails cid;
+    if (preParsed != null && preParsed.contents.equals(typeContents)) {
+      cid = getTypeFromCompilationUnit(preParsed.compilationUnit, declaredByMetadataId, typeName);
+    } else {
+      cid = getTypeFromString(typeContents, declaredByMetadataId, typeName);
+    }
+    if (cid != null) {
+      typeCache.storeTypeDetails(fileIdentifier, typeContents, cid);
+    }
+    return cid;
   }
 
   @Override
@@ -130,14 +184,7 @@ public class JavaParserTypeParsingService implements TypeParsingService {
     try {
       final CompilationUnit compilationUnit =
           JavaParser.parse(new ByteArrayInputStream(fileContents.getBytes()));
-      final TypeDeclaration typeDeclaration =
-          JavaParserUtils.locateTypeDeclaration(compilationUnit, typeName);
-      if (typeDeclaration == null) {
-        return null;
-      }
-      return JavaParserClassOrInterfaceTypeDetailsBuilder.getInstance(compilationUnit, null,
-          typeDeclaration, declaredByMetadataId, typeName, metadataService, typeLocationService)
-          .build();
+      return getTypeFromCompilationUnit(compilationUnit, declaredByMetadataId, typeName);
     } catch (final IOException e) {
       throw new IllegalStateException(e);
     } catch (final ParseException e) {
@@ -145,6 +192,81 @@ public class JavaParserTypeParsingService implements TypeParsingService {
     }
   }
 
+  private ClassOrInterfaceTypeDetails getTypeFromCompilationUnit(
+      final CompilationUnit compilationUnit, final String declaredByMetadataId,
+      final JavaType typeName) {
+    final TypeDeclaration typeDeclaration =
+        JavaParserUtils.locateTypeDeclaration(compilationUnit, typeName);
+    if (typeDeclaration == null) {
+      return null;
+    }
+    return JavaParserClassOrInterfaceTypeDetailsBuilder.getInstance(compilationUnit, null,
+        typeDeclaration, declaredByMetadataId, typeName, metadataService, typeLocationService)
+        .build();
+  }
+
+  @Override
+  public void preParseCompilationUnits(final Collection<String> fileIdentifiers) {
+    Validate.notNull(fileIdentifiers, "File identifiers required");
+    // Results of a previous warm-up that were never used are stale by now
+    preParsedCompilationUnits.clear();
+    if (fileIdentifiers.isEmpty()) {
+      return;
+    }
+
+    final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+    for (final String fileIdentifier : fileIdentifiers) {
+      tasks.add(new Callable<Void>() {
+        public Void call() {
+          preParseCompilationUnit(fileIdentifier);
+          return null;
+        }
+      });
+    }
+
+    final int threads =
+        Math.max(1,
+            Math.min(MAX_PARSER_THREADS,
+                Math.min(tasks.size(), Runtime.getRuntime().availableProcessors())));
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      executor.invokeAll(tasks);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void preParseCompilationUnit(final String fileIdentifier) {
+    try {
+      final String contents = FileUtils.readFileToString(new File(fileIdentifier));
+      if (StringUtils.isBlank(contents)
+          || typeCache.hasStoredTypeDetails(fileIdentifier, contents)) {
+        return;
+      }
+      final CompilationUnit compilationUnit =
+          JavaParser.parse(new ByteArrayInputStream(contents.getBytes()));
+      preParsedCompilationUnits.put(fileIdentifier, new PreParsedCompilationUnit(contents,
+          compilationUnit));
+    } catch (final Exception e) {
+      // The regular, on demand parse will report the problem
+      LOGGER.finest("Unable to pre-parse '" + fileIdentifier + "': " + e.getMessage());
+    }
+  }
+
+  /**
+   * Looks up the superclass details of the given stored type and its inner
+   * types, as parsing them would.
+   */
+  private void resolveSuperclasses(final ClassOrInterfaceTypeDetailsBuilder cidBuilder) {
+    JavaParserClassOrInterfaceTypeDetailsBuilder.resolveSuperclass(cidBuilder, metadataService,
+        typeLocationService);
+    for (final ClassOrInterfaceTypeDetailsBuilder innerType : cidBuilder.getDeclaredInnerTypes()) {
+      resolveSuperclasses(innerType);
+    }
+  }
+
   /**
    * Appends the presented class to the end of the presented body
    * declarations. The body declarations appear within the presented
@@ -433,6 +555,12 @@ public class JavaParserTypeParsingService implements TypeParsingService {
   @Override
   public String updateAndGetCompilationUnitContents(final String fileIdentifier,
       final ClassOrInterfaceTypeDetails cid) {
+    return updateAndGetCompilationUnitContents(fileIdentifier, cid, false);
+  }
+
+  @Override
+  public String updateAndGetCompilationUnitContents(final String fileIdentifier,
+      final ClassOrInterfaceTypeDetails cid, final boolean minimalEdits) {
     // Validate parameters
     Validate.notBlank(fileIdentifier, "Oringinal unit path required");
     Validate.notNull(cid, "Type details required");
@@ -456,6 +584,9 @@ public class JavaParserTypeParsingService implements TypeParsingService {
     } catch (final ParseException e) {
       throw new IllegalStateException(e);
     }
+    // Taken before the compilation unit is updated in place
+    final CompilationUnitSplicer splicer =
+        minimalEdits ? CompilationUnitSplicer.snapshot(compilationUnit, fileContents) : null;
 
     // Load new compilation unit from cid information
     final String cidContents = getCompilationUnitContents(cid);
@@ -482,6 +613,12 @@ public class JavaParserTypeParsingService implements TypeParsingService {
     UpdateCompilationUnitUtils.updateCompilationUnitTypes(compilationUnit, cidCompilationUnit);
 
     // Return new contents
+    if (splicer != null) {
+      final String splicedContents = splicer.splice(compilationUnit);
+      if (splicedContents != null) {
+        return splicedContents;
+      }
+    }
     return compilationUnit.toString();
   }
 }
@@ -239,11 +239,11 @@ public final class JavaParserUtils {
           if (!compilationUnitPackage.getFullyQualifiedPackageName().equals("")) {
             // It was not imported, so let's assume it's in the same
             // package
-            return new JavaType(compilationUnitServices.getCompilationUnitPackage()
+            return JavaType.of(compilationUnitServices.getCompilationUnitPackage()
                 .getFullyQualifiedPackageName() + "." + qne.toString());
           }
         } else {
-          return new JavaType(importDeclaration.getName() + "." + qne.getName());
+          return JavaType.of(importDeclaration.getName() + "." + qne.getName());
         }
 
         // This name expression (which contains a dot) had its qualifier
@@ -251,7 +251,7 @@ public final class JavaParserUtils {
       } else {
         // First letter is lowercase, so the reference already includes
         // a package
-        return new JavaType(qne.toString());
+        return JavaType.of(qne.toString());
       }
     }
 
@@ -283,7 +283,7 @@ public final class JavaParserUtils {
         final String name =
             compilationUnitServices.getEnclosingTypeName().getFullyQualifiedTypeName() + "."
                 + nameToFind.getName();
-        return new JavaType(name);
+        return JavaType.of(name);
       }
     }
 
@@ -291,15 +291,15 @@ public final class JavaParserUtils {
         getImportDeclarationFor(compilationUnitServices, nameToFind);
     if (importDeclaration == null) {
       if (JdkJavaType.isPartOfJavaLang(nameToFind.getName())) {
-        return new JavaType("java.lang." + nameToFind.getName());
+        return JavaType.of("java.lang." + nameToFind.getName());
       }
       final String name =
           compilationUnitPackage.getFullyQualifiedPackageName().equals("") ? nameToFind.getName()
               : compilationUnitPackage.getFullyQualifiedPackageName() + "." + nameToFind.getName();
-      return new JavaType(name);
+      return JavaType.of(name);
     }
 
-    return new JavaType(importDeclaration.getName().toString());
+    return JavaType.of(importDeclaration.getName().toString());
   }
 
   /**
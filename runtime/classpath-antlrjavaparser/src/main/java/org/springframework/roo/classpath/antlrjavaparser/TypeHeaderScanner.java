@@ -0,0 +1,459 @@
+package org.springframework.roo.classpath.antlrjavaparser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.springframework.roo.classpath.PhysicalTypeCategory;
+import org.springframework.roo.classpath.TypeHeader;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.model.JdkJavaType;
+
+/**
+ * Reads the package, imports and top-level type declarations of a
+ * compilation unit with a simple tokenizer, skipping comments, literals and
+ * type bodies instead of parsing them. Type names are resolved as
+ * {@link JavaParserUtils#getJavaType} does, so that the results agree with
+ * those of a full parse.
+ * <p>
+ * The source is assumed to be legal Java; when it isn't, the scanner gives up
+ * rather than report errors, leaving that to the full parse. It also gives up
+ * on a header naming a type it can't resolve exactly, i.e. that could come
+ * from an on demand import or be one of the types declared in the
+ * compilation unit.
+ *
+ * @since 2.0
+ */
+final class TypeHeaderScanner {
+
+  private static final String[] MODIFIERS = {"abstract", "final", "private", "protected",
+      "public", "static", "strictfp"};
+
+  /**
+   * Returns the package declared by the given compilation unit.
+   *
+   * @param contents the compilation unit source (required)
+   * @return the fully qualified package name, or <code>null</code> if there
+   *         is no package declaration
+   */
+  static String scanPackage(final String contents) {
+    final TypeHeaderScanner scanner = new TypeHeaderScanner(contents);
+    String token = scanner.nextToken();
+    while ("@".equals(token)) {
+      // Package annotations, as found in package-info.java
+      scanner.skipAnnotation();
+      token = scanner.nextToken();
+    }
+    if (!"package".equals(token)) {
+      return null;
+    }
+    return scanner.readQualifiedName();
+  }
+
+  /**
+   * Returns the header of the given top-level type declared by the given
+   * compilation unit.
+   *
+   * @param contents the compilation unit source (required)
+   * @param simpleTypeName the simple name of the type to read (required)
+   * @return <code>null</code> if no such type is declared, the source can't
+   *         be read or the header names a type that only a full parse can
+   *         resolve
+   */
+  static TypeHeader scanType(final String contents, final String simpleTypeName) {
+    Validate.notBlank(simpleTypeName, "Simple type name required");
+    final TypeHeaderScanner scanner = new TypeHeaderScanner(contents);
+    final TypeHeader header = scanner.scanType(simpleTypeName);
+    return scanner.exact ? header : null;
+  }
+
+  /**
+   * Returns the name of the given top-level type declared by the given
+   * compilation unit.
+   *
+   * @param contents the compilation unit source (required)
+   * @param simpleTypeName the simple name of the type (required)
+   * @return <code>null</code> if no such type is declared or the source
+   *         can't be read
+   */
+  static JavaType scanTypeName(final String contents, final String simpleTypeName) {
+    Validate.notBlank(simpleTypeName, "Simple type name required");
+    final TypeHeader header = new TypeHeaderScanner(contents).scanType(simpleTypeName);
+    return header == null ? null : header.getName();
+  }
+
+  /**
+   * Simple names to fully qualified names, as per the single type imports;
+   * the first import of a given simple name wins
+   */
+  private final Map<String, String> imports = new HashMap<String, String>();
+  /**
+   * The simple names of the types declared by the compilation unit, at any
+   * level; only read when needed
+   */
+  private Set<String> declaredTypeNames;
+  /**
+   * Whether every name read so far was resolved as a full parse would
+   */
+  private boolean exact = true;
+  private boolean hasOnDemandImports;
+  private String packageName = "";
+  private int position;
+  private final LinkedList<String> pushedBack = new LinkedList<String>();
+  private final String source;
+
+  private TypeHeaderScanner(final String source) {
+    Validate.notNull(source, "Source required");
+    this.source = source;
+  }
+
+  private TypeHeader scanType(final String simpleTypeName) {
+    final List<String> annotationNames = new ArrayList<String>();
+    String token;
+    while ((token = nextToken()) != null) {
+      if ("package".equals(token)) {
+        packageName = readQualifiedName();
+        annotationNames.clear();
+      } else if ("import".equals(token)) {
+        readImport();
+      } else if ("@".equals(token)) {
+        final String next = nextToken();
+        if ("interface".equals(next)) {
+          final TypeHeader header =
+              readTypeDeclaration(PhysicalTypeCategory.ANNOTATION, simpleTypeName,
+                  annotationNames);
+          if (header != null) {
+            return header;
+          }
+        } else {
+          pushBack(next);
+          annotationNames.add(readQualifiedName());
+          skipAnnotationArguments();
+        }
+      } else if ("class".equals(token)) {
+        final TypeHeader header =
+            readTypeDeclaration(PhysicalTypeCategory.CLASS, simpleTypeName, annotationNames);
+        if (header != null) {
+          return header;
+        }
+      } else if ("interface".equals(token)) {
+        final TypeHeader header =
+            readTypeDeclaration(PhysicalTypeCategory.INTERFACE, simpleTypeName, annotationNames);
+        if (header != null) {
+          return header;
+        }
+      } else if ("enum".equals(token)) {
+        final TypeHeader header =
+            readTypeDeclaration(PhysicalTypeCategory.ENUMERATION, simpleTypeName,
+                annotationNames);
+        if (header != null) {
+          return header;
+        }
+      } else if (!";".equals(token) && !isModifier(token)) {
+        // Not something we understand
+        return null;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Reads a type declaration following its keyword. If it's the wanted
+   * type, returns its header, otherwise skips its body.
+   *
+   * @return <code>null</code> if it's another type, or the source is illegal
+   */
+  private TypeHeader readTypeDeclaration(final PhysicalTypeCategory physicalTypeCategory,
+      final String simpleTypeName, final List<String> annotationNames) {
+    final String name = nextToken();
+    if (!simpleTypeName.equals(name)) {
+      skipToBody();
+      skipBalanced("{", "}");
+      annotationNames.clear();
+      return null;
+    }
+
+    final JavaType typeName =
+        JavaType.of(packageName.length() == 0 ? name : packageName + "." + name);
+    final List<String> extendsNames = new ArrayList<String>();
+    final List<String> implementsNames = new ArrayList<String>();
+    List<String> currentList = null;
+    String token;
+    while ((token = nextToken()) != null && !"{".equals(token)) {
+      if ("<".equals(token)) {
+        // The type's own type parameters or a supertype's type arguments
+        pushBack(token);
+        skipBalanced("<", ">");
+      } else if ("extends".equals(token)) {
+        currentList = extendsNames;
+      } else if ("implements".equals(token)) {
+        currentList = implementsNames;
+      } else if (",".equals(token)) {
+        continue;
+      } else if (currentList != null && isIdentifier(token)) {
+        pushBack(token);
+        currentList.add(readQualifiedName());
+      } else {
+        return null;
+      }
+    }
+    if (token == null) {
+      return null;
+    }
+
+    return new TypeHeader(typeName, physicalTypeCategory, resolve(annotationNames, typeName),
+        resolve(extendsNames, typeName), resolve(implementsNames, typeName));
+  }
+
+  private void readImport() {
+    String token = nextToken();
+    final boolean isStatic = "static".equals(token);
+    if (isStatic) {
+      token = nextToken();
+    }
+    pushBack(token);
+    final String importedName = readQualifiedName();
+    token = nextToken();
+    if (".".equals(token)) {
+      // On demand import, i.e. ending in ".*"; static ones only import
+      // members, which type names in a header hardly ever are
+      nextToken();
+      nextToken();
+      hasOnDemandImports |= !isStatic;
+      return;
+    }
+    final String simpleName = StringUtils.substringAfterLast("." + importedName, ".");
+    if (!imports.containsKey(simpleName)) {
+      imports.put(simpleName, importedName);
+    }
+  }
+
+  private List<JavaType> resolve(final List<String> names, final JavaType enclosingType) {
+    final List<JavaType> types = new ArrayList<JavaType>();
+    for (final String name : names) {
+      types.add(resolve(name, enclosingType));
+    }
+    return types;
+  }
+
+  private JavaType resolve(final String name, final JavaType enclosingType) {
+    final int lastDot = name.lastIndexOf('.');
+    if (lastDot > 0) {
+      final String qualifier = name.substring(0, lastDot);
+      final String simpleName = name.substring(lastDot + 1);
+      if (qualifier.equals(enclosingType.getSimpleTypeName())) {
+        // A member type of the type itself
+        return JavaType.of(enclosingType.getFullyQualifiedTypeName() + "." + simpleName);
+      }
+      if (!Character.isUpperCase(name.charAt(0))) {
+        // Already fully qualified
+        return JavaType.of(name);
+      }
+      // A member type of another type (ROO-1210)
+      final String importedQualifier = getImport(qualifier);
+      if (importedQualifier != null) {
+        return JavaType.of(importedQualifier + "." + simpleName);
+      }
+      checkResolvedByDefault(StringUtils.substringBefore(qualifier, "."));
+      return JavaType.of(packageName.length() == 0 ? name : packageName + "." + name);
+    }
+
+    if (name.equals(enclosingType.getSimpleTypeName())) {
+      return enclosingType;
+    }
+    final String imported = getImport(name);
+    if (imported != null) {
+      return JavaType.of(imported);
+    }
+    checkResolvedByDefault(name);
+    if (JdkJavaType.isPartOfJavaLang(name)) {
+      return JavaType.of("java.lang." + name);
+    }
+    return JavaType.of(packageName.length() == 0 ? name : packageName + "." + name);
+  }
+
+  /**
+   * Records whether the given simple name, about to be resolved to a
+   * java.lang or same package type, could actually denote another type.
+   */
+  private void checkResolvedByDefault(final String simpleName) {
+    if (hasOnDemandImports || getDeclaredTypeNames().contains(simpleName)) {
+      exact = false;
+    }
+  }
+
+  private Set<String> getDeclaredTypeNames() {
+    if (declaredTypeNames == null) {
+      declaredTypeNames = new HashSet<String>();
+      final TypeHeaderScanner scanner = new TypeHeaderScanner(source);
+      String previous = null;
+      String token;
+      while ((token = scanner.nextToken()) != null) {
+        if (("class".equals(token) || "interface".equals(token) || "enum".equals(token))
+            && !".".equals(previous)) {
+          // Not a class literal, so a declaration
+          final String name = scanner.nextToken();
+          if (isIdentifier(name)) {
+            declaredTypeNames.add(name);
+          }
+          token = name;
+        }
+        previous = token;
+      }
+    }
+    return declaredTypeNames;
+  }
+
+  private String getImport(final String name) {
+    if (name.indexOf('.') < 0) {
+      return imports.get(name);
+    }
+    // A qualified name has to match an import exactly
+    return imports.containsValue(name) ? name : null;
+  }
+
+  private boolean isIdentifier(final String token) {
+    return token != null && Character.isJavaIdentifierStart(token.charAt(0));
+  }
+
+  private boolean isModifier(final String token) {
+    for (final String modifier : MODIFIERS) {
+      if (modifier.equals(token)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void pushBack(final String token) {
+    if (token != null) {
+      pushedBack.addFirst(token);
+    }
+  }
+
+  /**
+   * Reads a possibly qualified name, e.g. <code>com.example.Foo</code>,
+   * leaving any token that follows it unread.
+   *
+   * @return a non-<code>null</code> name, empty if there was none
+   */
+  private String readQualifiedName() {
+    final StringBuilder name = new StringBuilder();
+    String token = nextToken();
+    while (isIdentifier(token)) {
+      name.append(token);
+      token = nextToken();
+      if (!".".equals(token)) {
+        break;
+      }
+      final String next = nextToken();
+      if (!isIdentifier(next)) {
+        // e.g. the ".*" of an on demand import
+        pushBack(next);
+        pushBack(token);
+        return name.toString();
+      }
+      name.append('.');
+      token = next;
+    }
+    pushBack(token);
+    return name.toString();
+  }
+
+  private void skipAnnotation() {
+    readQualifiedName();
+    skipAnnotationArguments();
+  }
+
+  private void skipAnnotationArguments() {
+    final String token = nextToken();
+    pushBack(token);
+    if ("(".equals(token)) {
+      skipBalanced("(", ")");
+    }
+  }
+
+  /**
+   * Skips from the next token, which must be the given opening token, to
+   * just after the matching closing token.
+   */
+  private void skipBalanced(final String open, final String close) {
+    int depth = 0;
+    String token;
+    while ((token = nextToken()) != null) {
+      if (open.equals(token)) {
+        depth++;
+      } else if (close.equals(token)) {
+        depth--;
+        if (depth <= 0) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Skips to just before the opening brace of a type body.
+   */
+  private void skipToBody() {
+    String token;
+    while ((token = nextToken()) != null) {
+      if ("{".equals(token)) {
+        pushBack(token);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the next token: an identifier, keyword or number; a single
+   * punctuation character; or a quote standing for a whole string or
+   * character literal. Whitespace and comments are skipped.
+   *
+   * @return <code>null</code> at the end of the source
+   */
+  private String nextToken() {
+    if (!pushedBack.isEmpty()) {
+      return pushedBack.removeFirst();
+    }
+    final int length = source.length();
+    while (position < length) {
+      final char c = source.charAt(position);
+      if (Character.isWhitespace(c)) {
+        position++;
+      } else if (source.startsWith("//", position)) {
+        final int end = source.indexOf('\n', position);
+        position = end < 0 ? length : end + 1;
+      } else if (source.startsWith("/*", position)) {
+        final int end = source.indexOf("*/", position + 2);
+        position = end < 0 ? length : end + 2;
+      } else if (c == '"' || c == '\'') {
+        position++;
+        while (position < length && source.charAt(position) != c) {
+          if (source.charAt(position) == '\\') {
+            position++;
+          }
+          position++;
+        }
+        position++;
+        return String.valueOf(c);
+      } else if (Character.isJavaIdentifierPart(c)) {
+        final int start = position;
+        while (position < length && Character.isJavaIdentifierPart(source.charAt(position))) {
+          position++;
+        }
+        return source.substring(start, position);
+      } else {
+        position++;
+        return String.valueOf(c);
+      }
+    }
+    return null;
+  }
+}
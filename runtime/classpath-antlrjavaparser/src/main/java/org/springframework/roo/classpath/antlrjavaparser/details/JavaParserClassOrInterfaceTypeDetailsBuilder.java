@@ -75,6 +75,34 @@ public class JavaParserClassOrInterfaceTypeDetailsBuilder implements
         metadataService, typeLocationService);
   }
 
+  /**
+   * Sets the details of the superclass of the given type, if it's a class
+   * with one superclass whose details are available. Types restored without
+   * parsing have to do this too, as their superclass may have changed since.
+   * 
+   * @param cidBuilder the type to update (required)
+   * @param metadataService
+   * @param typeLocationService
+   * @since 2.0
+   */
+  public static void resolveSuperclass(final ClassOrInterfaceTypeDetailsBuilder cidBuilder,
+      final MetadataService metadataService, final TypeLocationService typeLocationService) {
+    final List<JavaType> extendsTypes = cidBuilder.getExtendsTypes();
+    // Obtain the superclass, if this is a class and one is available
+    if (cidBuilder.getPhysicalTypeCategory() == PhysicalTypeCategory.CLASS
+        && extendsTypes.size() == 1) {
+      final JavaType superclass = extendsTypes.get(0);
+      final String superclassId = typeLocationService.getPhysicalTypeIdentifier(superclass);
+      PhysicalTypeMetadata superPtm = null;
+      if (superclassId != null) {
+        superPtm = (PhysicalTypeMetadata) metadataService.get(superclassId);
+      }
+      if (superPtm != null && superPtm.getMemberHoldingTypeDetails() != null) {
+        cidBuilder.setSuperclass(superPtm.getMemberHoldingTypeDetails());
+      }
+    }
+  }
+
   private final CompilationUnit compilationUnit;
   private JavaPackage compilationUnitPackage;
   private final CompilationUnitServices compilationUnitServices;
@@ -236,19 +264,7 @@ public class JavaParserClassOrInterfaceTypeDetailsBuilder implements
         }
       }
 
-      final List<JavaType> extendsTypes = cidBuilder.getExtendsTypes();
-      // Obtain the superclass, if this is a class and one is available
-      if (physicalTypeCategory == PhysicalTypeCategory.CLASS && extendsTypes.size() == 1) {
-        final JavaType superclass = extendsTypes.get(0);
-        final String superclassId = typeLocationService.getPhysicalTypeIdentifier(superclass);
-        PhysicalTypeMetadata superPtm = null;
-        if (superclassId != null) {
-          superPtm = (PhysicalTypeMetadata) metadataService.get(superclassId);
-        }
-        if (superPtm != null && superPtm.getMemberHoldingTypeDetails() != null) {
-          cidBuilder.setSuperclass(superPtm.getMemberHoldingTypeDetails());
-        }
-      }
+      resolveSuperclass(cidBuilder, metadataService, typeLocationService);
 
       implementsList = clazz.getImplements();
       if (implementsList != null) {
@@ -1,5 +1,6 @@
 package org.springframework.roo.classpath.antlrjavaparser;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -42,6 +43,7 @@ public class NewUpdateCompilationUnitTest {
   private static final String SIMPLE_CLASS3_FILE_PATH = "SimpleClass3.java.test";
   private static final String ROO1505_CLASS_FILE_PATH = "Roo_1505.java.test";
   private static final String ENUM_FILE_PATH = "AEnumerate.java.test";
+  private static final String SIMPLE_CLASS4_FILE_PATH = "SimpleClass4.java.test";
 
   private static final JavaType SIMPLE_INTERFACE_TYPE = new JavaType(
       "org.myPackage.SimpleInterface");
@@ -50,6 +52,7 @@ public class NewUpdateCompilationUnitTest {
   private static final JavaType SIMPLE_CLASS3_TYPE = new JavaType("org.myPackage.SimpleClass3");
   private static final JavaType ROO1505_CLASS_TYPE = new JavaType("com.pet.Roo_1505");
   private static final JavaType ENUM_TYPE = new JavaType("org.myPackage.AEnumerate");
+  private static final JavaType SIMPLE_CLASS4_TYPE = new JavaType("org.myPackage.SimpleClass4");
 
   private static final String SIMPLE_INTERFACE_DECLARED_BY_MID =
       "MID:org.springframework.roo.classpath.PhysicalTypeIdentifier#bar?SimpleInterface";
@@ -63,6 +66,8 @@ public class NewUpdateCompilationUnitTest {
       "MID:org.springframework.roo.classpath.PhysicalTypeIdentifier#SRC_MAIN_JAVA?Roo_1505";
   private static final String ENUM_DECLARED_BY_MID =
       "MID:org.springframework.roo.classpath.PhysicalTypeIdentifier#SRC_MAIN_JAVA?AEnumerate";
+  private static final String SIMPLE_CLASS4_DECLARED_BY_MID =
+      "MID:org.springframework.roo.classpath.PhysicalTypeIdentifier#SRC_MAIN_JAVA?SimpleClass4";
 
   @Mock
   private MetadataService mockMetadataService;
@@ -346,6 +351,83 @@ public class NewUpdateCompilationUnitTest {
 
   }
 
+  @Test
+  public void testMinimalEditsAddField() throws Exception {
+
+    // Set up
+    final File file = getResource(SIMPLE_CLASS4_FILE_PATH);
+    final String fileContents = getResourceContents(file);
+
+    final ClassOrInterfaceTypeDetails simpleClassDetails =
+        typeParsingService.getTypeFromString(fileContents, SIMPLE_CLASS4_DECLARED_BY_MID,
+            SIMPLE_CLASS4_TYPE);
+
+    final FieldMetadataBuilder fieldBuilder =
+        new FieldMetadataBuilder(SIMPLE_CLASS4_DECLARED_BY_MID, Modifier.PRIVATE,
+            new JavaSymbolName("newFieldAddedByCode"), new JavaType(String.class),
+            "\"Create by code\"");
+
+    // Invoke
+    final String result =
+        typeParsingService.updateAndGetCompilationUnitContents(file.getCanonicalPath(),
+            addField(simpleClassDetails, fieldBuilder.build()), true);
+
+    saveResult(file, result, "-minimalAddedField");
+
+    // Only the new field differs from the original text
+    assertEquals(fileContents.replace("\n}",
+        "\n\n\tprivate String newFieldAddedByCode = \"Create by code\";\n}"), result);
+  }
+
+  @Test
+  public void testMinimalEditsAddAnnotation() throws Exception {
+
+    // Set up
+    final File file = getResource(SIMPLE_CLASS4_FILE_PATH);
+    final String fileContents = getResourceContents(file);
+
+    final ClassOrInterfaceTypeDetails simpleClassDetails =
+        typeParsingService.getTypeFromString(fileContents, SIMPLE_CLASS4_DECLARED_BY_MID,
+            SIMPLE_CLASS4_TYPE);
+
+    final AnnotationMetadataBuilder annotationBuilder =
+        new AnnotationMetadataBuilder(new JavaType(
+            "org.springframework.roo.addon.javabean.addon.RooToString"));
+
+    // Invoke
+    final String result =
+        typeParsingService.updateAndGetCompilationUnitContents(file.getCanonicalPath(),
+            addAnnotation(simpleClassDetails, annotationBuilder.build()), true);
+
+    saveResult(file, result, "-minimalAddedAnnotation");
+
+    // Only the new import and annotation differ from the original text
+    assertEquals(
+        fileContents.replace("import java.util.List;\n",
+            "import java.util.List;\n"
+                + "import org.springframework.roo.addon.javabean.addon.RooToString;\n").replace(
+            "@Deprecated\n", "@Deprecated\n@RooToString\n"), result);
+  }
+
+  @Test
+  public void testMinimalEditsNoChanges() throws Exception {
+
+    // Set up
+    final File file = getResource(SIMPLE_CLASS4_FILE_PATH);
+    final String fileContents = getResourceContents(file);
+
+    final ClassOrInterfaceTypeDetails simpleClassDetails =
+        typeParsingService.getTypeFromString(fileContents, SIMPLE_CLASS4_DECLARED_BY_MID,
+            SIMPLE_CLASS4_TYPE);
+
+    // Invoke
+    final String result =
+        typeParsingService.updateAndGetCompilationUnitContents(file.getCanonicalPath(),
+            simpleClassDetails, true);
+
+    assertEquals(fileContents, result);
+  }
+
   public static ClassOrInterfaceTypeDetails addField(final ClassOrInterfaceTypeDetails ptd,
       final FieldMetadata field) {
     final ClassOrInterfaceTypeDetailsBuilder cidBuilder =
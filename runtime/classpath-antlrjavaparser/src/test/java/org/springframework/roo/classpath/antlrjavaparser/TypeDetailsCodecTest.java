@@ -0,0 +1,105 @@
+package org.springframework.roo.classpath.antlrjavaparser;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.springframework.roo.classpath.TypeLocationService;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.classpath.details.TypeDetailsCodec;
+import org.springframework.roo.metadata.MetadataService;
+import org.springframework.roo.model.JavaType;
+
+/**
+ * Round trip test of {@link TypeDetailsCodec} against the output of
+ * {@link JavaParserTypeParsingService}
+ *
+ * @since 2.0
+ */
+@RunWith(PowerMockRunner.class)
+public class TypeDetailsCodecTest {
+
+  private static final String MID_PREFIX =
+      "MID:org.springframework.roo.classpath.PhysicalTypeIdentifier#SRC_MAIN_JAVA?";
+
+  @Mock
+  private MetadataService mockMetadataService;
+  @Mock
+  private TypeLocationService mockTypeLocationService;
+
+  // Fixture
+  private JavaParserTypeParsingService typeParsingService;
+
+  /**
+   * Asserts that the given parsed type survives encoding, by comparing the
+   * sources generated from it before and after
+   */
+  private void assertRoundTrip(final String resource, final String typeName) throws IOException {
+    final URL url = getClass().getClassLoader().getResource(resource);
+    final String contents = FileUtils.readFileToString(new File(url.getPath()));
+    final JavaType type = new JavaType(typeName);
+    final ClassOrInterfaceTypeDetails original =
+        typeParsingService.getTypeFromString(contents, MID_PREFIX + type.getSimpleTypeName(),
+            type);
+
+    final byte[] encoded = TypeDetailsCodec.encode(original);
+    final ClassOrInterfaceTypeDetails decoded = TypeDetailsCodec.decode(encoded).build();
+
+    assertEquals(original.getDeclaredByMetadataId(), decoded.getDeclaredByMetadataId());
+    assertEquals(original.getName(), decoded.getName());
+    // Imports are held in a set, so may come out in another order
+    assertEquals(getSortedLines(typeParsingService.getCompilationUnitContents(original)),
+        getSortedLines(typeParsingService.getCompilationUnitContents(decoded)));
+  }
+
+  private String getSortedLines(final String source) {
+    final String[] lines = source.split("\n");
+    Arrays.sort(lines);
+    return Arrays.toString(lines);
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    MockitoAnnotations.initMocks(this);
+    typeParsingService = new JavaParserTypeParsingService();
+    typeParsingService.metadataService = mockMetadataService;
+    typeParsingService.typeLocationService = mockTypeLocationService;
+  }
+
+  @Test
+  public void testRoundTripClassWithInnerTypes() throws Exception {
+    assertRoundTrip("SimpleClass.java.test", "org.myPackage.SimpleClass");
+    assertRoundTrip("SimpleClass2.java.test", "org.myPackage.SimpleClass2");
+    assertRoundTrip("SimpleClass3.java.test", "org.myPackage.SimpleClass3");
+  }
+
+  @Test
+  public void testRoundTripEnum() throws Exception {
+    assertRoundTrip("AEnumerate.java.test", "org.myPackage.AEnumerate");
+  }
+
+  @Test
+  public void testRoundTripInterface() throws Exception {
+    assertRoundTrip("SimpleInterface.java.test", "org.myPackage.SimpleInterface");
+  }
+
+  @Test
+  public void testRoundTripRoo1505() throws Exception {
+    assertRoundTrip("Roo_1505.java.test", "com.pet.Roo_1505");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDecodeOtherSchemaVersion() {
+    TypeDetailsCodec.decode(new byte[] {(byte) (TypeDetailsCodec.SCHEMA_VERSION + 1), 0});
+  }
+}
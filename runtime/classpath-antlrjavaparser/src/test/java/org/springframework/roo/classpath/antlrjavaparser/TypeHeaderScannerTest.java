@@ -0,0 +1,114 @@
+package org.springframework.roo.classpath.antlrjavaparser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.roo.classpath.PhysicalTypeCategory;
+import org.springframework.roo.classpath.TypeHeader;
+import org.springframework.roo.model.JavaType;
+
+/**
+ * Unit test of {@link TypeHeaderScanner}
+ *
+ * @since 2.0
+ */
+public class TypeHeaderScannerTest {
+
+  private static final String ENTITY_SOURCE = "/* A header comment { */\n"
+      + "// class NotThisOne {\n"
+      + "package com.example.domain;\n\n"
+      + "import java.util.List;\n"
+      + "import static org.junit.Assert.*;\n"
+      + "import org.springframework.roo.addon.javabean.annotations.RooJavaBean;\n"
+      + "import org.springframework.roo.addon.jpa.annotations.entity.RooJpaEntity;\n"
+      + "import com.other.Outer;\n\n"
+      + "@RooJavaBean\n"
+      + "@RooJpaEntity(table = \"PEOPLE\", inheritanceType = \"}\")\n"
+      + "@com.foo.Qualified(value = { '}' })\n"
+      + "@Outer.Inner\n"
+      + "public abstract class Person<T extends Comparable<T>>\n"
+      + "    extends AbstractEntity<Long, List<T>>\n"
+      + "    implements java.io.Serializable, Comparable<Person<T>> {\n"
+      + "  private String s = \"class Fake {\";\n"
+      + "}\n\n"
+      + "class Helper {}\n";
+
+  private List<String> getNames(final List<JavaType> types) {
+    final List<String> names = new ArrayList<String>();
+    for (final JavaType type : types) {
+      names.add(type.getFullyQualifiedTypeName());
+    }
+    return names;
+  }
+
+  @Test
+  public void testScanClass() {
+    final TypeHeader header = TypeHeaderScanner.scanType(ENTITY_SOURCE, "Person");
+
+    assertEquals("com.example.domain.Person", header.getName().getFullyQualifiedTypeName());
+    assertEquals(PhysicalTypeCategory.CLASS, header.getPhysicalTypeCategory());
+    assertEquals(Arrays.asList("org.springframework.roo.addon.javabean.annotations.RooJavaBean",
+        "org.springframework.roo.addon.jpa.annotations.entity.RooJpaEntity", "com.foo.Qualified",
+        "com.other.Outer.Inner"), getNames(header.getAnnotationTypes()));
+    // Unimported names are taken to be in the same package, as when parsing
+    assertEquals(Arrays.asList("com.example.domain.AbstractEntity"),
+        getNames(header.getExtendsTypes()));
+    assertEquals(Arrays.asList("java.io.Serializable", "java.lang.Comparable"),
+        getNames(header.getImplementsTypes()));
+  }
+
+  @Test
+  public void testScanSecondTypeOfUnit() {
+    final TypeHeader header =
+        TypeHeaderScanner.scanType("package a;\n@Foo class Helper { int x; }\n"
+            + "@Bar public interface Api extends Runnable, b.C {}", "Api");
+
+    assertEquals(PhysicalTypeCategory.INTERFACE, header.getPhysicalTypeCategory());
+    assertEquals(Arrays.asList("a.Bar"), getNames(header.getAnnotationTypes()));
+    assertEquals(Arrays.asList("java.lang.Runnable", "b.C"), getNames(header.getExtendsTypes()));
+  }
+
+  @Test
+  public void testScanEnumAndAnnotation() {
+    assertEquals(PhysicalTypeCategory.ENUMERATION,
+        TypeHeaderScanner.scanType("package a; public enum Color { RED { void f() {} }, GREEN }",
+            "Color").getPhysicalTypeCategory());
+    assertEquals(PhysicalTypeCategory.ANNOTATION,
+        TypeHeaderScanner.scanType("package a; public @interface Marker { String value(); }",
+            "Marker").getPhysicalTypeCategory());
+  }
+
+  @Test
+  public void testNameFromOnDemandImportNeedsFullParse() {
+    final String source = "package a;\nimport b.*;\n@RooJavaBean public class Person {}";
+
+    assertNull(TypeHeaderScanner.scanType(source, "Person"));
+    assertEquals("a.Person", TypeHeaderScanner.scanTypeName(source, "Person")
+        .getFullyQualifiedTypeName());
+  }
+
+  @Test
+  public void testNameOfDeclaredTypeNeedsFullParse() {
+    assertNull(TypeHeaderScanner.scanType(
+        "package a; @Marker public class Person { @interface Marker {} }", "Person"));
+    assertNull(TypeHeaderScanner.scanType(
+        "package a; public class Person extends Base.Inner {} class Base { class Inner {} }",
+        "Person"));
+  }
+
+  @Test
+  public void testScanMissingType() {
+    assertNull(TypeHeaderScanner.scanType(ENTITY_SOURCE, "Missing"));
+  }
+
+  @Test
+  public void testScanPackage() {
+    assertEquals("com.example.domain", TypeHeaderScanner.scanPackage(ENTITY_SOURCE));
+    assertNull(TypeHeaderScanner.scanPackage("public class InDefaultPackage {}"));
+  }
+}
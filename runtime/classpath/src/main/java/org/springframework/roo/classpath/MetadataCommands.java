@@ -158,7 +158,8 @@ public class MetadataCommands implements CommandMarker {
     for (final MetadataTimingStatistic stat : metadataLogger.getTimings()) {
       sb.append(stat.toString()).append(LINE_SEPARATOR);
     }
-    sb.append(metadataService.toString());
+    sb.append(metadataService.toString()).append(LINE_SEPARATOR);
+    sb.append(memberDetailsScanner.toString());
     return sb.toString();
   }
 
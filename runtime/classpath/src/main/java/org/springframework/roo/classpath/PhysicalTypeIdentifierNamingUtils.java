@@ -66,7 +66,7 @@ public final class PhysicalTypeIdentifierNamingUtils {
     final String instance =
         MetadataIdentificationUtils.getMetadataInstance(metadataIdentificationString);
     final int index = instance.indexOf("?");
-    return new JavaType(instance.substring(index + 1),
+    return JavaType.of(instance.substring(index + 1),
         getModuleFromIdentificationString(metadataIdentificationString));
   }
 
@@ -82,7 +82,7 @@ public final class PhysicalTypeIdentifierNamingUtils {
    */
   public static JavaType getJavaType(final String metadataClass, final String metadataId) {
     final String instanceKey = getInstanceKey(metadataClass, metadataId);
-    return new JavaType(instanceKey.substring(instanceKey.indexOf(PATH_SUFFIX) + 1),
+    return JavaType.of(instanceKey.substring(instanceKey.indexOf(PATH_SUFFIX) + 1),
         getModuleFromIdentificationString(metadataId));
   }
 
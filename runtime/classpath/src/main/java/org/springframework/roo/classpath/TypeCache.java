@@ -1,8 +1,11 @@
 package org.springframework.roo.classpath;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Set;
 
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetailsBuilder;
 import org.springframework.roo.model.JavaType;
 import org.springframework.roo.project.maven.Pom;
 
@@ -18,11 +21,84 @@ public interface TypeCache {
 
   String getPhysicalTypeIdentifier(JavaType javaType);
 
+  /**
+   * Returns the parsed details of the given type, as stored by
+   * {@link #storeTypeDetails(String, String, ClassOrInterfaceTypeDetails)}
+   * in this or a previous session.
+   * 
+   * @param typeFilePath the canonical path of the type's source file
+   *            (required)
+   * @param contents the current contents of that file (required)
+   * @param physicalTypeId the type's physical type identifier (required)
+   * @return a builder without superclass details, or <code>null</code> if
+   *         none are stored for these contents of the file
+   * @since 2.0
+   */
+  ClassOrInterfaceTypeDetailsBuilder getStoredTypeDetails(String typeFilePath, String contents,
+      String physicalTypeId);
+
   ClassOrInterfaceTypeDetails getTypeDetails(String mid);
 
   String getTypeIdFromTypeFilePath(String typeFilePath);
 
+  /**
+   * Indicates whether details are stored for the given contents of the
+   * given file, i.e. whether it needs parsing.
+   * 
+   * @param typeFilePath the canonical path of the type's source file
+   *            (required)
+   * @param contents the current contents of that file (required)
+   * @return see above
+   * @since 2.0
+   */
+  boolean hasStoredTypeDetails(String typeFilePath, String contents);
+
+  /**
+   * Indicates whether the stored type details have changed since they were
+   * last loaded or saved.
+   * 
+   * @return see above
+   * @since 2.0
+   */
+  boolean isStoreModified();
+
+  /**
+   * Replaces the stored type details with those saved to the given file by
+   * {@link #saveStoredTypeDetails(File)}, reading each of them only when
+   * first requested.
+   * 
+   * @param file the file to load (required)
+   * @throws IOException if the file can't be read or is of another format,
+   *             in which case nothing is stored any more
+   * @since 2.0
+   */
+  void loadStoredTypeDetails(File file) throws IOException;
+
   Set<String> getTypeNamesForModuleFilePath(String moduleFilePath);
 
   void removeType(String typeIdentifier);
+
+  /**
+   * Saves the stored type details to the given file, for loading in a later
+   * session. Details of files that no longer exist are left out.
+   * 
+   * @param file the file to write, replacing any existing one (required)
+   * @throws IOException if the file can't be written
+   * @since 2.0
+   */
+  void saveStoredTypeDetails(File file) throws IOException;
+
+  /**
+   * Stores the details of the given type as parsed from the given file, in
+   * a compact form that can be saved between sessions. Types whose details
+   * can't be encoded are not stored.
+   * 
+   * @param typeFilePath the canonical path of the type's source file
+   *            (required)
+   * @param contents the contents of that file that were parsed (required)
+   * @param cid the parsed type details, as yet undecorated (required)
+   * @see org.springframework.roo.classpath.details.TypeDetailsCodec
+   * @since 2.0
+   */
+  void storeTypeDetails(String typeFilePath, String contents, ClassOrInterfaceTypeDetails cid);
 }
@@ -1,14 +1,34 @@
 package org.springframework.roo.classpath;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Service;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetailsBuilder;
+import org.springframework.roo.classpath.details.TypeDetailsCodec;
 import org.springframework.roo.model.JavaType;
 import org.springframework.roo.project.maven.Pom;
 
@@ -16,6 +36,54 @@ import org.springframework.roo.project.maven.Pom;
 @Service
 public class TypeCacheImpl implements TypeCache {
 
+  /**
+   * Identifies the layout of the stored type details file, as opposed to
+   * that of each type's details; bump whenever it changes
+   */
+  private static final int STORE_FORMAT_VERSION = 2;
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private static final String DIGEST_ALGORITHM = "SHA-1";
+  private static final int DIGEST_LENGTH = 20;
+
+  /**
+   * The encoded details of a type, along with the length and digest of the
+   * source they were parsed from. Loaded details are views of the mapped
+   * store file, and are only decoded when requested.
+   */
+  private static class StoredType {
+    private final byte[] digest;
+    private final ByteBuffer encoded;
+    private final int sourceLength;
+
+    private StoredType(final ByteBuffer encoded, final int sourceLength, final byte[] digest) {
+      this.digest = digest;
+      this.encoded = encoded;
+      this.sourceLength = sourceLength;
+    }
+
+    private byte[] getEncoded() {
+      final ByteBuffer source = encoded.duplicate();
+      final byte[] bytes = new byte[source.remaining()];
+      source.get(bytes);
+      return bytes;
+    }
+
+    private boolean isParsedFrom(final byte[] source) {
+      return source.length == sourceLength && Arrays.equals(digest, getDigest(source));
+    }
+  }
+
+  private static byte[] getDigest(final byte[] source) {
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM).digest(source);
+    } catch (final NoSuchAlgorithmException e) {
+      // Every JRE has to provide it
+      throw new IllegalStateException(e);
+    }
+  }
+
   private final Map<String, ClassOrInterfaceTypeDetails> midToTypeDetailsMap =
       new HashMap<String, ClassOrInterfaceTypeDetails>();
   private final Map<String, Set<String>> moduleFilePathToTypeNamesMap =
@@ -29,6 +97,12 @@ public class TypeCacheImpl implements TypeCache {
   private final Map<String, String> typeNameToModuleNameMap = new HashMap<String, String>();
   private final Set<JavaType> types = new HashSet<JavaType>();
 
+  // Stored type details, keyed by type file path
+  private final Map<String, StoredType> storedTypes = new HashMap<String, StoredType>();
+  // The loaded store file, which the stored type details may be views of
+  private MappedByteBuffer mappedStore;
+  private boolean storeModified;
+
   public void cacheFilePathAgainstTypeIdentifier(final String typeFilePath,
       final String typeIdentifier) {
     typeFilePathToMidMap.put(typeFilePath, typeIdentifier);
@@ -77,6 +151,25 @@ public class TypeCacheImpl implements TypeCache {
     return typeNameToMidMap.get(javaType.getFullyQualifiedTypeName());
   }
 
+  public synchronized ClassOrInterfaceTypeDetailsBuilder getStoredTypeDetails(
+      final String typeFilePath, final String contents, final String physicalTypeId) {
+    Validate.notBlank(physicalTypeId, "Physical type identifier required");
+    if (!hasStoredTypeDetails(typeFilePath, contents)) {
+      return null;
+    }
+    final ClassOrInterfaceTypeDetailsBuilder cidBuilder;
+    try {
+      cidBuilder = TypeDetailsCodec.decode(storedTypes.get(typeFilePath).getEncoded());
+    } catch (final IllegalArgumentException e) {
+      // Corrupt; the type will be parsed and stored again
+      storedTypes.remove(typeFilePath);
+      storeModified = true;
+      return null;
+    }
+    // The file may have moved to another module since
+    return physicalTypeId.equals(cidBuilder.getDeclaredByMetadataId()) ? cidBuilder : null;
+  }
+
   public ClassOrInterfaceTypeDetails getTypeDetails(final String mid) {
     Validate.notBlank(mid, "Physical type identifier required");
     return midToTypeDetailsMap.get(mid);
@@ -87,6 +180,103 @@ public class TypeCacheImpl implements TypeCache {
     return typeFilePathToMidMap.get(typeFilePath);
   }
 
+  public synchronized boolean hasStoredTypeDetails(final String typeFilePath,
+      final String contents) {
+    Validate.notBlank(typeFilePath, "Physical type file path required");
+    Validate.notNull(contents, "Contents required");
+    final StoredType storedType = storedTypes.get(typeFilePath);
+    // Compared by content rather than modification time, which can stay the
+    // same across quick successive changes
+    return storedType != null && storedType.isParsedFrom(contents.getBytes(UTF_8));
+  }
+
+  public synchronized boolean isStoreModified() {
+    return storeModified;
+  }
+
+  public synchronized void loadStoredTypeDetails(final File file) throws IOException {
+    Validate.notNull(file, "Store file required");
+    storedTypes.clear();
+    unmapStore();
+    storeModified = false;
+    FileInputStream inputStream = null;
+    try {
+      inputStream = new FileInputStream(file);
+      final FileChannel channel = inputStream.getChannel();
+      // The mapping remains valid once the channel is closed
+      mappedStore = channel.map(MapMode.READ_ONLY, 0, channel.size());
+      readStoredTypes(mappedStore);
+    } catch (final RuntimeException e) {
+      // Truncated or otherwise corrupt
+      storedTypes.clear();
+      unmapStore();
+      throw new IOException("Invalid type details store '" + file + "'", e);
+    } catch (final IOException e) {
+      storedTypes.clear();
+      unmapStore();
+      throw e;
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+
+  private void readStoredTypes(final ByteBuffer store) throws IOException {
+    final int formatVersion = store.getInt();
+    final int schemaVersion = store.getInt();
+    if (formatVersion != STORE_FORMAT_VERSION || schemaVersion != TypeDetailsCodec.SCHEMA_VERSION) {
+      throw new IOException("Unsupported type details store version " + formatVersion + "."
+          + schemaVersion);
+    }
+    // A directory of the stored types, then their encoded details in the
+    // same order
+    final int count = store.getInt();
+    final String[] typeFilePaths = new String[count];
+    final int[] sourceLengths = new int[count];
+    final byte[][] digests = new byte[count][];
+    final int[] lengths = new int[count];
+    for (int i = 0; i < count; i++) {
+      final byte[] typeFilePath = new byte[store.getInt()];
+      store.get(typeFilePath);
+      typeFilePaths[i] = new String(typeFilePath, UTF_8);
+      sourceLengths[i] = store.getInt();
+      digests[i] = new byte[DIGEST_LENGTH];
+      store.get(digests[i]);
+      lengths[i] = store.getInt();
+    }
+    for (int i = 0; i < count; i++) {
+      final ByteBuffer encoded = store.duplicate();
+      encoded.limit(store.position() + lengths[i]);
+      storedTypes.put(typeFilePaths[i], new StoredType(encoded.slice(), sourceLengths[i],
+          digests[i]));
+      store.position(store.position() + lengths[i]);
+    }
+  }
+
+  /**
+   * Releases the mapping of the loaded store file, which would otherwise
+   * keep it from being replaced on some platforms (e.g. Windows) until the
+   * mapping is garbage collected. No stored type may be a view of it any
+   * more.
+   */
+  private void unmapStore() {
+    if (mappedStore == null) {
+      return;
+    }
+    final MappedByteBuffer buffer = mappedStore;
+    mappedStore = null;
+    // There's no public API for this before Java 9; where the JRE's own
+    // cleaner isn't reachable, the mapping is left to the garbage collector
+    try {
+      final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+      cleanerMethod.setAccessible(true);
+      final Object cleaner = cleanerMethod.invoke(buffer);
+      if (cleaner != null) {
+        cleaner.getClass().getMethod("clean").invoke(cleaner);
+      }
+    } catch (final Exception ignored) {
+    }
+  }
+
   public Set<String> getTypeNamesForModuleFilePath(final String moduleFilePath) {
     Validate.notBlank(moduleFilePath, "Pom file path required");
     if (!moduleFilePathToTypeNamesMap.containsKey(moduleFilePath)) {
@@ -117,4 +307,69 @@ public class TypeCacheImpl implements TypeCache {
     }
 
   }
+
+  public synchronized void saveStoredTypeDetails(final File file) throws IOException {
+    Validate.notNull(file, "Store file required");
+    // Leave out the types whose files have gone, and copy those still
+    // backed by the loaded store file, which is about to be replaced
+    final Map<String, StoredType> currentTypes = new LinkedHashMap<String, StoredType>();
+    for (final Entry<String, StoredType> entry : storedTypes.entrySet()) {
+      if (new File(entry.getKey()).isFile()) {
+        final StoredType storedType = entry.getValue();
+        currentTypes.put(entry.getKey(), storedType.encoded.hasArray() ? storedType
+            : new StoredType(ByteBuffer.wrap(storedType.getEncoded()), storedType.sourceLength,
+                storedType.digest));
+      }
+    }
+    storedTypes.clear();
+    storedTypes.putAll(currentTypes);
+    unmapStore();
+
+    // Written next to the existing file, which may be mapped, and only then
+    // moved over it
+    final File tempFile = new File(file.getPath() + ".tmp");
+    DataOutputStream outputStream = null;
+    try {
+      outputStream =
+          new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+      outputStream.writeInt(STORE_FORMAT_VERSION);
+      outputStream.writeInt(TypeDetailsCodec.SCHEMA_VERSION);
+      outputStream.writeInt(currentTypes.size());
+      for (final Entry<String, StoredType> entry : currentTypes.entrySet()) {
+        final byte[] typeFilePath = entry.getKey().getBytes(UTF_8);
+        outputStream.writeInt(typeFilePath.length);
+        outputStream.write(typeFilePath);
+        outputStream.writeInt(entry.getValue().sourceLength);
+        outputStream.write(entry.getValue().digest);
+        outputStream.writeInt(entry.getValue().encoded.remaining());
+      }
+      for (final StoredType storedType : currentTypes.values()) {
+        outputStream.write(storedType.getEncoded());
+      }
+      outputStream.close();
+    } finally {
+      IOUtils.closeQuietly(outputStream);
+    }
+    if (!tempFile.renameTo(file) && !(file.delete() && tempFile.renameTo(file))) {
+      tempFile.delete();
+      throw new IOException("Unable to replace type details store '" + file + "'");
+    }
+    storeModified = false;
+  }
+
+  public synchronized void storeTypeDetails(final String typeFilePath, final String contents,
+      final ClassOrInterfaceTypeDetails cid) {
+    Validate.notBlank(typeFilePath, "Physical type file path required");
+    Validate.notNull(contents, "Contents required");
+    Validate.notNull(cid, "Type details required");
+    final byte[] source = contents.getBytes(UTF_8);
+    try {
+      storedTypes.put(typeFilePath, new StoredType(ByteBuffer.wrap(TypeDetailsCodec.encode(cid)),
+          source.length, getDigest(source)));
+    } catch (final IllegalArgumentException e) {
+      // Not encodable, so parsed every time
+      storedTypes.remove(typeFilePath);
+    }
+    storeModified = true;
+  }
 }
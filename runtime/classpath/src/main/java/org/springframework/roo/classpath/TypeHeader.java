@@ -0,0 +1,105 @@
+package org.springframework.roo.classpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.roo.model.JavaType;
+
+/**
+ * The declaration header of a top-level type, as read from its source file
+ * without parsing the type's body: its name, kind, type-level annotations and
+ * supertypes. Type names are resolved against the file's package and imports
+ * in the same way as when fully parsing it.
+ *
+ * @since 2.0
+ */
+public class TypeHeader {
+
+  private final List<JavaType> annotationTypes;
+  private final List<JavaType> extendsTypes;
+  private final List<JavaType> implementsTypes;
+  private final JavaType name;
+  private final PhysicalTypeCategory physicalTypeCategory;
+
+  /**
+   * Constructor
+   *
+   * @param name the fully qualified name of the type (required)
+   * @param physicalTypeCategory the kind of type (required)
+   * @param annotationTypes the types of its type-level annotations (can be
+   *            <code>null</code> for none)
+   * @param extendsTypes the types it extends (can be <code>null</code> for
+   *            none)
+   * @param implementsTypes the types it implements (can be <code>null</code>
+   *            for none)
+   */
+  public TypeHeader(final JavaType name, final PhysicalTypeCategory physicalTypeCategory,
+      final List<JavaType> annotationTypes, final List<JavaType> extendsTypes,
+      final List<JavaType> implementsTypes) {
+    Validate.notNull(name, "Type name required");
+    Validate.notNull(physicalTypeCategory, "Physical type category required");
+    this.name = name;
+    this.physicalTypeCategory = physicalTypeCategory;
+    this.annotationTypes = copyOf(annotationTypes);
+    this.extendsTypes = copyOf(extendsTypes);
+    this.implementsTypes = copyOf(implementsTypes);
+  }
+
+  private static List<JavaType> copyOf(final List<JavaType> types) {
+    if (types == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(new ArrayList<JavaType>(types));
+  }
+
+  /**
+   * Returns the types of the type-level annotations, in declaration order
+   *
+   * @return a non-<code>null</code> list
+   */
+  public List<JavaType> getAnnotationTypes() {
+    return annotationTypes;
+  }
+
+  /**
+   * Returns the types listed in the <code>extends</code> clause, without
+   * any type arguments
+   *
+   * @return a non-<code>null</code> list
+   */
+  public List<JavaType> getExtendsTypes() {
+    return extendsTypes;
+  }
+
+  /**
+   * Returns the types listed in the <code>implements</code> clause, without
+   * any type arguments
+   *
+   * @return a non-<code>null</code> list
+   */
+  public List<JavaType> getImplementsTypes() {
+    return implementsTypes;
+  }
+
+  public JavaType getName() {
+    return name;
+  }
+
+  public PhysicalTypeCategory getPhysicalTypeCategory() {
+    return physicalTypeCategory;
+  }
+
+  @Override
+  public String toString() {
+    final ToStringBuilder builder = new ToStringBuilder(this);
+    builder.append("name", name);
+    builder.append("physicalTypeCategory", physicalTypeCategory);
+    builder.append("annotationTypes", annotationTypes);
+    builder.append("extendsTypes", extendsTypes);
+    builder.append("implementsTypes", implementsTypes);
+    return builder.toString();
+  }
+}
@@ -0,0 +1,107 @@
+package org.springframework.roo.classpath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Set;
+
+import org.springframework.roo.classpath.details.MemberHoldingTypeDetails;
+
+/**
+ * Inverted index from type-level annotations and custom data tags to the
+ * physical types carrying them.
+ * <p>
+ * The index is kept up to date incrementally as types change and can be
+ * written to and restored from a stream, so that it survives between shell
+ * sessions. Entries restored for source files that have changed or gone away
+ * since they were written are discarded.
+ *
+ * @since 2.0
+ */
+public interface TypeIndex {
+
+  /**
+   * Returns the identifiers of the physical types matching the given query.
+   *
+   * @param query the query to evaluate (required)
+   * @return a non-<code>null</code> set of physical type identifiers
+   */
+  Set<String> findTypeIdentifiers(TypeIndexQuery query);
+
+  /**
+   * Returns the identifiers of every indexed physical type.
+   *
+   * @return a non-<code>null</code> set of physical type identifiers
+   */
+  Set<String> getAllTypeIdentifiers();
+
+  /**
+   * (Re)indexes the given type, replacing any annotations and tags recorded
+   * for it previously.
+   *
+   * @param typeFilePath the canonical path of the type's source file
+   *            (required)
+   * @param cid the type details (required)
+   */
+  void indexType(String typeFilePath, MemberHoldingTypeDetails cid);
+
+  /**
+   * Indexes the given type by the type-level annotations in its header
+   * alone, replacing anything recorded for it previously. Until the type is
+   * indexed by {@link #indexType(String, MemberHoldingTypeDetails)}, its tags
+   * are unknown.
+   *
+   * @param typeFilePath the canonical path of the type's source file
+   *            (required)
+   * @param physicalTypeId the type's physical type identifier (required)
+   * @param typeHeader the type's header (required)
+   */
+  void indexTypeHeader(String typeFilePath, String physicalTypeId, TypeHeader typeHeader);
+
+  /**
+   * Indicates whether the given type is indexed by its annotations and tags,
+   * as of the current contents of the given source file.
+   *
+   * @param physicalTypeId the type's physical type identifier (required)
+   * @param typeFilePath the canonical path of the type's source file
+   *            (required)
+   * @return <code>false</code> if the type isn't indexed, was only indexed
+   *         by its header, or its source file changed since
+   */
+  boolean isFullyIndexed(String physicalTypeId, String typeFilePath);
+
+  /**
+   * Indicates whether the index has changed since it was last read or
+   * written.
+   *
+   * @return see above
+   */
+  boolean isModified();
+
+  /**
+   * Replaces the contents of this index by those read from the given
+   * stream, as written by {@link #writeTo(OutputStream)}. Entries whose
+   * source files' contents changed are dropped, and entries written under
+   * other add-ons are only kept as indexed by their annotations; an unknown
+   * format leaves the index empty.
+   *
+   * @param inputStream the stream to read (required, not closed)
+   * @throws IOException if the stream can't be read
+   */
+  void readFrom(InputStream inputStream) throws IOException;
+
+  /**
+   * Removes the given type from the index.
+   *
+   * @param physicalTypeId the type's physical type identifier (required)
+   */
+  void removeType(String physicalTypeId);
+
+  /**
+   * Writes the contents of this index to the given stream.
+   *
+   * @param outputStream the stream to write (required, not closed)
+   * @throws IOException if the stream can't be written
+   */
+  void writeTo(OutputStream outputStream) throws IOException;
+}
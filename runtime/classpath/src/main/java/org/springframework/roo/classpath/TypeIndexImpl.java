@@ -0,0 +1,334 @@
+package org.springframework.roo.classpath;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Service;
+import org.osgi.framework.Bundle;
+import org.osgi.service.component.ComponentContext;
+import org.springframework.roo.classpath.details.MemberHoldingTypeDetails;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
+import org.springframework.roo.model.JavaType;
+
+/**
+ * Default implementation of {@link TypeIndex}.
+ * <p>
+ * Each entry is stamped with a digest of the contents of the type's source
+ * file, so that an edit is noticed even if it leaves the file's
+ * modification time unchanged. Tags depend on the installed add-ons too, so
+ * the index is also stamped with the installed bundles; entries restored
+ * under other bundles keep their annotations but have to be indexed again
+ * to know their tags.
+ *
+ * @since 2.0
+ */
+@Component
+@Service
+public class TypeIndexImpl implements TypeIndex {
+
+  /**
+   * Identifies the stream format; bump whenever it changes
+   */
+  private static final int FORMAT_VERSION = 3;
+
+  private static final String DIGEST_ALGORITHM = "SHA-1";
+
+  private static class IndexedType {
+    private final String filePath;
+    private final byte[] digest;
+    private final Set<String> keys;
+    /**
+     * Whether the keys include the type's tags, i.e. it wasn't indexed by
+     * its header alone
+     */
+    private final boolean complete;
+
+    private IndexedType(final String filePath, final byte[] digest, final Set<String> keys,
+        final boolean complete) {
+      this.filePath = filePath;
+      this.digest = digest;
+      this.keys = keys;
+      this.complete = complete;
+    }
+  }
+
+  private static byte[] getDigest(final byte[] bytes) {
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM).digest(bytes);
+    } catch (final NoSuchAlgorithmException e) {
+      // Every JRE has to provide it
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Returns the digest of the given file's contents
+   *
+   * @param filePath the path of the file
+   * @return <code>null</code> if the file can't be read
+   */
+  private static byte[] getFileDigest(final String filePath) {
+    try {
+      return getDigest(FileUtils.readFileToByteArray(new File(filePath)));
+    } catch (final IOException e) {
+      return null;
+    }
+  }
+
+  private static byte[] readBytes(final DataInputStream in) throws IOException {
+    final byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  private static void writeBytes(final DataOutputStream out, final byte[] bytes)
+      throws IOException {
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private final Map<String, Set<String>> keyToMidMap = new HashMap<String, Set<String>>();
+  private final Map<String, IndexedType> midToIndexedTypeMap =
+      new LinkedHashMap<String, IndexedType>();
+  private boolean modified;
+  /**
+   * Identifies the installed bundles, whose taggers determine the tags
+   */
+  private byte[] bundlesStamp = new byte[0];
+
+  protected void activate(final ComponentContext context) throws IOException {
+    final StringBuilder bundles = new StringBuilder();
+    for (final Bundle bundle : context.getBundleContext().getBundles()) {
+      bundles.append(bundle.getSymbolicName()).append('@').append(bundle.getLastModified())
+          .append(';');
+    }
+    bundlesStamp = getDigest(bundles.toString().getBytes("UTF-8"));
+  }
+
+  private void addEntry(final String mid, final IndexedType indexedType) {
+    midToIndexedTypeMap.put(mid, indexedType);
+    for (final String key : indexedType.keys) {
+      Set<String> mids = keyToMidMap.get(key);
+      if (mids == null) {
+        mids = new LinkedHashSet<String>();
+        keyToMidMap.put(key, mids);
+      }
+      mids.add(mid);
+    }
+  }
+
+  public synchronized Set<String> findTypeIdentifiers(final TypeIndexQuery query) {
+    Validate.notNull(query, "Query required");
+    Set<String> result = null;
+    for (final String key : query.getAllKeys()) {
+      final Set<String> mids = getMids(key);
+      if (result == null) {
+        result = new LinkedHashSet<String>(mids);
+      } else {
+        result.retainAll(mids);
+      }
+      if (result.isEmpty()) {
+        return result;
+      }
+    }
+    if (query.isAnyRequired()) {
+      final Set<String> alternatives = new LinkedHashSet<String>();
+      for (final String key : query.getAnyKeys()) {
+        alternatives.addAll(getMids(key));
+      }
+      if (result == null) {
+        result = alternatives;
+      } else {
+        result.retainAll(alternatives);
+      }
+    }
+    if (result == null) {
+      // Only exclusions given, so start from every known type
+      result = new LinkedHashSet<String>(midToIndexedTypeMap.keySet());
+    }
+    for (final String key : query.getExcludedKeys()) {
+      result.removeAll(getMids(key));
+    }
+    return result;
+  }
+
+  public synchronized Set<String> getAllTypeIdentifiers() {
+    return new LinkedHashSet<String>(midToIndexedTypeMap.keySet());
+  }
+
+  private Set<String> getMids(final String key) {
+    final Set<String> mids = keyToMidMap.get(key);
+    if (mids == null) {
+      return Collections.emptySet();
+    }
+    return mids;
+  }
+
+  public synchronized void indexType(final String typeFilePath,
+      final MemberHoldingTypeDetails cid) {
+    Validate.notBlank(typeFilePath, "Type file path required");
+    Validate.notNull(cid, "Member holding type details required");
+    final String mid = cid.getDeclaredByMetadataId();
+    final Set<String> keys = new LinkedHashSet<String>();
+    for (final AnnotationMetadata annotation : cid.getAnnotations()) {
+      keys.add(TypeIndexQuery.getKey(annotation.getAnnotationType()));
+    }
+    for (final Object tag : cid.getCustomData().keySet()) {
+      keys.add(TypeIndexQuery.getKey(tag));
+    }
+    index(typeFilePath, mid, keys, true);
+  }
+
+  private void index(final String typeFilePath, final String mid, final Set<String> keys,
+      final boolean complete) {
+    final IndexedType previous = midToIndexedTypeMap.get(mid);
+    final byte[] digest = getFileDigest(typeFilePath);
+    if (previous != null && previous.keys.equals(keys) && previous.filePath.equals(typeFilePath)
+        && Arrays.equals(previous.digest, digest) && previous.complete == complete) {
+      return;
+    }
+    removeEntry(mid);
+    addEntry(mid, new IndexedType(typeFilePath, digest, keys, complete));
+    modified = true;
+  }
+
+  public synchronized void indexTypeHeader(final String typeFilePath,
+      final String physicalTypeId, final TypeHeader typeHeader) {
+    Validate.notBlank(typeFilePath, "Type file path required");
+    Validate.notBlank(physicalTypeId, "Physical type identifier required");
+    Validate.notNull(typeHeader, "Type header required");
+    final Set<String> keys = new LinkedHashSet<String>();
+    for (final JavaType annotationType : typeHeader.getAnnotationTypes()) {
+      keys.add(TypeIndexQuery.getKey(annotationType));
+    }
+    index(typeFilePath, physicalTypeId, keys, false);
+  }
+
+  public synchronized boolean isFullyIndexed(final String physicalTypeId,
+      final String typeFilePath) {
+    Validate.notBlank(physicalTypeId, "Physical type identifier required");
+    Validate.notBlank(typeFilePath, "Type file path required");
+    final IndexedType indexedType = midToIndexedTypeMap.get(physicalTypeId);
+    return indexedType != null && indexedType.complete
+        && indexedType.filePath.equals(typeFilePath) && indexedType.digest != null
+        && Arrays.equals(indexedType.digest, getFileDigest(typeFilePath));
+  }
+
+  public synchronized boolean isModified() {
+    return modified;
+  }
+
+  public synchronized void readFrom(final InputStream inputStream) throws IOException {
+    Validate.notNull(inputStream, "Input stream required");
+    keyToMidMap.clear();
+    midToIndexedTypeMap.clear();
+    modified = false;
+
+    final DataInputStream in = new DataInputStream(inputStream);
+    try {
+      if (in.readInt() != FORMAT_VERSION) {
+        return;
+      }
+      final boolean sameBundles = Arrays.equals(bundlesStamp, readBytes(in));
+      final int typeCount = in.readInt();
+      for (int i = 0; i < typeCount; i++) {
+        final String mid = in.readUTF();
+        final String filePath = in.readUTF();
+        final byte[] digest = readBytes(in);
+        final boolean complete = in.readBoolean();
+        final int keyCount = in.readInt();
+        final Set<String> keys = new LinkedHashSet<String>();
+        for (int j = 0; j < keyCount; j++) {
+          keys.add(in.readUTF());
+        }
+        if (Arrays.equals(digest, getFileDigest(filePath))) {
+          // Other bundles may tag the type differently
+          addEntry(mid, new IndexedType(filePath, digest, keys, complete && sameBundles));
+          if (complete && !sameBundles) {
+            modified = true;
+          }
+        } else {
+          // The source file changed or was deleted meanwhile
+          modified = true;
+        }
+      }
+    } catch (final IOException e) {
+      // Never leave a partially restored index behind
+      keyToMidMap.clear();
+      midToIndexedTypeMap.clear();
+      throw e;
+    }
+  }
+
+  private void removeEntry(final String mid) {
+    final IndexedType previous = midToIndexedTypeMap.remove(mid);
+    if (previous == null) {
+      return;
+    }
+    for (final String key : previous.keys) {
+      final Set<String> mids = keyToMidMap.get(key);
+      if (mids != null) {
+        mids.remove(mid);
+        if (mids.isEmpty()) {
+          keyToMidMap.remove(key);
+        }
+      }
+    }
+  }
+
+  public synchronized void removeType(final String physicalTypeId) {
+    Validate.notBlank(physicalTypeId, "Physical type identifier required");
+    if (midToIndexedTypeMap.containsKey(physicalTypeId)) {
+      removeEntry(physicalTypeId);
+      modified = true;
+    }
+  }
+
+  public synchronized void writeTo(final OutputStream outputStream) throws IOException {
+    Validate.notNull(outputStream, "Output stream required");
+    final DataOutputStream out = new DataOutputStream(outputStream);
+    out.writeInt(FORMAT_VERSION);
+    writeBytes(out, bundlesStamp);
+    int typeCount = 0;
+    for (final IndexedType indexedType : midToIndexedTypeMap.values()) {
+      if (indexedType.digest != null) {
+        typeCount++;
+      }
+    }
+    out.writeInt(typeCount);
+    for (final Entry<String, IndexedType> entry : midToIndexedTypeMap.entrySet()) {
+      final IndexedType indexedType = entry.getValue();
+      if (indexedType.digest == null) {
+        // Its source file couldn't be read, so it can't be checked later
+        continue;
+      }
+      out.writeUTF(entry.getKey());
+      out.writeUTF(indexedType.filePath);
+      writeBytes(out, indexedType.digest);
+      out.writeBoolean(indexedType.complete);
+      out.writeInt(indexedType.keys.size());
+      for (final String key : indexedType.keys) {
+        out.writeUTF(key);
+      }
+    }
+    out.flush();
+    modified = false;
+  }
+}
@@ -0,0 +1,147 @@
+package org.springframework.roo.classpath;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+import org.springframework.roo.model.CustomDataKey;
+import org.springframework.roo.model.JavaType;
+
+/**
+ * A query over the {@link TypeIndex}. Each criterion is either an annotation
+ * type (given as a {@link JavaType}) or a custom data tag (typically a
+ * {@link CustomDataKey}). A type matches the query when it has
+ * <ul>
+ * <li>all of the keys given to {@link #withAll(Object...)},</li>
+ * <li>at least one of the keys given to {@link #withAny(Object...)}, if that
+ * method was called, and</li>
+ * <li>none of the keys given to {@link #without(Object...)}.</li>
+ * </ul>
+ * For example, the entities that are also JavaBeans but not read-only:
+ *
+ * <pre>
+ * new TypeIndexQuery().withAll(ROO_JPA_ENTITY, ROO_JAVA_BEAN).without(ROO_READ_ONLY)
+ * </pre>
+ *
+ * @since 2.0
+ */
+public class TypeIndexQuery {
+
+  private static final String ANNOTATION_KEY_PREFIX = "@";
+  private static final String TAG_KEY_PREFIX = "#";
+
+  /**
+   * Returns the key under which the {@link TypeIndex} records the given
+   * annotation type or tag.
+   *
+   * @param annotationOrTag a {@link JavaType} for an annotation, otherwise a
+   *            custom data tag (required)
+   * @return a non-blank key
+   */
+  static String getKey(final Object annotationOrTag) {
+    Validate.notNull(annotationOrTag, "Annotation type or tag required");
+    if (annotationOrTag instanceof JavaType) {
+      return ANNOTATION_KEY_PREFIX + ((JavaType) annotationOrTag).getFullyQualifiedTypeName();
+    }
+    if (annotationOrTag instanceof CustomDataKey) {
+      return TAG_KEY_PREFIX + ((CustomDataKey<?>) annotationOrTag).name();
+    }
+    return TAG_KEY_PREFIX + annotationOrTag;
+  }
+
+  private final Set<String> allKeys = new LinkedHashSet<String>();
+  private final Set<String> anyKeys = new LinkedHashSet<String>();
+  private final Set<String> excludedKeys = new LinkedHashSet<String>();
+  private boolean anyRequired;
+
+  /**
+   * Requires matching types to have every one of the given annotations or
+   * tags.
+   *
+   * @param annotationsOrTags the keys to require
+   * @return this query
+   */
+  public TypeIndexQuery withAll(final Object... annotationsOrTags) {
+    addKeys(allKeys, annotationsOrTags);
+    return this;
+  }
+
+  /**
+   * Requires matching types to have at least one of the given annotations or
+   * tags. Calling this method more than once widens the same alternative;
+   * calling it without any keys leaves no alternative, so no type matches.
+   *
+   * @param annotationsOrTags the alternative keys
+   * @return this query
+   */
+  public TypeIndexQuery withAny(final Object... annotationsOrTags) {
+    addKeys(anyKeys, annotationsOrTags);
+    anyRequired = true;
+    return this;
+  }
+
+  /**
+   * Excludes types having any of the given annotations or tags.
+   *
+   * @param annotationsOrTags the keys to exclude
+   * @return this query
+   */
+  public TypeIndexQuery without(final Object... annotationsOrTags) {
+    addKeys(excludedKeys, annotationsOrTags);
+    return this;
+  }
+
+  private void addKeys(final Set<String> keys, final Object... annotationsOrTags) {
+    Validate.notNull(annotationsOrTags, "Annotation types or tags required");
+    for (final Object annotationOrTag : annotationsOrTags) {
+      keys.add(getKey(annotationOrTag));
+    }
+  }
+
+  /**
+   * Indicates whether this query involves any custom data tags, as opposed
+   * to annotations only.
+   *
+   * @return see above
+   */
+  boolean hasTags() {
+    return hasTags(allKeys) || hasTags(anyKeys) || hasTags(excludedKeys);
+  }
+
+  private boolean hasTags(final Set<String> keys) {
+    for (final String key : keys) {
+      if (key.startsWith(TAG_KEY_PREFIX)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  Set<String> getAllKeys() {
+    return Collections.unmodifiableSet(allKeys);
+  }
+
+  Set<String> getAnyKeys() {
+    return Collections.unmodifiableSet(anyKeys);
+  }
+
+  /**
+   * Indicates whether {@link #withAny(Object...)} was called, even with no
+   * keys.
+   *
+   * @return see above
+   */
+  boolean isAnyRequired() {
+    return anyRequired;
+  }
+
+  Set<String> getExcludedKeys() {
+    return Collections.unmodifiableSet(excludedKeys);
+  }
+
+  @Override
+  public String toString() {
+    return "all: " + allKeys + ", any: " + anyKeys + ", none: " + excludedKeys;
+  }
+}
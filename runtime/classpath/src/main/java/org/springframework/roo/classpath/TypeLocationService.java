@@ -73,6 +73,17 @@ public interface TypeLocationService {
   Set<ClassOrInterfaceTypeDetails> findClassesOrInterfaceDetailsWithAnnotation(
       JavaType... annotationsToDetect);
 
+  /**
+   * Returns the {@link ClassOrInterfaceTypeDetails}s of the types matching
+   * the given query over their type-level annotations and tags, e.g. the
+   * types having both of two annotations but not a third one.
+   * 
+   * @param query the query to evaluate (required)
+   * @return a non-<code>null</code> set of matching types
+   * @since 2.0
+   */
+  Set<ClassOrInterfaceTypeDetails> findClassesOrInterfaceDetails(TypeIndexQuery query);
+
   /**
    * Returns a set of {@link ClassOrInterfaceTypeDetails}s that possess the
    * specified tag.
@@ -82,6 +93,16 @@ public interface TypeLocationService {
    */
   Set<ClassOrInterfaceTypeDetails> findClassesOrInterfaceDetailsWithTag(Object tag);
 
+  /**
+   * Returns the {@link JavaType}s of the types matching the given query over
+   * their type-level annotations and tags.
+   * 
+   * @param query the query to evaluate (required)
+   * @return a non-<code>null</code> set of matching types
+   * @since 2.0
+   */
+  Set<JavaType> findTypes(TypeIndexQuery query);
+
   /**
    * Returns a set of {@link JavaType}s that possess the specified annotations
    * (specified as a vararg).
@@ -1,6 +1,13 @@
 package org.springframework.roo.classpath;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -16,14 +23,13 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.logging.Logger;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.Service;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
-import org.springframework.roo.classpath.details.MemberHoldingTypeDetails;
-import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
 import org.springframework.roo.file.monitor.FileMonitorService;
 import org.springframework.roo.file.monitor.event.FileDetails;
 import org.springframework.roo.metadata.MetadataIdentificationUtils;
@@ -34,10 +40,12 @@ import org.springframework.roo.model.JavaType;
 import org.springframework.roo.process.manager.FileManager;
 import org.springframework.roo.project.Dependency;
 import org.springframework.roo.project.LogicalPath;
+import org.springframework.roo.project.Path;
 import org.springframework.roo.project.PhysicalPath;
 import org.springframework.roo.project.ProjectOperations;
 import org.springframework.roo.project.maven.Pom;
 import org.springframework.roo.shell.NaturalOrderComparator;
+import org.springframework.roo.shell.ProjectStateVersion;
 import org.springframework.roo.support.util.FileUtils;
 
 import org.osgi.service.component.ComponentContext;
@@ -74,6 +82,15 @@ public class TypeLocationServiceImpl implements TypeLocationService {
     context = cContext.getBundleContext();
   }
 
+  protected void deactivate(final ComponentContext cContext) {
+    if (typeIndex != null) {
+      saveTypeIndex();
+    }
+    if (typeCache != null) {
+      saveStoredTypeDetails();
+    }
+  }
+
   private static final Comparator<String> LENGTH_COMPARATOR = new Comparator<String>() {
     public int compare(final String key1, final String key2) {
       return Integer.valueOf(key1.length()).compareTo(key2.length());
@@ -82,6 +99,18 @@ public class TypeLocationServiceImpl implements TypeLocationService {
 
   private static final String JAVA_FILES_ANT_PATH = "**" + File.separatorChar + "*.java";
 
+  /**
+   * Location of the persisted {@link TypeIndex}, relative to
+   * {@link Path#ROOT_ROO_CONFIG} of the root module
+   */
+  private static final String TYPE_INDEX_FILE = "cache" + File.separatorChar + "type-index";
+
+  /**
+   * Location of the type details stored by the {@link TypeCache}, relative
+   * to {@link Path#ROOT_ROO_CONFIG} of the root module
+   */
+  private static final String TYPE_DETAILS_FILE = "cache" + File.separatorChar + "type-details";
+
   /**
    * Returns all packages leading up to the given package, e.g. if the given
    * package is "com.foo.bar", returns ["com", "com.foo", "com.foo.bar"].
@@ -155,58 +184,233 @@ public class TypeLocationServiceImpl implements TypeLocationService {
   private MetadataService metadataService;
   private ProjectOperations projectOperations;
   private TypeCache typeCache;
+  private TypeParsingService typeParsingService;
   private TypeResolutionService typeResolutionService;
 
-  private final Map<JavaType, Set<String>> annotationToMidMap =
-      new HashMap<JavaType, Set<String>>();
-  private final Map<String, Set<String>> changeMap = new HashMap<String, Set<String>>();
+  private TypeIndex typeIndex;
+
+  /**
+   * The version of each known type, taken from {@link #typeVersionCounter}
+   * whenever the type (re)appears or changes
+   */
+  private final Map<String, Long> typeVersions = new HashMap<String, Long>();
+  /**
+   * For each requesting class, the version of each type it was last told had
+   * changed
+   */
+  private final Map<String, Map<String, Long>> seenTypeVersions =
+      new HashMap<String, Map<String, Long>>();
+  private long typeVersionCounter;
   private final Set<String> dirtyFiles = new HashSet<String>();
-  private final Set<String> discoveredTypes = new HashSet<String>();
-  private final Map<String, Set<Object>> typeCustomDataMap = new HashMap<String, Set<Object>>();
-  private final Map<Object, Set<String>> tagToMidMap = new HashMap<Object, Set<String>>();
-  private final Map<String, Set<JavaType>> typeAnnotationMap = new HashMap<String, Set<JavaType>>();
+  /**
+   * Canonical paths of the discovered source files, keyed by their path
+   * relative to the source root they belong to (i.e. by
+   * {@link JavaType#getRelativeFileName()})
+   */
+  private final Map<String, Set<String>> relativePathToTypePathsMap =
+      new HashMap<String, Set<String>>();
+
+  /**
+   * Types found by {@link #initTypeMap()} whose details haven't been built
+   * yet, keyed by physical type identifier, with their source file paths
+   */
+  private final Map<String, String> deferredTypes = new HashMap<String, String>();
+
+  /**
+   * The identifiers of those deferred types that are only indexed by their
+   * header, i.e. whose tags aren't indexed yet
+   */
+  private final Set<String> headerIndexedTypes = new HashSet<String>();
 
   private void cacheType(final String fileCanonicalPath) {
     Validate.notBlank(fileCanonicalPath, "File canonical path required");
     if (doesPathIndicateJavaType(fileCanonicalPath)) {
       final String id = getPhysicalTypeIdentifier(fileCanonicalPath);
       if (id != null && PhysicalTypeIdentifier.isValid(id)) {
+        deferredTypes.remove(id);
+        headerIndexedTypes.remove(id);
         // Change to Java, so drop the cache
         final ClassOrInterfaceTypeDetails cid = lookupClassOrInterfaceTypeDetails(id);
         if (cid == null) {
           if (!getFileManager().exists(fileCanonicalPath)) {
             getTypeCache().removeType(id);
-            final JavaType type = getTypeCache().getTypeDetails(id).getName();
+            getTypeIndex().removeType(id);
+            final JavaType type = PhysicalTypeIdentifier.getJavaType(id);
             updateChanges(type.getFullyQualifiedTypeName(), true);
           }
           return;
         }
         getTypeCache().cacheType(fileCanonicalPath, cid);
-        updateAttributeCache(cid);
+        // Always re-indexed, as its tags may have changed without its source
+        // file changing; an unchanged entry is left as it is
+        getTypeIndex().indexType(fileCanonicalPath, cid);
         updateChanges(cid.getName().getFullyQualifiedTypeName(), false);
       }
     }
   }
 
-  private Set<String> discoverTypes() {
+  /**
+   * Builds and caches the details of the given type if they were deferred
+   * by {@link #initTypeMap()}.
+   * <p>
+   * Its source file hasn't changed since, or {@link #updateTypeCache()}
+   * would have cached it already, so neither is its metadata evicted nor is
+   * it reported as changed; completing it is a read like any other.
+   * 
+   * @param physicalTypeId the type's physical type identifier
+   */
+  private void completeDeferredType(final String physicalTypeId) {
+    final String fileCanonicalPath = deferredTypes.remove(physicalTypeId);
+    if (fileCanonicalPath == null) {
+      return;
+    }
+    headerIndexedTypes.remove(physicalTypeId);
+    final PhysicalTypeMetadata physicalTypeMetadata =
+        (PhysicalTypeMetadata) getMetadataService().get(physicalTypeId);
+    if (physicalTypeMetadata == null
+        || physicalTypeMetadata.getMemberHoldingTypeDetails() == null) {
+      return;
+    }
+    final ClassOrInterfaceTypeDetails cid = physicalTypeMetadata.getMemberHoldingTypeDetails();
+    getTypeCache().cacheType(fileCanonicalPath, cid);
+    getTypeIndex().indexType(fileCanonicalPath, cid);
+  }
+
+  /**
+   * Completes the given deferred types, first parsing those of their source
+   * files that need it on several threads, as {@link #initTypeMap()} does.
+   * 
+   * @param physicalTypeIds the types' physical type identifiers
+   */
+  private void completeDeferredTypes(final Collection<String> physicalTypeIds) {
+    final List<String> typeFilePathsToParse = new ArrayList<String>();
+    for (final String physicalTypeId : physicalTypeIds) {
+      final String typeFilePath = deferredTypes.get(physicalTypeId);
+      if (typeFilePath != null) {
+        typeFilePathsToParse.add(typeFilePath);
+      }
+    }
+    final TypeParsingService typeParsingService = getTypeParsingService();
+    if (typeFilePathsToParse.size() > 1 && typeParsingService != null) {
+      typeParsingService.preParseCompilationUnits(typeFilePathsToParse);
+    }
+    for (final String physicalTypeId : physicalTypeIds) {
+      completeDeferredType(physicalTypeId);
+    }
+  }
+
+  /**
+   * Records the type in the given source file without building its details,
+   * which is left to {@link #completeDeferredType(String)} when they're
+   * needed. Unless the type is still fully indexed with the source file's
+   * current contents from a previous session, it is (re)indexed by its
+   * header.
+   * 
+   * @param fileCanonicalPath the canonical path of the source file
+   * @return <code>false</code> if the type has to be cached right away
+   *         instead
+   */
+  private boolean deferType(final String fileCanonicalPath) {
+    final String id = getPhysicalTypeIdentifier(fileCanonicalPath);
+    if (id == null || !PhysicalTypeIdentifier.isValid(id)) {
+      return false;
+    }
+    final JavaType type = PhysicalTypeIdentifier.getJavaType(id);
+    if (!getTypeIndex().isFullyIndexed(id, fileCanonicalPath)) {
+      final TypeHeader typeHeader = getTypeResolutionService().getTypeHeader(fileCanonicalPath);
+      if (typeHeader == null || !typeHeader.getName().equals(type)) {
+        return false;
+      }
+      getTypeIndex().indexTypeHeader(fileCanonicalPath, id, typeHeader);
+      headerIndexedTypes.add(id);
+    }
+    deferredTypes.put(id, fileCanonicalPath);
+    updateChanges(type.getFullyQualifiedTypeName(), false);
+    return true;
+  }
+
+  private void discoverTypes() {
     // Retrieve a list of paths that have been discovered or modified since
     // the last invocation by this class
     for (final String change : getFileMonitorService().getDirtyFiles(
         TypeLocationServiceImpl.class.getName())) {
-      if (doesPathIndicateJavaType(change)) {
-        discoveredTypes.add(change);
+      if (!isJavaSourceFile(change)) {
+        continue;
+      }
+      final String proposedJavaType = getProposedJavaType(change);
+      if (JavaSymbolName.isLegalJavaName(proposedJavaType)) {
+        final String relativePath = getSourceRelativePath(change);
+        if (relativePath != null) {
+          updateRelativePathIndex(change, relativePath);
+        }
         dirtyFiles.add(change);
       }
     }
-    return discoveredTypes;
   }
 
   private boolean doesPathIndicateJavaType(final String fileCanonicalPath) {
-    Validate.notBlank(fileCanonicalPath, "File canonical path required");
-    return fileCanonicalPath.endsWith(".java") && !fileCanonicalPath.endsWith("package-info.java")
+    return isJavaSourceFile(fileCanonicalPath)
         && JavaSymbolName.isLegalJavaName(getProposedJavaType(fileCanonicalPath));
   }
 
+  private boolean isJavaSourceFile(final String fileCanonicalPath) {
+    Validate.notBlank(fileCanonicalPath, "File canonical path required");
+    return fileCanonicalPath.endsWith(".java") && !fileCanonicalPath.endsWith("package-info.java");
+  }
+
+  /**
+   * Returns the path of the given source file relative to the source root
+   * of its module that contains it, i.e. the
+   * {@link JavaType#getRelativeFileName()} of the type it declares. If
+   * source roots are nested, the innermost one is used, so that a file
+   * always has the same relative path whatever the order of the module's
+   * paths.
+   * 
+   * @param fileCanonicalPath the canonical path of the source file
+   * @return <code>null</code> if no source root of its module contains it
+   */
+  private String getSourceRelativePath(final String fileCanonicalPath) {
+    final Pom module = getProjectOperations().getModuleForFileIdentifier(fileCanonicalPath);
+    if (module == null) {
+      return null;
+    }
+    String sourceRoot = null;
+    for (final PhysicalPath physicalPath : module.getPhysicalPaths()) {
+      if (physicalPath.isSource()) {
+        final String location = FileUtils.ensureTrailingSeparator(physicalPath.getLocationPath());
+        if (fileCanonicalPath.startsWith(location)
+            && (sourceRoot == null || location.length() > sourceRoot.length())) {
+          sourceRoot = location;
+        }
+      }
+    }
+    return sourceRoot == null ? null : fileCanonicalPath.substring(sourceRoot.length());
+  }
+
+  /**
+   * Records or forgets the given source file in the relative path index,
+   * depending on whether it still exists.
+   * 
+   * @param fileCanonicalPath the canonical path of the source file
+   * @param relativePath its path relative to its source root, as returned by
+   *            {@link #getSourceRelativePath(String)}
+   */
+  private void updateRelativePathIndex(final String fileCanonicalPath, final String relativePath) {
+    Set<String> typePaths = relativePathToTypePathsMap.get(relativePath);
+    if (getFileManager().exists(fileCanonicalPath)) {
+      if (typePaths == null) {
+        typePaths = new LinkedHashSet<String>();
+        relativePathToTypePathsMap.put(relativePath, typePaths);
+      }
+      typePaths.add(fileCanonicalPath);
+    } else if (typePaths != null) {
+      typePaths.remove(fileCanonicalPath);
+      if (typePaths.isEmpty()) {
+        relativePathToTypePathsMap.remove(relativePath);
+      }
+    }
+  }
+
   public Set<ClassOrInterfaceTypeDetails> findClassesOrInterfaceDetailsWithAnnotation(
       final JavaType... annotationsToDetect) {
     final List<ClassOrInterfaceTypeDetails> types = new ArrayList<ClassOrInterfaceTypeDetails>();
@@ -240,15 +444,25 @@ public class TypeLocationServiceImpl implements TypeLocationService {
     return Collections.unmodifiableSet(types);
   }
 
-  public Set<JavaType> findTypesWithAnnotation(final JavaType... annotationsToDetect) {
-    return findTypesWithAnnotation(Arrays.asList(annotationsToDetect));
+  public Set<ClassOrInterfaceTypeDetails> findClassesOrInterfaceDetails(final TypeIndexQuery query) {
+    Validate.notNull(query, "Query required");
+    final Set<ClassOrInterfaceTypeDetails> types = new LinkedHashSet<ClassOrInterfaceTypeDetails>();
+    processTypes(query, new LocatedTypeCallback() {
+      public void process(final ClassOrInterfaceTypeDetails located) {
+        if (located != null) {
+          types.add(located);
+        }
+      }
+    });
+    return Collections.unmodifiableSet(types);
   }
 
-  public Set<JavaType> findTypesWithAnnotation(final List<JavaType> annotationsToDetect) {
-    Validate.notNull(annotationsToDetect, "Annotations to detect required");
+  public Set<JavaType> findTypes(final TypeIndexQuery query) {
+    Validate.notNull(query, "Query required");
     final Set<JavaType> types = new LinkedHashSet<JavaType>();
-    processTypesWithAnnotation(annotationsToDetect, new LocatedTypeCallback() {
+    processTypes(query, new LocatedTypeCallback() {
       public void process(final ClassOrInterfaceTypeDetails located) {
+        // Types whose details can't be built any more are left out
         if (located != null) {
           types.add(located.getName());
         }
@@ -257,14 +471,23 @@ public class TypeLocationServiceImpl implements TypeLocationService {
     return Collections.unmodifiableSet(types);
   }
 
+  public Set<JavaType> findTypesWithAnnotation(final JavaType... annotationsToDetect) {
+    return findTypesWithAnnotation(Arrays.asList(annotationsToDetect));
+  }
+
+  public Set<JavaType> findTypesWithAnnotation(final List<JavaType> annotationsToDetect) {
+    Validate.notNull(annotationsToDetect, "Annotations to detect required");
+    return findTypes(new TypeIndexQuery().withAny(annotationsToDetect.toArray()));
+  }
+
   private String getParentPath(final JavaType javaType) {
+    discoverTypes();
     final String relativePath = javaType.getRelativeFileName();
-    for (final String typePath : discoverTypes()) {
-      if (typePath.endsWith(relativePath)) {
-        return StringUtils.removeEnd(typePath, relativePath);
-      }
+    final Set<String> typePaths = relativePathToTypePathsMap.get(relativePath);
+    if (typePaths == null || typePaths.isEmpty()) {
+      return null;
     }
-    return null;
+    return StringUtils.removeEnd(typePaths.iterator().next(), relativePath);
   }
 
   private PhysicalPath getPhysicalPath(final JavaType javaType) {
@@ -484,6 +707,7 @@ public class TypeLocationServiceImpl implements TypeLocationService {
     Validate.isTrue(PhysicalTypeIdentifier.isValid(physicalTypeId),
         "Metadata id '%s' is not a valid physical type id", physicalTypeId);
     updateTypeCache();
+    completeDeferredType(physicalTypeId);
     final ClassOrInterfaceTypeDetails cachedDetails = getTypeCache().getTypeDetails(physicalTypeId);
     if (cachedDetails != null) {
       return cachedDetails;
@@ -511,7 +735,7 @@ public class TypeLocationServiceImpl implements TypeLocationService {
     final Set<String> typeNames = getTypesForModule(module.getPath());
     final Collection<JavaType> javaTypes = new ArrayList<JavaType>();
     for (final String typeName : typeNames) {
-      javaTypes.add(new JavaType(typeName, module.getModuleName()));
+      javaTypes.add(JavaType.of(typeName, module.getModuleName()));
     }
     return javaTypes;
   }
@@ -526,36 +750,151 @@ public class TypeLocationServiceImpl implements TypeLocationService {
     Validate.notNull(javaType, "Java type required");
 
     updateTypeCache();
-    Set<String> changesSinceLastRequest = changeMap.get(requestingClass);
-    if (changesSinceLastRequest == null) {
-      changesSinceLastRequest = new LinkedHashSet<String>();
-      for (final String typeIdentifier : getTypeCache().getAllTypeIdentifiers()) {
-        changesSinceLastRequest.add(getTypeCache().getTypeDetails(typeIdentifier).getName()
-            .getFullyQualifiedTypeName());
-      }
-      changeMap.put(requestingClass, changesSinceLastRequest);
+    final String typeName = javaType.getFullyQualifiedTypeName();
+    final Long currentVersion = typeVersions.get(typeName);
+    if (currentVersion == null) {
+      // Unknown or removed type
+      return false;
     }
-    for (final String changedId : changesSinceLastRequest) {
-      if (changedId.equals(javaType.getFullyQualifiedTypeName())) {
-        changesSinceLastRequest.remove(changedId);
-        return true;
-      }
+    Map<String, Long> seenVersions = seenTypeVersions.get(requestingClass);
+    if (seenVersions == null) {
+      seenVersions = new HashMap<String, Long>();
+      seenTypeVersions.put(requestingClass, seenVersions);
     }
-    return false;
+    // A type the requester has never asked about counts as changed
+    final Long seenVersion = seenVersions.put(typeName, currentVersion);
+    return seenVersion == null || seenVersion.longValue() != currentVersion.longValue();
   }
 
   private void initTypeMap() {
+    loadTypeIndex();
+    loadStoredTypeDetails();
+    // Take in the changes known so far, as every type is about to be
+    // processed as it is now
+    discoverTypes();
+    final List<String> typeFilePaths = new ArrayList<String>();
     for (final Pom pom : getProjectOperations().getPoms()) {
       for (final PhysicalPath path : pom.getPhysicalPaths()) {
         if (path.isSource()) {
           final String allJavaFiles =
               FileUtils.ensureTrailingSeparator(path.getLocationPath()) + JAVA_FILES_ANT_PATH;
           for (final FileDetails file : getFileManager().findMatchingAntPath(allJavaFiles)) {
-            cacheType(file.getCanonicalPath());
+            if (doesPathIndicateJavaType(file.getCanonicalPath())) {
+              typeFilePaths.add(file.getCanonicalPath());
+            }
           }
         }
       }
     }
+
+    // Only read the types' headers for now; their details are built when
+    // first needed
+    final List<String> typeFilePathsToCache = new ArrayList<String>();
+    for (final String typeFilePath : typeFilePaths) {
+      if (!deferType(typeFilePath)) {
+        typeFilePathsToCache.add(typeFilePath);
+      }
+    }
+
+    // Parse the remaining source files up front on several threads, unless
+    // their details are stored from a previous session; the sequential pass
+    // below then only has to build the type details
+    final TypeParsingService typeParsingService = getTypeParsingService();
+    if (typeParsingService != null) {
+      typeParsingService.preParseCompilationUnits(typeFilePathsToCache);
+    }
+
+    for (final String typeFilePath : typeFilePathsToCache) {
+      cacheType(typeFilePath);
+    }
+    dirtyFiles.removeAll(typeFilePaths);
+    saveTypeIndex();
+    saveStoredTypeDetails();
+  }
+
+  /**
+   * Returns the location the {@link TypeIndex} is stored at between
+   * sessions.
+   * 
+   * @return <code>null</code> if there is no project yet
+   */
+  private String getTypeIndexLocation() {
+    if (!getProjectOperations().isFocusedProjectAvailable()) {
+      return null;
+    }
+    return getProjectOperations().getPathResolver().getIdentifier(
+        LogicalPath.getInstance(Path.ROOT_ROO_CONFIG, ""), TYPE_INDEX_FILE);
+  }
+
+  private void loadTypeIndex() {
+    final String location = getTypeIndexLocation();
+    if (location == null || !new File(location).isFile()) {
+      return;
+    }
+    InputStream inputStream = null;
+    try {
+      inputStream = new BufferedInputStream(new FileInputStream(location));
+      getTypeIndex().readFrom(inputStream);
+    } catch (final IOException e) {
+      LOGGER.fine("Ignoring unreadable type index '" + location + "': " + e.getMessage());
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+
+  private void saveTypeIndex() {
+    final String location = getTypeIndexLocation();
+    if (location == null || !getTypeIndex().isModified()) {
+      return;
+    }
+    // Written directly rather than through the FileManager, as this is a
+    // cache and not a project artifact to be tracked by undo
+    OutputStream outputStream = null;
+    try {
+      final File file = new File(location);
+      file.getParentFile().mkdirs();
+      outputStream = new BufferedOutputStream(new FileOutputStream(file));
+      getTypeIndex().writeTo(outputStream);
+    } catch (final IOException e) {
+      LOGGER.fine("Unable to store type index '" + location + "': " + e.getMessage());
+    } finally {
+      IOUtils.closeQuietly(outputStream);
+    }
+  }
+
+  private String getStoredTypeDetailsLocation() {
+    if (!getProjectOperations().isFocusedProjectAvailable()) {
+      return null;
+    }
+    return getProjectOperations().getPathResolver().getIdentifier(
+        LogicalPath.getInstance(Path.ROOT_ROO_CONFIG, ""), TYPE_DETAILS_FILE);
+  }
+
+  private void loadStoredTypeDetails() {
+    final String location = getStoredTypeDetailsLocation();
+    if (location == null || !new File(location).isFile()) {
+      return;
+    }
+    try {
+      getTypeCache().loadStoredTypeDetails(new File(location));
+    } catch (final IOException e) {
+      LOGGER.fine("Ignoring unreadable type details '" + location + "': " + e.getMessage());
+    }
+  }
+
+  private void saveStoredTypeDetails() {
+    final String location = getStoredTypeDetailsLocation();
+    if (location == null || !getTypeCache().isStoreModified()) {
+      return;
+    }
+    // Like the type index, a cache rather than a project artifact
+    try {
+      final File file = new File(location);
+      file.getParentFile().mkdirs();
+      getTypeCache().saveStoredTypeDetails(file);
+    } catch (final IOException e) {
+      LOGGER.fine("Unable to store type details '" + location + "': " + e.getMessage());
+    }
   }
 
   public boolean isInProject(final JavaType javaType) {
@@ -582,99 +921,54 @@ public class TypeLocationServiceImpl implements TypeLocationService {
   public void processTypesWithAnnotation(final List<JavaType> annotationsToDetect,
       final LocatedTypeCallback callback) {
     Validate.notNull(annotationsToDetect, "Annotations to detect required");
-    Validate.notNull(callback, "Callback required");
-    // If the cache doesn't yet contain the annotation to be found it should
-    // be added
-    for (final JavaType annotationType : annotationsToDetect) {
-      if (!annotationToMidMap.containsKey(annotationType)) {
-        annotationToMidMap.put(annotationType, new HashSet<String>());
-      }
-    }
-
-    // Before processing the call any changes to the project should be
-    // processed and the cache updated accordingly
-    updateTypeCache();
-
-    for (final JavaType annotationType : annotationsToDetect) {
-      for (final String locatedMid : annotationToMidMap.get(annotationType)) {
-        final ClassOrInterfaceTypeDetails located = getTypeCache().getTypeDetails(locatedMid);
-        callback.process(located);
-      }
-    }
+    processTypes(new TypeIndexQuery().withAny(annotationsToDetect.toArray()), callback);
   }
 
   private void processTypesWithTag(final Object tag, final LocatedTypeCallback callback) {
     Validate.notNull(tag, "Tag required");
+    processTypes(new TypeIndexQuery().withAll(tag), callback);
+  }
+
+  private void processTypes(final TypeIndexQuery query, final LocatedTypeCallback callback) {
     Validate.notNull(callback, "Callback required");
-    // If the cache doesn't yet contain the tag it should be added
-    if (!tagToMidMap.containsKey(tag)) {
-      tagToMidMap.put(tag, new HashSet<String>());
+    final Set<String> locatedMids = findTypeIdentifiers(query);
+    completeDeferredTypes(locatedMids);
+    for (final String locatedMid : locatedMids) {
+      final ClassOrInterfaceTypeDetails located = getTypeCache().getTypeDetails(locatedMid);
+      callback.process(located);
     }
+  }
 
+  private Set<String> findTypeIdentifiers(final TypeIndexQuery query) {
     // Before processing the call any changes to the project should be
     // processed and the cache updated accordingly
     updateTypeCache();
 
-    for (final String locatedMid : tagToMidMap.get(tag)) {
-      final ClassOrInterfaceTypeDetails located = getTypeCache().getTypeDetails(locatedMid);
-      callback.process(located);
-    }
-  }
-
-  private void updateAttributeCache(final MemberHoldingTypeDetails cid) {
-    Validate.notNull(cid, "Member holding type details required");
-    if (!typeAnnotationMap.containsKey(cid.getDeclaredByMetadataId())) {
-      typeAnnotationMap.put(cid.getDeclaredByMetadataId(), new HashSet<JavaType>());
-    }
-    if (!typeCustomDataMap.containsKey(cid.getDeclaredByMetadataId())) {
-      typeCustomDataMap.put(cid.getDeclaredByMetadataId(), new HashSet<Object>());
-    }
-    final Set<JavaType> previousAnnotations = typeAnnotationMap.get(cid.getDeclaredByMetadataId());
-    for (final JavaType previousAnnotation : previousAnnotations) {
-      final Set<String> midSet = annotationToMidMap.get(previousAnnotation);
-      if (midSet != null) {
-        midSet.remove(cid.getDeclaredByMetadataId());
-      }
-    }
-    previousAnnotations.clear();
-    for (final AnnotationMetadata annotationMetadata : cid.getAnnotations()) {
-      if (!annotationToMidMap.containsKey(annotationMetadata.getAnnotationType())) {
-        annotationToMidMap.put(annotationMetadata.getAnnotationType(), new HashSet<String>());
-      }
-      previousAnnotations.add(annotationMetadata.getAnnotationType());
-      annotationToMidMap.get(annotationMetadata.getAnnotationType()).add(
-          cid.getDeclaredByMetadataId());
-    }
-    final Set<Object> previousCustomDataSet = typeCustomDataMap.get(cid.getDeclaredByMetadataId());
-    for (final Object previousCustomData : previousCustomDataSet) {
-      final Set<String> midSet = tagToMidMap.get(previousCustomData);
-      if (midSet != null) {
-        midSet.remove(cid.getDeclaredByMetadataId());
-      }
-    }
-    previousCustomDataSet.clear();
-    for (final Object customData : cid.getCustomData().keySet()) {
-      if (!tagToMidMap.containsKey(customData)) {
-        tagToMidMap.put(customData, new HashSet<String>());
-      }
-      previousCustomDataSet.add(customData);
-      tagToMidMap.get(customData).add(cid.getDeclaredByMetadataId());
+    if (query.hasTags() && !headerIndexedTypes.isEmpty()) {
+      // Tags are only known once the types' details have been built
+      completeDeferredTypes(new ArrayList<String>(headerIndexedTypes));
     }
+    return getTypeIndex().findTypeIdentifiers(query);
   }
 
   private void updateChanges(final String typeName, final boolean remove) {
     Validate.notNull(typeName, "Type name required");
-    for (final String requestingClass : changeMap.keySet()) {
-      if (remove) {
-        changeMap.get(requestingClass).remove(typeName);
-      } else {
-        changeMap.get(requestingClass).add(typeName);
+    ProjectStateVersion.increment();
+    if (remove) {
+      typeVersions.remove(typeName);
+      // Forget the removed type, both as a requester and as a type seen by
+      // others, so a type of the same name appearing later counts as new
+      seenTypeVersions.remove(typeName);
+      for (final Map<String, Long> seenVersions : seenTypeVersions.values()) {
+        seenVersions.remove(typeName);
       }
+    } else {
+      typeVersions.put(typeName, ++typeVersionCounter);
     }
   }
 
   private void updateTypeCache() {
-    if (getTypeCache().getAllTypeIdentifiers().isEmpty()) {
+    if (getTypeCache().getAllTypeIdentifiers().isEmpty() && deferredTypes.isEmpty()) {
       initTypeMap();
     }
     discoverTypes();
@@ -752,7 +1046,8 @@ public class TypeLocationServiceImpl implements TypeLocationService {
             context.getAllServiceReferences(FileManager.class.getName(), null);
 
         for (ServiceReference<?> ref : references) {
-          return (FileManager) context.getService(ref);
+          fileManager = (FileManager) context.getService(ref);
+          return fileManager;
         }
 
         return null;
@@ -774,7 +1069,8 @@ public class TypeLocationServiceImpl implements TypeLocationService {
             context.getAllServiceReferences(FileMonitorService.class.getName(), null);
 
         for (ServiceReference<?> ref : references) {
-          return (FileMonitorService) context.getService(ref);
+          fileMonitorService = (FileMonitorService) context.getService(ref);
+          return fileMonitorService;
         }
 
         return null;
@@ -796,7 +1092,8 @@ public class TypeLocationServiceImpl implements TypeLocationService {
             context.getAllServiceReferences(MetadataService.class.getName(), null);
 
         for (ServiceReference<?> ref : references) {
-          return (MetadataService) context.getService(ref);
+          metadataService = (MetadataService) context.getService(ref);
+          return metadataService;
         }
 
         return null;
@@ -818,7 +1115,8 @@ public class TypeLocationServiceImpl implements TypeLocationService {
             context.getAllServiceReferences(ProjectOperations.class.getName(), null);
 
         for (ServiceReference<?> ref : references) {
-          return (ProjectOperations) context.getService(ref);
+          projectOperations = (ProjectOperations) context.getService(ref);
+          return projectOperations;
         }
 
         return null;
@@ -840,7 +1138,8 @@ public class TypeLocationServiceImpl implements TypeLocationService {
             context.getAllServiceReferences(TypeCache.class.getName(), null);
 
         for (ServiceReference<?> ref : references) {
-          return (TypeCache) context.getService(ref);
+          typeCache = (TypeCache) context.getService(ref);
+          return typeCache;
         }
 
         return null;
@@ -854,6 +1153,52 @@ public class TypeLocationServiceImpl implements TypeLocationService {
     }
   }
 
+  public TypeIndex getTypeIndex() {
+    if (typeIndex == null) {
+      // Get all Services implement TypeIndex interface
+      try {
+        ServiceReference<?>[] references =
+            context.getAllServiceReferences(TypeIndex.class.getName(), null);
+
+        for (ServiceReference<?> ref : references) {
+          typeIndex = (TypeIndex) context.getService(ref);
+          return typeIndex;
+        }
+
+        return null;
+
+      } catch (InvalidSyntaxException e) {
+        LOGGER.warning("Cannot load TypeIndex on TypeLocationServiceImpl.");
+        return null;
+      }
+    } else {
+      return typeIndex;
+    }
+  }
+
+  public TypeParsingService getTypeParsingService() {
+    if (typeParsingService == null) {
+      // Get all Services implement TypeParsingService interface
+      try {
+        ServiceReference<?>[] references =
+            context.getAllServiceReferences(TypeParsingService.class.getName(), null);
+
+        for (ServiceReference<?> ref : references) {
+          typeParsingService = (TypeParsingService) context.getService(ref);
+          return typeParsingService;
+        }
+
+        return null;
+
+      } catch (InvalidSyntaxException e) {
+        LOGGER.warning("Cannot load TypeParsingService on TypeLocationServiceImpl.");
+        return null;
+      }
+    } else {
+      return typeParsingService;
+    }
+  }
+
   public TypeResolutionService getTypeResolutionService() {
     if (typeResolutionService == null) {
       // Get all Services implement TypeResolutionService interface
@@ -862,7 +1207,8 @@ public class TypeLocationServiceImpl implements TypeLocationService {
             context.getAllServiceReferences(TypeResolutionService.class.getName(), null);
 
         for (ServiceReference<?> ref : references) {
-          return (TypeResolutionService) context.getService(ref);
+          typeResolutionService = (TypeResolutionService) context.getService(ref);
+          return typeResolutionService;
         }
 
         return null;
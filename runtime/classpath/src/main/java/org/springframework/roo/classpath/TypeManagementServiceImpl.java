@@ -108,7 +108,8 @@ public class TypeManagementServiceImpl implements TypeManagementService {
       existsFile = file.exists() && file.isFile();
     }
     if (existsFile) {
-      newContents = typeParsingService.updateAndGetCompilationUnitContents(fileCanonicalPath, cid);
+      newContents =
+          typeParsingService.updateAndGetCompilationUnitContents(fileCanonicalPath, cid, true);
     } else {
       newContents = typeParsingService.getCompilationUnitContents(cid);
     }
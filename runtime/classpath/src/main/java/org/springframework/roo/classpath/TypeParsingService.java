@@ -1,5 +1,7 @@
 package org.springframework.roo.classpath;
 
+import java.util.Collection;
+
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
 import org.springframework.roo.model.JavaType;
 
@@ -58,6 +60,21 @@ public interface TypeParsingService {
   ClassOrInterfaceTypeDetails getTypeFromString(String typeContents, String declaredByMetadataId,
       JavaType javaType);
 
+  /**
+   * Parses the compilation units at the given locations ahead of time so that
+   * a subsequent {@link #getTypeAtLocation(String, String, JavaType)} call for
+   * the same, unchanged file can reuse the parse result. Parsing a source
+   * file has no side effects, so implementations are free to do this on
+   * several threads at once; each pre-parsed unit is used at most once.
+   * Files whose current contents have stored details in the
+   * {@link TypeCache} need no parsing and are skipped.
+   * 
+   * @param fileIdentifiers the canonical paths of the compilation units to
+   *            parse (required)
+   * @since 2.0
+   */
+  void preParseCompilationUnits(Collection<String> fileIdentifiers);
+
   /**
    * Returns the compilation unit contents that represents the java file
    * updated with the passed class or interface details. The difference with
@@ -70,4 +87,21 @@ public interface TypeParsingService {
    * @return a valid Java compilation unit contents (never null or empty)
    */
   String updateAndGetCompilationUnitContents(String fileIdentifier, ClassOrInterfaceTypeDetails cid);
+
+  /**
+   * Returns the contents of the given java file updated with the passed class
+   * or interface details, as per
+   * {@link #updateAndGetCompilationUnitContents(String, ClassOrInterfaceTypeDetails)}.
+   * With minimal edits, what was added (imports, annotations, members) is
+   * inserted into the file's original text, leaving the rest of it as it is;
+   * changes that can't be made that way still reformat the whole file.
+   * 
+   * @param fileIdentifier canonical path of file
+   * @param cid a parsed representation of a class or interface (required)
+   * @param minimalEdits whether to keep the original text where possible
+   * @return a valid Java compilation unit contents (never null or empty)
+   * @since 2.0
+   */
+  String updateAndGetCompilationUnitContents(String fileIdentifier,
+      ClassOrInterfaceTypeDetails cid, boolean minimalEdits);
 }
@@ -8,4 +8,19 @@ public interface TypeResolutionService {
   JavaType getJavaType(String fileIdentifier);
 
   JavaPackage getPackage(String fileIdentifier);
+
+  /**
+   * Reads the declaration header of the top-level type declared in the given
+   * source file, i.e. the type named after the file. Only the package,
+   * imports and declarations are read; type bodies are skipped without being
+   * parsed, which makes this much cheaper than building the
+   * {@link org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails}.
+   * 
+   * @param fileIdentifier the canonical path of the source file (required)
+   * @return <code>null</code> if the file is empty, doesn't declare such a
+   *         type, or its header names a type that can't be resolved without
+   *         fully parsing the file
+   * @since 2.0
+   */
+  TypeHeader getTypeHeader(String fileIdentifier);
 }
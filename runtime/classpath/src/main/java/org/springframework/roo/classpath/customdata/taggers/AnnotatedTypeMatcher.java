@@ -35,6 +35,16 @@ public class AnnotatedTypeMatcher extends TypeMatcher {
     this.customDataKey = customDataKey;
   }
 
+  /**
+   * Returns the types of the annotations this matcher matches upon
+   * 
+   * @return a non-<code>null</code> list
+   * @since 2.0
+   */
+  List<JavaType> getAnnotationTypesToMatchOn() {
+    return annotationTypesToMatchOn;
+  }
+
   public CustomDataKey<MemberHoldingTypeDetails> getCustomDataKey() {
     return customDataKey;
   }
@@ -59,6 +59,16 @@ public class ConstructorMatcher implements Matcher<ConstructorMetadata> {
     return customDataKey;
   }
 
+  /**
+   * Returns the parameter types of the constructors this matcher matches
+   * 
+   * @return a non-<code>null</code> list
+   * @since 2.0
+   */
+  List<JavaType> getParameterTypes() {
+    return parameterTypes;
+  }
+
   public Object getTagValue(final ConstructorMetadata key) {
     return null;
   }
@@ -1,25 +1,38 @@
 package org.springframework.roo.classpath.customdata.taggers;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.logging.Logger;
 
 import org.apache.commons.lang3.Validate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Service;
 import org.jvnet.inflector.Noun;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.component.ComponentContext;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
 import org.springframework.roo.classpath.details.ConstructorMetadata;
 import org.springframework.roo.classpath.details.FieldMetadata;
 import org.springframework.roo.classpath.details.MemberHoldingTypeDetails;
 import org.springframework.roo.classpath.details.MethodMetadata;
+import org.springframework.roo.classpath.details.annotations.AnnotatedJavaType;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
 import org.springframework.roo.classpath.scanner.MemberDetails;
 import org.springframework.roo.classpath.scanner.MemberDetailsBuilder;
+import org.springframework.roo.classpath.scanner.MemberDetailsScanner;
 import org.springframework.roo.model.CustomDataAccessor;
+import org.springframework.roo.model.JavaSymbolName;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.support.logging.HandlerUtils;
 
 /**
  * An implementation of {@link CustomDataKeyDecorator}.
@@ -31,14 +44,108 @@ import org.springframework.roo.model.CustomDataAccessor;
 @Service
 public class CustomDataKeyDecoratorImpl implements CustomDataKeyDecorator {
 
+  protected final static Logger LOGGER = HandlerUtils.getLogger(CustomDataKeyDecoratorImpl.class);
+
+  private BundleContext context;
+  private MemberDetailsScanner memberDetailsScanner;
+
+  /**
+   * The registered matchers, arranged for dispatch by what they match upon.
+   * Replaced whenever the matchers change.
+   */
+  private static class DispatchTable {
+
+    /**
+     * The last result of
+     * {@link CustomDataKeyDecoratorImpl#decorate(String, MemberDetails)} with these
+     * matchers. As no matcher looks at custom data, decorating it again would
+     * change nothing.
+     */
+    private volatile MemberDetails lastDecorated;
+
+    private final List<ConstructorMatcher> constructorMatchers =
+        new ArrayList<ConstructorMatcher>();
+    private final Map<List<JavaType>, List<ConstructorMatcher>> constructorMatchersByParameters =
+        new HashMap<List<JavaType>, List<ConstructorMatcher>>();
+    private final List<FieldMatcher> fieldMatchers = new ArrayList<FieldMatcher>();
+    private final Map<String, List<FieldMatcher>> fieldMatchersByAnnotation =
+        new HashMap<String, List<FieldMatcher>>();
+    private final List<MethodMatcher> methodMatchers = new ArrayList<MethodMatcher>();
+    private final List<TypeMatcher> typeMatchers = new ArrayList<TypeMatcher>();
+    private final Map<JavaType, List<AnnotatedTypeMatcher>> typeMatchersByAnnotation =
+        new HashMap<JavaType, List<AnnotatedTypeMatcher>>();
+    /**
+     * Type matchers whose criteria aren't known, which must be given every
+     * type
+     */
+    private final List<TypeMatcher> otherTypeMatchers = new ArrayList<TypeMatcher>();
+
+    private DispatchTable(final Collection<Matcher<? extends CustomDataAccessor>> matchers) {
+      for (final Matcher<? extends CustomDataAccessor> matcher : matchers) {
+        if (matcher instanceof FieldMatcher) {
+          final FieldMatcher fieldMatcher = (FieldMatcher) matcher;
+          fieldMatchers.add(fieldMatcher);
+          for (final JavaType annotationType : new LinkedHashSet<JavaType>(
+              fieldMatcher.getAnnotationTypes())) {
+            addTo(fieldMatchersByAnnotation, annotationType.getFullyQualifiedTypeName(),
+                fieldMatcher);
+          }
+        } else if (matcher instanceof MethodMatcher) {
+          methodMatchers.add((MethodMatcher) matcher);
+        } else if (matcher instanceof ConstructorMatcher) {
+          final ConstructorMatcher constructorMatcher = (ConstructorMatcher) matcher;
+          constructorMatchers.add(constructorMatcher);
+          addTo(constructorMatchersByParameters, constructorMatcher.getParameterTypes(),
+              constructorMatcher);
+        } else if (matcher instanceof TypeMatcher) {
+          typeMatchers.add((TypeMatcher) matcher);
+          if (matcher instanceof AnnotatedTypeMatcher) {
+            final AnnotatedTypeMatcher typeMatcher = (AnnotatedTypeMatcher) matcher;
+            for (final JavaType annotationType : new LinkedHashSet<JavaType>(
+                typeMatcher.getAnnotationTypesToMatchOn())) {
+              addTo(typeMatchersByAnnotation, annotationType, typeMatcher);
+            }
+          } else {
+            otherTypeMatchers.add((TypeMatcher) matcher);
+          }
+        }
+      }
+    }
+
+    private static <K, V> void addTo(final Map<K, List<V>> map, final K key, final V value) {
+      List<V> values = map.get(key);
+      if (values == null) {
+        values = new ArrayList<V>();
+        map.put(key, values);
+      }
+      values.add(value);
+    }
+  }
+
   private final Map<String, String> pluralMap = new HashMap<String, String>();
   private final Map<String, Matcher<? extends CustomDataAccessor>> taggerMap =
       new HashMap<String, Matcher<? extends CustomDataAccessor>>();
 
+  /**
+   * Built from the {@link #taggerMap} on demand; <code>null</code> after any
+   * change to it
+   */
+  private DispatchTable dispatchTable;
+
+  protected void activate(final ComponentContext context) {
+    this.context = context.getBundleContext();
+  }
+
   public MemberDetails decorate(final String requestingClass, final MemberDetails memberDetails) {
+    final DispatchTable dispatchTable = getDispatchTable();
+    if (memberDetails == dispatchTable.lastDecorated) {
+      // Already decorated by us, so we'd make no further change
+      return memberDetails;
+    }
     final MemberDetailsBuilder memberDetailsBuilder = new MemberDetailsBuilder(memberDetails);
+    final List<MemberHoldingTypeDetails> details = memberDetails.getDetails();
 
-    for (final MemberHoldingTypeDetails memberHoldingTypeDetails : memberDetails.getDetails()) {
+    for (final MemberHoldingTypeDetails memberHoldingTypeDetails : details) {
       if (memberHoldingTypeDetails instanceof ClassOrInterfaceTypeDetails) {
         if (!pluralMap.containsKey(memberHoldingTypeDetails.getDeclaredByMetadataId())) {
           pluralMap.put(
@@ -50,71 +157,120 @@ public class CustomDataKeyDecoratorImpl implements CustomDataKeyDecorator {
     }
 
     // Locate any requests that we add custom data to identifiable java
-    // structures
-    for (final FieldMatcher fieldTagger : getFieldTaggers()) {
-      for (final FieldMetadata field : fieldTagger.matches(memberDetails.getDetails())) {
-        memberDetailsBuilder.tag(field, fieldTagger.getCustomDataKey(),
-            fieldTagger.getTagValue(field));
-      }
+    // structures, visiting each member once and only consulting the
+    // matchers interested in it
+    final Map<FieldMatcher, List<FieldMetadata>> fieldMatches =
+        new HashMap<FieldMatcher, List<FieldMetadata>>();
+    for (final FieldMatcher fieldTagger : dispatchTable.fieldMatchers) {
+      fieldMatches.put(fieldTagger, new ArrayList<FieldMetadata>());
     }
+    final Map<JavaSymbolName, List<MethodMetadata>> methodsByName =
+        new HashMap<JavaSymbolName, List<MethodMetadata>>();
 
-    for (final MethodMatcher methodTagger : getMethodTaggers()) {
-      for (final MethodMetadata method : methodTagger
-          .matches(memberDetails.getDetails(), pluralMap)) {
-        memberDetailsBuilder.tag(method, methodTagger.getCustomDataKey(),
-            methodTagger.getTagValue(method));
+    for (final MemberHoldingTypeDetails memberHoldingTypeDetails : details) {
+      if (!dispatchTable.fieldMatchersByAnnotation.isEmpty()) {
+        for (final FieldMetadata field : memberHoldingTypeDetails.getDeclaredFields()) {
+          final Set<FieldMatcher> fieldTaggers = new LinkedHashSet<FieldMatcher>();
+          for (final AnnotationMetadata annotation : field.getAnnotations()) {
+            final List<FieldMatcher> interested =
+                dispatchTable.fieldMatchersByAnnotation.get(annotation.getAnnotationType()
+                    .getFullyQualifiedTypeName());
+            if (interested != null) {
+              fieldTaggers.addAll(interested);
+            }
+          }
+          for (final FieldMatcher fieldTagger : fieldTaggers) {
+            fieldMatches.get(fieldTagger).add(field);
+            memberDetailsBuilder.tag(field, fieldTagger.getCustomDataKey(),
+                fieldTagger.getTagValue(field));
+          }
+        }
       }
-    }
 
-    for (final ConstructorMatcher constructorTagger : getConstructorTaggers()) {
-      for (final ConstructorMetadata constructor : constructorTagger.matches(memberDetails
-          .getDetails())) {
-        memberDetailsBuilder.tag(constructor, constructorTagger.getCustomDataKey(),
-            constructorTagger.getTagValue(constructor));
+      if (!dispatchTable.methodMatchers.isEmpty()) {
+        for (final MethodMetadata method : memberHoldingTypeDetails.getDeclaredMethods()) {
+          DispatchTable.addTo(methodsByName, method.getMethodName(), method);
+        }
+      }
+
+      if (!dispatchTable.constructorMatchersByParameters.isEmpty()) {
+        for (final ConstructorMetadata constructor : memberHoldingTypeDetails
+            .getDeclaredConstructors()) {
+          final List<ConstructorMatcher> interested =
+              dispatchTable.constructorMatchersByParameters.get(AnnotatedJavaType
+                  .convertFromAnnotatedJavaTypes(constructor.getParameterTypes()));
+          if (interested != null) {
+            for (final ConstructorMatcher constructorTagger : interested) {
+              memberDetailsBuilder.tag(constructor, constructorTagger.getCustomDataKey(),
+                  constructorTagger.getTagValue(constructor));
+            }
+          }
+        }
       }
     }
 
-    for (final TypeMatcher typeTagger : getTypeTaggers()) {
-      for (final MemberHoldingTypeDetails typeDetails : typeTagger.matches(memberDetails
-          .getDetails())) {
-        memberDetailsBuilder.tag(typeDetails, typeTagger.getCustomDataKey(),
-            typeTagger.getTagValue(typeDetails));
+    for (final MethodMatcher methodTagger : dispatchTable.methodMatchers) {
+      for (final MethodMetadata method : methodTagger.matches(details, pluralMap, fieldMatches,
+          methodsByName)) {
+        memberDetailsBuilder.tag(method, methodTagger.getCustomDataKey(),
+            methodTagger.getTagValue(method));
       }
     }
 
-    return memberDetailsBuilder.build();
+    tagTypes(dispatchTable, details, memberDetailsBuilder);
+
+    final MemberDetails result = memberDetailsBuilder.build();
+    dispatchTable.lastDecorated = result;
+    return result;
   }
 
   public MemberDetails decorateTypes(final String requestingClass, final MemberDetails memberDetails) {
     final MemberDetailsBuilder memberDetailsBuilder = new MemberDetailsBuilder(memberDetails);
-    for (final TypeMatcher typeTagger : getTypeTaggers()) {
-      for (final MemberHoldingTypeDetails typeDetails : typeTagger.matches(memberDetails
-          .getDetails())) {
+    tagTypes(getDispatchTable(), memberDetails.getDetails(), memberDetailsBuilder);
+    return memberDetailsBuilder.build();
+  }
+
+  private void tagTypes(final DispatchTable dispatchTable,
+      final List<MemberHoldingTypeDetails> details,
+      final MemberDetailsBuilder memberDetailsBuilder) {
+    if (!dispatchTable.typeMatchersByAnnotation.isEmpty()) {
+      for (final MemberHoldingTypeDetails typeDetails : details) {
+        final Set<TypeMatcher> typeTaggers = new LinkedHashSet<TypeMatcher>();
+        for (final AnnotationMetadata annotation : typeDetails.getAnnotations()) {
+          final List<AnnotatedTypeMatcher> interested =
+              dispatchTable.typeMatchersByAnnotation.get(annotation.getAnnotationType());
+          if (interested != null) {
+            typeTaggers.addAll(interested);
+          }
+        }
+        for (final TypeMatcher typeTagger : typeTaggers) {
+          memberDetailsBuilder.tag(typeDetails, typeTagger.getCustomDataKey(),
+              typeTagger.getTagValue(typeDetails));
+        }
+      }
+    }
+
+    for (final TypeMatcher typeTagger : dispatchTable.otherTypeMatchers) {
+      for (final MemberHoldingTypeDetails typeDetails : typeTagger.matches(details)) {
         memberDetailsBuilder.tag(typeDetails, typeTagger.getCustomDataKey(),
             typeTagger.getTagValue(typeDetails));
       }
     }
-    return memberDetailsBuilder.build();
   }
 
   public List<ConstructorMatcher> getConstructorTaggers() {
-    final List<ConstructorMatcher> constructorTaggers = new ArrayList<ConstructorMatcher>();
-    for (final Matcher<? extends CustomDataAccessor> matcher : taggerMap.values()) {
-      if (matcher instanceof ConstructorMatcher) {
-        constructorTaggers.add((ConstructorMatcher) matcher);
-      }
+    return new ArrayList<ConstructorMatcher>(getDispatchTable().constructorMatchers);
+  }
+
+  private synchronized DispatchTable getDispatchTable() {
+    if (dispatchTable == null) {
+      dispatchTable = new DispatchTable(taggerMap.values());
     }
-    return constructorTaggers;
+    return dispatchTable;
   }
 
   public List<FieldMatcher> getFieldTaggers() {
-    final List<FieldMatcher> fieldTaggers = new ArrayList<FieldMatcher>();
-    for (final Matcher<? extends CustomDataAccessor> matcher : taggerMap.values()) {
-      if (matcher instanceof FieldMatcher) {
-        fieldTaggers.add((FieldMatcher) matcher);
-      }
-    }
-    return fieldTaggers;
+    return new ArrayList<FieldMatcher>(getDispatchTable().fieldMatchers);
   }
 
   /**
@@ -135,30 +291,22 @@ public class CustomDataKeyDecoratorImpl implements CustomDataKeyDecorator {
   }
 
   public List<MethodMatcher> getMethodTaggers() {
-    final List<MethodMatcher> methodTaggers = new ArrayList<MethodMatcher>();
-    for (final Matcher<? extends CustomDataAccessor> matcher : taggerMap.values()) {
-      if (matcher instanceof MethodMatcher) {
-        methodTaggers.add((MethodMatcher) matcher);
-      }
-    }
-    return methodTaggers;
+    return new ArrayList<MethodMatcher>(getDispatchTable().methodMatchers);
   }
 
   public List<TypeMatcher> getTypeTaggers() {
-    final List<TypeMatcher> typeTaggers = new ArrayList<TypeMatcher>();
-    for (final Matcher<? extends CustomDataAccessor> matcher : taggerMap.values()) {
-      if (matcher instanceof TypeMatcher) {
-        typeTaggers.add((TypeMatcher) matcher);
-      }
-    }
-    return typeTaggers;
+    return new ArrayList<TypeMatcher>(getDispatchTable().typeMatchers);
   }
 
   public void registerMatcher(final String addingClass,
       final Matcher<? extends CustomDataAccessor> matcher) {
     Validate.notNull(addingClass, "The calling class must be specified");
     Validate.notNull(matcher, "The matcher must be specified");
-    taggerMap.put(addingClass + matcher.getCustomDataKey(), matcher);
+    synchronized (this) {
+      taggerMap.put(addingClass + matcher.getCustomDataKey(), matcher);
+      dispatchTable = null;
+    }
+    evictMemberDetails();
   }
 
   public void registerMatchers(final Class<?> addingClass,
@@ -178,13 +326,52 @@ public class CustomDataKeyDecoratorImpl implements CustomDataKeyDecorator {
 
   public void unregisterMatchers(final String addingClass) {
     final Set<String> toRemove = new HashSet<String>();
-    for (final String taggerKey : taggerMap.keySet()) {
-      if (taggerKey.startsWith(addingClass)) {
-        toRemove.add(taggerKey);
+    synchronized (this) {
+      for (final String taggerKey : taggerMap.keySet()) {
+        if (taggerKey.startsWith(addingClass)) {
+          toRemove.add(taggerKey);
+        }
+      }
+      for (final String taggerKey : toRemove) {
+        taggerMap.remove(taggerKey);
+      }
+      if (!toRemove.isEmpty()) {
+        dispatchTable = null;
       }
     }
-    for (final String taggerKey : toRemove) {
-      taggerMap.remove(taggerKey);
+    if (!toRemove.isEmpty()) {
+      evictMemberDetails();
+    }
+  }
+
+  /**
+   * Discards any {@link MemberDetails} cached by the scanner with the
+   * previous set of matchers. Not called while holding our own lock, as the
+   * scanner calls us while holding its own.
+   */
+  private void evictMemberDetails() {
+    final MemberDetailsScanner memberDetailsScanner = getMemberDetailsScanner();
+    if (memberDetailsScanner != null) {
+      memberDetailsScanner.evictMemberDetails();
+    }
+  }
+
+  private MemberDetailsScanner getMemberDetailsScanner() {
+    if (memberDetailsScanner == null && context != null) {
+      // Get all Services implement MemberDetailsScanner interface
+      try {
+        ServiceReference<?>[] references =
+            context.getAllServiceReferences(MemberDetailsScanner.class.getName(), null);
+        if (references != null) {
+          for (ServiceReference<?> ref : references) {
+            memberDetailsScanner = (MemberDetailsScanner) context.getService(ref);
+            return memberDetailsScanner;
+          }
+        }
+      } catch (InvalidSyntaxException e) {
+        LOGGER.warning("Cannot load MemberDetailsScanner on CustomDataKeyDecoratorImpl.");
+      }
     }
+    return memberDetailsScanner;
   }
 }
@@ -38,6 +38,7 @@ import org.springframework.roo.classpath.details.MemberHoldingTypeDetails;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
 import org.springframework.roo.model.CustomDataKey;
 import org.springframework.roo.model.JavaSymbolName;
+import org.springframework.roo.model.JavaType;
 
 /**
  * A {@link Matcher} for {@link FieldMetadata}-that matches on the presence of
@@ -117,6 +118,20 @@ public class FieldMatcher implements Matcher<FieldMetadata> {
     return map;
   }
 
+  /**
+   * Returns the types of the annotations this matcher matches upon
+   * 
+   * @return a non-<code>null</code> list
+   * @since 2.0
+   */
+  List<JavaType> getAnnotationTypes() {
+    final List<JavaType> annotationTypes = new ArrayList<JavaType>();
+    for (final AnnotationMetadata annotation : annotations) {
+      annotationTypes.add(annotation.getAnnotationType());
+    }
+    return annotationTypes;
+  }
+
   public CustomDataKey<FieldMetadata> getCustomDataKey() {
     return customDataKey;
   }
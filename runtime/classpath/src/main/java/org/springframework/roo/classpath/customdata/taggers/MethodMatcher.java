@@ -4,7 +4,9 @@ import static org.springframework.roo.model.RooJavaType.ROO_PLURAL;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -121,10 +123,16 @@ public class MethodMatcher implements Matcher<MethodMetadata> {
   }
 
   private List<FieldMetadata> getFieldsInterestedIn(
-      final List<MemberHoldingTypeDetails> memberHoldingTypeDetailsList) {
+      final List<MemberHoldingTypeDetails> memberHoldingTypeDetailsList,
+      final Map<FieldMatcher, List<FieldMetadata>> fieldMatches) {
     final List<FieldMetadata> fields = new ArrayList<FieldMetadata>();
     for (final FieldMatcher fieldTagger : fieldTaggers) {
-      fields.addAll(fieldTagger.matches(memberHoldingTypeDetailsList));
+      final List<FieldMetadata> matchedFields = fieldMatches.get(fieldTagger);
+      if (matchedFields == null) {
+        fields.addAll(fieldTagger.matches(memberHoldingTypeDetailsList));
+      } else {
+        fields.addAll(matchedFields);
+      }
     }
     return fields;
   }
@@ -210,9 +218,43 @@ public class MethodMatcher implements Matcher<MethodMetadata> {
   public List<MethodMetadata> matches(
       final List<MemberHoldingTypeDetails> memberHoldingTypeDetailsList,
       final Map<String, String> pluralMap) {
-    final List<FieldMetadata> fields = getFieldsInterestedIn(memberHoldingTypeDetailsList);
+    final Map<JavaSymbolName, List<MethodMetadata>> methodsByName =
+        new HashMap<JavaSymbolName, List<MethodMetadata>>();
+    for (final MemberHoldingTypeDetails memberHoldingTypeDetails : memberHoldingTypeDetailsList) {
+      for (final MethodMetadata method : memberHoldingTypeDetails.getDeclaredMethods()) {
+        List<MethodMetadata> methods = methodsByName.get(method.getMethodName());
+        if (methods == null) {
+          methods = new ArrayList<MethodMetadata>();
+          methodsByName.put(method.getMethodName(), methods);
+        }
+        methods.add(method);
+      }
+    }
+    return matches(memberHoldingTypeDetailsList, pluralMap,
+        Collections.<FieldMatcher, List<FieldMetadata>>emptyMap(), methodsByName);
+  }
+
+  /**
+   * Returns the methods matched by this matcher, reusing work already done
+   * by the caller.
+   * 
+   * @param memberHoldingTypeDetailsList the list to check for matches
+   * @param pluralMap the plurals of the types, keyed by their MID
+   * @param fieldMatches the fields already matched by any
+   *            {@link FieldMatcher}s; those not present are matched here
+   * @param methodsByName the declared methods of the given types, keyed by
+   *            name
+   * @return a non-<code>null</code> list
+   * @since 2.0
+   */
+  List<MethodMetadata> matches(final List<MemberHoldingTypeDetails> memberHoldingTypeDetailsList,
+      final Map<String, String> pluralMap,
+      final Map<FieldMatcher, List<FieldMetadata>> fieldMatches,
+      final Map<JavaSymbolName, List<MethodMetadata>> methodsByName) {
+    final List<FieldMetadata> fields =
+        getFieldsInterestedIn(memberHoldingTypeDetailsList, fieldMatches);
     final List<MethodMetadata> methods = new ArrayList<MethodMetadata>();
-    final Set<JavaSymbolName> methodNames = new HashSet<JavaSymbolName>();
+    final Set<JavaSymbolName> methodNames = new LinkedHashSet<JavaSymbolName>();
     final JavaSymbolName userDefinedMethodName =
         getUserDefinedMethod(memberHoldingTypeDetailsList, pluralMap);
     if (userDefinedMethodName == null) {
@@ -223,11 +265,10 @@ public class MethodMatcher implements Matcher<MethodMetadata> {
     } else {
       methodNames.add(new JavaSymbolName(userDefinedMethodName.getSymbolName() + additionalSuffix));
     }
-    for (final MemberHoldingTypeDetails memberHoldingTypeDetails : memberHoldingTypeDetailsList) {
-      for (final MethodMetadata method : memberHoldingTypeDetails.getDeclaredMethods()) {
-        if (methodNames.contains(method.getMethodName())) {
-          methods.add(method);
-        }
+    for (final JavaSymbolName methodName : methodNames) {
+      final List<MethodMetadata> namedMethods = methodsByName.get(methodName);
+      if (namedMethods != null) {
+        methods.addAll(namedMethods);
       }
     }
     return methods;
@@ -54,6 +54,8 @@ public class DefaultItdTypeDetails extends AbstractMemberHoldingTypeDetails impl
   private final boolean privilegedAspect;
   private final Set<JavaType> registeredImports = new HashSet<JavaType>();
   private final Set<JavaType> declarePrecedence = new LinkedHashSet<JavaType>();
+  // Lazily computed, as it involves composing the ITD's source
+  private int hashCode;
 
 
   /**
@@ -186,6 +188,10 @@ public class DefaultItdTypeDetails extends AbstractMemberHoldingTypeDetails impl
 
   @Override
   public int hashCode() {
+    // These details are immutable, so compose them at most once
+    if (hashCode != 0) {
+      return hashCode;
+    }
     int hash =
         aspect.hashCode() * governor.getName().hashCode() * governor.getModifier()
             * governor.getCustomData().hashCode() * PHYSICAL_TYPE_CATEGORY.hashCode()
@@ -194,6 +200,7 @@ public class DefaultItdTypeDetails extends AbstractMemberHoldingTypeDetails impl
     hash *= includeCustomDataHash(declaredFields);
     hash *= includeCustomDataHash(declaredMethods);
     hash *= new ItdSourceFileComposer(this).getOutput().hashCode();
+    hashCode = hash;
     return hash;
   }
 
@@ -0,0 +1,860 @@
+package org.springframework.roo.classpath.details;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.springframework.roo.classpath.PhysicalTypeCategory;
+import org.springframework.roo.classpath.details.annotations.AnnotatedJavaType;
+import org.springframework.roo.classpath.details.annotations.AnnotationAttributeValue;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadataBuilder;
+import org.springframework.roo.classpath.details.annotations.ArrayAttributeValue;
+import org.springframework.roo.classpath.details.annotations.BooleanAttributeValue;
+import org.springframework.roo.classpath.details.annotations.CharAttributeValue;
+import org.springframework.roo.classpath.details.annotations.ClassAttributeValue;
+import org.springframework.roo.classpath.details.annotations.DoubleAttributeValue;
+import org.springframework.roo.classpath.details.annotations.EnumAttributeValue;
+import org.springframework.roo.classpath.details.annotations.IntegerAttributeValue;
+import org.springframework.roo.classpath.details.annotations.LongAttributeValue;
+import org.springframework.roo.classpath.details.annotations.NestedAnnotationAttributeValue;
+import org.springframework.roo.classpath.details.annotations.StringAttributeValue;
+import org.springframework.roo.classpath.details.comments.AbstractComment;
+import org.springframework.roo.classpath.details.comments.BlockComment;
+import org.springframework.roo.classpath.details.comments.CommentStructure;
+import org.springframework.roo.classpath.details.comments.JavadocComment;
+import org.springframework.roo.classpath.details.comments.LineComment;
+import org.springframework.roo.classpath.itd.InvocableMemberBodyBuilder;
+import org.springframework.roo.model.AbstractCustomDataAccessorBuilder;
+import org.springframework.roo.model.CustomData;
+import org.springframework.roo.model.DataType;
+import org.springframework.roo.model.EnumDetails;
+import org.springframework.roo.model.JavaPackage;
+import org.springframework.roo.model.JavaSymbolName;
+import org.springframework.roo.model.JavaType;
+
+/**
+ * Compact binary encoding of {@link ClassOrInterfaceTypeDetails}, for storing
+ * parsed types between sessions.
+ * <p>
+ * Each encoding is self-contained: a schema version, then a table of the
+ * distinct strings used (names, bodies, comments, ...), then the structure
+ * itself, referring to strings by their index in the table. Type names
+ * without type arguments, array dimensions, etc. are decoded into interned
+ * {@link JavaType}s.
+ * <p>
+ * The superclass details of a type are not encoded, as they belong to
+ * another type that may have changed meanwhile; like the parser, callers
+ * have to look them up when decoding. Custom data can only be encoded if its
+ * keys and values are <code>null</code>, strings, booleans, integers, longs,
+ * doubles, {@link JavaType}s or {@link JavaSymbolName}s, which holds for
+ * parser output (as opposed to the output of {@link MemberDetailsDecorator}s).
+ *
+ * @since 2.0
+ */
+public final class TypeDetailsCodec {
+
+  /**
+   * Identifies the encoding; bump whenever it changes
+   */
+  public static final int SCHEMA_VERSION = 1;
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  // Attribute value kinds
+  private static final int ARRAY_VALUE = 1;
+  private static final int BOOLEAN_VALUE = 2;
+  private static final int CHAR_VALUE = 3;
+  private static final int CLASS_VALUE = 4;
+  private static final int DOUBLE_VALUE = 5;
+  private static final int ENUM_VALUE = 6;
+  private static final int INTEGER_VALUE = 7;
+  private static final int LONG_VALUE = 8;
+  private static final int NESTED_VALUE = 9;
+  private static final int STRING_VALUE = 10;
+
+  // Comment kinds
+  private static final int BLOCK_COMMENT = 1;
+  private static final int JAVADOC_COMMENT = 2;
+  private static final int LINE_COMMENT = 3;
+
+  // Custom data kinds
+  private static final int NULL_DATA = 0;
+  private static final int STRING_DATA = 1;
+  private static final int BOOLEAN_DATA = 2;
+  private static final int INTEGER_DATA = 3;
+  private static final int LONG_DATA = 4;
+  private static final int DOUBLE_DATA = 5;
+  private static final int TYPE_DATA = 6;
+  private static final int SYMBOL_DATA = 7;
+
+  // Java type kinds
+  private static final int NO_TYPE = 0;
+  /** Nothing but a name and a module, as per {@link JavaType#of(String, String)} */
+  private static final int PLAIN_TYPE = 1;
+  private static final int FULL_TYPE = 2;
+
+  /**
+   * Writes the structure into a byte array while collecting the strings it
+   * uses, which are only prepended to it at the end.
+   */
+  private static class Encoder {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(bytes);
+    private final Map<String, Integer> stringIndexes = new HashMap<String, Integer>();
+    private final List<String> strings = new ArrayList<String>();
+
+    private byte[] toByteArray() throws IOException {
+      out.flush();
+      final ByteArrayOutputStream result = new ByteArrayOutputStream(bytes.size() * 2);
+      final DataOutputStream resultOut = new DataOutputStream(result);
+      resultOut.writeByte(SCHEMA_VERSION);
+      writeVarInt(resultOut, strings.size());
+      for (final String string : strings) {
+        final byte[] utf8 = string.getBytes(UTF_8);
+        writeVarInt(resultOut, utf8.length);
+        resultOut.write(utf8);
+      }
+      bytes.writeTo(resultOut);
+      resultOut.flush();
+      return result.toByteArray();
+    }
+
+    private void writeAnnotation(final AnnotationMetadata annotation) throws IOException {
+      writeType(annotation.getAnnotationType());
+      final List<JavaSymbolName> attributeNames = annotation.getAttributeNames();
+      writeVarInt(out, attributeNames.size());
+      for (final JavaSymbolName attributeName : attributeNames) {
+        writeAttributeValue(annotation.getAttribute(attributeName));
+      }
+      writeComments(annotation.getCommentStructure());
+    }
+
+    private void writeAnnotations(final List<AnnotationMetadata> annotations) throws IOException {
+      writeVarInt(out, annotations.size());
+      for (final AnnotationMetadata annotation : annotations) {
+        writeAnnotation(annotation);
+      }
+    }
+
+    private void writeAttributeValue(final AnnotationAttributeValue<?> value) throws IOException {
+      if (value instanceof ArrayAttributeValue) {
+        out.writeByte(ARRAY_VALUE);
+        writeSymbol(value.getName());
+        final List<?> elements = ((ArrayAttributeValue<?>) value).getValue();
+        writeVarInt(out, elements.size());
+        for (final Object element : elements) {
+          writeAttributeValue((AnnotationAttributeValue<?>) element);
+        }
+      } else if (value instanceof BooleanAttributeValue) {
+        out.writeByte(BOOLEAN_VALUE);
+        writeSymbol(value.getName());
+        out.writeBoolean(((BooleanAttributeValue) value).getValue());
+      } else if (value instanceof CharAttributeValue) {
+        out.writeByte(CHAR_VALUE);
+        writeSymbol(value.getName());
+        out.writeChar(((CharAttributeValue) value).getValue());
+      } else if (value instanceof ClassAttributeValue) {
+        out.writeByte(CLASS_VALUE);
+        writeSymbol(value.getName());
+        writeType(((ClassAttributeValue) value).getValue());
+      } else if (value instanceof DoubleAttributeValue) {
+        out.writeByte(DOUBLE_VALUE);
+        writeSymbol(value.getName());
+        out.writeDouble(((DoubleAttributeValue) value).getValue());
+        out.writeBoolean(((DoubleAttributeValue) value).isFloatingPrecisionOnly());
+      } else if (value instanceof EnumAttributeValue) {
+        out.writeByte(ENUM_VALUE);
+        writeSymbol(value.getName());
+        final EnumDetails enumDetails = ((EnumAttributeValue) value).getValue();
+        writeType(enumDetails.getType());
+        writeSymbol(enumDetails.getField());
+      } else if (value instanceof IntegerAttributeValue) {
+        out.writeByte(INTEGER_VALUE);
+        writeSymbol(value.getName());
+        out.writeInt(((IntegerAttributeValue) value).getValue());
+      } else if (value instanceof LongAttributeValue) {
+        out.writeByte(LONG_VALUE);
+        writeSymbol(value.getName());
+        out.writeLong(((LongAttributeValue) value).getValue());
+      } else if (value instanceof NestedAnnotationAttributeValue) {
+        out.writeByte(NESTED_VALUE);
+        writeSymbol(value.getName());
+        writeAnnotation(((NestedAnnotationAttributeValue) value).getValue());
+      } else if (value instanceof StringAttributeValue) {
+        out.writeByte(STRING_VALUE);
+        writeSymbol(value.getName());
+        writeString(((StringAttributeValue) value).getValue());
+      } else {
+        throw new IllegalArgumentException("Annotation attribute value of "
+            + (value == null ? null : value.getClass()) + " can't be encoded");
+      }
+    }
+
+    private void writeComments(final CommentStructure commentStructure) throws IOException {
+      out.writeBoolean(commentStructure != null);
+      if (commentStructure != null) {
+        writeComments(commentStructure.getBeginComments());
+        writeComments(commentStructure.getInternalComments());
+        writeComments(commentStructure.getEndComments());
+      }
+    }
+
+    private void writeComments(final List<AbstractComment> comments) throws IOException {
+      if (comments == null) {
+        writeVarInt(out, 0);
+        return;
+      }
+      writeVarInt(out, comments.size() + 1);
+      for (final AbstractComment comment : comments) {
+        if (comment instanceof JavadocComment) {
+          out.writeByte(JAVADOC_COMMENT);
+        } else if (comment instanceof BlockComment) {
+          out.writeByte(BLOCK_COMMENT);
+        } else if (comment instanceof LineComment) {
+          out.writeByte(LINE_COMMENT);
+        } else {
+          throw new IllegalArgumentException("Comment of " + comment.getClass()
+              + " can't be encoded");
+        }
+        writeString(comment.getComment());
+      }
+    }
+
+    private void writeConstructor(final ConstructorMetadata constructor) throws IOException {
+      writeStructure(constructor);
+      writeAnnotations(constructor.getAnnotations());
+      writeInvocableMember(constructor);
+    }
+
+    private void writeCustomData(final CustomData customData) throws IOException {
+      if (customData == null) {
+        writeVarInt(out, 0);
+        return;
+      }
+      writeVarInt(out, customData.keySet().size());
+      for (final Object key : customData.keySet()) {
+        writeCustomDataValue(key);
+        writeCustomDataValue(customData.get(key));
+      }
+    }
+
+    private void writeCustomDataValue(final Object value) throws IOException {
+      if (value == null) {
+        out.writeByte(NULL_DATA);
+      } else if (value instanceof String) {
+        out.writeByte(STRING_DATA);
+        writeString((String) value);
+      } else if (value instanceof Boolean) {
+        out.writeByte(BOOLEAN_DATA);
+        out.writeBoolean((Boolean) value);
+      } else if (value instanceof Integer) {
+        out.writeByte(INTEGER_DATA);
+        out.writeInt((Integer) value);
+      } else if (value instanceof Long) {
+        out.writeByte(LONG_DATA);
+        out.writeLong((Long) value);
+      } else if (value instanceof Double) {
+        out.writeByte(DOUBLE_DATA);
+        out.writeDouble((Double) value);
+      } else if (value instanceof JavaType) {
+        out.writeByte(TYPE_DATA);
+        writeType((JavaType) value);
+      } else if (value instanceof JavaSymbolName) {
+        out.writeByte(SYMBOL_DATA);
+        writeSymbol((JavaSymbolName) value);
+      } else {
+        throw new IllegalArgumentException("Custom data of " + value.getClass()
+            + " can't be encoded");
+      }
+    }
+
+    private void writeField(final FieldMetadata field) throws IOException {
+      writeStructure(field);
+      writeAnnotations(field.getAnnotations());
+      writeSymbol(field.getFieldName());
+      writeType(field.getFieldType());
+      writeString(field.getFieldInitializer());
+      writeComments(field.getCommentStructure());
+    }
+
+    private void writeImport(final ImportMetadata importMetadata) throws IOException {
+      writeStructure(importMetadata);
+      final JavaPackage importPackage = importMetadata.getImportPackage();
+      out.writeBoolean(importPackage != null);
+      if (importPackage != null) {
+        writeString(importPackage.getFullyQualifiedPackageName());
+        writeString(importPackage.getModule());
+      }
+      writeType(importMetadata.getImportType());
+      out.writeBoolean(importMetadata.isStatic());
+      out.writeBoolean(importMetadata.isAsterisk());
+      writeComments(importMetadata.getCommentStructure());
+    }
+
+    private void writeInitializer(final InitializerMetadata initializer) throws IOException {
+      writeStructure(initializer);
+      out.writeBoolean(initializer.isStatic());
+      writeString(initializer.getBody());
+    }
+
+    private void writeInvocableMember(final InvocableMemberMetadata member) throws IOException {
+      final List<AnnotatedJavaType> parameterTypes = member.getParameterTypes();
+      writeVarInt(out, parameterTypes.size());
+      for (final AnnotatedJavaType parameterType : parameterTypes) {
+        writeType(parameterType.getJavaType());
+        writeAnnotations(parameterType.getAnnotations());
+        out.writeBoolean(parameterType.isVarArgs());
+      }
+      final List<JavaSymbolName> parameterNames = member.getParameterNames();
+      writeVarInt(out, parameterNames.size());
+      for (final JavaSymbolName parameterName : parameterNames) {
+        writeSymbol(parameterName);
+      }
+      writeTypes(member.getThrowsTypes());
+      writeString(member.getBody());
+      writeComments(member.getCommentStructure());
+    }
+
+    private void writeMethod(final MethodMetadata method) throws IOException {
+      writeStructure(method);
+      writeAnnotations(method.getAnnotations());
+      writeSymbol(method.getMethodName());
+      writeType(method.getReturnType());
+      writeInvocableMember(method);
+      writeString(method.getGenericDefinition());
+    }
+
+    private void writeString(final String string) throws IOException {
+      if (string == null) {
+        writeVarInt(out, 0);
+        return;
+      }
+      Integer index = stringIndexes.get(string);
+      if (index == null) {
+        index = strings.size();
+        strings.add(string);
+        stringIndexes.put(string, index);
+      }
+      writeVarInt(out, index + 1);
+    }
+
+    /**
+     * Writes the properties common to all {@link IdentifiableJavaStructure}s
+     */
+    private void writeStructure(final IdentifiableJavaStructure structure) throws IOException {
+      writeString(structure.getDeclaredByMetadataId());
+      writeVarInt(out, structure.getModifier());
+      writeCustomData(structure.getCustomData());
+    }
+
+    private void writeSymbol(final JavaSymbolName symbol) throws IOException {
+      writeString(symbol == null ? null : symbol.getSymbolName());
+    }
+
+    private void writeType(final JavaType type) throws IOException {
+      if (type == null) {
+        out.writeByte(NO_TYPE);
+      } else if (isPlain(type)) {
+        out.writeByte(PLAIN_TYPE);
+        writeString(type.getFullyQualifiedTypeName());
+        writeString(type.getModule());
+      } else {
+        out.writeByte(FULL_TYPE);
+        writeString(type.getFullyQualifiedTypeName());
+        writeString(type.getModule());
+        writeType(type.getEnclosingType());
+        writeVarInt(out, type.getArray());
+        writeString(type.getDataType().name());
+        writeSymbol(type.getArgName());
+        writeTypes(type.getParameters());
+      }
+    }
+
+    private void writeTypeDetails(final ClassOrInterfaceTypeDetails cid) throws IOException {
+      writeStructure(cid);
+      writeType(cid.getName());
+      writeString(cid.getPhysicalTypeCategory().name());
+      writeAnnotations(cid.getAnnotations());
+      writeTypes(cid.getExtendsTypes());
+      writeTypes(cid.getImplementsTypes());
+      final List<JavaSymbolName> enumConstants = cid.getEnumConstants();
+      writeVarInt(out, enumConstants.size());
+      for (final JavaSymbolName enumConstant : enumConstants) {
+        writeSymbol(enumConstant);
+      }
+      final Collection<ImportMetadata> registeredImports = cid.getRegisteredImports();
+      writeVarInt(out, registeredImports.size());
+      for (final ImportMetadata registeredImport : registeredImports) {
+        writeImport(registeredImport);
+      }
+      writeVarInt(out, cid.getDeclaredConstructors().size());
+      for (final ConstructorMetadata constructor : cid.getDeclaredConstructors()) {
+        writeConstructor(constructor);
+      }
+      writeVarInt(out, cid.getDeclaredFields().size());
+      for (final FieldMetadata field : cid.getDeclaredFields()) {
+        writeField(field);
+      }
+      writeVarInt(out, cid.getDeclaredMethods().size());
+      for (final MethodMetadata method : cid.getDeclaredMethods()) {
+        writeMethod(method);
+      }
+      writeVarInt(out, cid.getDeclaredInitializers().size());
+      for (final InitializerMetadata initializer : cid.getDeclaredInitializers()) {
+        writeInitializer(initializer);
+      }
+      writeVarInt(out, cid.getDeclaredInnerTypes().size());
+      for (final ClassOrInterfaceTypeDetails innerType : cid.getDeclaredInnerTypes()) {
+        writeTypeDetails(innerType);
+      }
+    }
+
+    private void writeTypes(final List<JavaType> types) throws IOException {
+      writeVarInt(out, types.size());
+      for (final JavaType type : types) {
+        writeType(type);
+      }
+    }
+  }
+
+  /**
+   * Reads back what an {@link Encoder} wrote.
+   */
+  private static class Decoder {
+
+    private final DataInputStream in;
+    private final String[] strings;
+
+    private Decoder(final byte[] encoded) throws IOException {
+      in = new DataInputStream(new ByteArrayInputStream(encoded));
+      final int schemaVersion = in.readUnsignedByte();
+      Validate.isTrue(schemaVersion == SCHEMA_VERSION,
+          "Type details encoded with schema %d, not %d", schemaVersion, SCHEMA_VERSION);
+      strings = new String[readVarInt(in)];
+      for (int i = 0; i < strings.length; i++) {
+        final byte[] utf8 = new byte[readVarInt(in)];
+        in.readFully(utf8);
+        strings[i] = new String(utf8, UTF_8);
+      }
+    }
+
+    private AnnotationMetadata readAnnotation() throws IOException {
+      final JavaType annotationType = readType();
+      final int attributeCount = readVarInt(in);
+      final List<AnnotationAttributeValue<?>> attributeValues =
+          new ArrayList<AnnotationAttributeValue<?>>(attributeCount);
+      for (int i = 0; i < attributeCount; i++) {
+        attributeValues.add(readAttributeValue());
+      }
+      final AnnotationMetadataBuilder annotationBuilder =
+          new AnnotationMetadataBuilder(annotationType, attributeValues);
+      annotationBuilder.setCommentStructure(readComments());
+      return annotationBuilder.build();
+    }
+
+    private List<AnnotationMetadata> readAnnotations() throws IOException {
+      final int annotationCount = readVarInt(in);
+      final List<AnnotationMetadata> annotations = new ArrayList<AnnotationMetadata>(annotationCount);
+      for (int i = 0; i < annotationCount; i++) {
+        annotations.add(readAnnotation());
+      }
+      return annotations;
+    }
+
+    private AnnotationAttributeValue<?> readAttributeValue() throws IOException {
+      final int kind = in.readUnsignedByte();
+      final JavaSymbolName name = readSymbol();
+      switch (kind) {
+        case ARRAY_VALUE:
+          final int elementCount = readVarInt(in);
+          final List<AnnotationAttributeValue<?>> elements =
+              new ArrayList<AnnotationAttributeValue<?>>(elementCount);
+          for (int i = 0; i < elementCount; i++) {
+            elements.add(readAttributeValue());
+          }
+          return new ArrayAttributeValue<AnnotationAttributeValue<?>>(name, elements);
+        case BOOLEAN_VALUE:
+          return new BooleanAttributeValue(name, in.readBoolean());
+        case CHAR_VALUE:
+          return new CharAttributeValue(name, in.readChar());
+        case CLASS_VALUE:
+          return new ClassAttributeValue(name, readType());
+        case DOUBLE_VALUE:
+          final double doubleValue = in.readDouble();
+          return new DoubleAttributeValue(name, doubleValue, in.readBoolean());
+        case ENUM_VALUE:
+          final JavaType enumType = readType();
+          return new EnumAttributeValue(name, new EnumDetails(enumType, readSymbol()));
+        case INTEGER_VALUE:
+          return new IntegerAttributeValue(name, in.readInt());
+        case LONG_VALUE:
+          return new LongAttributeValue(name, in.readLong());
+        case NESTED_VALUE:
+          return new NestedAnnotationAttributeValue(name, readAnnotation());
+        case STRING_VALUE:
+          return new StringAttributeValue(name, readString());
+        default:
+          throw new IllegalArgumentException("Unknown annotation attribute value kind " + kind);
+      }
+    }
+
+    private CommentStructure readComments() throws IOException {
+      if (!in.readBoolean()) {
+        return null;
+      }
+      final CommentStructure commentStructure = new CommentStructure();
+      commentStructure.setBeginComments(readCommentList());
+      commentStructure.setInternalComments(readCommentList());
+      commentStructure.setEndComments(readCommentList());
+      return commentStructure;
+    }
+
+    private List<AbstractComment> readCommentList() throws IOException {
+      final int commentCount = readVarInt(in) - 1;
+      if (commentCount < 0) {
+        return null;
+      }
+      final List<AbstractComment> comments = new ArrayList<AbstractComment>(commentCount);
+      for (int i = 0; i < commentCount; i++) {
+        final int kind = in.readUnsignedByte();
+        final String comment = readString();
+        switch (kind) {
+          case BLOCK_COMMENT:
+            comments.add(new BlockComment(comment));
+            break;
+          case JAVADOC_COMMENT:
+            comments.add(new JavadocComment(comment));
+            break;
+          case LINE_COMMENT:
+            comments.add(new LineComment(comment));
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown comment kind " + kind);
+        }
+      }
+      return comments;
+    }
+
+    private ConstructorMetadataBuilder readConstructor() throws IOException {
+      final ConstructorMetadataBuilder constructorBuilder =
+          new ConstructorMetadataBuilder(readString());
+      readStructure(constructorBuilder);
+      constructorBuilder.setAnnotations(readAnnotations());
+      readInvocableMember(constructorBuilder);
+      return constructorBuilder;
+    }
+
+    private void readCustomData(final AbstractCustomDataAccessorBuilder<?> builder)
+        throws IOException {
+      final int entryCount = readVarInt(in);
+      for (int i = 0; i < entryCount; i++) {
+        final Object key = readCustomDataValue();
+        builder.putCustomData(key, readCustomDataValue());
+      }
+    }
+
+    private Object readCustomDataValue() throws IOException {
+      final int kind = in.readUnsignedByte();
+      switch (kind) {
+        case NULL_DATA:
+          return null;
+        case STRING_DATA:
+          return readString();
+        case BOOLEAN_DATA:
+          return in.readBoolean();
+        case INTEGER_DATA:
+          return in.readInt();
+        case LONG_DATA:
+          return in.readLong();
+        case DOUBLE_DATA:
+          return in.readDouble();
+        case TYPE_DATA:
+          return readType();
+        case SYMBOL_DATA:
+          return readSymbol();
+        default:
+          throw new IllegalArgumentException("Unknown custom data kind " + kind);
+      }
+    }
+
+    private FieldMetadataBuilder readField() throws IOException {
+      final FieldMetadataBuilder fieldBuilder = new FieldMetadataBuilder(readString());
+      readStructure(fieldBuilder);
+      fieldBuilder.setAnnotations(readAnnotations());
+      fieldBuilder.setFieldName(readSymbol());
+      fieldBuilder.setFieldType(readType());
+      fieldBuilder.setFieldInitializer(readString());
+      fieldBuilder.setCommentStructure(readComments());
+      return fieldBuilder;
+    }
+
+    private ImportMetadata readImport() throws IOException {
+      final ImportMetadataBuilder importBuilder = new ImportMetadataBuilder(readString());
+      readStructure(importBuilder);
+      if (in.readBoolean()) {
+        final String packageName = readString();
+        importBuilder.setImportPackage(new JavaPackage(packageName, readString()));
+      }
+      importBuilder.setImportType(readType());
+      importBuilder.setStatic(in.readBoolean());
+      importBuilder.setAsterisk(in.readBoolean());
+      // The builder doesn't carry comments over to what it builds
+      final ImportMetadata importMetadata = importBuilder.build();
+      importMetadata.setCommentStructure(readComments());
+      return importMetadata;
+    }
+
+    private InitializerMetadataBuilder readInitializer() throws IOException {
+      final InitializerMetadataBuilder initializerBuilder =
+          new InitializerMetadataBuilder(readString());
+      readStructure(initializerBuilder);
+      initializerBuilder.setStatic(in.readBoolean());
+      initializerBuilder.setBodyBuilder(InvocableMemberBodyBuilder.getInstance()
+          .append(readString()));
+      return initializerBuilder;
+    }
+
+    private void readInvocableMember(final AbstractInvocableMemberMetadataBuilder<?> builder)
+        throws IOException {
+      final int parameterTypeCount = readVarInt(in);
+      final List<AnnotatedJavaType> parameterTypes =
+          new ArrayList<AnnotatedJavaType>(parameterTypeCount);
+      for (int i = 0; i < parameterTypeCount; i++) {
+        final JavaType parameterType = readType();
+        final AnnotatedJavaType annotatedJavaType =
+            new AnnotatedJavaType(parameterType, readAnnotations());
+        annotatedJavaType.setVarArgs(in.readBoolean());
+        parameterTypes.add(annotatedJavaType);
+      }
+      builder.setParameterTypes(parameterTypes);
+      final int parameterNameCount = readVarInt(in);
+      final List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>(parameterNameCount);
+      for (int i = 0; i < parameterNameCount; i++) {
+        parameterNames.add(readSymbol());
+      }
+      builder.setParameterNames(parameterNames);
+      builder.setThrowsTypes(readTypes());
+      builder.setBodyBuilder(InvocableMemberBodyBuilder.getInstance().append(readString()));
+      builder.setCommentStructure(readComments());
+    }
+
+    private MethodMetadataBuilder readMethod() throws IOException {
+      final MethodMetadataBuilder methodBuilder = new MethodMetadataBuilder(readString());
+      readStructure(methodBuilder);
+      methodBuilder.setAnnotations(readAnnotations());
+      methodBuilder.setMethodName(readSymbol());
+      methodBuilder.setReturnType(readType());
+      readInvocableMember(methodBuilder);
+      methodBuilder.setGenericDefinition(readString());
+      return methodBuilder;
+    }
+
+    private String readString() throws IOException {
+      final int index = readVarInt(in) - 1;
+      if (index < 0) {
+        return null;
+      }
+      if (index >= strings.length) {
+        throw new IllegalArgumentException("String index " + index + " out of range");
+      }
+      return strings[index];
+    }
+
+    /**
+     * Reads the properties common to all {@link IdentifiableJavaStructure}s
+     * other than the declaring metadata ID, which the builders take on
+     * construction
+     */
+    private void readStructure(final AbstractIdentifiableJavaStructureBuilder<?> builder)
+        throws IOException {
+      builder.setModifier(readVarInt(in));
+      readCustomData(builder);
+    }
+
+    private JavaSymbolName readSymbol() throws IOException {
+      final String symbolName = readString();
+      return symbolName == null ? null : JavaSymbolName.of(symbolName);
+    }
+
+    private JavaType readType() throws IOException {
+      final int kind = in.readUnsignedByte();
+      switch (kind) {
+        case NO_TYPE:
+          return null;
+        case PLAIN_TYPE:
+          final String plainTypeName = readString();
+          return JavaType.of(plainTypeName, readString());
+        case FULL_TYPE:
+          final String fullyQualifiedTypeName = readString();
+          final String module = readString();
+          final JavaType enclosingType = readType();
+          final int arrayDimensions = readVarInt(in);
+          final DataType dataType = DataType.valueOf(readString());
+          final JavaSymbolName argName = readSymbol();
+          return new JavaType(fullyQualifiedTypeName, enclosingType, arrayDimensions, dataType,
+              argName, readTypes(), module);
+        default:
+          throw new IllegalArgumentException("Unknown type kind " + kind);
+      }
+    }
+
+    private ClassOrInterfaceTypeDetailsBuilder readTypeDetails() throws IOException {
+      final ClassOrInterfaceTypeDetailsBuilder cidBuilder =
+          new ClassOrInterfaceTypeDetailsBuilder(readString());
+      readStructure(cidBuilder);
+      cidBuilder.setName(readType());
+      cidBuilder.setPhysicalTypeCategory(PhysicalTypeCategory.valueOf(readString()));
+      cidBuilder.setAnnotations(readAnnotations());
+      cidBuilder.setExtendsTypes(readTypes());
+      cidBuilder.setImplementsTypes(readTypes());
+      final int enumConstantCount = readVarInt(in);
+      for (int i = 0; i < enumConstantCount; i++) {
+        cidBuilder.addEnumConstant(readSymbol());
+      }
+      final int importCount = readVarInt(in);
+      final List<ImportMetadata> registeredImports = new ArrayList<ImportMetadata>(importCount);
+      for (int i = 0; i < importCount; i++) {
+        registeredImports.add(readImport());
+      }
+      cidBuilder.setRegisteredImports(registeredImports);
+      final int constructorCount = readVarInt(in);
+      for (int i = 0; i < constructorCount; i++) {
+        cidBuilder.addConstructor(readConstructor());
+      }
+      final int fieldCount = readVarInt(in);
+      for (int i = 0; i < fieldCount; i++) {
+        cidBuilder.addField(readField());
+      }
+      final int methodCount = readVarInt(in);
+      for (int i = 0; i < methodCount; i++) {
+        cidBuilder.addMethod(readMethod());
+      }
+      final int initializerCount = readVarInt(in);
+      for (int i = 0; i < initializerCount; i++) {
+        cidBuilder.addInitializer(readInitializer());
+      }
+      final int innerTypeCount = readVarInt(in);
+      for (int i = 0; i < innerTypeCount; i++) {
+        cidBuilder.addInnerType(readTypeDetails());
+      }
+      return cidBuilder;
+    }
+
+    private List<JavaType> readTypes() throws IOException {
+      final int typeCount = readVarInt(in);
+      final List<JavaType> types = new ArrayList<JavaType>(typeCount);
+      for (int i = 0; i < typeCount; i++) {
+        types.add(readType());
+      }
+      return types;
+    }
+  }
+
+  /**
+   * Decodes the given type details.
+   *
+   * @param encoded the output of {@link #encode(ClassOrInterfaceTypeDetails)}
+   *            (required)
+   * @return a builder of the type details, without superclass details at any
+   *         level; never <code>null</code>
+   * @throws IllegalArgumentException if the given bytes aren't type details
+   *             encoded as per the current {@link #SCHEMA_VERSION}
+   */
+  public static ClassOrInterfaceTypeDetailsBuilder decode(final byte[] encoded) {
+    Validate.notNull(encoded, "Encoded type details required");
+    try {
+      return new Decoder(encoded).readTypeDetails();
+    } catch (final IOException e) {
+      throw new IllegalArgumentException("Truncated type details", e);
+    } catch (final RuntimeException e) {
+      if (e instanceof IllegalArgumentException) {
+        throw e;
+      }
+      throw new IllegalArgumentException("Corrupt type details", e);
+    }
+  }
+
+  /**
+   * Encodes the given type details.
+   *
+   * @param cid the type details to encode (required)
+   * @return a non-empty array
+   * @throws IllegalArgumentException if the details have parts that can't be
+   *             encoded (see the class comment)
+   */
+  public static byte[] encode(final ClassOrInterfaceTypeDetails cid) {
+    Validate.notNull(cid, "Type details required");
+    final Encoder encoder = new Encoder();
+    try {
+      encoder.writeTypeDetails(cid);
+      return encoder.toByteArray();
+    } catch (final IOException e) {
+      // Can't happen when writing to memory
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Indicates whether the given type is fully described by its name and
+   * module, i.e. can be decoded by {@link JavaType#of(String, String)}
+   */
+  private static boolean isPlain(final JavaType type) {
+    if (type.getArray() != 0 || type.getDataType() != DataType.TYPE
+        || type.getArgName() != null || !type.getParameters().isEmpty()) {
+      return false;
+    }
+    final JavaType enclosingType = type.getEnclosingType();
+    final JavaType derivedEnclosingType =
+        JavaType.of(type.getFullyQualifiedTypeName()).getEnclosingType();
+    if (enclosingType == null || derivedEnclosingType == null) {
+      return enclosingType == derivedEnclosingType;
+    }
+    // As JavaType#equals ignores modules and enclosing types
+    return isPlain(enclosingType)
+        && enclosingType.equals(derivedEnclosingType)
+        && StringUtils.equals(enclosingType.getModule(), derivedEnclosingType.getModule());
+  }
+
+  private static int readVarInt(final DataInputStream in) throws IOException {
+    int value = 0;
+    int shift = 0;
+    int b;
+    do {
+      Validate.isTrue(shift < 35, "Malformed variable length integer");
+      b = in.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+
+  /**
+   * Writes the given int in as few bytes as its magnitude allows, seven bits
+   * per byte; small non-negative values take one byte.
+   */
+  private static void writeVarInt(final DataOutputStream out, final int value) throws IOException {
+    int remaining = value;
+    while ((remaining & ~0x7F) != 0) {
+      out.writeByte(remaining & 0x7F | 0x80);
+      remaining >>>= 7;
+    }
+    out.writeByte(remaining);
+  }
+
+  /**
+   * Constructor is private to prevent instantiation
+   */
+  private TypeDetailsCodec() {}
+}
@@ -117,7 +117,7 @@ public class AnnotationMetadataBuilder implements Builder<AnnotationMetadata> {
    * @since 1.2.0
    */
   public AnnotationMetadataBuilder(final Class<?> annotationType) {
-    this(new JavaType(annotationType));
+    this(JavaType.of(annotationType));
   }
 
   /**
@@ -148,7 +148,7 @@ public class AnnotationMetadataBuilder implements Builder<AnnotationMetadata> {
    *            (required)
    */
   public AnnotationMetadataBuilder(final String annotationType) {
-    this(new JavaType(annotationType));
+    this(JavaType.of(annotationType));
   }
 
   public void addAttribute(final AnnotationAttributeValue<?> value) {
@@ -175,7 +175,7 @@ public class AnnotationMetadataBuilder implements Builder<AnnotationMetadata> {
   }
 
   public void addClassAttribute(final String key, final String fullyQualifiedTypeName) {
-    addAttribute(new ClassAttributeValue(new JavaSymbolName(key), new JavaType(
+    addAttribute(new ClassAttributeValue(new JavaSymbolName(key), JavaType.of(
         fullyQualifiedTypeName)));
   }
 
@@ -202,7 +202,7 @@ public class AnnotationMetadataBuilder implements Builder<AnnotationMetadata> {
   public void addEnumAttribute(final String key, final String fullyQualifiedTypeName,
       final String enumConstant) {
     final EnumDetails details =
-        new EnumDetails(new JavaType(fullyQualifiedTypeName), new JavaSymbolName(enumConstant));
+        new EnumDetails(JavaType.of(fullyQualifiedTypeName), new JavaSymbolName(enumConstant));
     addAttribute(new EnumAttributeValue(new JavaSymbolName(key), details));
   }
 
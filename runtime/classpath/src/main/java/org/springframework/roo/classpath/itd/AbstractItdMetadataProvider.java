@@ -1,9 +1,14 @@
 package org.springframework.roo.classpath.itd;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.felix.scr.annotations.Component;
 import org.osgi.framework.InvalidSyntaxException;
@@ -70,6 +75,21 @@ public abstract class AbstractItdMetadataProvider extends AbstractHashCodeTracki
 
   protected final static Logger LOGGER = HandlerUtils.getLogger(AbstractItdMetadataProvider.class);
 
+  /**
+   * What this provider last wrote to a given ITD file, so that unchanged ITDs
+   * don't need comparing with the file's contents again
+   */
+  private static class WrittenItd {
+
+    final long lastModified;
+    final String source;
+
+    WrittenItd(final String source, final long lastModified) {
+      this.lastModified = lastModified;
+      this.source = source;
+    }
+  }
+
   protected void activate(final ComponentContext cContext) {
     context = cContext.getBundleContext();
   }
@@ -103,6 +123,9 @@ public abstract class AbstractItdMetadataProvider extends AbstractHashCodeTracki
 
   protected TypeLocationService typeLocationService;
 
+  /** The ITDs written by this provider, keyed by their canonical paths */
+  private final Map<String, WrittenItd> writtenItds = new HashMap<String, WrittenItd>();
+
   /**
    * Registers an additional {@link JavaType} that will trigger metadata
    * registration.
@@ -141,6 +164,39 @@ public abstract class AbstractItdMetadataProvider extends AbstractHashCodeTracki
    */
   protected abstract String createLocalIdentifier(JavaType javaType, LogicalPath path);
 
+  /**
+   * Writes the given ITD unless it's known to be what's on disk already, i.e.
+   * this provider last wrote the same source to it and the file hasn't been
+   * touched since.
+   * 
+   * @param itdFilename the ITD's canonical path
+   * @param itd the ITD's source
+   */
+  void writeItdIfRequired(final String itdFilename, final String itd) {
+    final File itdFile = new File(itdFilename);
+    final WrittenItd writtenItd = writtenItds.get(itdFilename);
+    if (writtenItd != null && writtenItd.lastModified != 0
+        && writtenItd.lastModified == itdFile.lastModified() && writtenItd.source.equals(itd)) {
+      return;
+    }
+    getFileManager().createOrUpdateGeneratedFileIfRequired(itdFilename, itd);
+    // Within a transaction the write is deferred and may yet be rolled back,
+    // so the ITD is only recorded once the file holds it
+    if (isWritten(itdFile, itd)) {
+      writtenItds.put(itdFilename, new WrittenItd(itd, itdFile.lastModified()));
+    } else {
+      writtenItds.remove(itdFilename);
+    }
+  }
+
+  private boolean isWritten(final File itdFile, final String itd) {
+    try {
+      return itdFile.isFile() && FileUtils.readFileToString(itdFile).equals(itd);
+    } catch (final IOException e) {
+      return false;
+    }
+  }
+
   /**
    * Deletes the given ITD, either now or later.
    * 
@@ -158,10 +214,11 @@ public abstract class AbstractItdMetadataProvider extends AbstractHashCodeTracki
   private void deleteItd(final String metadataIdentificationString, final String itdFilename,
       final String reason, final boolean now) {
 
+    writtenItds.remove(itdFilename);
     if (now) {
       getFileManager().delete(itdFilename, reason);
     } else {
-      getFileManager().createOrUpdateTextFileIfRequired(itdFilename, "", false);
+      getFileManager().createOrUpdateGeneratedFileIfRequired(itdFilename, "");
     }
     getItdDiscoveryService().removeItdTypeDetails(metadataIdentificationString);
     // TODO do we need to notify downstream dependencies that this ITD has
@@ -284,8 +341,7 @@ public abstract class AbstractItdMetadataProvider extends AbstractHashCodeTracki
         if (itdSourceFileComposer.isContent()) {
           // We have content to write
           getItdDiscoveryService().addItdTypeDetails(itdTypeDetails);
-          final String itd = itdSourceFileComposer.getOutput();
-          getFileManager().createOrUpdateTextFileIfRequired(itdFilename, itd, false);
+          writeItdIfRequired(itdFilename, itdSourceFileComposer.getOutput());
         } else {
           // We don't have content to write
           deleteItdFile = true;
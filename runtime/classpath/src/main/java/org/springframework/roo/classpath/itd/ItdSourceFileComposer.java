@@ -39,12 +39,44 @@ import org.springframework.roo.model.JavaType;
  */
 public class ItdSourceFileComposer {
 
+  /**
+   * The largest buffer worth keeping for the next composer; the odd huge ITD
+   * shouldn't pin its buffer for the rest of the session
+   */
+  private static final int MAX_POOLED_CAPACITY = 256 * 1024;
+
+  /**
+   * A buffer to be reused by the next composer on the same thread, as ITDs
+   * are mostly composed one after another while metadata is produced
+   */
+  private static final ThreadLocal<StringBuilder> POOLED_BUFFER =
+      new ThreadLocal<StringBuilder>();
+
+  private static StringBuilder borrowBuffer() {
+    final StringBuilder buffer = POOLED_BUFFER.get();
+    if (buffer == null) {
+      return new StringBuilder(4096);
+    }
+    // Composing may nest (e.g. via ITD hash codes), so nobody else may use
+    // this buffer until it's given back
+    POOLED_BUFFER.remove();
+    buffer.setLength(0);
+    return buffer;
+  }
+
+  private static void returnBuffer(final StringBuilder buffer) {
+    if (buffer.capacity() <= MAX_POOLED_CAPACITY) {
+      POOLED_BUFFER.set(buffer);
+    }
+  }
+
   private final JavaType aspect;
   private boolean content;
   private int indentLevel = 0;
   private final JavaType introductionTo;
   private final ItdTypeDetails itdTypeDetails;
-  private StringBuilder pw = new StringBuilder();
+  private String output;
+  private StringBuilder pw;
   private final ImportRegistrationResolver resolver;
 
   /**
@@ -72,6 +104,16 @@ public class ItdSourceFileComposer {
       }
     }
 
+    pw = borrowBuffer();
+    try {
+      compose();
+    } finally {
+      returnBuffer(pw);
+      pw = null;
+    }
+  }
+
+  private void compose() {
     appendTypeDeclaration();
     appendDeclarePrecedence();
     appendExtendsTypes();
@@ -91,6 +133,7 @@ public class ItdSourceFileComposer {
     // unit imports are correct, as they're built as we traverse over the
     // other members
     prependCompilationUnitDetails();
+    output = pw.toString();
   }
 
   /**
@@ -528,7 +571,7 @@ public class ItdSourceFileComposer {
   }
 
   public String getOutput() {
-    return pw.toString();
+    return output;
   }
 
   /**
@@ -617,11 +660,10 @@ public class ItdSourceFileComposer {
       topOfFile.append(getNewLine());
     }
 
-    // Now append the normal file to the bottom
-    topOfFile.append(pw.toString());
-
-    // Replace the old writer with out new writer
-    pw = topOfFile;
+    // Now put it above the normal file; the imports are only known once the
+    // latter is written, so it is shifted down within its reused buffer,
+    // which still copies it once
+    pw.insert(0, topOfFile);
   }
 
   private void writeMethods(final List<? extends MethodMetadata> methods,
@@ -35,6 +35,17 @@ import org.springframework.roo.model.JavaType;
  */
 public interface MemberDetailsScanner {
 
+  /**
+   * Discards every cached {@link MemberDetails}, so that subsequent calls to
+   * {@link #getMemberDetails(String, ClassOrInterfaceTypeDetails)} rebuild
+   * them. Implementations invalidate their cache as metadata changes, so this
+   * is only needed when something else alters the outcome, such as the
+   * registration of new decorator matchers.
+   * 
+   * @since 2.0
+   */
+  void evictMemberDetails();
+
   /**
    * Builds {@link MemberDetails} instance for the given
    * {@link ClassOrInterfaceTypeDetails}. In particular, this includes all ITD
@@ -2,12 +2,18 @@ package org.springframework.roo.classpath.scanner;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.logging.Logger;
 
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
@@ -20,10 +26,14 @@ import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
 import org.springframework.roo.classpath.details.MemberHoldingTypeDetails;
 import org.springframework.roo.classpath.itd.ItdMetadataProvider;
 import org.springframework.roo.classpath.itd.ItdTypeDetailsProvidingMetadataItem;
+import org.springframework.roo.metadata.EarlyMetadataNotificationListener;
+import org.springframework.roo.metadata.MetadataDependencyRegistry;
 import org.springframework.roo.metadata.MetadataIdentificationUtils;
 import org.springframework.roo.metadata.MetadataItem;
+import org.springframework.roo.metadata.MetadataNotificationListener;
 import org.springframework.roo.metadata.MetadataProvider;
 import org.springframework.roo.metadata.MetadataService;
+import org.springframework.roo.metadata.internal.MetadataDependencyRegistryTracker;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
@@ -42,6 +52,12 @@ import org.springframework.roo.support.logging.HandlerUtils;
  * the metadata infrastructure does not require special type naming approaches
  * to be employed. The ordering behaviour exists solely to simplify debugging
  * for add-on developers and log comparison between invocations.
+ * <p>
+ * Results are cached per requesting class and governor. A cached result is
+ * discarded as soon as a metadata notification is received for any of the
+ * physical types in the governor's hierarchy or any of the ITDs that were
+ * consulted to build it, before that notification reaches any downstream
+ * metadata.
  * 
  * @author Ben Alex
  * @since 1.1
@@ -57,8 +73,76 @@ public class MemberDetailsScannerImpl implements MemberDetailsScanner {
 
   protected MetadataService metadataService;
 
+  protected MetadataDependencyRegistryTracker registryTracker = null;
+
+  /**
+   * The maximum number of {@link MemberDetails} kept in the cache
+   */
+  private static final int MAX_CACHED_MEMBER_DETAILS = 5000;
+
+  private static class CachedMemberDetails {
+    private final ClassOrInterfaceTypeDetails governor;
+    private final MemberDetails memberDetails;
+    private final Set<String> contributors;
+
+    private CachedMemberDetails(final ClassOrInterfaceTypeDetails governor,
+        final MemberDetails memberDetails, final Set<String> contributors) {
+      this.governor = governor;
+      this.memberDetails = memberDetails;
+      this.contributors = contributors;
+    }
+  }
+
+  /**
+   * Cached results keyed by requesting class and governor id, in least
+   * recently used order
+   */
+  private final Map<String, CachedMemberDetails> cache =
+      new LinkedHashMap<String, CachedMemberDetails>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CachedMemberDetails> eldest) {
+          if (size() > MAX_CACHED_MEMBER_DETAILS) {
+            forgetContributors(eldest.getKey(), eldest.getValue());
+            cacheEvictions++;
+            return true;
+          }
+          return false;
+        }
+      };
+
+  /**
+   * The cache keys of the results each metadata id contributed to
+   */
+  private final Map<String, Set<String>> contributorToCacheKeys =
+      new HashMap<String, Set<String>>();
+
+  private long cacheHits;
+  private long cacheMisses;
+  private long cacheEvictions;
+
+  /**
+   * Notified before the metadata, so that a downstream provider rebuilding
+   * its metadata in the same cascade doesn't get the stale result
+   */
+  private final MetadataNotificationListener cacheInvalidator =
+      new EarlyMetadataNotificationListener() {
+        public void notify(final String upstreamDependency, final String downstreamDependency) {
+          if (MetadataIdentificationUtils.isIdentifyingClass(upstreamDependency)) {
+            // Could concern any instance of that class
+            evictMemberDetails();
+          } else {
+            evictMemberDetails(upstreamDependency);
+          }
+        }
+      };
+
   protected void activate(final ComponentContext context) {
     this.context = context.getBundleContext();
+    this.registryTracker =
+        new MetadataDependencyRegistryTracker(context.getBundleContext(), cacheInvalidator);
+    this.registryTracker.open();
   }
 
   private final SortedSet<MemberDetailsDecorator> decorators = new TreeSet<MemberDetailsDecorator>(
@@ -91,6 +175,8 @@ public class MemberDetailsScannerImpl implements MemberDetailsScanner {
       } catch (InvalidSyntaxException e) {
         LOGGER.warning("Cannot load MemberDetailsDecorator on MemberDetailsScannerImpl.");
       }
+      // Cached results may have been built without these
+      evictMemberDetails();
     }
   }
 
@@ -113,11 +199,54 @@ public class MemberDetailsScannerImpl implements MemberDetailsScanner {
       } catch (InvalidSyntaxException e) {
         LOGGER.warning("Cannot load MetadataProvider on MemberDetailsScannerImpl.");
       }
+      // Cached results may have been built without these
+      evictMemberDetails();
     }
   }
 
   protected void deactivate(final ComponentContext componentContext) {
-    // Empty
+    MetadataDependencyRegistry registry = this.registryTracker.getService();
+    if (registry != null) {
+      registry.removeNotificationListener(cacheInvalidator);
+    }
+    this.registryTracker.close();
+    evictMemberDetails();
+  }
+
+  public void evictMemberDetails() {
+    synchronized (lock) {
+      cacheEvictions += cache.size();
+      cache.clear();
+      contributorToCacheKeys.clear();
+    }
+  }
+
+  private void evictMemberDetails(final String contributor) {
+    synchronized (lock) {
+      final Set<String> cacheKeys = contributorToCacheKeys.remove(contributor);
+      if (cacheKeys == null) {
+        return;
+      }
+      for (final String cacheKey : cacheKeys) {
+        final CachedMemberDetails cached = cache.remove(cacheKey);
+        if (cached != null) {
+          forgetContributors(cacheKey, cached);
+          cacheEvictions++;
+        }
+      }
+    }
+  }
+
+  private void forgetContributors(final String cacheKey, final CachedMemberDetails cached) {
+    for (final String contributor : cached.contributors) {
+      final Set<String> cacheKeys = contributorToCacheKeys.get(contributor);
+      if (cacheKeys != null) {
+        cacheKeys.remove(cacheKey);
+        if (cacheKeys.isEmpty()) {
+          contributorToCacheKeys.remove(contributor);
+        }
+      }
+    }
   }
 
   public final MemberDetails getMemberDetails(final String requestingClass,
@@ -139,6 +268,18 @@ public class MemberDetailsScannerImpl implements MemberDetailsScanner {
       return null;
     }
     synchronized (lock) {
+      final String cacheKey = requestingClass + "|" + cid.getDeclaredByMetadataId();
+      final CachedMemberDetails cached = cache.get(cacheKey);
+      if (cached != null && cached.governor == cid) {
+        cacheHits++;
+        return cached.memberDetails;
+      }
+      cacheMisses++;
+      final ClassOrInterfaceTypeDetails governor = cid;
+
+      // Every metadata item this result is built from
+      final Set<String> contributors = new HashSet<String>();
+
       // Create a list of discovered members
       final List<MemberHoldingTypeDetails> memberHoldingTypeDetails =
           new ArrayList<MemberHoldingTypeDetails>();
@@ -155,6 +296,7 @@ public class MemberDetailsScannerImpl implements MemberDetailsScanner {
       // Now we add this governor, plus all of its superclasses
       for (final ClassOrInterfaceTypeDetails currentClass : cidHierarchy) {
         memberHoldingTypeDetails.add(currentClass);
+        contributors.add(currentClass.getDeclaredByMetadataId());
 
         // Locate all MetadataProvider instances that provide ITDs and
         // thus MemberHoldingTypeDetails information
@@ -178,7 +320,9 @@ public class MemberDetailsScannerImpl implements MemberDetailsScanner {
               "ITD metadata provider '%s' returned an illegal key ('%s')", mp, key);
 
           // Get the metadata and ensure we have ITD type details
-          // available
+          // available; even if there are none yet, we need to know
+          // when they appear
+          contributors.add(key);
           final MetadataItem metadataItem = metadataService.get(key);
           if (metadataItem == null || !metadataItem.isValid()) {
             continue;
@@ -200,7 +344,8 @@ public class MemberDetailsScannerImpl implements MemberDetailsScanner {
       MemberDetails result = new MemberDetailsImpl(memberHoldingTypeDetails);
 
       // Loop until such time as we complete a full loop where no changes
-      // are made to the result
+      // are made to the result; decorators return the instance they were
+      // given when they change nothing, so identity tells us whether one did
       boolean additionalLoopRequired = true;
       while (additionalLoopRequired) {
         additionalLoopRequired = false;
@@ -208,17 +353,44 @@ public class MemberDetailsScannerImpl implements MemberDetailsScanner {
           final MemberDetails newResult = decorator.decorate(requestingClass, result);
           Validate.isTrue(newResult != null, "Decorator '%s' returned an illegal result", decorator
               .getClass().getName());
-          if (newResult != null && !newResult.equals(result)) {
+          if (newResult != result) {
             additionalLoopRequired = true;
           }
           result = newResult;
         }
       }
 
+      final CachedMemberDetails previous =
+          cache.put(cacheKey, new CachedMemberDetails(governor, result, contributors));
+      if (previous != null) {
+        forgetContributors(cacheKey, previous);
+      }
+      for (final String contributor : contributors) {
+        Set<String> cacheKeys = contributorToCacheKeys.get(contributor);
+        if (cacheKeys == null) {
+          cacheKeys = new HashSet<String>();
+          contributorToCacheKeys.put(contributor, cacheKeys);
+        }
+        cacheKeys.add(cacheKey);
+      }
+
       return result;
     }
   }
 
+  @Override
+  public final String toString() {
+    final ToStringBuilder builder = new ToStringBuilder(this);
+    synchronized (lock) {
+      builder.append("cacheHits", cacheHits);
+      builder.append("cacheMisses", cacheMisses);
+      builder.append("cacheEvictions", cacheEvictions);
+      builder.append("cacheCurrentSize", cache.size());
+      builder.append("cacheMaximumSize", MAX_CACHED_MEMBER_DETAILS);
+    }
+    return builder.toString().replaceFirst("@[0-9a-f]+", ":");
+  }
+
   public MetadataService getMetadataService() {
     // Get all Services implement MetadataService interface
     try {
@@ -0,0 +1,209 @@
+package org.springframework.roo.classpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.service.component.ComponentContext;
+import org.springframework.roo.classpath.details.MemberHoldingTypeDetails;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
+import org.springframework.roo.model.CustomData;
+import org.springframework.roo.model.JavaType;
+
+/**
+ * Unit test of {@link TypeIndexImpl}
+ *
+ * @since 2.0
+ */
+public class TypeIndexImplTest {
+
+  private static final JavaType ENTITY = new JavaType("com.foo.Entity");
+  private static final JavaType JAVA_BEAN = new JavaType("com.foo.JavaBean");
+  private static final JavaType READ_ONLY = new JavaType("com.foo.ReadOnly");
+  private static final String TAG = "PERSISTENT_TYPE";
+
+  private File sourceFile;
+
+  // Fixture
+  private TypeIndexImpl typeIndex;
+
+  @Before
+  public void setUp() throws Exception {
+    sourceFile = File.createTempFile("TypeIndexImplTest", ".java");
+    typeIndex = new TypeIndexImpl();
+    index("MID:a", Arrays.asList(ENTITY, JAVA_BEAN), TAG);
+    index("MID:b", Arrays.asList(ENTITY));
+    index("MID:c", Arrays.asList(ENTITY, JAVA_BEAN, READ_ONLY));
+    index("MID:d", Arrays.asList(JAVA_BEAN));
+  }
+
+  @After
+  public void tearDown() {
+    sourceFile.delete();
+  }
+
+  private void index(final String mid, final List<JavaType> annotationTypes,
+      final Object... tags) {
+    final List<AnnotationMetadata> annotations = new ArrayList<AnnotationMetadata>();
+    for (final JavaType annotationType : annotationTypes) {
+      final AnnotationMetadata annotation = mock(AnnotationMetadata.class);
+      when(annotation.getAnnotationType()).thenReturn(annotationType);
+      annotations.add(annotation);
+    }
+    final CustomData customData = mock(CustomData.class);
+    when(customData.keySet()).thenReturn(new HashSet<Object>(Arrays.asList(tags)));
+    final MemberHoldingTypeDetails cid = mock(MemberHoldingTypeDetails.class);
+    when(cid.getDeclaredByMetadataId()).thenReturn(mid);
+    when(cid.getAnnotations()).thenReturn(annotations);
+    when(cid.getCustomData()).thenReturn(customData);
+    typeIndex.indexType(sourceFile.getAbsolutePath(), cid);
+  }
+
+  private void assertTypes(final TypeIndexQuery query, final String... expectedMids) {
+    assertEquals(new HashSet<String>(Arrays.asList(expectedMids)),
+        typeIndex.findTypeIdentifiers(query));
+  }
+
+  @Test
+  public void testAllOf() {
+    assertTypes(new TypeIndexQuery().withAll(ENTITY, JAVA_BEAN), "MID:a", "MID:c");
+  }
+
+  @Test
+  public void testAnyOf() {
+    assertTypes(new TypeIndexQuery().withAny(READ_ONLY, TAG), "MID:a", "MID:c");
+  }
+
+  @Test
+  public void testAnyOfNothing() {
+    assertTypes(new TypeIndexQuery().withAny());
+  }
+
+  @Test
+  public void testExclusion() {
+    assertTypes(new TypeIndexQuery().withAll(ENTITY, JAVA_BEAN).without(READ_ONLY), "MID:a");
+  }
+
+  @Test
+  public void testExclusionOnly() {
+    assertTypes(new TypeIndexQuery().without(ENTITY), "MID:d");
+  }
+
+  @Test
+  public void testReindexReplacesPreviousKeys() {
+    index("MID:b", Arrays.asList(JAVA_BEAN));
+    assertTypes(new TypeIndexQuery().withAll(ENTITY), "MID:a", "MID:c");
+    assertTypes(new TypeIndexQuery().withAll(JAVA_BEAN), "MID:a", "MID:b", "MID:c", "MID:d");
+  }
+
+  @Test
+  public void testRemoveType() {
+    typeIndex.removeType("MID:a");
+    assertTypes(new TypeIndexQuery().withAll(TAG));
+    assertEquals(3, typeIndex.getAllTypeIdentifiers().size());
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    typeIndex.writeTo(out);
+    assertFalse(typeIndex.isModified());
+
+    final TypeIndexImpl restored = new TypeIndexImpl();
+    restored.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+    assertEquals(typeIndex.getAllTypeIdentifiers(), restored.getAllTypeIdentifiers());
+    assertEquals(Collections.singleton("MID:a"),
+        restored.findTypeIdentifiers(new TypeIndexQuery().withAll(TAG, JAVA_BEAN)));
+    assertFalse(restored.isModified());
+  }
+
+  @Test
+  public void testHeaderIndexedTypeIsNotFullyIndexed() throws Exception {
+    final TypeHeader typeHeader =
+        new TypeHeader(new JavaType("com.foo.Person"), PhysicalTypeCategory.CLASS,
+            Arrays.asList(ENTITY), null, null);
+    typeIndex.indexTypeHeader(sourceFile.getAbsolutePath(), "MID:e", typeHeader);
+
+    assertTypes(new TypeIndexQuery().withAll(ENTITY).without(JAVA_BEAN), "MID:b", "MID:e");
+    assertTrue(typeIndex.isFullyIndexed("MID:a", sourceFile.getAbsolutePath()));
+    assertFalse(typeIndex.isFullyIndexed("MID:e", sourceFile.getAbsolutePath()));
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    typeIndex.writeTo(out);
+    final TypeIndexImpl restored = new TypeIndexImpl();
+    restored.readFrom(new ByteArrayInputStream(out.toByteArray()));
+    assertFalse(restored.isFullyIndexed("MID:e", sourceFile.getAbsolutePath()));
+
+    index("MID:e", Arrays.asList(ENTITY), TAG);
+    assertTrue(typeIndex.isFullyIndexed("MID:e", sourceFile.getAbsolutePath()));
+    assertTypes(new TypeIndexQuery().withAll(TAG), "MID:a", "MID:e");
+  }
+
+  @Test
+  public void testReadDropsEntriesOfFilesChangedWithTheSameTimestamp() throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    typeIndex.writeTo(out);
+    final long lastModified = sourceFile.lastModified();
+    FileUtils.writeStringToFile(sourceFile, "class Changed {}");
+    assertTrue(sourceFile.setLastModified(lastModified));
+
+    final TypeIndexImpl restored = new TypeIndexImpl();
+    restored.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+    assertTrue(restored.getAllTypeIdentifiers().isEmpty());
+    assertTrue(restored.isModified());
+  }
+
+  @Test
+  public void testReadUnderOtherBundlesKeepsOnlyAnnotations() throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    typeIndex.writeTo(out);
+
+    final Bundle bundle = mock(Bundle.class);
+    when(bundle.getSymbolicName()).thenReturn("com.foo.addon");
+    final BundleContext bundleContext = mock(BundleContext.class);
+    when(bundleContext.getBundles()).thenReturn(new Bundle[] {bundle});
+    final ComponentContext context = mock(ComponentContext.class);
+    when(context.getBundleContext()).thenReturn(bundleContext);
+    final TypeIndexImpl restored = new TypeIndexImpl();
+    restored.activate(context);
+    restored.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+    assertEquals(typeIndex.getAllTypeIdentifiers(), restored.getAllTypeIdentifiers());
+    assertFalse(restored.isFullyIndexed("MID:a", sourceFile.getAbsolutePath()));
+    assertTrue(restored.isModified());
+  }
+
+  @Test
+  public void testReadDropsEntriesOfDeletedFiles() throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    typeIndex.writeTo(out);
+    assertTrue(sourceFile.delete());
+
+    final TypeIndexImpl restored = new TypeIndexImpl();
+    restored.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+    final Set<String> mids = restored.getAllTypeIdentifiers();
+    assertTrue(mids.isEmpty());
+    assertTrue(restored.isModified());
+  }
+}
@@ -1,13 +1,29 @@
 package org.springframework.roo.classpath;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import junit.framework.TestCase;
 
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.file.monitor.FileMonitorService;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.process.manager.FileManager;
+import org.springframework.roo.project.LogicalPath;
+import org.springframework.roo.project.Path;
+import org.springframework.roo.project.PhysicalPath;
+import org.springframework.roo.project.ProjectOperations;
+import org.springframework.roo.project.maven.Pom;
+
 /**
  * Unit test of {@link TypeLocationServiceImpl}.
  * 
@@ -59,4 +75,123 @@ public class TypeLocationServiceImplTest extends TestCase {
     // Check
     assertEquals("com.foo", lowestCommonPackage);
   }
+
+  public void testTypeOfModuleWithNestedPathsIsInProjectWhateverThePathOrder() {
+    // Set up: the module's root path contains its source path
+    final File moduleRoot = new File(File.separator + "project");
+    final File sourceRoot = new File(moduleRoot, "src/main/java".replace('/', File.separatorChar));
+    final String typeFile =
+        new File(sourceRoot, "com/foo/Bar.java".replace('/', File.separatorChar)).getPath();
+    final PhysicalPath rootPath =
+        new PhysicalPath(LogicalPath.getInstance(Path.ROOT, ""), moduleRoot);
+    final PhysicalPath sourcePath =
+        new PhysicalPath(LogicalPath.getInstance(Path.SRC_MAIN_JAVA, ""), sourceRoot);
+
+    for (final List<PhysicalPath> physicalPaths : Arrays.asList(
+        Arrays.asList(rootPath, sourcePath), Arrays.asList(sourcePath, rootPath))) {
+      final Pom module = mock(Pom.class);
+      when(module.getPhysicalPaths()).thenReturn(physicalPaths);
+      final ProjectOperations projectOperations = mock(ProjectOperations.class);
+      when(projectOperations.getModuleForFileIdentifier(typeFile)).thenReturn(module);
+      when(projectOperations.getPoms()).thenReturn(Collections.singleton(module));
+      final FileManager fileManager = mock(FileManager.class);
+      when(fileManager.exists(typeFile)).thenReturn(true);
+      final FileMonitorService fileMonitorService = mock(FileMonitorService.class);
+      when(fileMonitorService.getDirtyFiles(TypeLocationServiceImpl.class.getName())).thenReturn(
+          Collections.singleton(typeFile));
+      final TypeCache typeCache = mock(TypeCache.class);
+      final TypeLocationServiceImpl typeLocationService = new TypeLocationServiceImpl() {
+        @Override
+        public FileManager getFileManager() {
+          return fileManager;
+        }
+
+        @Override
+        public FileMonitorService getFileMonitorService() {
+          return fileMonitorService;
+        }
+
+        @Override
+        public ProjectOperations getProjectOperations() {
+          return projectOperations;
+        }
+
+        @Override
+        public TypeCache getTypeCache() {
+          return typeCache;
+        }
+      };
+
+      // Invoke and check
+      assertTrue(typeLocationService.isInProject(new JavaType("com.foo.Bar")));
+    }
+  }
+
+  private static final JavaType ENTITY = new JavaType("com.foo.Entity");
+  private static final JavaType BAR = new JavaType("com.foo.Bar");
+
+  /**
+   * Returns a service whose project has two types annotated with
+   * {@link #ENTITY}, of which only {@link #BAR} has details
+   */
+  private TypeLocationServiceImpl getTypeLocationServiceWithEntities() {
+    final JavaType baz = new JavaType("com.foo.Baz");
+    final LogicalPath path = LogicalPath.getInstance(Path.SRC_MAIN_JAVA, "");
+    final String barId = PhysicalTypeIdentifier.createIdentifier(BAR, path);
+    final String bazId = PhysicalTypeIdentifier.createIdentifier(baz, path);
+    final TypeIndex typeIndex = new TypeIndexImpl();
+    final List<JavaType> annotationTypes = Collections.singletonList(ENTITY);
+    typeIndex.indexTypeHeader("Bar.java", barId, new TypeHeader(BAR, PhysicalTypeCategory.CLASS,
+        annotationTypes, null, null));
+    // Its details can't be built, e.g. as its source file no longer parses
+    typeIndex.indexTypeHeader("Baz.java", bazId, new TypeHeader(baz, PhysicalTypeCategory.CLASS,
+        annotationTypes, null, null));
+    final ClassOrInterfaceTypeDetails barDetails = mock(ClassOrInterfaceTypeDetails.class);
+    when(barDetails.getName()).thenReturn(BAR);
+    final TypeCache typeCache = mock(TypeCache.class);
+    when(typeCache.getAllTypeIdentifiers()).thenReturn(Collections.singleton(barId));
+    when(typeCache.getTypeDetails(barId)).thenReturn(barDetails);
+    final FileMonitorService fileMonitorService = mock(FileMonitorService.class);
+    when(fileMonitorService.getDirtyFiles(TypeLocationServiceImpl.class.getName())).thenReturn(
+        Collections.<String>emptySet());
+    return new TypeLocationServiceImpl() {
+      @Override
+      public FileMonitorService getFileMonitorService() {
+        return fileMonitorService;
+      }
+
+      @Override
+      public TypeCache getTypeCache() {
+        return typeCache;
+      }
+
+      @Override
+      public TypeIndex getTypeIndex() {
+        return typeIndex;
+      }
+    };
+  }
+
+  public void testFindTypesWithAnnotationSkipsTypesWithoutDetails() {
+    // Set up
+    final TypeLocationServiceImpl typeLocationService = getTypeLocationServiceWithEntities();
+
+    // Invoke
+    final Set<JavaType> types = typeLocationService.findTypesWithAnnotation(ENTITY);
+
+    // Check
+    assertEquals(Collections.singleton(BAR), types);
+  }
+
+  public void testFindTypesWithNoAnnotationsFindsNone() {
+    // Set up
+    final TypeLocationServiceImpl typeLocationService = getTypeLocationServiceWithEntities();
+
+    // Invoke
+    final Set<JavaType> types =
+        typeLocationService.findTypesWithAnnotation(Collections.<JavaType>emptyList());
+
+    // Check
+    assertTrue(types.isEmpty());
+  }
 }
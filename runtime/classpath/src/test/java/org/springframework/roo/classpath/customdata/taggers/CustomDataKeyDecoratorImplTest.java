@@ -0,0 +1,128 @@
+package org.springframework.roo.classpath.customdata.taggers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.roo.classpath.customdata.CustomDataKeys.IDENTIFIER_ACCESSOR_METHOD;
+import static org.springframework.roo.classpath.customdata.CustomDataKeys.IDENTIFIER_FIELD;
+import static org.springframework.roo.classpath.customdata.CustomDataKeys.PERSISTENT_TYPE;
+import static org.springframework.roo.classpath.customdata.CustomDataKeys.VERSION_FIELD;
+import static org.springframework.roo.model.JpaJavaType.ENTITY;
+import static org.springframework.roo.model.JpaJavaType.ID;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.roo.classpath.PhysicalTypeCategory;
+import org.springframework.roo.classpath.PhysicalTypeIdentifier;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetailsBuilder;
+import org.springframework.roo.classpath.details.FieldMetadataBuilder;
+import org.springframework.roo.classpath.details.MethodMetadataBuilder;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadataBuilder;
+import org.springframework.roo.classpath.itd.InvocableMemberBodyBuilder;
+import org.springframework.roo.classpath.scanner.MemberDetails;
+import org.springframework.roo.classpath.scanner.MemberDetailsImpl;
+import org.springframework.roo.model.JavaSymbolName;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.project.LogicalPath;
+import org.springframework.roo.project.Path;
+
+/**
+ * Unit test of {@link CustomDataKeyDecoratorImpl}
+ *
+ * @since 2.0
+ */
+public class CustomDataKeyDecoratorImplTest {
+
+  private static final String ADDING_CLASS = "com.example.SomeMetadataProvider";
+  private static final JavaType ENTITY_TYPE = new JavaType("com.example.Person");
+  private static final String METADATA_ID = PhysicalTypeIdentifier.createIdentifier(ENTITY_TYPE,
+      LogicalPath.getInstance(Path.SRC_MAIN_JAVA, ""));
+
+  // Fixture
+  private CustomDataKeyDecoratorImpl decorator;
+  private MemberDetails memberDetails;
+
+  @Before
+  public void setUp() {
+    decorator = new CustomDataKeyDecoratorImpl();
+    decorator.registerMatcher(ADDING_CLASS, FieldMatcher.JPA_ID);
+    decorator.registerMatcher(ADDING_CLASS,
+        new MethodMatcher(Arrays.asList(FieldMatcher.JPA_ID), IDENTIFIER_ACCESSOR_METHOD, true));
+    decorator.registerMatcher(ADDING_CLASS, new AnnotatedTypeMatcher(PERSISTENT_TYPE, ENTITY));
+
+    final ClassOrInterfaceTypeDetailsBuilder cidBuilder =
+        new ClassOrInterfaceTypeDetailsBuilder(METADATA_ID, Modifier.PUBLIC, ENTITY_TYPE,
+            PhysicalTypeCategory.CLASS);
+    cidBuilder.addAnnotation(new AnnotationMetadataBuilder(ENTITY));
+    cidBuilder.addField(new FieldMetadataBuilder(METADATA_ID, Modifier.PRIVATE, Arrays
+        .asList(new AnnotationMetadataBuilder(ID)), new JavaSymbolName("id"),
+        JavaType.LONG_OBJECT));
+    cidBuilder.addField(new FieldMetadataBuilder(METADATA_ID, Modifier.PRIVATE, Collections
+        .<AnnotationMetadataBuilder>emptyList(), new JavaSymbolName("name"), JavaType.STRING));
+    final InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+    bodyBuilder.appendFormalLine("return id;");
+    cidBuilder.addMethod(new MethodMetadataBuilder(METADATA_ID, Modifier.PUBLIC,
+        new JavaSymbolName("getId"), JavaType.LONG_OBJECT, bodyBuilder));
+    memberDetails =
+        new MemberDetailsImpl(Collections.<ClassOrInterfaceTypeDetails>singletonList(cidBuilder
+            .build()));
+  }
+
+  @Test
+  public void testDecorateTagsMatchingMembersAndType() {
+    final MemberDetails result = decorator.decorate(ADDING_CLASS, memberDetails);
+
+    final ClassOrInterfaceTypeDetails cid =
+        (ClassOrInterfaceTypeDetails) result.getDetails().get(0);
+    assertTrue(cid.getCustomData().keySet().contains(PERSISTENT_TYPE));
+    assertTrue(cid.getField(new JavaSymbolName("id")).getCustomData().keySet()
+        .contains(IDENTIFIER_FIELD));
+    assertFalse(cid.getField(new JavaSymbolName("name")).getCustomData().keySet()
+        .contains(IDENTIFIER_FIELD));
+    assertTrue(cid.getMethod(new JavaSymbolName("getId")).getCustomData().keySet()
+        .contains(IDENTIFIER_ACCESSOR_METHOD));
+  }
+
+  @Test
+  public void testDecoratingOwnResultChangesNothing() {
+    final MemberDetails result = decorator.decorate(ADDING_CLASS, memberDetails);
+
+    assertNotSame(memberDetails, result);
+    assertSame(result, decorator.decorate(ADDING_CLASS, result));
+  }
+
+  @Test
+  public void testRegisteringMatcherInvalidatesPreviousResult() {
+    final MemberDetails result = decorator.decorate(ADDING_CLASS, memberDetails);
+    decorator.registerMatcher(ADDING_CLASS, new FieldMatcher(VERSION_FIELD,
+        new AnnotationMetadataBuilder(ID).build()));
+
+    final MemberDetails redecorated = decorator.decorate(ADDING_CLASS, result);
+
+    assertNotSame(result, redecorated);
+    final ClassOrInterfaceTypeDetails cid =
+        (ClassOrInterfaceTypeDetails) redecorated.getDetails().get(0);
+    assertTrue(cid.getField(new JavaSymbolName("id")).getCustomData().keySet()
+        .contains(VERSION_FIELD));
+  }
+
+  @Test
+  public void testGetTaggersByKind() {
+    assertTrue(decorator.getFieldTaggers().contains(FieldMatcher.JPA_ID));
+    assertTrue(decorator.getConstructorTaggers().isEmpty());
+    assertEquals(1, decorator.getMethodTaggers().size());
+    assertEquals(1, decorator.getTypeTaggers().size());
+
+    decorator.unregisterMatchers(ADDING_CLASS);
+
+    assertTrue(decorator.getFieldTaggers().isEmpty());
+    assertTrue(decorator.getTypeTaggers().isEmpty());
+  }
+}
@@ -0,0 +1,103 @@
+package org.springframework.roo.classpath.itd;
+
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.roo.classpath.PhysicalTypeMetadata;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.process.manager.FileManager;
+import org.springframework.roo.project.LogicalPath;
+
+/**
+ * Unit test of {@link AbstractItdMetadataProvider}
+ *
+ * @since 2.0
+ */
+public class AbstractItdMetadataProviderTest {
+
+  private static final String ITD = "privileged aspect Foo_Roo_Bar {}";
+
+  private File itdFile;
+  private FileManager fileManager;
+
+  // Fixture
+  private AbstractItdMetadataProvider provider;
+
+  @Before
+  public void setUp() throws Exception {
+    itdFile = File.createTempFile("Foo_Roo_Bar", ".aj");
+    fileManager = mock(FileManager.class);
+    provider = new AbstractItdMetadataProvider() {
+      @Override
+      protected String createLocalIdentifier(final JavaType javaType, final LogicalPath path) {
+        return null;
+      }
+
+      @Override
+      public FileManager getFileManager() {
+        return fileManager;
+      }
+
+      @Override
+      protected String getGovernorPhysicalTypeIdentifier(
+          final String metadataIdentificationString) {
+        return null;
+      }
+
+      public String getItdUniquenessFilenameSuffix() {
+        return "Bar";
+      }
+
+      @Override
+      protected ItdTypeDetailsProvidingMetadataItem getMetadata(
+          final String metadataIdentificationString, final JavaType aspectName,
+          final PhysicalTypeMetadata governorPhysicalTypeMetadata, final String itdFilename) {
+        return null;
+      }
+
+      public String getProvidesType() {
+        return null;
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    itdFile.delete();
+  }
+
+  @Test
+  public void testUnchangedItdIsNotWrittenAgain() {
+    doAnswer(new Answer<Void>() {
+      public Void answer(final InvocationOnMock invocation) throws Throwable {
+        FileUtils.writeStringToFile(itdFile, (String) invocation.getArguments()[1]);
+        return null;
+      }
+    }).when(fileManager).createOrUpdateGeneratedFileIfRequired(itdFile.getPath(), ITD);
+
+    provider.writeItdIfRequired(itdFile.getPath(), ITD);
+    provider.writeItdIfRequired(itdFile.getPath(), ITD);
+
+    verify(fileManager, times(1)).createOrUpdateGeneratedFileIfRequired(itdFile.getPath(), ITD);
+  }
+
+  @Test
+  public void testItdOfRolledBackWriteIsWrittenAgain() {
+    // The file manager defers the write, then the transaction is rolled back,
+    // leaving the file as it was
+    provider.writeItdIfRequired(itdFile.getPath(), ITD);
+    provider.writeItdIfRequired(itdFile.getPath(), ITD);
+
+    verify(fileManager, times(2)).createOrUpdateGeneratedFileIfRequired(itdFile.getPath(), ITD);
+  }
+}
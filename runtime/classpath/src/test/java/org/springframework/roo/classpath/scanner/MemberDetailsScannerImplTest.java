@@ -0,0 +1,152 @@
+package org.springframework.roo.classpath.scanner;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.component.ComponentContext;
+import org.springframework.roo.classpath.PhysicalTypeIdentifier;
+import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.classpath.details.ItdTypeDetails;
+import org.springframework.roo.classpath.itd.ItdMetadataProvider;
+import org.springframework.roo.classpath.itd.ItdTypeDetailsProvidingMetadataItem;
+import org.springframework.roo.metadata.MetadataDependencyRegistry;
+import org.springframework.roo.metadata.MetadataIdentificationUtils;
+import org.springframework.roo.metadata.MetadataLogger;
+import org.springframework.roo.metadata.MetadataProvider;
+import org.springframework.roo.metadata.MetadataService;
+import org.springframework.roo.metadata.internal.DefaultMetadataDependencyRegistry;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.project.LogicalPath;
+import org.springframework.roo.project.Path;
+
+/**
+ * Unit test of {@link MemberDetailsScannerImpl}
+ *
+ * @since 2.0
+ */
+public class MemberDetailsScannerImplTest {
+
+  private static final String GOVERNOR_ID = PhysicalTypeIdentifier.createIdentifier(
+      new JavaType("com.example.Person"), LogicalPath.getInstance(Path.SRC_MAIN_JAVA, ""));
+  private static final String ITD_ID = MetadataIdentificationUtils.create(
+      "com.example.ItdMetadata", "com.example.Person");
+  private static final String DOWNSTREAM_ID = MetadataIdentificationUtils.create(
+      "com.example.DownstreamMetadata", "com.example.Person");
+  private static final String DOWNSTREAM_PROVIDER = "com.example.DownstreamMetadataProvider";
+
+  // Fixture
+  private ClassOrInterfaceTypeDetails governor;
+  private MemberDetails downstreamMemberDetails;
+  private ItdTypeDetailsProvidingMetadataItem itd;
+  private MetadataDependencyRegistry registry;
+  private MemberDetailsScannerImpl scanner;
+
+  private ItdTypeDetailsProvidingMetadataItem mockItd() {
+    final ItdTypeDetailsProvidingMetadataItem item =
+        mock(ItdTypeDetailsProvidingMetadataItem.class);
+    final ItdTypeDetails itdTypeDetails = mock(ItdTypeDetails.class);
+    when(item.isValid()).thenReturn(true);
+    when(item.getMemberHoldingTypeDetails()).thenReturn(itdTypeDetails);
+    return item;
+  }
+
+  @Before
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public void setUp() throws Exception {
+    governor = mock(ClassOrInterfaceTypeDetails.class);
+    when(governor.getDeclaredByMetadataId()).thenReturn(GOVERNOR_ID);
+    itd = mockItd();
+
+    final ItdMetadataProvider itdProvider = mock(ItdMetadataProvider.class);
+    when(itdProvider.getProvidesType()).thenReturn(
+        MetadataIdentificationUtils.create("com.example.ItdMetadata"));
+    when(itdProvider.getIdForPhysicalJavaType(GOVERNOR_ID)).thenReturn(ITD_ID);
+
+    final MemberDetailsDecorator decorator = mock(MemberDetailsDecorator.class);
+    when(decorator.decorate(anyString(), any(MemberDetails.class))).thenAnswer(
+        new Answer<MemberDetails>() {
+          public MemberDetails answer(final InvocationOnMock invocation) {
+            return (MemberDetails) invocation.getArguments()[1];
+          }
+        });
+
+    final ServiceReference providerReference = mock(ServiceReference.class);
+    final ServiceReference decoratorReference = mock(ServiceReference.class);
+    final ServiceReference registryReference = mock(ServiceReference.class);
+    final BundleContext bundleContext = mock(BundleContext.class);
+    when(bundleContext.getAllServiceReferences(MetadataProvider.class.getName(), null))
+        .thenReturn(new ServiceReference[] {providerReference});
+    when(bundleContext.getAllServiceReferences(MemberDetailsDecorator.class.getName(), null))
+        .thenReturn(new ServiceReference[] {decoratorReference});
+    when(bundleContext.getService(providerReference)).thenReturn(itdProvider);
+    when(bundleContext.getService(decoratorReference)).thenReturn(decorator);
+
+    final MetadataService metadataService = mock(MetadataService.class);
+    when(metadataService.get(ITD_ID)).thenAnswer(
+        new Answer<ItdTypeDetailsProvidingMetadataItem>() {
+          public ItdTypeDetailsProvidingMetadataItem answer(final InvocationOnMock invocation) {
+            return itd;
+          }
+        });
+
+    registry = new DefaultMetadataDependencyRegistry() {
+      {
+        metadataLogger = mock(MetadataLogger.class);
+      }
+    };
+    registry.addNotificationListener(metadataService);
+    registry.registerDependency(ITD_ID, DOWNSTREAM_ID);
+    when(bundleContext.getService(registryReference)).thenReturn(registry);
+
+    final ComponentContext componentContext = mock(ComponentContext.class);
+    when(componentContext.getBundleContext()).thenReturn(bundleContext);
+    scanner = new MemberDetailsScannerImpl();
+    scanner.activate(componentContext);
+    scanner.metadataService = metadataService;
+    // Registers the scanner's cache invalidator with the registry
+    scanner.registryTracker.addingService(registryReference);
+
+    // The downstream metadata rebuilds itself from the member details
+    doAnswer(new Answer<Void>() {
+      public Void answer(final InvocationOnMock invocation) {
+        downstreamMemberDetails = scanner.getMemberDetails(DOWNSTREAM_PROVIDER, governor);
+        return null;
+      }
+    }).when(metadataService).notify(ITD_ID, DOWNSTREAM_ID);
+  }
+
+  @Test
+  public void testRepeatedRequestIsServedFromCache() {
+    final MemberDetails memberDetails = scanner.getMemberDetails(DOWNSTREAM_PROVIDER, governor);
+    assertSame(memberDetails, scanner.getMemberDetails(DOWNSTREAM_PROVIDER, governor));
+  }
+
+  @Test
+  public void testDownstreamSeesItdChangeInSameCascade() {
+    final ItdTypeDetailsProvidingMetadataItem oldItd = itd;
+    assertTrue(scanner.getMemberDetails(DOWNSTREAM_PROVIDER, governor).getDetails()
+        .contains(oldItd.getMemberHoldingTypeDetails()));
+
+    // The ITD changes and notifies its downstream metadata
+    itd = mockItd();
+    registry.notifyDownstream(ITD_ID);
+
+    assertNotNull(downstreamMemberDetails);
+    assertTrue(downstreamMemberDetails.getDetails().contains(itd.getMemberHoldingTypeDetails()));
+    assertFalse(downstreamMemberDetails.getDetails().contains(
+        oldItd.getMemberHoldingTypeDetails()));
+  }
+}
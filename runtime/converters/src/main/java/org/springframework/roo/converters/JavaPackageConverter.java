@@ -19,7 +19,6 @@ import org.apache.felix.scr.annotations.Service;
 import org.springframework.roo.classpath.ModuleFeatureName;
 import org.springframework.roo.classpath.TypeLocationService;
 import org.springframework.roo.model.JavaPackage;
-import org.springframework.roo.model.JavaType;
 import org.springframework.roo.process.manager.FileManager;
 import org.springframework.roo.project.ProjectOperations;
 import org.springframework.roo.project.maven.Pom;
@@ -57,6 +56,8 @@ public class JavaPackageConverter implements Converter<JavaPackage> {
   @Reference
   TypeLocationService typeLocationService;
 
+  private final TypeCompletionIndex typeCompletionIndex = new TypeCompletionIndex();
+
   public JavaPackage convertFromText(String value, final Class<?> requiredType,
       final String optionContext) {
     if (StringUtils.isBlank(value)) {
@@ -133,7 +134,7 @@ public class JavaPackageConverter implements Converter<JavaPackage> {
 
     if (targetModule != null && !"pom".equals(targetModule.getPackaging())) {
       addCompletionsForPackagesInTargetModule(completions, targetModule, heading, prefix,
-          formattedPrefix);
+          formattedPrefix, getTypedPackageName(existingData));
     }
     return false;
   }
@@ -151,17 +152,44 @@ public class JavaPackageConverter implements Converter<JavaPackage> {
 
   private void addCompletionsForPackagesInTargetModule(final Collection<Completion> completions,
       final Pom targetModule, final String heading, final String prefix,
-      final String formattedPrefix) {
+      final String formattedPrefix, final String typedPackageName) {
 
     final String topLevelPackage = typeLocationService.getTopLevelPackageForModule(targetModule);
     completions.add(new Completion(prefix + topLevelPackage, formattedPrefix + topLevelPackage,
         heading, 1));
 
-    for (final JavaType javaType : typeLocationService.getTypesForModule(targetModule)) {
-      String type = javaType.getFullyQualifiedTypeName();
-      completions.add(new Completion(prefix + type.substring(0, type.lastIndexOf('.')),
-          formattedPrefix + type.substring(0, type.lastIndexOf('.')), heading, 1));
+    final long deadline = System.currentTimeMillis() + TypeCompletionIndex.TIME_BUDGET_MILLIS;
+    int packagesAdded = 0;
+    for (final String packageName : typeCompletionIndex.getPackageNamesStartingWith(
+        typeLocationService, targetModule, typedPackageName)) {
+      if (packagesAdded >= TypeCompletionIndex.MAX_COMPLETIONS
+          || System.currentTimeMillis() > deadline) {
+        break;
+      }
+      completions.add(new Completion(prefix + packageName, formattedPrefix + packageName,
+          heading, 1));
+      packagesAdded++;
+    }
+  }
+
+  /**
+   * Returns the fully-qualified start of a package name that the user has
+   * typed, for narrowing down the completions
+   *
+   * @param existingData what the user has typed (can be blank)
+   * @return an empty string if the completions can't be narrowed down, e.g.
+   *         because the user has typed the
+   *         {@value #TOP_LEVEL_PACKAGE_SYMBOL}, which isn't expanded in them
+   */
+  private String getTypedPackageName(final String existingData) {
+    String packageName = StringUtils.defaultString(existingData);
+    if (packageName.contains(MODULE_PATH_SEPARATOR)) {
+      packageName = StringUtils.substringAfter(packageName, MODULE_PATH_SEPARATOR);
+    }
+    if (packageName.startsWith(TOP_LEVEL_PACKAGE_SYMBOL)) {
+      return "";
     }
+    return packageName.trim();
   }
 
   private void addCompletionsForOtherModuleNames(final Collection<Completion> completions,
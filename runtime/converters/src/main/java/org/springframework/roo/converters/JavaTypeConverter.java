@@ -14,7 +14,6 @@ import static org.springframework.roo.support.util.AnsiEscapeCode.decorate;
 import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
@@ -72,6 +71,8 @@ public class JavaTypeConverter implements Converter<JavaType> {
   @Reference
   TypeLocationService typeLocationService;
 
+  private final TypeCompletionIndex typeCompletionIndex = new TypeCompletionIndex();
+
   public JavaType convertFromText(String value, final Class<?> requiredType,
       final String optionContext) {
     if (StringUtils.isBlank(value)) {
@@ -198,39 +199,56 @@ public class JavaTypeConverter implements Converter<JavaType> {
       final String optionContext, final Pom targetModule, final String heading,
       final String prefix, final String formattedPrefix, final String topLevelPackage,
       final String basePackage) {
-    final Collection<JavaType> typesInModule = getTypesForModule(optionContext, targetModule);
     completions.add(new Completion(prefix + topLevelPackage, formattedPrefix + topLevelPackage,
         heading, 1));
 
-    for (final JavaType javaType : typesInModule) {
-      String type = javaType.getFullyQualifiedTypeName();
-      if (type.startsWith(basePackage)) {
-        type = StringUtils.replace(type, topLevelPackage, TOP_LEVEL_PACKAGE_SYMBOL, 1);
-        completions.add(new Completion(prefix + type, formattedPrefix + type, heading, 1));
+    final long deadline = System.currentTimeMillis() + TypeCompletionIndex.TIME_BUDGET_MILLIS;
+    int typesAdded = 0;
+    for (final JavaType javaType : typeCompletionIndex.getTypesStartingWith(typeLocationService,
+        targetModule, basePackage).values()) {
+      if (typesAdded >= TypeCompletionIndex.MAX_COMPLETIONS
+          || System.currentTimeMillis() > deadline) {
+        break;
       }
-
+      if (!isCompletable(javaType, optionContext)) {
+        continue;
+      }
+      final String type =
+          StringUtils.replace(javaType.getFullyQualifiedTypeName(), topLevelPackage,
+              TOP_LEVEL_PACKAGE_SYMBOL, 1);
+      completions.add(new Completion(prefix + type, formattedPrefix + type, heading, 1));
+      typesAdded++;
     }
   }
 
-  private Collection<JavaType> getTypesForModule(final String optionContext, final Pom targetModule) {
-    final Collection<JavaType> typesForModule = typeLocationService.getTypesForModule(targetModule);
+  /**
+   * Indicates whether the given type is of the kind required by the given
+   * option context
+   *
+   * @param javaType the type to check
+   * @param optionContext the option context (required)
+   * @return see above
+   */
+  private boolean isCompletable(final JavaType javaType, final String optionContext) {
     if (!(optionContext.contains(SUPERCLASS) || optionContext.contains(INTERFACE) || optionContext
         .contains(ENUMERATION))) {
-      return typesForModule;
+      return true;
     }
 
-    final Collection<JavaType> types = new ArrayList<JavaType>();
-    for (final JavaType javaType : typesForModule) {
-      final ClassOrInterfaceTypeDetails typeDetails = typeLocationService.getTypeDetails(javaType);
-      if ((optionContext.contains(SUPERCLASS) && (Modifier.isFinal(typeDetails.getModifier()) || typeDetails
-          .getPhysicalTypeCategory() == PhysicalTypeCategory.INTERFACE))
-          || (optionContext.contains(INTERFACE) && typeDetails.getPhysicalTypeCategory() != PhysicalTypeCategory.INTERFACE)
-          || (optionContext.contains(ENUMERATION) && typeDetails.getPhysicalTypeCategory() != PhysicalTypeCategory.ENUMERATION)) {
-        continue;
-      }
-      types.add(javaType);
+    final ClassOrInterfaceTypeDetails typeDetails = typeLocationService.getTypeDetails(javaType);
+    if (typeDetails == null) {
+      return false;
+    }
+    final PhysicalTypeCategory category = typeDetails.getPhysicalTypeCategory();
+    if (optionContext.contains(SUPERCLASS)
+        && (Modifier.isFinal(typeDetails.getModifier())
+            || category == PhysicalTypeCategory.INTERFACE)) {
+      return false;
+    }
+    if (optionContext.contains(INTERFACE) && category != PhysicalTypeCategory.INTERFACE) {
+      return false;
     }
-    return types;
+    return !optionContext.contains(ENUMERATION) || category == PhysicalTypeCategory.ENUMERATION;
   }
 
   /**
@@ -0,0 +1,137 @@
+package org.springframework.roo.converters;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.roo.classpath.TypeLocationService;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.project.maven.Pom;
+import org.springframework.roo.shell.ProjectStateVersion;
+
+/**
+ * The names of each module's types and packages, sorted so that those
+ * starting with what the user has typed can be completed without going
+ * through every type in the module on each TAB.
+ * <p>
+ * The index is rebuilt when the project's state changes, as given by
+ * {@link ProjectStateVersion}.
+ *
+ * @since 2.0
+ */
+class TypeCompletionIndex {
+
+  /**
+   * Orders names ignoring case, as the shell matches completions that way,
+   * but keeps names that differ only in case apart, uppermost case first
+   */
+  private static final Comparator<String> PACKAGE_NAME_ORDER = new Comparator<String>() {
+    public int compare(final String name1, final String name2) {
+      final int result = String.CASE_INSENSITIVE_ORDER.compare(name1, name2);
+      return result == 0 ? name1.compareTo(name2) : result;
+    }
+  };
+
+  private static class ModuleIndex {
+
+    final SortedSet<String> packageNames = new TreeSet<String>(PACKAGE_NAME_ORDER);
+    final SortedMap<String, JavaType> typesByName = new TreeMap<String, JavaType>();
+
+    ModuleIndex(final Iterable<JavaType> types) {
+      for (final JavaType type : types) {
+        final String typeName = type.getFullyQualifiedTypeName();
+        typesByName.put(typeName, type);
+        if (typeName.indexOf('.') > -1) {
+          packageNames.add(typeName.substring(0, typeName.lastIndexOf('.')));
+        }
+      }
+    }
+  }
+
+  /**
+   * The most completions a converter offers for one option; set by the
+   * <code>roo.completion.max</code> system property
+   */
+  static final int MAX_COMPLETIONS = Integer.getInteger("roo.completion.max", 1000);
+
+  /**
+   * How long a converter may spend, in milliseconds, finding completions
+   * for one option; set by the <code>roo.completion.timeout</code> system
+   * property
+   */
+  static final long TIME_BUDGET_MILLIS = Long.getLong("roo.completion.timeout", 1000);
+
+  /**
+   * The highest possible character, for finding the names that start with a
+   * given prefix
+   */
+  private static final char MAX_CHAR = Character.MAX_VALUE;
+
+  private final Map<String, ModuleIndex> moduleIndexes = new HashMap<String, ModuleIndex>();
+  private long projectStateVersion = -1;
+
+  private synchronized ModuleIndex getModuleIndex(final TypeLocationService typeLocationService,
+      final Pom module) {
+    final long currentVersion = ProjectStateVersion.get();
+    if (currentVersion != projectStateVersion) {
+      moduleIndexes.clear();
+      projectStateVersion = currentVersion;
+    }
+    final String moduleName = StringUtils.defaultString(module.getModuleName());
+    ModuleIndex moduleIndex = moduleIndexes.get(moduleName);
+    if (moduleIndex == null) {
+      moduleIndex = new ModuleIndex(typeLocationService.getTypesForModule(module));
+      moduleIndexes.put(moduleName, moduleIndex);
+    }
+    return moduleIndex;
+  }
+
+  /**
+   * Returns the names of the packages in the given module that start with
+   * the given prefix, ignoring case
+   *
+   * @param typeLocationService the service to obtain the module's types from
+   * @param module the module whose packages to return
+   * @param prefix the start of the package names (can be blank)
+   * @return a non-<code>null</code> set, in alphabetical order
+   */
+  SortedSet<String> getPackageNamesStartingWith(final TypeLocationService typeLocationService,
+      final Pom module, final String prefix) {
+    final SortedSet<String> packageNames =
+        getModuleIndex(typeLocationService, module).packageNames;
+    if (StringUtils.isEmpty(prefix)) {
+      return Collections.unmodifiableSortedSet(packageNames);
+    }
+    // Starts from the prefix's uppermost case, which sorts first among its
+    // variants
+    return Collections.unmodifiableSortedSet(packageNames.subSet(
+        prefix.toUpperCase(Locale.ENGLISH), prefix + MAX_CHAR));
+  }
+
+  /**
+   * Returns the types in the given module whose fully-qualified names start
+   * with the given prefix
+   *
+   * @param typeLocationService the service to obtain the module's types from
+   * @param module the module whose types to return
+   * @param prefix the start of the type names (can be blank)
+   * @return a non-<code>null</code> map of type names to types, in
+   *         alphabetical order
+   */
+  SortedMap<String, JavaType> getTypesStartingWith(final TypeLocationService typeLocationService,
+      final Pom module, final String prefix) {
+    final SortedMap<String, JavaType> typesByName =
+        getModuleIndex(typeLocationService, module).typesByName;
+    if (StringUtils.isEmpty(prefix)) {
+      return Collections.unmodifiableSortedMap(typesByName);
+    }
+    return Collections.unmodifiableSortedMap(typesByName.subMap(prefix, prefix + MAX_CHAR));
+  }
+}
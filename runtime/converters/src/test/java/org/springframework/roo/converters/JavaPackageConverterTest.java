@@ -186,6 +186,48 @@ public class JavaPackageConverterTest {
         "com.example.domain"), new Completion("com.example.web"));
   }
 
+  @Test
+  public void testGetAllPossibleValuesOffersMatchingPackagesOnce() {
+    // Set up
+    when(mockProjectOperations.isFocusedProjectAvailable()).thenReturn(true);
+    final Pom mockPom1 =
+        setUpMockPom("/path/to/pom/1", new JavaType("com.example.domain.Choice"), new JavaType(
+            "com.example.domain.Vote"), new JavaType("com.example.web.ChoiceController"),
+            new JavaType("com.example.web.VoteController"));
+    when(mockProjectOperations.getFocusedModule()).thenReturn(mockPom1);
+    when(mockTypeLocationService.getTopLevelPackageForModule(mockPom1)).thenReturn(
+        TOP_LEVEL_PACKAGE);
+    final List<Completion> completions = new ArrayList<Completion>();
+
+    // Invoke
+    converter.getAllPossibleValues(completions, JavaPackage.class, "com.example.W", null, null);
+
+    // Check
+    assertEquals(Arrays.asList(new Completion("com.example"), new Completion("com.example.web")),
+        completions);
+  }
+
+  @Test
+  public void testGetAllPossibleValuesKeepsPackagesDifferingInCase() {
+    // Set up
+    when(mockProjectOperations.isFocusedProjectAvailable()).thenReturn(true);
+    final Pom mockPom1 =
+        setUpMockPom("/path/to/pom/1", new JavaType("com.example.web.ChoiceController"),
+            new JavaType("com.example.Web.VoteController"), new JavaType(
+                "com.example.domain.Choice"));
+    when(mockProjectOperations.getFocusedModule()).thenReturn(mockPom1);
+    when(mockTypeLocationService.getTopLevelPackageForModule(mockPom1)).thenReturn(
+        TOP_LEVEL_PACKAGE);
+    final List<Completion> completions = new ArrayList<Completion>();
+
+    // Invoke
+    converter.getAllPossibleValues(completions, JavaPackage.class, "com.example.we", null, null);
+
+    // Check
+    assertEquals(Arrays.asList(new Completion("com.example"), new Completion("com.example.Web"),
+        new Completion("com.example.web")), completions);
+  }
+
   @Test
   public void testGetAllPossibleValuesWhenProjectNotAvailable() {
     assertGetAllPossibleValues(false);
@@ -44,6 +44,8 @@ import org.springframework.roo.shell.CliAvailabilityIndicator;
 import org.springframework.roo.shell.CliCommand;
 import org.springframework.roo.shell.CliOption;
 import org.springframework.roo.shell.CommandMarker;
+import org.springframework.roo.shell.CommandRegistry;
+import org.springframework.roo.shell.CommandRegistry.RegisteredCommand;
 import org.springframework.roo.shell.Converter;
 import org.springframework.roo.shell.MethodTarget;
 import org.springframework.roo.shell.NaturalOrderComparator;
@@ -74,6 +76,8 @@ public class HelpServiceImpl implements HelpService {
   private final Map<String, MethodTarget> availabilityIndicators =
       new HashMap<String, MethodTarget>();
   private final Set<CommandMarker> commands = new HashSet<CommandMarker>();
+  // Built from the above commands when first needed after they change
+  private CommandRegistry commandRegistry;
   private final Set<Converter<?>> converters = new HashSet<Converter<?>>();
 
   static final String NULL = "__NULL__";
@@ -465,48 +469,21 @@ public class HelpServiceImpl implements HelpService {
     Validate.notNull(buffer, "Buffer required");
     final Collection<MethodTarget> result = new HashSet<MethodTarget>();
 
-    // The reflection could certainly be optimised, but it's good enough for
-    // now (and cached reflection
-    // is unlikely to be noticeable to a human being using the CLI)
-    for (final CommandMarker command : commands) {
-      for (final Method method : command.getClass().getMethods()) {
-        final CliCommand cmd = method.getAnnotation(CliCommand.class);
-        if (cmd != null) {
-          // We have a @CliCommand.
-          if (checkAvailabilityIndicators) {
-            // Decide if this @CliCommand is available at this
-            // moment
-            Boolean available = null;
-            for (final String value : cmd.value()) {
-              final MethodTarget mt = getAvailabilityIndicator(value);
-              if (mt != null) {
-                Validate.isTrue(
-                    available == null,
-                    "More than one availability indicator is defined for '"
-                        + method.toGenericString() + "'");
-                try {
-                  available = (Boolean) mt.getMethod().invoke(mt.getTarget());
-                  // We should "break" here, but we loop over
-                  // all to ensure no conflicting availability
-                  // indicators are defined
-                } catch (final Exception e) {
-                  available = false;
-                }
-              }
-            }
-            // Skip this @CliCommand if it's not available
-            if (available != null && !available) {
-              continue;
-            }
-          }
-
-          for (final String value : cmd.value()) {
-            final String remainingBuffer = isMatch(buffer, value, strictMatching);
-            if (remainingBuffer != null) {
-              result.add(new MethodTarget(method, command, remainingBuffer, value));
-            }
-          }
+    // Only the commands starting with the buffer's first word can match it
+    for (final Entry<String, List<RegisteredCommand>> candidate : getCommandRegistry()
+        .getCandidates(buffer).entrySet()) {
+      final String value = candidate.getKey();
+      final String remainingBuffer = isMatch(buffer, value, strictMatching);
+      if (remainingBuffer == null) {
+        continue;
+      }
+      for (final RegisteredCommand command : candidate.getValue()) {
+        // Skip this @CliCommand if it's not available at this moment
+        if (checkAvailabilityIndicators && !isAvailable(command)) {
+          continue;
         }
+        result.add(new MethodTarget(command.getMethod(), command.getTarget(), remainingBuffer,
+            value));
       }
     }
     return result;
@@ -515,6 +492,7 @@ public class HelpServiceImpl implements HelpService {
   public final void add(final CommandMarker command) {
     synchronized (mutex) {
       commands.add(command);
+      commandRegistry = null;
       for (final Method method : command.getClass().getMethods()) {
         final CliAvailabilityIndicator availability =
             method.getAnnotation(CliAvailabilityIndicator.class);
@@ -545,6 +523,35 @@ public class HelpServiceImpl implements HelpService {
     return availabilityIndicators.get(command);
   }
 
+  private CommandRegistry getCommandRegistry() {
+    synchronized (mutex) {
+      if (commandRegistry == null) {
+        commandRegistry = new CommandRegistry(commands);
+      }
+      return commandRegistry;
+    }
+  }
+
+  private boolean isAvailable(final RegisteredCommand command) {
+    Boolean available = null;
+    for (final String value : command.getCliCommand().value()) {
+      final MethodTarget mt = getAvailabilityIndicator(value);
+      if (mt != null) {
+        Validate.isTrue(available == null,
+            "More than one availability indicator is defined for '"
+                + command.getMethod().toGenericString() + "'");
+        try {
+          available = (Boolean) mt.getMethod().invoke(mt.getTarget());
+          // We should "break" here, but we loop over all to ensure no
+          // conflicting availability indicators are defined
+        } catch (final Exception e) {
+          available = false;
+        }
+      }
+    }
+    return available == null || available;
+  }
+
   static String isMatch(final String buffer, final String command, final boolean strictMatching) {
     if ("".equals(buffer.trim())) {
       return "";
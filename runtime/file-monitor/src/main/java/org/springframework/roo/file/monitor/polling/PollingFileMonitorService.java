@@ -1,10 +1,7 @@
 package org.springframework.roo.file.monitor.polling;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -35,11 +32,10 @@ import org.springframework.roo.file.monitor.event.FileEvent;
 import org.springframework.roo.file.monitor.event.FileEventListener;
 import org.springframework.roo.file.monitor.event.FileOperation;
 import org.springframework.roo.shell.AbstractShell;
+import org.springframework.roo.shell.ProjectStateVersion;
 import org.springframework.roo.support.logging.HandlerUtils;
 import org.springframework.roo.support.util.FileUtils;
-import org.springframework.roo.support.util.XmlUtils;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import org.springframework.roo.support.util.PomVersionUtils;
 
 /**
  * A simple polling-based {@link FileMonitorService}.
@@ -416,6 +412,7 @@ public class PollingFileMonitorService implements NotifiableFileMonitorService {
     if (eventsToPublish.isEmpty()) {
       return;
     }
+    ProjectStateVersion.increment();
     if (fileEventListeners.isEmpty() || eventsToPublish.isEmpty()) {
       return;
     }
@@ -645,34 +642,14 @@ public class PollingFileMonitorService implements NotifiableFileMonitorService {
   }
 
   private String getRooProjectVersion() {
-    String homePath = new File(".").getPath();
-    String pomPath = homePath + "/pom.xml";
-    File pom = new File(pomPath);
-    try {
-      if (pom.exists()) {
-        InputStream is = new FileInputStream(pom);
-        Document docXml = XmlUtils.readXml(is);
-        Element document = docXml.getDocumentElement();
-        Element rooVersionElement = XmlUtils.findFirstElement("properties/roo.version", document);
-        String rooVersion = rooVersionElement.getTextContent();
-
-        return rooVersion;
-      }
-
-      return "UNKNOWN";
-
-    } catch (FileNotFoundException e) {
-      e.printStackTrace();
-    }
-
-    return "";
+    return PomVersionUtils.getRooVersion(new File(new File(".").getPath(), "pom.xml"));
   }
 
 
   private boolean isDifferentVersion() {
     String rooVersion = getRooProjectVersion();
 
-    if ("UNKNOWN".equals(rooVersion)) {
+    if (PomVersionUtils.UNKNOWN_VERSION.equals(rooVersion)) {
       return false;
     }
 
@@ -0,0 +1,15 @@
+package org.springframework.roo.metadata;
+
+/**
+ * A {@link MetadataNotificationListener} that the
+ * {@link MetadataDependencyRegistry} notifies before dispatching a
+ * notification to the downstream dependencies, rather than after.
+ * <p>
+ * Intended for caches of data derived from metadata, which have to be
+ * invalidated before any downstream provider handling the same notification
+ * consults them.
+ *
+ * @since 2.0
+ */
+public interface EarlyMetadataNotificationListener extends MetadataNotificationListener {
+}
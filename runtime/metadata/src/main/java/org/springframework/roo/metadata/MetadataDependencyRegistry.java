@@ -44,7 +44,8 @@ public interface MetadataDependencyRegistry {
    * Registers an additional instance to receive
    * {@link MetadataNotificationListener} events. Note that these events are
    * guaranteed to be delivered after the {@link MetadataService} has received
-   * them.
+   * them, except to an {@link EarlyMetadataNotificationListener}, which
+   * receives them before.
    * <p>
    * Attempting to register a {@link MetadataService} using this method will
    * result in an exception.
@@ -12,11 +12,14 @@ import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferencePolicy;
 import org.apache.felix.scr.annotations.Service;
+import org.springframework.roo.metadata.EarlyMetadataNotificationListener;
 import org.springframework.roo.metadata.MetadataDependencyRegistry;
 import org.springframework.roo.metadata.MetadataIdentificationUtils;
 import org.springframework.roo.metadata.MetadataLogger;
 import org.springframework.roo.metadata.MetadataNotificationListener;
 import org.springframework.roo.metadata.MetadataService;
+import org.springframework.roo.support.logging.CommandTimeline;
+import org.springframework.roo.support.logging.CommandTimeline.Span;
 
 /**
  * Default implementation of {@link MetadataDependencyRegistry}.
@@ -173,9 +176,19 @@ public class DefaultMetadataDependencyRegistry implements MetadataDependencyRegi
   }
 
   public void notifyDownstream(final String upstreamDependency) {
+    // Notifications caused by this one are folded into its span
+    final Span span = CommandTimeline.start("metadata");
     try {
       metadataLogger.startEvent();
 
+      // Let caches derived from metadata drop what this notification makes
+      // stale before any downstream gets to consult them
+      for (final MetadataNotificationListener listener : listeners) {
+        if (listener instanceof EarlyMetadataNotificationListener) {
+          notifyListener(upstreamDependency, listener);
+        }
+      }
+
       if (metadataService != null) {
         // First dispatch the fine-grained, instance-specific
         // dependencies.
@@ -239,20 +252,28 @@ public class DefaultMetadataDependencyRegistry implements MetadataDependencyRegi
 
       // Finally dispatch the general-purpose additional listeners
       for (final MetadataNotificationListener listener : listeners) {
-        if (metadataLogger.getTraceLevel() > 1) {
-          metadataLogger.log(upstreamDependency + " -> " + upstreamDependency + " ["
-              + listener.getClass().getSimpleName() + "]");
-        }
-        try {
-          final String responsibleClass = listener.getClass().getName();
-          metadataLogger.startTimer(responsibleClass);
-          listener.notify(upstreamDependency, null);
-        } finally {
-          metadataLogger.stopTimer();
+        if (!(listener instanceof EarlyMetadataNotificationListener)) {
+          notifyListener(upstreamDependency, listener);
         }
       }
     } finally {
       metadataLogger.stopEvent();
+      span.end();
+    }
+  }
+
+  private void notifyListener(final String upstreamDependency,
+      final MetadataNotificationListener listener) {
+    if (metadataLogger.getTraceLevel() > 1) {
+      metadataLogger.log(upstreamDependency + " -> " + upstreamDependency + " ["
+          + listener.getClass().getSimpleName() + "]");
+    }
+    try {
+      final String responsibleClass = listener.getClass().getName();
+      metadataLogger.startTimer(responsibleClass);
+      listener.notify(upstreamDependency, null);
+    } finally {
+      metadataLogger.stopTimer();
     }
   }
 
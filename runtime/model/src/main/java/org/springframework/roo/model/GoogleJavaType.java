@@ -10,14 +10,14 @@ package org.springframework.roo.model;
 public final class GoogleJavaType {
 
   // com.google.appengine
-  public static final JavaType GAE_DATASTORE_KEY = new JavaType(
+  public static final JavaType GAE_DATASTORE_KEY = JavaType.of(
       "com.google.appengine.api.datastore.Key");
-  public static final JavaType GAE_DATASTORE_KEY_FACTORY = new JavaType(
+  public static final JavaType GAE_DATASTORE_KEY_FACTORY = JavaType.of(
       "com.google.appengine.api.datastore.KeyFactory");
-  public static final JavaType GAE_LOCAL_SERVICE_TEST_HELPER = new JavaType(
+  public static final JavaType GAE_LOCAL_SERVICE_TEST_HELPER = JavaType.of(
       "com.google.appengine.tools.development.testing.LocalServiceTestHelper");
   // org.datanucleus
-  public static final JavaType DATANUCLEUS_JPA_EXTENSION = new JavaType(
+  public static final JavaType DATANUCLEUS_JPA_EXTENSION = JavaType.of(
       "org.datanucleus.api.jpa.annotations.Extension");
 
   /**
@@ -9,7 +9,7 @@ package org.springframework.roo.model;
  */
 public final class HibernateJavaType {
 
-  public static final JavaType VALIDATOR_CONSTRAINTS_EMAIL = new JavaType(
+  public static final JavaType VALIDATOR_CONSTRAINTS_EMAIL = JavaType.of(
       "org.hibernate.validator.constraints.Email");
 
   /**
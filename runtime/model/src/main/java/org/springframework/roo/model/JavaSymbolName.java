@@ -19,11 +19,14 @@ import org.apache.commons.lang3.Validate;
  */
 public class JavaSymbolName implements Comparable<JavaSymbolName> {
 
+  /** Canonical instances; declared first so that the constants can be interned */
+  private static final WeakInterner<JavaSymbolName> INTERNED = new WeakInterner<JavaSymbolName>();
+
   /** Constant for keyword "false" */
-  public static final JavaSymbolName FALSE = new JavaSymbolName("false");
+  public static final JavaSymbolName FALSE = of("false");
 
   /** Constant for keyword "true" */
-  public static final JavaSymbolName TRUE = new JavaSymbolName("true");
+  public static final JavaSymbolName TRUE = of("true");
 
   /**
    * Verifies the presented name is a valid Java name. Specifically, the
@@ -118,6 +121,24 @@ public class JavaSymbolName implements Comparable<JavaSymbolName> {
     return getReservedWordSafeName(javaType);
   }
 
+  /**
+   * Returns the canonical {@link JavaSymbolName} with the given name, i.e. the
+   * same instance for as long as anything refers to it.
+   * 
+   * @param symbolName the name (as per the rules of
+   *            {@link #JavaSymbolName(String)}; mandatory)
+   * @return a non-<code>null</code> instance
+   * @since 2.0
+   */
+  public static JavaSymbolName of(final String symbolName) {
+    final JavaSymbolName existing = INTERNED.get(symbolName);
+    if (existing != null) {
+      return existing;
+    }
+    final JavaSymbolName javaSymbolName = new JavaSymbolName(symbolName);
+    return INTERNED.intern(javaSymbolName.getSymbolName(), javaSymbolName);
+  }
+
   public static boolean isLegalJavaName(final String name) {
     try {
       assertJavaNameLegal(name);
@@ -34,42 +34,49 @@ import org.apache.commons.lang3.Validate;
  */
 public class JavaType implements Comparable<JavaType> {
 
-  public static final JavaType BOOLEAN_OBJECT = new JavaType("java.lang.Boolean");
+  /**
+   * Canonical instances of plain types, by module name (<code>null</code> for
+   * none); declared first so that the constants below can be interned
+   */
+  private static final Map<String, WeakInterner<JavaType>> INTERNED =
+      new HashMap<String, WeakInterner<JavaType>>();
+
+  public static final JavaType BOOLEAN_OBJECT = of("java.lang.Boolean");
   public static final JavaType BOOLEAN_PRIMITIVE = new JavaType("java.lang.Boolean", 0,
       DataType.PRIMITIVE, null, null);
   public static final JavaType BYTE_ARRAY_PRIMITIVE = new JavaType("java.lang.Byte", 1,
       DataType.PRIMITIVE, null, null);
-  public static final JavaType BYTE_OBJECT = new JavaType("java.lang.Byte");
+  public static final JavaType BYTE_OBJECT = of("java.lang.Byte");
   public static final JavaType BYTE_PRIMITIVE = new JavaType("java.lang.Byte", 0,
       DataType.PRIMITIVE, null, null);
-  public static final JavaType CHAR_OBJECT = new JavaType("java.lang.Character");
+  public static final JavaType CHAR_OBJECT = of("java.lang.Character");
   public static final JavaType CHAR_PRIMITIVE = new JavaType("java.lang.Character", 0,
       DataType.PRIMITIVE, null, null);
-  public static final JavaType CLASS = new JavaType("java.lang.Class");
+  public static final JavaType CLASS = of("java.lang.Class");
   // The fully-qualified names of common collection types
   private static final Set<String> COMMON_COLLECTION_TYPES = new HashSet<String>();
   private static final String[] CORE_TYPE_PREFIXES = {"java.", "javax."};
-  public static final JavaType DOUBLE_OBJECT = new JavaType("java.lang.Double");
+  public static final JavaType DOUBLE_OBJECT = of("java.lang.Double");
   public static final JavaType DOUBLE_PRIMITIVE = new JavaType("java.lang.Double", 0,
       DataType.PRIMITIVE, null, null);
-  public static final JavaType FLOAT_OBJECT = new JavaType("java.lang.Float");
+  public static final JavaType FLOAT_OBJECT = of("java.lang.Float");
   public static final JavaType FLOAT_PRIMITIVE = new JavaType("java.lang.Float", 0,
       DataType.PRIMITIVE, null, null);
-  public static final JavaType INT_OBJECT = new JavaType("java.lang.Integer");
+  public static final JavaType INT_OBJECT = of("java.lang.Integer");
   public static final JavaType INT_PRIMITIVE = new JavaType("java.lang.Integer", 0,
       DataType.PRIMITIVE, null, null);
-  public static final JavaType LONG_OBJECT = new JavaType("java.lang.Long");
+  public static final JavaType LONG_OBJECT = of("java.lang.Long");
   public static final JavaType LONG_PRIMITIVE = new JavaType("java.lang.Long", 0,
       DataType.PRIMITIVE, null, null);
-  public static final JavaType OBJECT = new JavaType("java.lang.Object");
-  public static final JavaType SERIALIZABLE = new JavaType("java.io.Serializable");
-  public static final JavaType SHORT_OBJECT = new JavaType("java.lang.Short");
+  public static final JavaType OBJECT = of("java.lang.Object");
+  public static final JavaType SERIALIZABLE = of("java.io.Serializable");
+  public static final JavaType SHORT_OBJECT = of("java.lang.Short");
   public static final JavaType SHORT_PRIMITIVE = new JavaType("java.lang.Short", 0,
       DataType.PRIMITIVE, null, null);
-  public static final JavaType STRING = new JavaType("java.lang.String");
+  public static final JavaType STRING = of("java.lang.String");
   public static final JavaType STRING_ARRAY = new JavaType("java.lang.String", 1, DataType.TYPE,
       null, null);
-  public static final JavaType OVERRIDE = new JavaType("java.lang.Override");
+  public static final JavaType OVERRIDE = of("java.lang.Override");
 
   /**
    * @deprecated use {@link #STRING} instead
@@ -77,7 +84,7 @@ public class JavaType implements Comparable<JavaType> {
   @Deprecated
   public static final JavaType STRING_OBJECT = STRING;
 
-  public static final JavaType VOID_OBJECT = new JavaType("java.lang.Void");
+  public static final JavaType VOID_OBJECT = of("java.lang.Void");
   public static final JavaType VOID_PRIMITIVE = new JavaType("java.lang.Void", 0,
       DataType.PRIMITIVE, null, null);
   // Used for wildcard type parameters; it must be one or the other
@@ -163,15 +170,70 @@ public class JavaType implements Comparable<JavaType> {
     return new JavaType(List.class.getName(), 0, DataType.TYPE, null, Arrays.asList(elementType));
   }
 
+  /**
+   * Returns the canonical {@link JavaType} for the given class. Equivalent to
+   * {@link #of(String)} with the name of the class.
+   * 
+   * @param type the class (required)
+   * @return a non-<code>null</code> type
+   * @since 2.0
+   */
+  public static JavaType of(final Class<?> type) {
+    return of(type.getName(), null);
+  }
+
+  /**
+   * Returns the canonical {@link JavaType} with the given name, i.e. the same
+   * instance for as long as anything refers to it. Prefer this to
+   * {@link #JavaType(String)} for frequently used or long-lived types, to
+   * avoid re-parsing the name and holding duplicate instances.
+   * 
+   * @param fullyQualifiedTypeName the name (as per the rules of
+   *            {@link #JavaType(String)}; mandatory)
+   * @return a non-<code>null</code> type
+   * @since 2.0
+   */
+  public static JavaType of(final String fullyQualifiedTypeName) {
+    return of(fullyQualifiedTypeName, null);
+  }
+
+  /**
+   * Returns the canonical {@link JavaType} with the given name in the given
+   * module, as per {@link #of(String)}.
+   * 
+   * @param fullyQualifiedTypeName the name (as per the rules of
+   *            {@link #JavaType(String)}; mandatory)
+   * @param module the module where it is located (optional)
+   * @return a non-<code>null</code> type
+   * @since 2.0
+   */
+  public static JavaType of(final String fullyQualifiedTypeName, final String module) {
+    WeakInterner<JavaType> interner;
+    synchronized (INTERNED) {
+      interner = INTERNED.get(module);
+      if (interner == null) {
+        interner = new WeakInterner<JavaType>();
+        INTERNED.put(module, interner);
+      }
+    }
+    final JavaType existing = interner.get(fullyQualifiedTypeName);
+    if (existing != null) {
+      return existing;
+    }
+    final JavaType javaType = new JavaType(fullyQualifiedTypeName, module);
+    return interner.intern(javaType.getFullyQualifiedTypeName(), javaType);
+  }
+
   private final JavaSymbolName argName;
   private final int arrayDimensions;
   private final DataType dataType;
   private final boolean defaultPackage;
   private final JavaType enclosingType;
   private final String fullyQualifiedTypeName;
+  private final int hashCode;
+  private final String module;
   private final List<JavaType> parameters;
   private final String simpleTypeName;
-  private String module;
 
   /**
    * Constructor equivalent to {@link #JavaType(String)}, but takes a Class
@@ -352,6 +414,7 @@ public class JavaType implements Comparable<JavaType> {
       this.parameters.addAll(parameters);
     }
     this.module = module;
+    hashCode = computeHashCode();
   }
 
   @Override
@@ -393,7 +456,7 @@ public class JavaType implements Comparable<JavaType> {
       // First letter is upper-case, so treat it as a type name for now
       final String preTypeNamePortion =
           enclosedWithinPackage == null ? "" : enclosedWithinPackage + ".";
-      return new JavaType(preTypeNamePortion + enclosedWithinTypeName);
+      return of(preTypeNamePortion + enclosedWithinTypeName);
     }
 
     return null;
@@ -643,6 +706,10 @@ public class JavaType implements Comparable<JavaType> {
 
   @Override
   public int hashCode() {
+    return hashCode;
+  }
+
+  private int computeHashCode() {
     final int prime = 31;
     int result = 1;
     result =
@@ -53,56 +53,56 @@ import org.apache.commons.lang3.Validate;
 public final class JdkJavaType {
 
   // java.sql
-  public static final JavaType ARRAY = new JavaType(Array.class);
+  public static final JavaType ARRAY = JavaType.of(Array.class);
   // java.util
-  public static final JavaType ARRAY_LIST = new JavaType(ArrayList.class);
+  public static final JavaType ARRAY_LIST = JavaType.of(ArrayList.class);
 
-  public static final JavaType ARRAYS = new JavaType(Arrays.class);
+  public static final JavaType ARRAYS = JavaType.of(Arrays.class);
 
   // java.math
-  public static final JavaType BIG_DECIMAL = new JavaType(BigDecimal.class);
-  public static final JavaType BIG_INTEGER = new JavaType(BigInteger.class);
-  public static final JavaType BLOB = new JavaType(Blob.class);
+  public static final JavaType BIG_DECIMAL = JavaType.of(BigDecimal.class);
+  public static final JavaType BIG_INTEGER = JavaType.of(BigInteger.class);
+  public static final JavaType BLOB = JavaType.of(Blob.class);
 
   // java.io
-  public static final JavaType BYTE_ARRAY_INPUT_STREAM = new JavaType(ByteArrayInputStream.class);
-  public static final JavaType CALENDAR = new JavaType(Calendar.class);
+  public static final JavaType BYTE_ARRAY_INPUT_STREAM = JavaType.of(ByteArrayInputStream.class);
+  public static final JavaType CALENDAR = JavaType.of(Calendar.class);
 
-  public static final JavaType CLOB = new JavaType(Clob.class);
-  public static final JavaType COLLECTION = new JavaType(Collection.class);
+  public static final JavaType CLOB = JavaType.of(Clob.class);
+  public static final JavaType COLLECTION = JavaType.of(Collection.class);
 
-  public static final JavaType DATE = new JavaType(Date.class);
+  public static final JavaType DATE = JavaType.of(Date.class);
 
   // java.text
-  public static final JavaType DATE_FORMAT = new JavaType(DateFormat.class);
+  public static final JavaType DATE_FORMAT = JavaType.of(DateFormat.class);
   // java.lang
-  public static final JavaType EXCEPTION = new JavaType(Exception.class);
-  public static final JavaType GREGORIAN_CALENDAR = new JavaType(GregorianCalendar.class);
-  public static final JavaType HASH_SET = new JavaType(HashSet.class);
-  public static final JavaType ITERATOR = new JavaType(Iterator.class);
+  public static final JavaType EXCEPTION = JavaType.of(Exception.class);
+  public static final JavaType GREGORIAN_CALENDAR = JavaType.of(GregorianCalendar.class);
+  public static final JavaType HASH_SET = JavaType.of(HashSet.class);
+  public static final JavaType ITERATOR = JavaType.of(Iterator.class);
 
   private static final List<String> javaLangSimpleTypeNames = new ArrayList<String>();
   private static final List<String> javaLangTypes = new ArrayList<String>();
 
-  public static final JavaType LIST = new JavaType(List.class);
-  public static final JavaType MAP = new JavaType(Map.class);
+  public static final JavaType LIST = JavaType.of(List.class);
+  public static final JavaType MAP = JavaType.of(Map.class);
   // javax.annotation
-  public static final JavaType POST_CONSTRUCT = new JavaType(PostConstruct.class);
+  public static final JavaType POST_CONSTRUCT = JavaType.of(PostConstruct.class);
   // java.beans
-  public static final JavaType PROPERTY_EDITOR_SUPPORT = new JavaType(PropertyEditorSupport.class);
-  public static final JavaType RANDOM = new JavaType(Random.class);
-  public static final JavaType REF = new JavaType(Ref.class);
+  public static final JavaType PROPERTY_EDITOR_SUPPORT = JavaType.of(PropertyEditorSupport.class);
+  public static final JavaType RANDOM = JavaType.of(Random.class);
+  public static final JavaType REF = JavaType.of(Ref.class);
   // java.security
-  public static final JavaType SECURE_RANDOM = new JavaType(SecureRandom.class);
-  public static final JavaType SERIALIZABLE = new JavaType(Serializable.class);
-  public static final JavaType SET = new JavaType(Set.class);
-  public static final JavaType SIMPLE_DATE_FORMAT = new JavaType(SimpleDateFormat.class);
-  public static final JavaType STRUCT = new JavaType(Struct.class);
-  public static final JavaType SUPPRESS_WARNINGS = new JavaType(SuppressWarnings.class);
+  public static final JavaType SECURE_RANDOM = JavaType.of(SecureRandom.class);
+  public static final JavaType SERIALIZABLE = JavaType.of(Serializable.class);
+  public static final JavaType SET = JavaType.of(Set.class);
+  public static final JavaType SIMPLE_DATE_FORMAT = JavaType.of(SimpleDateFormat.class);
+  public static final JavaType STRUCT = JavaType.of(Struct.class);
+  public static final JavaType SUPPRESS_WARNINGS = JavaType.of(SuppressWarnings.class);
   // java.sql
-  public static final JavaType TIMESTAMP = new JavaType(Timestamp.class);
+  public static final JavaType TIMESTAMP = JavaType.of(Timestamp.class);
 
-  public static final JavaType UNSUPPORTED_ENCODING_EXCEPTION = new JavaType(
+  public static final JavaType UNSUPPORTED_ENCODING_EXCEPTION = JavaType.of(
       UnsupportedEncodingException.class);
 
   // Static methods
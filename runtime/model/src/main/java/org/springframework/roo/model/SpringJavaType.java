@@ -14,135 +14,137 @@ import org.apache.commons.lang3.Validate;
 public final class SpringJavaType {
 
   // org.springframework
-  public static final JavaType ASYNC = new JavaType(
+  public static final JavaType ASYNC = JavaType.of(
       "org.springframework.scheduling.annotation.Async");
-  public static final JavaType AUDITING_ENTITY_LISTENER = new JavaType(
+  public static final JavaType AUDITING_ENTITY_LISTENER = JavaType.of(
       "org.springframework.data.jpa.domain.support.AuditingEntityListener");
-  public static final JavaType AUTHENTICATION = new JavaType(
+  public static final JavaType AUTHENTICATION = JavaType.of(
       "org.springframework.security.core.Authentication");
-  public static final JavaType AUTOWIRED = new JavaType(
+  public static final JavaType AUTOWIRED = JavaType.of(
       "org.springframework.beans.factory.annotation.Autowired");
-  public static final JavaType BINDING_RESULT = new JavaType(
+  public static final JavaType BINDING_RESULT = JavaType.of(
       "org.springframework.validation.BindingResult");
-  public static final JavaType BEAN = new JavaType("org.springframework.context.annotation.Bean");
-  public static final JavaType CHARACTER_ENCODING_FILTER = new JavaType(
+  public static final JavaType BEAN = JavaType.of("org.springframework.context.annotation.Bean");
+  public static final JavaType CHARACTER_ENCODING_FILTER = JavaType.of(
       "org.springframework.web.filter.CharacterEncodingFilter");
-  public static final JavaType COMPONENT = new JavaType("org.springframework.stereotype.Component");
-  public static final JavaType CONFIGURABLE = new JavaType(
+  public static final JavaType COMPONENT = JavaType.of("org.springframework.stereotype.Component");
+  public static final JavaType CONFIGURABLE = JavaType.of(
       "org.springframework.beans.factory.annotation.Configurable");
-  public static final JavaType CONTEXT_CONFIGURATION = new JavaType(
+  public static final JavaType CONTEXT_CONFIGURATION = JavaType.of(
       "org.springframework.test.context.ContextConfiguration");
-  public static final JavaType CONTEXT_LOADER_LISTENER = new JavaType(
+  public static final JavaType CONTEXT_LOADER_LISTENER = JavaType.of(
       "org.springframework.web.context.ContextLoaderListener");
-  public static final JavaType CONTROLLER = new JavaType(
+  public static final JavaType CONTROLLER = JavaType.of(
       "org.springframework.stereotype.Controller");
-  public static final JavaType CONVERSION_SERVICE = new JavaType(
+  public static final JavaType CONVERSION_SERVICE = JavaType.of(
       "org.springframework.core.convert.ConversionService");
-  public static final JavaType CONVERSION_SERVICE_EXPOSING_INTERCEPTOR = new JavaType(
+  public static final JavaType CONVERSION_SERVICE_EXPOSING_INTERCEPTOR = JavaType.of(
       "org.springframework.web.servlet.handler.ConversionServiceExposingInterceptor");
-  public static final JavaType CREATED_BY = new JavaType(
+  public static final JavaType CREATED_BY = JavaType.of(
       "org.springframework.data.annotation.CreatedBy");
-  public static final JavaType CREATED_DATE = new JavaType(
+  public static final JavaType CREATED_DATE = JavaType.of(
       "org.springframework.data.annotation.CreatedDate");
-  public static final JavaType DATA_ID = new JavaType("org.springframework.data.annotation.Id");
-  public static final JavaType DATE_TIME_FORMAT = new JavaType(
+  public static final JavaType DATA_ID = JavaType.of("org.springframework.data.annotation.Id");
+  public static final JavaType DATE_TIME_FORMAT = JavaType.of(
       "org.springframework.format.annotation.DateTimeFormat");
-  public static final JavaType DISPATCHER_SERVLET = new JavaType(
+  public static final JavaType DISPATCHER_SERVLET = JavaType.of(
       "org.springframework.web.servlet.DispatcherServlet");
-  public static final JavaType ENABLE_CACHING = new JavaType(
+  public static final JavaType ENABLE_CACHING = JavaType.of(
       "org.springframework.cache.annotation.EnableCaching");
-  public static final JavaType FLOW_HANDLER_MAPPING = new JavaType(
+  public static final JavaType FLOW_HANDLER_MAPPING = JavaType.of(
       "org.springframework.webflow.mvc.servlet.FlowHandlerMapping");
-  public static final JavaType FORMATTER = new JavaType("org.springframework.format.Formatter");
-  public static final JavaType FORMATTER_REGISTRY = new JavaType(
+  public static final JavaType FORMATTER = JavaType.of("org.springframework.format.Formatter");
+  public static final JavaType FORMATTER_REGISTRY = JavaType.of(
       "org.springframework.format.FormatterRegistry");
-  public static final JavaType FORMATTING_CONVERSION_SERVICE = new JavaType(
+  public static final JavaType FORMATTING_CONVERSION_SERVICE = JavaType.of(
       "org.springframework.format.support.FormattingConversionService");
-  public static final JavaType HIDDEN_HTTP_METHOD_FILTER = new JavaType(
+  public static final JavaType HIDDEN_HTTP_METHOD_FILTER = JavaType.of(
       "org.springframework.web.filter.HiddenHttpMethodFilter");
-  public static final JavaType HTTP_HEADERS = new JavaType("org.springframework.http.HttpHeaders");
-  public static final JavaType HTTP_STATUS = new JavaType("org.springframework.http.HttpStatus");
-  public static final JavaType JAVA_MAIL_SENDER_IMPL = new JavaType(
+  public static final JavaType HTTP_HEADERS = JavaType.of("org.springframework.http.HttpHeaders");
+  public static final JavaType HTTP_STATUS = JavaType.of("org.springframework.http.HttpStatus");
+  public static final JavaType JAVA_MAIL_SENDER_IMPL = JavaType.of(
       "org.springframework.mail.javamail.JavaMailSenderImpl");
-  public static final JavaType JMS_OPERATIONS = new JavaType(
+  public static final JavaType JMS_OPERATIONS = JavaType.of(
       "org.springframework.jms.core.JmsOperations");
-  public static final JavaType JMS_TEMPLATE = new JavaType(
+  public static final JavaType JMS_TEMPLATE = JavaType.of(
       "org.springframework.jms.core.JmsTemplate");
-  public static final JavaType JPA_TRANSACTION_MANAGER = new JavaType(
+  public static final JavaType JPA_TRANSACTION_MANAGER = JavaType.of(
       "org.springframework.orm.jpa.JpaTransactionManager");
-  public static final JavaType LAST_MODIFIED_BY = new JavaType(
+  public static final JavaType LAST_MODIFIED_BY = JavaType.of(
       "org.springframework.data.annotation.LastModifiedBy");
-  public static final JavaType LAST_MODIFIED_DATE = new JavaType(
+  public static final JavaType LAST_MODIFIED_DATE = JavaType.of(
       "org.springframework.data.annotation.LastModifiedDate");
-  public static final JavaType LOCAL_CONTAINER_ENTITY_MANAGER_FACTORY_BEAN = new JavaType(
+  public static final JavaType LOCAL_CONTAINER_ENTITY_MANAGER_FACTORY_BEAN = JavaType.of(
       "org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean");
-  public static final JavaType LOCAL_ENTITY_MANAGER_FACTORY_BEAN = new JavaType(
+  public static final JavaType LOCAL_ENTITY_MANAGER_FACTORY_BEAN = JavaType.of(
       "org.springframework.orm.jpa.LocalEntityManagerFactoryBean");
-  public static final JavaType LOCALE_CONTEXT_HOLDER = new JavaType(
+  public static final JavaType LOCALE_CONTEXT_HOLDER = JavaType.of(
       "org.springframework.context.i18n.LocaleContextHolder");
-  public static final JavaType LOCAL_VALIDATOR_FACTORY_BEAN = new JavaType(
+  public static final JavaType LOCAL_VALIDATOR_FACTORY_BEAN = JavaType.of(
       "org.springframework.validation.beanvalidation.LocalValidatorFactoryBean");
-  public static final JavaType MAIL_SENDER = new JavaType("org.springframework.mail.MailSender");
-  public static final JavaType MEDIA_TYPE = new JavaType("org.springframework.http.MediaType");
-  public static final JavaType MOCK_STATIC_ENTITY_METHODS = new JavaType(
+  public static final JavaType MAIL_SENDER = JavaType.of("org.springframework.mail.MailSender");
+  public static final JavaType MEDIA_TYPE = JavaType.of("org.springframework.http.MediaType");
+  public static final JavaType MOCK_STATIC_ENTITY_METHODS = JavaType.of(
       "org.springframework.mock.staticmock.MockStaticEntityMethods");
-  public static final JavaType MODEL = new JavaType("org.springframework.ui.Model");
-  public static final JavaType MODEL_ATTRIBUTE = new JavaType(
+  public static final JavaType MODEL = JavaType.of("org.springframework.ui.Model");
+  public static final JavaType MODEL_ATTRIBUTE = JavaType.of(
       "org.springframework.web.bind.annotation.ModelAttribute");
-  public static final JavaType MODEL_MAP = new JavaType("org.springframework.ui.ModelMap");
-  public static final JavaType NUMBER_FORMAT = new JavaType(
+  public static final JavaType MODEL_MAP = JavaType.of("org.springframework.ui.ModelMap");
+  public static final JavaType NUMBER_FORMAT = JavaType.of(
       "org.springframework.format.annotation.NumberFormat");
-  public static final JavaType OPEN_ENTITY_MANAGER_IN_VIEW_FILTER = new JavaType(
+  public static final JavaType OPEN_ENTITY_MANAGER_IN_VIEW_FILTER = JavaType.of(
       "org.springframework.orm.jpa.support.OpenEntityManagerInViewFilter");
-  public static final JavaType PAGE = new JavaType("org.springframework.data.domain.Page");
-  public static final JavaType PAGEABLE = new JavaType("org.springframework.data.domain.Pageable");
-  public static final JavaType PATH_VARIABLE = new JavaType(
+  public static final JavaType PAGE = JavaType.of("org.springframework.data.domain.Page");
+  public static final JavaType PAGEABLE = JavaType.of("org.springframework.data.domain.Pageable");
+  public static final JavaType PATH_VARIABLE = JavaType.of(
       "org.springframework.web.bind.annotation.PathVariable");
-  public static final JavaType PERMISSION_EVALUATOR = new JavaType(
+  public static final JavaType PERMISSION_EVALUATOR = JavaType.of(
       "org.springframework.security.access.PermissionEvaluator");
-  public static final JavaType PERSISTENT = new JavaType(
+  public static final JavaType PERSISTENT = JavaType.of(
       "org.springframework.data.annotation.Persistent");
-  public static final JavaType PRE_AUTHORIZE = new JavaType(
+  public static final JavaType PRE_AUTHORIZE = JavaType.of(
       "org.springframework.security.access.prepost.PreAuthorize");
-  public static final JavaType POST_AUTHORIZE = new JavaType(
+  public static final JavaType POST_AUTHORIZE = JavaType.of(
       "org.springframework.security.access.prepost.PostAuthorize");
-  public static final JavaType PROPAGATION = new JavaType(
+  public static final JavaType PROPAGATION = JavaType.of(
       "org.springframework.transaction.annotation.Propagation");
-  public static final JavaType PRIMARY = new JavaType(
+  public static final JavaType PRIMARY = JavaType.of(
       "org.springframework.context.annotation.Primary");
-  public static final JavaType REDIRECT_ATTRIBUTES = new JavaType(
+  public static final JavaType REDIRECT_ATTRIBUTES = JavaType.of(
       "org.springframework.web.servlet.mvc.support.RedirectAttributes");
-  public static final JavaType REPOSITORY = new JavaType(
+  public static final JavaType REPOSITORY = JavaType.of(
       "org.springframework.stereotype.Repository");
-  public static final JavaType REQUEST_BODY = new JavaType(
+  public static final JavaType REQUEST_BODY = JavaType.of(
       "org.springframework.web.bind.annotation.RequestBody");
-  public static final JavaType REQUEST_MAPPING = new JavaType(
+  public static final JavaType REQUEST_MAPPING = JavaType.of(
       "org.springframework.web.bind.annotation.RequestMapping");
-  public static final JavaType REQUEST_METHOD = new JavaType(
+  public static final JavaType REQUEST_METHOD = JavaType.of(
       "org.springframework.web.bind.annotation.RequestMethod");
-  public static final JavaType REQUEST_PARAM = new JavaType(
+  public static final JavaType REQUEST_PARAM = JavaType.of(
       "org.springframework.web.bind.annotation.RequestParam");
-  public static final JavaType RESPONSE_BODY = new JavaType(
+  public static final JavaType RESPONSE_BODY = JavaType.of(
       "org.springframework.web.bind.annotation.ResponseBody");
-  public static final JavaType RESPONSE_ENTITY = new JavaType(
+  public static final JavaType RESPONSE_ENTITY = JavaType.of(
       "org.springframework.http.ResponseEntity");
-  public static final JavaType SPRING_BOOT_APPLICATION = new JavaType(
+  public static final JavaType SPRING_BOOT_APPLICATION = JavaType.of(
       "org.springframework.boot.autoconfigure.SpringBootApplication");
-  public static final JavaType SERVICE = new JavaType("org.springframework.stereotype.Service");
-  public static final JavaType SIMPLE_MAIL_MESSAGE = new JavaType(
+  public static final JavaType SERVICE = JavaType.of("org.springframework.stereotype.Service");
+  public static final JavaType SIMPLE_MAIL_MESSAGE = JavaType.of(
       "org.springframework.mail.SimpleMailMessage");
-  public static final JavaType SIMPLE_TYPE_CONVERTER = new JavaType(
+  public static final JavaType SIMPLE_TYPE_CONVERTER = JavaType.of(
       "org.springframework.beans.SimpleTypeConverter");
-  public static final JavaType TRANSACTIONAL = new JavaType(
+  public static final JavaType SLICE = JavaType.of("org.springframework.data.domain.Slice");
+  public static final JavaType SORT = JavaType.of("org.springframework.data.domain.Sort");
+  public static final JavaType TRANSACTIONAL = JavaType.of(
       "org.springframework.transaction.annotation.Transactional");
-  public static final JavaType URI_UTILS = new JavaType("org.springframework.web.util.UriUtils");
-  public static final JavaType URI_COMPONENTS = new JavaType(
+  public static final JavaType URI_UTILS = JavaType.of("org.springframework.web.util.UriUtils");
+  public static final JavaType URI_COMPONENTS = JavaType.of(
       "org.springframework.web.util.UriComponents");
-  public static final JavaType URI_COMPONENTS_BUILDER = new JavaType(
+  public static final JavaType URI_COMPONENTS_BUILDER = JavaType.of(
       "org.springframework.web.util.UriComponentsBuilder");
-  public static final JavaType VALUE = new JavaType(
+  public static final JavaType VALUE = JavaType.of(
       "org.springframework.beans.factory.annotation.Value");
-  public static final JavaType WEB_UTILS = new JavaType("org.springframework.web.util.WebUtils");
+  public static final JavaType WEB_UTILS = JavaType.of("org.springframework.web.util.WebUtils");
 
   /**
    * Returns the {@link JavaType} for a Spring converter
@@ -0,0 +1,49 @@
+package org.springframework.roo.model;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Canonical instances of an immutable value type, keyed by a string that the
+ * instance itself holds (e.g. its name). Neither keys nor instances are kept
+ * alive by the interner, so an entry disappears once nothing else refers to
+ * its instance.
+ *
+ * @param <T> the type of instance
+ * @since 2.0
+ */
+final class WeakInterner<T> {
+
+  private final Map<String, WeakReference<T>> instances =
+      new WeakHashMap<String, WeakReference<T>>();
+
+  /**
+   * Returns the canonical instance for the given key
+   *
+   * @param key the key (required)
+   * @return <code>null</code> if there is none
+   */
+  synchronized T get(final String key) {
+    final WeakReference<T> reference = instances.get(key);
+    return reference == null ? null : reference.get();
+  }
+
+  /**
+   * Returns the canonical instance for the given key, making the given
+   * instance canonical if there is none yet
+   *
+   * @param key the key, which must be referenced by the instance so that the
+   *            entry lives as long as the instance (required)
+   * @param instance the candidate instance (required)
+   * @return a non-<code>null</code> instance
+   */
+  synchronized T intern(final String key, final T instance) {
+    final T existing = get(key);
+    if (existing != null) {
+      return existing;
+    }
+    instances.put(key, new WeakReference<T>(instance));
+    return instance;
+  }
+}
@@ -1,6 +1,7 @@
 package org.springframework.roo.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 
@@ -25,4 +26,13 @@ public class JavaSymbolNameTest {
     new JavaSymbolName(
         "META-INF.web-resources.dojo-1.5.util.shrinksafe.src.org.dojotoolkit.shrinksafe.Compressor");
   }
+
+  @Test
+  public void testOfReturnsCanonicalInstance() {
+    final JavaSymbolName symbol = JavaSymbolName.of("firstName");
+
+    assertSame(symbol, JavaSymbolName.of("firstName"));
+    assertEquals(new JavaSymbolName("firstName"), symbol);
+    assertSame(JavaSymbolName.TRUE, JavaSymbolName.of("true"));
+  }
 }
@@ -2,7 +2,9 @@ package org.springframework.roo.model;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.springframework.roo.model.JavaType.BOOLEAN_OBJECT;
 import static org.springframework.roo.model.JavaType.BOOLEAN_PRIMITIVE;
@@ -85,6 +87,26 @@ public class JavaTypeTest {
     assertNull(JdkJavaType.LIST.getBaseType());
   }
 
+  @Test
+  public void testOfReturnsCanonicalInstance() {
+    final JavaType type = JavaType.of("com.example.Thing");
+
+    assertSame(type, JavaType.of("com.example.Thing"));
+    assertEquals(new JavaType("com.example.Thing"), type);
+    assertEquals(new JavaType("com.example.Thing").hashCode(), type.hashCode());
+    assertSame(STRING, JavaType.of(String.class));
+    assertSame(JdkJavaType.LIST, JavaType.of("java.util.List"));
+  }
+
+  @Test
+  public void testOfDistinguishesModules() {
+    final JavaType type = JavaType.of("com.example.Thing", "core");
+
+    assertSame(type, JavaType.of("com.example.Thing", "core"));
+    assertNotSame(JavaType.of("com.example.Thing"), type);
+    assertEquals("core", type.getPackage().getModule());
+  }
+
   @Test
   public void testObjectIsNotBoolean() {
     assertFalse(OBJECT.isBoolean());
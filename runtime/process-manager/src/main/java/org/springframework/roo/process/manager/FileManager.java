@@ -73,6 +73,23 @@ public interface FileManager {
    */
   MutableFile createFile(String fileIdentifier);
 
+  /**
+   * Creates, updates or (given zero bytes) deletes a generated file, such as
+   * an ITD, that nothing reads back from disk. This works like
+   * {@link #createOrUpdateTextFileIfRequired(String, String, boolean)} with
+   * deferred writing, except that while a batch of commands is in progress
+   * (see {@link ProcessManager#beginBatch()}) the write is deferred until
+   * the batch ends, so that a file regenerated by several of its commands is
+   * only written once.
+   * 
+   * @param fileIdentifier the file to create or update as appropriate
+   *            (required)
+   * @param newContents the replacement contents (required, but can be zero
+   *            bytes if the file should be deleted)
+   * @since 2.0
+   */
+  void createOrUpdateGeneratedFileIfRequired(String fileIdentifier, String newContents);
+
   /**
    * Provides a simple way to create or update a file, skipping any
    * modification if the file's contents match the proposed contents. This
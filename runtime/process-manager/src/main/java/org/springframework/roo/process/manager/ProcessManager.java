@@ -60,6 +60,24 @@ import org.springframework.roo.process.manager.event.ProcessManagerStatusProvide
  */
 public interface ProcessManager extends ProcessManagerStatusProvider {
 
+  /**
+   * Begins a batch, in which the commands executed by the current command
+   * share its "transaction" instead of each having their own. Such commands
+   * still have their changes written and scanned, so that later commands can
+   * see them, but the undo history is only reset or undone once the current
+   * command completes or fails. Writes of generated files are deferred until
+   * then too (see {@link FileManager#createOrUpdateGeneratedFileIfRequired}).
+   * <p>
+   * May only be called while executing a command, and must be matched by a
+   * call to {@link #endBatch()} before that command completes.
+   */
+  void beginBatch();
+
+  /**
+   * Ends the batch begun by the matching call to {@link #beginBatch()}
+   */
+  void endBatch();
+
   /**
    * Execute a user command within a "transaction". This method blocks until
    * {@link ProcessManagerStatus#AVAILABLE}.
@@ -85,6 +103,14 @@ public interface ProcessManager extends ProcessManagerStatusProvider {
    */
   boolean isDevelopmentMode();
 
+  /**
+   * Indicates whether a batch of commands is being executed
+   * 
+   * @return see above
+   * @see #beginBatch()
+   */
+  boolean isBatchInProgress();
+
   void setDevelopmentMode(boolean developmentMode);
 
   void setMinimumDelayBetweenScan(long minimumDelayBetweenScan);
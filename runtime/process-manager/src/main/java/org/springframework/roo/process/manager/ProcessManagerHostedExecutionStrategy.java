@@ -10,6 +10,7 @@ import org.apache.felix.scr.annotations.ReferencePolicy;
 import org.apache.felix.scr.annotations.ReferenceStrategy;
 import org.apache.felix.scr.annotations.Service;
 import org.springframework.roo.process.manager.event.ProcessManagerStatus;
+import org.springframework.roo.process.manager.event.ProcessManagerStatusListener;
 import org.springframework.roo.shell.ExecutionStrategy;
 import org.springframework.roo.shell.ParseResult;
 
@@ -26,15 +27,38 @@ import org.springframework.roo.shell.ParseResult;
 @Reference(name = "processManager", strategy = ReferenceStrategy.EVENT,
     policy = ReferencePolicy.DYNAMIC, referenceInterface = ProcessManager.class,
     cardinality = ReferenceCardinality.MANDATORY_UNARY)
-public class ProcessManagerHostedExecutionStrategy implements ExecutionStrategy {
+public class ProcessManagerHostedExecutionStrategy implements ExecutionStrategy,
+    ProcessManagerStatusListener {
 
   private final Class<?> mutex = ProcessManagerHostedExecutionStrategy.class;
   private ProcessManager processManager;
 
+  // Signalled whenever readiness may have changed; never held while
+  // acquiring the mutex above, as the process manager's status can change
+  // while that is held
+  private final Object readiness = new Object();
+  private long readinessChanges;
+
   protected void bindProcessManager(final ProcessManager processManager) {
     synchronized (mutex) {
       this.processManager = processManager;
     }
+    processManager.addProcessManagerStatusListener(this);
+    signalReadinessChange();
+  }
+
+  public void beginBatch() {
+    synchronized (mutex) {
+      Validate.validState(processManager != null, "Process manager unavailable");
+      processManager.beginBatch();
+    }
+  }
+
+  public void endBatch() {
+    synchronized (mutex) {
+      Validate.validState(processManager != null, "Process manager unavailable");
+      processManager.endBatch();
+    }
   }
 
   public Object execute(final ParseResult parseResult) throws RuntimeException {
@@ -71,6 +95,18 @@ public class ProcessManagerHostedExecutionStrategy implements ExecutionStrategy
     return false;
   }
 
+  public void onProcessManagerStatusChange(final ProcessManagerStatus oldStatus,
+      final ProcessManagerStatus newStatus) {
+    signalReadinessChange();
+  }
+
+  private void signalReadinessChange() {
+    synchronized (readiness) {
+      readinessChanges++;
+      readiness.notifyAll();
+    }
+  }
+
   public void terminate() {
     synchronized (mutex) {
       if (processManager != null) {
@@ -80,8 +116,32 @@ public class ProcessManagerHostedExecutionStrategy implements ExecutionStrategy
   }
 
   protected void unbindProcessManager(final ProcessManager processManager) {
+    processManager.removeProcessManagerStatusListener(this);
     synchronized (mutex) {
       this.processManager = null;
     }
+    signalReadinessChange();
+  }
+
+  public boolean waitUntilReadyForCommands(final long timeoutMillis) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + timeoutMillis;
+    while (true) {
+      final long changesSeen;
+      synchronized (readiness) {
+        changesSeen = readinessChanges;
+      }
+      if (isReadyForCommands()) {
+        return true;
+      }
+      synchronized (readiness) {
+        while (readinessChanges == changesSeen) {
+          final long remaining = deadline - System.currentTimeMillis();
+          if (remaining <= 0) {
+            return false;
+          }
+          readiness.wait(remaining);
+        }
+      }
+    }
   }
 }
@@ -7,9 +7,11 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.logging.Logger;
 
@@ -56,6 +58,8 @@ public class DefaultFileManager implements FileManager, UndoListener {
       new LinkedHashMap<String, String>();
   /** key: file identifier, value: new textual content */
   private final Map<String, String> deferredFileWrites = new LinkedHashMap<String, String>();
+  /** the deferred writes that can wait until the end of a batch */
+  private final Set<String> deferredGeneratedFiles = new HashSet<String>();
 
   // ------------ OSGi component attributes ----------------
   private BundleContext context;
@@ -76,10 +80,16 @@ public class DefaultFileManager implements FileManager, UndoListener {
   public void clear() {
     deferredFileWrites.clear();
     deferredDescriptionOfChanges.clear();
+    deferredGeneratedFiles.clear();
   }
 
   public void commit() {
     final Map<String, String> toRemove = new LinkedHashMap<String, String>(deferredFileWrites);
+    if (!deferredGeneratedFiles.isEmpty() && isBatchInProgress()) {
+      toRemove.keySet().removeAll(deferredGeneratedFiles);
+    } else {
+      deferredGeneratedFiles.clear();
+    }
     try {
       for (final Entry<String, String> entry : toRemove.entrySet()) {
         final String fileIdentifier = entry.getKey();
@@ -94,8 +104,8 @@ public class DefaultFileManager implements FileManager, UndoListener {
     } finally {
       for (final String remove : toRemove.keySet()) {
         deferredFileWrites.remove(remove);
+        deferredDescriptionOfChanges.remove(remove);
       }
-      deferredDescriptionOfChanges.clear();
     }
   }
 
@@ -200,8 +210,15 @@ public class DefaultFileManager implements FileManager, UndoListener {
     }
   }
 
+  public void createOrUpdateGeneratedFileIfRequired(final String fileIdentifier,
+      final String newContents) {
+    createOrUpdateTextFileIfRequired(fileIdentifier, newContents, "", false);
+    deferredGeneratedFiles.add(fileIdentifier);
+  }
+
   public void createOrUpdateTextFileIfRequired(final String fileIdentifier,
       final String newContents, final String descriptionOfChange, final boolean writeImmediately) {
+    deferredGeneratedFiles.remove(fileIdentifier);
     if (writeImmediately) {
       createOrUpdateTextFileIfRequired(fileIdentifier, newContents, descriptionOfChange);
     } else {
@@ -246,8 +263,15 @@ public class DefaultFileManager implements FileManager, UndoListener {
     if (StringUtils.isBlank(fileIdentifier)) {
       return;
     }
-
     final File actual = new File(fileIdentifier);
+    if (deferredGeneratedFiles.remove(fileIdentifier)) {
+      // Don't write it at the end of the batch
+      deferredFileWrites.remove(fileIdentifier);
+      deferredDescriptionOfChanges.remove(fileIdentifier);
+      if (!actual.exists()) {
+        return;
+      }
+    }
     Validate.isTrue(actual.exists(), "File '%s' does not exist", fileIdentifier);
     try {
       fileMonitorService.notifyDeleted(actual.getCanonicalPath());
@@ -262,6 +286,11 @@ public class DefaultFileManager implements FileManager, UndoListener {
 
   public boolean exists(final String fileIdentifier) {
     Validate.notBlank(fileIdentifier, "File identifier required");
+    if (deferredGeneratedFiles.contains(fileIdentifier)
+        && StringUtils.isNotBlank(deferredFileWrites.get(fileIdentifier))) {
+      // To be written at the end of the batch
+      return true;
+    }
     return new File(fileIdentifier).exists();
   }
 
@@ -361,6 +390,13 @@ public class DefaultFileManager implements FileManager, UndoListener {
     }
   }
 
+  private boolean isBatchInProgress() {
+    if (processManager == null) {
+      processManager = getProcessManager();
+    }
+    return processManager != null && processManager.isBatchInProgress();
+  }
+
   public ProcessManager getProcessManager() {
     // Get all Services implement ProcessManager interface
     try {
@@ -25,6 +25,8 @@ import org.springframework.roo.process.manager.CommandCallback;
 import org.springframework.roo.process.manager.ProcessManager;
 import org.springframework.roo.process.manager.event.AbstractProcessManagerStatusPublisher;
 import org.springframework.roo.process.manager.event.ProcessManagerStatus;
+import org.springframework.roo.support.logging.CommandTimeline;
+import org.springframework.roo.support.logging.CommandTimeline.Span;
 import org.springframework.roo.support.logging.HandlerUtils;
 import org.springframework.roo.support.osgi.OSGiUtils;
 
@@ -44,6 +46,7 @@ public class DefaultProcessManager extends AbstractProcessManagerStatusPublisher
   // ------------ OSGi component attributes ----------------
   private BundleContext context;
 
+  private volatile int batchDepth;
   private boolean developmentMode = false;
   private FileMonitorService fileMonitorService;
   private long lastScanDuration = 0;
@@ -53,6 +56,18 @@ public class DefaultProcessManager extends AbstractProcessManagerStatusPublisher
   private UndoManager undoManager;
   private String workingDir;
 
+  public void beginBatch() {
+    Validate.validState(Thread.holdsLock(processManagerStatus),
+        "A batch can only be begun by an executing command");
+    batchDepth++;
+  }
+
+  public void endBatch() {
+    Validate.validState(Thread.holdsLock(processManagerStatus) && batchDepth > 0,
+        "No batch has been begun by this command");
+    batchDepth--;
+  }
+
   public <T> T execute(final CommandCallback<T> callback) {
     Validate.notNull(callback, "Callback required");
     synchronized (processManagerStatus) {
@@ -89,6 +104,10 @@ public class DefaultProcessManager extends AbstractProcessManagerStatusPublisher
     return minimumDelayBetweenScan;
   }
 
+  public boolean isBatchInProgress() {
+    return batchDepth > 0;
+  }
+
   public boolean isDevelopmentMode() {
     return developmentMode;
   }
@@ -279,6 +298,15 @@ public class DefaultProcessManager extends AbstractProcessManagerStatusPublisher
     }
   }
 
+  private void scanAll() {
+    final Span span = CommandTimeline.start("file scan");
+    try {
+      fileMonitorService.scanAll();
+    } finally {
+      span.end();
+    }
+  }
+
   private <T> T doTransactionally(final CommandCallback<T> callback) {
 
     if (fileMonitorService == null) {
@@ -293,45 +321,77 @@ public class DefaultProcessManager extends AbstractProcessManagerStatusPublisher
 
     Validate.notNull(undoManager, "UndoManager is required");
 
+    // A command executed within a batch shares the transaction of the
+    // command that began the batch
+    final boolean batched = callback != null && isBatchInProgress();
     T result = null;
     try {
       ActiveProcessManager.setActiveProcessManager(this);
 
       // Run the requested operation
       if (callback == null) {
-        fileMonitorService.scanAll();
+        scanAll();
       } else {
-        result = callback.callback();
+        final Span span = CommandTimeline.start("command");
+        try {
+          result = callback.callback();
+        } finally {
+          span.end();
+        }
       }
 
       // Flush the undo manager so that any changes it has been holding
       // are written to disk and the file monitor service
-      undoManager.flush();
+      flushUndoManager();
 
       // Guarantee scans repeat until there are no more changes detected
       while (fileMonitorService.isDirty()) {
         if (fileMonitorService instanceof NotifiableFileMonitorService) {
-          ((NotifiableFileMonitorService) fileMonitorService).scanNotified();
+          final Span span = CommandTimeline.start("file scan");
+          try {
+            ((NotifiableFileMonitorService) fileMonitorService).scanNotified();
+          } finally {
+            span.end();
+          }
         } else {
-          fileMonitorService.scanAll();
+          scanAll();
         }
         // In case something else happened as a result of event
         // notifications above
-        undoManager.flush();
+        flushUndoManager();
+      }
+
+      if (batched) {
+        // Keep the undo history until the whole batch has worked
+        return result;
       }
 
       // It all seems to have worked, so clear the undo history
       setProcessManagerStatus(ProcessManagerStatus.RESETTING_UNDOS);
 
-      undoManager.reset();
+      final Span span = CommandTimeline.start("undo reset");
+      try {
+        undoManager.reset();
+      } finally {
+        span.end();
+      }
 
     } catch (final RuntimeException e) {
+      if (batched) {
+        // The command that began the batch will undo all of it
+        throw e;
+      }
       // Something went wrong, so attempt to undo
       try {
         setProcessManagerStatus(ProcessManagerStatus.UNDOING);
         throw e;
       } finally {
-        undoManager.undo();
+        final Span span = CommandTimeline.start("undo");
+        try {
+          undoManager.undo();
+        } finally {
+          span.end();
+        }
       }
     } finally {
       // TODO: Review in consultation with Christian as STS is clearing
@@ -342,6 +402,18 @@ public class DefaultProcessManager extends AbstractProcessManagerStatusPublisher
     return result;
   }
 
+  /**
+   * Flushes the undo manager, i.e. writes the files changed by the command
+   */
+  private void flushUndoManager() {
+    final Span span = CommandTimeline.start("file writes");
+    try {
+      undoManager.flush();
+    } finally {
+      span.end();
+    }
+  }
+
   private void logException(final Throwable t) {
     final Throwable root = ObjectUtils.defaultIfNull(ExceptionUtils.getRootCause(t), t);
     if (developmentMode) {
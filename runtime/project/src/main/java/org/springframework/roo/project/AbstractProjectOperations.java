@@ -24,6 +24,7 @@ import org.springframework.roo.metadata.MetadataService;
 import org.springframework.roo.model.JavaPackage;
 import org.springframework.roo.process.manager.FileManager;
 import org.springframework.roo.project.maven.Pom;
+import org.springframework.roo.project.maven.PomFactory;
 import org.springframework.roo.shell.Shell;
 import org.springframework.roo.support.util.CollectionUtils;
 import org.springframework.roo.support.util.DomUtils;
@@ -58,6 +59,9 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
   static final String UPDATED = "updated";
 
   private final Map<String, Feature> features = new HashMap<String, Feature>();
+  /** The open POM edit sessions, keyed by the paths of their POMs */
+  private final Map<String, PomEditSession> pomEditSessions =
+      new HashMap<String, PomEditSession>();
 
   @Reference(policy = ReferencePolicy.DYNAMIC)
   protected FileManager fileManager;
@@ -66,6 +70,8 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
   @Reference(policy = ReferencePolicy.DYNAMIC)
   protected PathResolver pathResolver;
 
+  @Reference(policy = ReferencePolicy.DYNAMIC)
+  protected PomFactory pomFactory;
   @Reference(policy = ReferencePolicy.DYNAMIC)
   protected PomManagementService pomManagementService;
   @Reference(policy = ReferencePolicy.DYNAMIC)
@@ -115,55 +121,59 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
     final Pom pom = getPomFromModuleName(moduleName);
     Validate.notNull(pom, "The pom is not available, so plugin addition cannot be performed");
 
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element root = document.getDocumentElement();
-    final Element pluginsElement =
-        DomUtils.createChildIfNotExists("/project/build/plugins", root, document);
-    final List<Element> existingPluginElements = XmlUtils.findElements("plugin", pluginsElement);
-
-    final List<String> addedPlugins = new ArrayList<String>();
-    final List<String> removedPlugins = new ArrayList<String>();
-    for (final Plugin newPlugin : newPlugins) {
-      if (newPlugin != null) {
-
-        // Look for any existing instances of this plugin
-        boolean inserted = false;
-        for (final Element existingPluginElement : existingPluginElements) {
-          final Plugin existingPlugin = new Plugin(existingPluginElement);
-          if (existingPlugin.hasSameCoordinates(newPlugin)) {
-            // It's the same artifact, but might have a different
-            // version, exclusions, etc.
-            if (!inserted) {
-              Element newPluginElement = removeVersionIfBlank(newPlugin.getElement(document));
-              // We haven't added the new one yet; do so now
-              pluginsElement.insertBefore(newPluginElement, existingPluginElement);
-              inserted = true;
-              if (!newPlugin.getVersion().equals(existingPlugin.getVersion())) {
-                // It's a genuine version change => mention the
-                // old and new versions in the message
-                addedPlugins.add(newPlugin.getSimpleDescription());
-                removedPlugins.add(existingPlugin.getSimpleDescription());
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element root = document.getDocumentElement();
+      final Element pluginsElement =
+          DomUtils.createChildIfNotExists("/project/build/plugins", root, document);
+      final List<Element> existingPluginElements = XmlUtils.findElements("plugin", pluginsElement);
+
+      final List<String> addedPlugins = new ArrayList<String>();
+      final List<String> removedPlugins = new ArrayList<String>();
+      for (final Plugin newPlugin : newPlugins) {
+        if (newPlugin != null) {
+
+          // Look for any existing instances of this plugin
+          boolean inserted = false;
+          for (final Element existingPluginElement : existingPluginElements) {
+            final Plugin existingPlugin = new Plugin(existingPluginElement);
+            if (existingPlugin.hasSameCoordinates(newPlugin)) {
+              // It's the same artifact, but might have a different
+              // version, exclusions, etc.
+              if (!inserted) {
+                Element newPluginElement = removeVersionIfBlank(newPlugin.getElement(document));
+                // We haven't added the new one yet; do so now
+                pluginsElement.insertBefore(newPluginElement, existingPluginElement);
+                inserted = true;
+                if (!newPlugin.getVersion().equals(existingPlugin.getVersion())) {
+                  // It's a genuine version change => mention the
+                  // old and new versions in the message
+                  addedPlugins.add(newPlugin.getSimpleDescription());
+                  removedPlugins.add(existingPlugin.getSimpleDescription());
+                }
               }
+              // Either way, we remove the previous one in case it was
+              // different in any way
+              pluginsElement.removeChild(existingPluginElement);
             }
-            // Either way, we remove the previous one in case it was
-            // different in any way
-            pluginsElement.removeChild(existingPluginElement);
+            // Keep looping in case it's present more than once
+          }
+          if (!inserted) {
+            // We didn't encounter any existing dependencies with the
+            // same coordinates; add it now
+            pluginsElement.appendChild(removeVersionIfBlank(newPlugin.getElement(document)));
+            addedPlugins.add(newPlugin.getSimpleDescription());
           }
-          // Keep looping in case it's present more than once
-        }
-        if (!inserted) {
-          // We didn't encounter any existing dependencies with the
-          // same coordinates; add it now
-          pluginsElement.appendChild(removeVersionIfBlank(newPlugin.getElement(document)));
-          addedPlugins.add(newPlugin.getSimpleDescription());
         }
       }
-    }
 
-    if (!newPlugins.isEmpty()) {
-      final String message = getPomPluginsUpdateMessage(addedPlugins, removedPlugins);
-      fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
-          message, false);
+      if (!newPlugins.isEmpty()) {
+        final String message = getPomPluginsUpdateMessage(addedPlugins, removedPlugins);
+        session.addChange(message, false);
+      }
+    } finally {
+      session.close();
     }
   }
 
@@ -174,74 +184,79 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
     final Pom pom = getPomFromModuleName(moduleName);
     Validate.notNull(pom, "The pom is not available, so dependencies cannot be added");
 
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element dependenciesElement =
-        DomUtils.createChildIfNotExists("dependencies", document.getDocumentElement(), document);
-    final List<Element> existingDependencyElements =
-        XmlUtils.findElements("dependency", dependenciesElement);
-
-    final List<Dependency> finalDependencies = new ArrayList<Dependency>();
-    final List<String> addedDependencies = new ArrayList<String>();
-    final List<String> removedDependencies = new ArrayList<String>();
-    final List<String> skippedDependencies = new ArrayList<String>();
-    for (final Dependency newDependency : newDependencies) {
-      // ROO-3465: Prevent version changes adding checkVersion to false
-      // when check if is possible to add the new dependency
-      if (pom.canAddDependency(newDependency, false)) {
-        // Look for any existing instances of this dependency
-        boolean inserted = false;
-        for (final Element existingDependencyElement : existingDependencyElements) {
-          final Dependency existingDependency = new Dependency(existingDependencyElement);
-          if (existingDependency.hasSameCoordinates(newDependency)) {
-            // It's the same artifact, but might have a different
-            // version, exclusions, etc.
-            if (!inserted) {
-              // We haven't added the new one yet; do so now
-              // ROO-3685: Check if current dependency has version when is added again
-              Element newDependencyElement =
-                  removeVersionIfBlank(newDependency.getElement(document));
-              dependenciesElement.insertBefore(newDependencyElement, existingDependencyElement);
-              inserted = true;
-              Dependency newDependencyWithoutVersion = new Dependency(newDependencyElement);
-              if (!newDependencyWithoutVersion.getVersion().equals(existingDependency.getVersion())) {
-                // It's a genuine version change => mention the
-                // old and new versions in the message
-                finalDependencies.add(newDependency);
-                addedDependencies.add(newDependency.getSimpleDescription());
-                removedDependencies.add(existingDependency.getSimpleDescription());
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element dependenciesElement =
+          DomUtils.createChildIfNotExists("dependencies", document.getDocumentElement(), document);
+      final List<Element> existingDependencyElements =
+          XmlUtils.findElements("dependency", dependenciesElement);
+
+      final List<Dependency> finalDependencies = new ArrayList<Dependency>();
+      final List<String> addedDependencies = new ArrayList<String>();
+      final List<String> removedDependencies = new ArrayList<String>();
+      final List<String> skippedDependencies = new ArrayList<String>();
+      for (final Dependency newDependency : newDependencies) {
+        // ROO-3465: Prevent version changes adding checkVersion to false
+        // when check if is possible to add the new dependency
+        if (pom.canAddDependency(newDependency, false)) {
+          // Look for any existing instances of this dependency
+          boolean inserted = false;
+          for (final Element existingDependencyElement : existingDependencyElements) {
+            final Dependency existingDependency = new Dependency(existingDependencyElement);
+            if (existingDependency.hasSameCoordinates(newDependency)) {
+              // It's the same artifact, but might have a different
+              // version, exclusions, etc.
+              if (!inserted) {
+                // We haven't added the new one yet; do so now
+                // ROO-3685: Check if current dependency has version when is added again
+                Element newDependencyElement =
+                    removeVersionIfBlank(newDependency.getElement(document));
+                dependenciesElement.insertBefore(newDependencyElement, existingDependencyElement);
+                inserted = true;
+                Dependency newDependencyWithoutVersion = new Dependency(newDependencyElement);
+                if (!newDependencyWithoutVersion.getVersion().equals(
+                    existingDependency.getVersion())) {
+                  // It's a genuine version change => mention the
+                  // old and new versions in the message
+                  finalDependencies.add(newDependency);
+                  addedDependencies.add(newDependency.getSimpleDescription());
+                  removedDependencies.add(existingDependency.getSimpleDescription());
+                }
               }
+              // Either way, we remove the previous one in case it was
+              // different in any way
+              dependenciesElement.removeChild(existingDependencyElement);
             }
-            // Either way, we remove the previous one in case it was
-            // different in any way
-            dependenciesElement.removeChild(existingDependencyElement);
+            // Keep looping in case it's present more than once
           }
-          // Keep looping in case it's present more than once
-        }
-        if (!inserted) {
-          // We didn't encounter any existing dependencies with the
-          // same coordinates; add it now
-
-          // ROO-3660: Check if current dependency has version. If
-          // not, remove version attribute
-          Element newDependencyElement = removeVersionIfBlank(newDependency.getElement(document));
-          dependenciesElement.appendChild(newDependencyElement);
+          if (!inserted) {
+            // We didn't encounter any existing dependencies with the
+            // same coordinates; add it now
+
+            // ROO-3660: Check if current dependency has version. If
+            // not, remove version attribute
+            Element newDependencyElement = removeVersionIfBlank(newDependency.getElement(document));
+            dependenciesElement.appendChild(newDependencyElement);
+            finalDependencies.add(newDependency);
+            addedDependencies.add(newDependency.getSimpleDescription());
+          }
+        } else {
+          skippedDependencies.add(newDependency.getSimpleDescription());
           finalDependencies.add(newDependency);
-          addedDependencies.add(newDependency.getSimpleDescription());
         }
-      } else {
-        skippedDependencies.add(newDependency.getSimpleDescription());
-        finalDependencies.add(newDependency);
       }
-    }
-    if (!newDependencies.isEmpty() || !skippedDependencies.isEmpty()) {
-      final String message =
-          getPomDependenciesUpdateMessage(addedDependencies, removedDependencies,
-              skippedDependencies);
-      fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
-          message, false);
-    }
+      if (!newDependencies.isEmpty() || !skippedDependencies.isEmpty()) {
+        final String message =
+            getPomDependenciesUpdateMessage(addedDependencies, removedDependencies,
+                skippedDependencies);
+        session.addChange(message, false);
+      }
 
-    return finalDependencies;
+      return finalDependencies;
+    } finally {
+      session.close();
+    }
   }
 
   /**
@@ -312,25 +327,30 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
       return;
     }
 
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element root = document.getDocumentElement();
-    final String descriptionOfChange;
-    final Element buildElement = XmlUtils.findFirstElement("/project/build", root);
-    final Element existingFilter =
-        XmlUtils.findFirstElement("filters/filter['" + filter.getValue() + "']", buildElement);
-    if (existingFilter == null) {
-      // No such filter; add it
-      final Element filtersElement =
-          DomUtils.createChildIfNotExists("filters", buildElement, document);
-      filtersElement.appendChild(XmlUtils.createTextElement(document, "filter", filter.getValue()));
-      descriptionOfChange = highlight(ADDED + " filter") + " '" + filter.getValue() + "'";
-    } else {
-      existingFilter.setTextContent(filter.getValue());
-      descriptionOfChange = highlight(UPDATED + " filter") + " '" + filter.getValue() + "'";
-    }
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element root = document.getDocumentElement();
+      final String descriptionOfChange;
+      final Element buildElement = XmlUtils.findFirstElement("/project/build", root);
+      final Element existingFilter =
+          XmlUtils.findFirstElement("filters/filter['" + filter.getValue() + "']", buildElement);
+      if (existingFilter == null) {
+        // No such filter; add it
+        final Element filtersElement =
+            DomUtils.createChildIfNotExists("filters", buildElement, document);
+        filtersElement.appendChild(XmlUtils.createTextElement(document, "filter",
+            filter.getValue()));
+        descriptionOfChange = highlight(ADDED + " filter") + " '" + filter.getValue() + "'";
+      } else {
+        existingFilter.setTextContent(filter.getValue());
+        descriptionOfChange = highlight(UPDATED + " filter") + " '" + filter.getValue() + "'";
+      }
 
-    fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
-        descriptionOfChange, false);
+      session.addChange(descriptionOfChange, false);
+    } finally {
+      session.close();
+    }
   }
 
 
@@ -343,49 +363,53 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
 
     String descriptionOfChange;
     final Pom pom = getPomFromModuleName(moduleName);
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element root = document.getDocumentElement();
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element root = document.getDocumentElement();
 
 
-    // Find plugin
-    final Element pluginsElement =
-        DomUtils.createChildIfNotExists("/project/build/plugins", root, document);
-    final List<Element> existingPluginElements = XmlUtils.findElements("plugin", pluginsElement);
+      // Find plugin
+      final Element pluginsElement =
+          DomUtils.createChildIfNotExists("/project/build/plugins", root, document);
+      final List<Element> existingPluginElements = XmlUtils.findElements("plugin", pluginsElement);
 
 
-    for (final Element existingPluginElement : existingPluginElements) {
-      final Plugin existingPlugin = new Plugin(existingPluginElement);
+      for (final Element existingPluginElement : existingPluginElements) {
+        final Plugin existingPlugin = new Plugin(existingPluginElement);
 
-      if (existingPlugin.hasSameCoordinates(plugin)) {
+        if (existingPlugin.hasSameCoordinates(plugin)) {
 
-        for (final Execution execution : existingPlugin.getExecutions()) {
-          if (executionId.equals(execution.getId()) && execution.getConfiguration() != null) {
+          for (final Execution execution : existingPlugin.getExecutions()) {
+            if (executionId.equals(execution.getId()) && execution.getConfiguration() != null) {
 
-            // Check if package is already added
-            final Element packagesElement =
-                DomUtils.createChildIfNotExists("packages", execution.getConfiguration()
-                    .getConfiguration(), document);
+              // Check if package is already added
+              final Element packagesElement =
+                  DomUtils.createChildIfNotExists("packages", execution.getConfiguration()
+                      .getConfiguration(), document);
 
-            final List<Element> existingPackages =
-                XmlUtils.findElements("package", packagesElement);
+              final List<Element> existingPackages =
+                  XmlUtils.findElements("package", packagesElement);
 
-            for (Element existingPackage : existingPackages) {
-              final String pack = DomUtils.getTextContent(existingPackage, "");
-              if (pack.equals(packageName)) {
-                return;
+              for (Element existingPackage : existingPackages) {
+                final String pack = DomUtils.getTextContent(existingPackage, "");
+                if (pack.equals(packageName)) {
+                  return;
+                }
               }
-            }
 
-            // No such package; add it
-            packagesElement.appendChild(XmlUtils
-                .createTextElement(document, "package", packageName));
-            descriptionOfChange = highlight(ADDED + " package") + " '" + packageName + "'";
+              // No such package; add it
+              packagesElement.appendChild(XmlUtils
+                  .createTextElement(document, "package", packageName));
+              descriptionOfChange = highlight(ADDED + " package") + " '" + packageName + "'";
 
-            fileManager.createOrUpdateTextFileIfRequired(pom.getPath(),
-                XmlUtils.nodeToString(document), descriptionOfChange, false);
+              session.addChange(descriptionOfChange, false);
+            }
           }
         }
       }
+    } finally {
+      session.close();
     }
   }
 
@@ -443,30 +467,34 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
       return;
     }
 
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element root = document.getDocumentElement();
-    final String descriptionOfChange;
-    final Element existing =
-        XmlUtils.findFirstElement("/project/properties/" + property.getName(), root);
-    if (existing == null) {
-      // No existing property of this name; add it
-      final Element properties =
-          DomUtils.createChildIfNotExists("properties", document.getDocumentElement(), document);
-      properties.appendChild(XmlUtils.createTextElement(document, property.getName(),
-          property.getValue()));
-      descriptionOfChange =
-          highlight(ADDED + " property") + " '" + property.getName() + "' = '"
-              + property.getValue() + "'";
-    } else {
-      // A property of this name exists; update it
-      existing.setTextContent(property.getValue());
-      descriptionOfChange =
-          highlight(UPDATED + " property") + " '" + property.getName() + "' to '"
-              + property.getValue() + "'";
-    }
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element root = document.getDocumentElement();
+      final String descriptionOfChange;
+      final Element existing =
+          XmlUtils.findFirstElement("/project/properties/" + property.getName(), root);
+      if (existing == null) {
+        // No existing property of this name; add it
+        final Element properties =
+            DomUtils.createChildIfNotExists("properties", document.getDocumentElement(), document);
+        properties.appendChild(XmlUtils.createTextElement(document, property.getName(),
+            property.getValue()));
+        descriptionOfChange =
+            highlight(ADDED + " property") + " '" + property.getName() + "' = '"
+                + property.getValue() + "'";
+      } else {
+        // A property of this name exists; update it
+        existing.setTextContent(property.getValue());
+        descriptionOfChange =
+            highlight(UPDATED + " property") + " '" + property.getName() + "' to '"
+                + property.getValue() + "'";
+      }
 
-    fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
-        descriptionOfChange, false);
+      session.addChange(descriptionOfChange, false);
+    } finally {
+      session.close();
+    }
   }
 
   public void addRepositories(final String moduleName,
@@ -486,47 +514,51 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
     }
     final Pom pom = getPomFromModuleName(moduleName);
     Validate.notNull(pom, "The pom is not available, so repository addition cannot be performed");
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element repositoriesElement =
-        DomUtils.createChildIfNotExists(containingPath, document.getDocumentElement(), document);
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element repositoriesElement =
+          DomUtils.createChildIfNotExists(containingPath, document.getDocumentElement(), document);
 
-    if ("pluginRepository".equals(path)) {
-      if (pom.isAllPluginRepositoriesRegistered(repositories)) {
+      if ("pluginRepository".equals(path)) {
+        if (pom.isAllPluginRepositoriesRegistered(repositories)) {
+          return;
+        }
+      } else if (pom.isAllRepositoriesRegistered(repositories)) {
         return;
       }
-    } else if (pom.isAllRepositoriesRegistered(repositories)) {
-      return;
-    }
 
-    final List<Repository> existingRepositories = new ArrayList<Repository>();
-    for (Element exisitingRepElement : XmlUtils.findElements(path, repositoriesElement)) {
-      existingRepositories.add(new Repository(exisitingRepElement));
-    }
+      final List<Repository> existingRepositories = new ArrayList<Repository>();
+      for (Element exisitingRepElement : XmlUtils.findElements(path, repositoriesElement)) {
+        existingRepositories.add(new Repository(exisitingRepElement));
+      }
 
-    final List<String> addedRepositories = new ArrayList<String>();
-    for (final Repository repository : repositories) {
-      if ("pluginRepository".equals(path)) {
-        if (pom.isPluginRepositoryRegistered(repository)) {
-          continue;
-        } else if (existingRepositories.contains(repository)) {
-          continue;
+      final List<String> addedRepositories = new ArrayList<String>();
+      for (final Repository repository : repositories) {
+        if ("pluginRepository".equals(path)) {
+          if (pom.isPluginRepositoryRegistered(repository)) {
+            continue;
+          } else if (existingRepositories.contains(repository)) {
+            continue;
+          }
+        } else {
+          if (pom.isRepositoryRegistered(repository)) {
+            continue;
+          } else if (existingRepositories.contains(repository)) {
+            continue;
+          }
         }
-      } else {
-        if (pom.isRepositoryRegistered(repository)) {
-          continue;
-        } else if (existingRepositories.contains(repository)) {
-          continue;
+        if (repository != null) {
+          repositoriesElement.appendChild(repository.getElement(document, path));
+          addedRepositories.add(repository.getUrl());
         }
       }
-      if (repository != null) {
-        repositoriesElement.appendChild(repository.getElement(document, path));
-        addedRepositories.add(repository.getUrl());
-      }
-    }
-    final String message = getDescriptionOfChange(ADDED, addedRepositories, path, containingPath);
+      final String message = getDescriptionOfChange(ADDED, addedRepositories, path, containingPath);
 
-    fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
-        message, false);
+      session.addChange(message, false);
+    } finally {
+      session.close();
+    }
   }
 
   public void addRepository(final String moduleName, final Repository repository) {
@@ -551,17 +583,46 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
       return;
     }
 
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element buildElement =
-        XmlUtils.findFirstElement("/project/build", document.getDocumentElement());
-    final Element resourcesElement =
-        DomUtils.createChildIfNotExists("resources", buildElement, document);
-    resourcesElement.appendChild(resource.getElement(document));
-    final String descriptionOfChange =
-        highlight(ADDED + " resource") + " " + resource.getSimpleDescription();
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element buildElement =
+          XmlUtils.findFirstElement("/project/build", document.getDocumentElement());
+      final Element resourcesElement =
+          DomUtils.createChildIfNotExists("resources", buildElement, document);
+      resourcesElement.appendChild(resource.getElement(document));
+      final String descriptionOfChange =
+          highlight(ADDED + " resource") + " " + resource.getSimpleDescription();
+
+      session.addChange(descriptionOfChange, false);
+    } finally {
+      session.close();
+    }
+  }
 
-    fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
-        descriptionOfChange, false);
+  public PomEditSession beginPomEdit(final String moduleName) {
+    Validate.isTrue(isProjectAvailable(moduleName), "POM modification prohibited at this time");
+    final Pom pom = getPomFromModuleName(moduleName);
+    Validate.notNull(pom, "The pom is not available, so it cannot be edited");
+    return beginPomEdit(pom);
+  }
+
+  /**
+   * Opens an edit session for the given POM, or re-opens the one that's
+   * already open for it
+   * 
+   * @param pom the POM to edit (required)
+   * @return a session to be closed by the caller
+   */
+  private PomEditSession beginPomEdit(final Pom pom) {
+    PomEditSession session = pomEditSessions.get(pom.getPath());
+    if (session == null) {
+      session = new PomEditSession(this, fileManager, pomFactory, pom);
+      pomEditSessions.put(pom.getPath(), session);
+    } else {
+      session.reopen();
+    }
+    return session;
   }
 
   protected void bindFeature(final Feature feature) {
@@ -601,11 +662,7 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
   }
 
   public Pom getFocusedModule() {
-    final ProjectMetadata focusedProjectMetadata = getFocusedProjectMetadata();
-    if (focusedProjectMetadata == null) {
-      return null;
-    }
-    return focusedProjectMetadata.getPom();
+    return getPomFromModuleName(getFocusedModuleName());
   }
 
   public String getFocusedModuleName() {
@@ -638,7 +695,13 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
 
   public final Pom getPomFromModuleName(final String moduleName) {
     final ProjectMetadata projectMetadata = getProjectMetadata(moduleName);
-    return projectMetadata == null ? null : projectMetadata.getPom();
+    if (projectMetadata == null) {
+      return null;
+    }
+    // Reflect the edits made so far by any open session
+    final Pom pom = projectMetadata.getPom();
+    final PomEditSession session = pom == null ? null : pomEditSessions.get(pom.getPath());
+    return session == null ? pom : session.getEditedPom();
   }
 
   public Collection<Pom> getPoms() {
@@ -738,6 +801,15 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
     return getProjectMetadata(moduleName) != null;
   }
 
+  /**
+   * Called by the given session once its outermost user has closed it
+   * 
+   * @param session the closed session (required)
+   */
+  void pomEditSessionClosed(final PomEditSession session) {
+    pomEditSessions.remove(session.getPom().getPath());
+  }
+
   public void removeBuildPlugin(final String moduleName, final Plugin plugin) {
     Validate.isTrue(isProjectAvailable(moduleName), "Plugin modification prohibited at this time");
     Validate.notNull(plugin, "Plugin required");
@@ -767,39 +839,43 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
       return;
     }
 
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element root = document.getDocumentElement();
-    final Element pluginsElement = XmlUtils.findFirstElement("/project/build/plugins", root);
-    if (pluginsElement == null) {
-      return;
-    }
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element root = document.getDocumentElement();
+      final Element pluginsElement = XmlUtils.findFirstElement("/project/build/plugins", root);
+      if (pluginsElement == null) {
+        return;
+      }
 
-    final List<String> removedPlugins = new ArrayList<String>();
-    for (final Plugin plugin : plugins) {
-      // Can't filter the XPath on groupId, as it's optional in the POM
-      // for Apache-owned plugins
-      for (final Element candidate : XmlUtils.findElements(
-          "plugin[artifactId = '" + plugin.getArtifactId() + "' and version = '"
-              + plugin.getVersion() + "']", pluginsElement)) {
-        final Plugin candidatePlugin = new Plugin(candidate);
-        if (candidatePlugin.getGroupId().equals(plugin.getGroupId())) {
-          // This element has the same groupId, artifactId, and
-          // version as the plugin to be removed; remove it
-          pluginsElement.removeChild(candidate);
-          removedPlugins.add(candidatePlugin.getSimpleDescription());
-          // Keep looping in case this plugin is in the POM more than
-          // once (unlikely)
+      final List<String> removedPlugins = new ArrayList<String>();
+      for (final Plugin plugin : plugins) {
+        // Can't filter the XPath on groupId, as it's optional in the POM
+        // for Apache-owned plugins
+        for (final Element candidate : XmlUtils.findElements(
+            "plugin[artifactId = '" + plugin.getArtifactId() + "' and version = '"
+                + plugin.getVersion() + "']", pluginsElement)) {
+          final Plugin candidatePlugin = new Plugin(candidate);
+          if (candidatePlugin.getGroupId().equals(plugin.getGroupId())) {
+            // This element has the same groupId, artifactId, and
+            // version as the plugin to be removed; remove it
+            pluginsElement.removeChild(candidate);
+            removedPlugins.add(candidatePlugin.getSimpleDescription());
+            // Keep looping in case this plugin is in the POM more than
+            // once (unlikely)
+          }
         }
       }
-    }
-    if (removedPlugins.isEmpty()) {
-      return;
-    }
-    DomUtils.removeTextNodes(pluginsElement);
-    final String message = getDescriptionOfChange(REMOVED, removedPlugins, "plugin", "plugins");
+      if (removedPlugins.isEmpty()) {
+        return;
+      }
+      DomUtils.removeTextNodes(pluginsElement);
+      final String message = getDescriptionOfChange(REMOVED, removedPlugins, "plugin", "plugins");
 
-    fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
-        message, writeImmediately);
+      session.addChange(message, writeImmediately);
+    } finally {
+      session.close();
+    }
   }
 
   public void removeDependencies(final String moduleName,
@@ -816,42 +892,47 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
       return;
     }
 
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element root = document.getDocumentElement();
-    final Element dependenciesElement = XmlUtils.findFirstElement("/project/dependencies", root);
-    if (dependenciesElement == null) {
-      return;
-    }
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element root = document.getDocumentElement();
+      final Element dependenciesElement = XmlUtils.findFirstElement("/project/dependencies", root);
+      if (dependenciesElement == null) {
+        return;
+      }
 
-    final List<Element> existingDependencyElements =
-        XmlUtils.findElements("dependency", dependenciesElement);
-    final List<String> removedDependencies = new ArrayList<String>();
-    for (final Dependency dependencyToRemove : dependenciesToRemove) {
-      if (pom.isDependencyRegistered(dependencyToRemove, false)) {
-        for (final Iterator<Element> iter = existingDependencyElements.iterator(); iter.hasNext();) {
-          final Element candidate = iter.next();
-          final Dependency candidateDependency = new Dependency(candidate);
-          if (candidateDependency.equals(dependencyToRemove)) {
-            // It's the same dependency; remove it
-            dependenciesElement.removeChild(candidate);
-            // Ensure we don't try to remove it again for another
-            // Dependency
-            iter.remove();
-            removedDependencies.add(candidateDependency.getSimpleDescription());
+      final List<Element> existingDependencyElements =
+          XmlUtils.findElements("dependency", dependenciesElement);
+      final List<String> removedDependencies = new ArrayList<String>();
+      for (final Dependency dependencyToRemove : dependenciesToRemove) {
+        if (pom.isDependencyRegistered(dependencyToRemove, false)) {
+          for (final Iterator<Element> iter = existingDependencyElements.iterator(); iter
+              .hasNext();) {
+            final Element candidate = iter.next();
+            final Dependency candidateDependency = new Dependency(candidate);
+            if (candidateDependency.equals(dependencyToRemove)) {
+              // It's the same dependency; remove it
+              dependenciesElement.removeChild(candidate);
+              // Ensure we don't try to remove it again for another
+              // Dependency
+              iter.remove();
+              removedDependencies.add(candidateDependency.getSimpleDescription());
+            }
+            // Keep looping in case it's in the POM more than once
           }
-          // Keep looping in case it's in the POM more than once
         }
       }
-    }
-    if (removedDependencies.isEmpty()) {
-      return;
-    }
-    DomUtils.removeTextNodes(dependenciesElement);
-    final String message =
-        getDescriptionOfChange(REMOVED, removedDependencies, "dependency", "dependencies");
+      if (removedDependencies.isEmpty()) {
+        return;
+      }
+      DomUtils.removeTextNodes(dependenciesElement);
+      final String message =
+          getDescriptionOfChange(REMOVED, removedDependencies, "dependency", "dependencies");
 
-    fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
-        message, false);
+      session.addChange(message, false);
+    } finally {
+      session.close();
+    }
   }
 
   public void removeDependency(final String moduleName, final Dependency dependency) {
@@ -879,25 +960,29 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
       return;
     }
 
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element root = document.getDocumentElement();
-
-    String descriptionOfChange = "";
-    final Element dependenciesElement = XmlUtils.findFirstElement(containingPath, root);
-    for (final Element candidate : XmlUtils.findElements(path, root)) {
-      if (dependency.equals(new Dependency(candidate))) {
-        dependenciesElement.removeChild(candidate);
-        descriptionOfChange =
-            highlight(REMOVED + " dependency") + " " + dependency.getSimpleDescription();
-        // Stay in the loop, just in case it was in the POM more than
-        // once
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element root = document.getDocumentElement();
+
+      String descriptionOfChange = "";
+      final Element dependenciesElement = XmlUtils.findFirstElement(containingPath, root);
+      for (final Element candidate : XmlUtils.findElements(path, root)) {
+        if (dependency.equals(new Dependency(candidate))) {
+          dependenciesElement.removeChild(candidate);
+          descriptionOfChange =
+              highlight(REMOVED + " dependency") + " " + dependency.getSimpleDescription();
+          // Stay in the loop, just in case it was in the POM more than
+          // once
+        }
       }
-    }
 
-    DomUtils.removeTextNodes(dependenciesElement);
+      DomUtils.removeTextNodes(dependenciesElement);
 
-    fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
-        descriptionOfChange, false);
+      session.addChange(descriptionOfChange, false);
+    } finally {
+      session.close();
+    }
   }
 
   public final void removeDependency(final String moduleName, final String groupId,
@@ -926,33 +1011,37 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
       return;
     }
 
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element root = document.getDocumentElement();
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element root = document.getDocumentElement();
 
-    final Element filtersElement = XmlUtils.findFirstElement("/project/build/filters", root);
-    if (filtersElement == null) {
-      return;
-    }
+      final Element filtersElement = XmlUtils.findFirstElement("/project/build/filters", root);
+      if (filtersElement == null) {
+        return;
+      }
 
-    String descriptionOfChange = "";
-    for (final Element candidate : XmlUtils.findElements("filter", filtersElement)) {
-      if (filter.equals(new Filter(candidate))) {
-        filtersElement.removeChild(candidate);
-        descriptionOfChange = highlight(REMOVED + " filter") + " '" + filter.getValue() + "'";
-        // We will not break the loop (even though we could
-        // theoretically), just in case it was in the POM more than once
+      String descriptionOfChange = "";
+      for (final Element candidate : XmlUtils.findElements("filter", filtersElement)) {
+        if (filter.equals(new Filter(candidate))) {
+          filtersElement.removeChild(candidate);
+          descriptionOfChange = highlight(REMOVED + " filter") + " '" + filter.getValue() + "'";
+          // We will not break the loop (even though we could
+          // theoretically), just in case it was in the POM more than once
+        }
       }
-    }
 
-    final List<Element> filterElements = XmlUtils.findElements("filter", filtersElement);
-    if (filterElements.isEmpty()) {
-      filtersElement.getParentNode().removeChild(filtersElement);
-    }
+      final List<Element> filterElements = XmlUtils.findElements("filter", filtersElement);
+      if (filterElements.isEmpty()) {
+        filtersElement.getParentNode().removeChild(filtersElement);
+      }
 
-    DomUtils.removeTextNodes(root);
+      DomUtils.removeTextNodes(root);
 
-    fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
-        descriptionOfChange, false);
+      session.addChange(descriptionOfChange, false);
+    } finally {
+      session.close();
+    }
   }
 
   public void removePluginRepository(final String moduleName, final Repository repository) {
@@ -972,24 +1061,28 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
       return;
     }
 
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element root = document.getDocumentElement();
-    final Element propertiesElement = XmlUtils.findFirstElement("/project/properties", root);
-    String descriptionOfChange = "";
-    for (final Element candidate : XmlUtils.findElements("/project/properties/*",
-        document.getDocumentElement())) {
-      if (property.equals(new Property(candidate))) {
-        propertiesElement.removeChild(candidate);
-        descriptionOfChange = highlight(REMOVED + " property") + " " + property.getName();
-        // Stay in the loop just in case it was in the POM more than
-        // once
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element root = document.getDocumentElement();
+      final Element propertiesElement = XmlUtils.findFirstElement("/project/properties", root);
+      String descriptionOfChange = "";
+      for (final Element candidate : XmlUtils.findElements("/project/properties/*",
+          document.getDocumentElement())) {
+        if (property.equals(new Property(candidate))) {
+          propertiesElement.removeChild(candidate);
+          descriptionOfChange = highlight(REMOVED + " property") + " " + property.getName();
+          // Stay in the loop just in case it was in the POM more than
+          // once
+        }
       }
-    }
 
-    DomUtils.removeTextNodes(propertiesElement);
+      DomUtils.removeTextNodes(propertiesElement);
 
-    fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
-        descriptionOfChange, false);
+      session.addChange(descriptionOfChange, false);
+    } finally {
+      session.close();
+    }
   }
 
   public void removeRepository(final String moduleName, final Repository repository) {
@@ -1013,21 +1106,25 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
       }
     }
 
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element root = document.getDocumentElement();
-
-    String descriptionOfChange = "";
-    for (final Element candidate : XmlUtils.findElements(path, root)) {
-      if (repository.equals(new Repository(candidate))) {
-        candidate.getParentNode().removeChild(candidate);
-        descriptionOfChange = highlight(REMOVED + " repository") + " " + repository.getUrl();
-        // We stay in the loop just in case it was in the POM more than
-        // once
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element root = document.getDocumentElement();
+
+      String descriptionOfChange = "";
+      for (final Element candidate : XmlUtils.findElements(path, root)) {
+        if (repository.equals(new Repository(candidate))) {
+          candidate.getParentNode().removeChild(candidate);
+          descriptionOfChange = highlight(REMOVED + " repository") + " " + repository.getUrl();
+          // We stay in the loop just in case it was in the POM more than
+          // once
+        }
       }
-    }
 
-    fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
-        descriptionOfChange, false);
+      session.addChange(descriptionOfChange, false);
+    } finally {
+      session.close();
+    }
   }
 
   public void removeResource(final String moduleName, final Resource resource) {
@@ -1040,33 +1137,37 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
       return;
     }
 
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element root = document.getDocumentElement();
-    final Element resourcesElement = XmlUtils.findFirstElement("/project/build/resources", root);
-    if (resourcesElement == null) {
-      return;
-    }
-    String descriptionOfChange = "";
-    for (final Element candidate : XmlUtils.findElements(
-        "resource[directory = '" + resource.getDirectory() + "']", resourcesElement)) {
-      if (resource.equals(new Resource(candidate))) {
-        resourcesElement.removeChild(candidate);
-        descriptionOfChange =
-            highlight(REMOVED + " resource") + " " + resource.getSimpleDescription();
-        // Stay in the loop just in case it was in the POM more than
-        // once
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element root = document.getDocumentElement();
+      final Element resourcesElement = XmlUtils.findFirstElement("/project/build/resources", root);
+      if (resourcesElement == null) {
+        return;
+      }
+      String descriptionOfChange = "";
+      for (final Element candidate : XmlUtils.findElements(
+          "resource[directory = '" + resource.getDirectory() + "']", resourcesElement)) {
+        if (resource.equals(new Resource(candidate))) {
+          resourcesElement.removeChild(candidate);
+          descriptionOfChange =
+              highlight(REMOVED + " resource") + " " + resource.getSimpleDescription();
+          // Stay in the loop just in case it was in the POM more than
+          // once
+        }
       }
-    }
 
-    final List<Element> resourceElements = XmlUtils.findElements("resource", resourcesElement);
-    if (resourceElements.isEmpty()) {
-      resourcesElement.getParentNode().removeChild(resourcesElement);
-    }
+      final List<Element> resourceElements = XmlUtils.findElements("resource", resourcesElement);
+      if (resourceElements.isEmpty()) {
+        resourcesElement.getParentNode().removeChild(resourcesElement);
+      }
 
-    DomUtils.removeTextNodes(root);
+      DomUtils.removeTextNodes(root);
 
-    fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
-        descriptionOfChange, false);
+      session.addChange(descriptionOfChange, false);
+    } finally {
+      session.close();
+    }
   }
 
   public void setModule(final Pom module) {
@@ -1093,11 +1194,16 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
       }
     }
 
-    // Delete any existing plugin with a different version
-    removeBuildPlugin(moduleName, plugin);
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      // Delete any existing plugin with a different version
+      removeBuildPlugin(moduleName, plugin);
 
-    // Add the plugin
-    addBuildPlugin(moduleName, plugin);
+      // Add the plugin
+      addBuildPlugin(moduleName, plugin);
+    } finally {
+      session.close();
+    }
   }
 
   public void updateDependencyScope(final String moduleName, final Dependency dependency,
@@ -1111,45 +1217,50 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
       return;
     }
 
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element root = document.getDocumentElement();
-    final Element dependencyElement =
-        XmlUtils.findFirstElement(
-            "/project/dependencies/dependency[groupId = '" + dependency.getGroupId()
-                + "' and artifactId = '" + dependency.getArtifactId() + "' and version = '"
-                + dependency.getVersion() + "']", root);
-    if (dependencyElement == null) {
-      return;
-    }
-
-    final Element scopeElement = XmlUtils.findFirstElement("scope", dependencyElement);
-    final String descriptionOfChange;
-    if (scopeElement == null) {
-      if (dependencyScope != null) {
-        dependencyElement.appendChild(new XmlElementBuilder("scope", document).setText(
-            dependencyScope.name().toLowerCase()).build());
-        descriptionOfChange =
-            highlight(ADDED + " scope") + " " + dependencyScope.name().toLowerCase()
-                + " to dependency " + dependency.getSimpleDescription();
-      } else {
-        descriptionOfChange = null;
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element root = document.getDocumentElement();
+      final Element dependencyElement =
+          XmlUtils.findFirstElement(
+              "/project/dependencies/dependency[groupId = '" + dependency.getGroupId()
+                  + "' and artifactId = '" + dependency.getArtifactId() + "' and version = '"
+                  + dependency.getVersion() + "']", root);
+      if (dependencyElement == null) {
+        return;
       }
-    } else {
-      if (dependencyScope != null) {
-        scopeElement.setTextContent(dependencyScope.name().toLowerCase());
-        descriptionOfChange =
-            highlight(CHANGED + " scope") + " to " + dependencyScope.name().toLowerCase()
-                + " in dependency " + dependency.getSimpleDescription();
+
+      final Element scopeElement = XmlUtils.findFirstElement("scope", dependencyElement);
+      final String descriptionOfChange;
+      if (scopeElement == null) {
+        if (dependencyScope != null) {
+          dependencyElement.appendChild(new XmlElementBuilder("scope", document).setText(
+              dependencyScope.name().toLowerCase()).build());
+          descriptionOfChange =
+              highlight(ADDED + " scope") + " " + dependencyScope.name().toLowerCase()
+                  + " to dependency " + dependency.getSimpleDescription();
+        } else {
+          descriptionOfChange = null;
+        }
       } else {
-        dependencyElement.removeChild(scopeElement);
-        descriptionOfChange =
-            highlight(REMOVED + " scope") + " from dependency " + dependency.getSimpleDescription();
+        if (dependencyScope != null) {
+          scopeElement.setTextContent(dependencyScope.name().toLowerCase());
+          descriptionOfChange =
+              highlight(CHANGED + " scope") + " to " + dependencyScope.name().toLowerCase()
+                  + " in dependency " + dependency.getSimpleDescription();
+        } else {
+          dependencyElement.removeChild(scopeElement);
+          descriptionOfChange =
+              highlight(REMOVED + " scope") + " from dependency "
+                  + dependency.getSimpleDescription();
+        }
       }
-    }
 
-    if (descriptionOfChange != null) {
-      fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
-          descriptionOfChange, false);
+      if (descriptionOfChange != null) {
+        session.addChange(descriptionOfChange, false);
+      }
+    } finally {
+      session.close();
     }
   }
 
@@ -1158,18 +1269,22 @@ public abstract class AbstractProjectOperations implements ProjectOperations {
     final Pom pom = getPomFromModuleName(moduleName);
     Validate.notNull(pom, "The pom is not available, so the project type cannot be changed");
 
-    final Document document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
-    final Element packaging =
-        DomUtils.createChildIfNotExists("packaging", document.getDocumentElement(), document);
-    if (packaging.getTextContent().equals(projectType.getType())) {
-      return;
-    }
+    final PomEditSession session = beginPomEdit(pom);
+    try {
+      final Document document = session.getDocument();
+      final Element packaging =
+          DomUtils.createChildIfNotExists("packaging", document.getDocumentElement(), document);
+      if (packaging.getTextContent().equals(projectType.getType())) {
+        return;
+      }
 
-    packaging.setTextContent(projectType.getType());
-    final String descriptionOfChange =
-        highlight(UPDATED + " project type") + " to " + projectType.getType();
+      packaging.setTextContent(projectType.getType());
+      final String descriptionOfChange =
+          highlight(UPDATED + " project type") + " to " + projectType.getType();
 
-    fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
-        descriptionOfChange, false);
+      session.addChange(descriptionOfChange, false);
+    } finally {
+      session.close();
+    }
   }
 }
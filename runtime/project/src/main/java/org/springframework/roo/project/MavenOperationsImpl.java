@@ -205,14 +205,20 @@ public class MavenOperationsImpl extends AbstractProjectOperations implements Ma
           "${project.version}");
       getProjectOperations().addDependency("service-api", pom.getGroupId(), "model",
           "${project.version}");
-      getProjectOperations().addDependency("service-impl", pom.getGroupId(), "repository",
-          "${project.version}");
-      getProjectOperations().addDependency("service-impl", pom.getGroupId(), "service.api",
-          "${project.version}");
-      getProjectOperations().addDependency("service-impl", pom.getGroupId(), "model",
-          "${project.version}");
-      getProjectOperations().addDependency("service-impl", pom.getGroupId(), "integration",
-          "${project.version}");
+      final PomEditSession serviceImplSession =
+          getProjectOperations().beginPomEdit("service-impl");
+      try {
+        getProjectOperations().addDependency("service-impl", pom.getGroupId(), "repository",
+            "${project.version}");
+        getProjectOperations().addDependency("service-impl", pom.getGroupId(), "service.api",
+            "${project.version}");
+        getProjectOperations().addDependency("service-impl", pom.getGroupId(), "model",
+            "${project.version}");
+        getProjectOperations().addDependency("service-impl", pom.getGroupId(), "integration",
+            "${project.version}");
+      } finally {
+        serviceImplSession.close();
+      }
     }
 
     // In all cases, multimodule architectures have an application module where Spring Boot artifacts are created 
@@ -230,14 +236,20 @@ public class MavenOperationsImpl extends AbstractProjectOperations implements Ma
     // Also, if STANDARD multimodule project has been selected, is necessary to include dependencies between
     // application module and the generated modules above
     if (multimodule == Multimodule.STANDARD) {
-      getProjectOperations().addDependency("application", pom.getGroupId(), "service.impl",
-          "${project.version}");
-      getProjectOperations().addDependency("application", pom.getGroupId(), "service.api",
-          "${project.version}");
-      getProjectOperations().addDependency("application", pom.getGroupId(), "repository",
-          "${project.version}");
-      getProjectOperations().addDependency("application", pom.getGroupId(), "model",
-          "${project.version}");
+      final PomEditSession applicationSession =
+          getProjectOperations().beginPomEdit("application");
+      try {
+        getProjectOperations().addDependency("application", pom.getGroupId(), "service.impl",
+            "${project.version}");
+        getProjectOperations().addDependency("application", pom.getGroupId(), "service.api",
+            "${project.version}");
+        getProjectOperations().addDependency("application", pom.getGroupId(), "repository",
+            "${project.version}");
+        getProjectOperations().addDependency("application", pom.getGroupId(), "model",
+            "${project.version}");
+      } finally {
+        applicationSession.close();
+      }
     }
 
   }
@@ -253,14 +265,20 @@ public class MavenOperationsImpl extends AbstractProjectOperations implements Ma
     for (final Element dependencyElement : dependencies) {
       requiredDependencies.add(new Dependency(dependencyElement));
     }
-    getProjectOperations().addDependencies(moduleName, requiredDependencies);
 
+    // Write the dependencies and plugins to the POM in one go
+    final PomEditSession session = getProjectOperations().beginPomEdit(moduleName);
+    try {
+      getProjectOperations().addDependencies(moduleName, requiredDependencies);
 
-    // Add Plugins
-    List<Element> plugins = XmlUtils.findElements("/configuration/plugins/plugin", configuration);
-    for (Element element : plugins) {
-      Plugin plugin = new Plugin(element);
-      getProjectOperations().addBuildPlugin(moduleName, plugin);
+      // Add Plugins
+      List<Element> plugins = XmlUtils.findElements("/configuration/plugins/plugin", configuration);
+      for (Element element : plugins) {
+        Plugin plugin = new Plugin(element);
+        getProjectOperations().addBuildPlugin(moduleName, plugin);
+      }
+    } finally {
+      session.close();
     }
 
   }
@@ -0,0 +1,151 @@
+package org.springframework.roo.project;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.springframework.roo.process.manager.FileManager;
+import org.springframework.roo.project.maven.Pom;
+import org.springframework.roo.project.maven.PomFactory;
+import org.springframework.roo.support.util.XmlUtils;
+import org.w3c.dom.Document;
+
+/**
+ * A series of edits to one module's POM that are applied to a single DOM and
+ * written out once, when the session is closed. This saves re-reading and
+ * re-writing the POM (and re-parsing it after each write) for every
+ * dependency, plugin, property etc. that is added or removed.
+ * <p>
+ * Sessions are opened by {@link ProjectOperations#beginPomEdit(String)};
+ * while one is open, the {@link ProjectOperations} methods that modify that
+ * module's POM edit the session's DOM instead of the file. Each call to
+ * <code>beginPomEdit</code> must be matched by a call to {@link #close()},
+ * typically in a <code>finally</code> block. Sessions may be nested, in which
+ * case the POM is written when the outermost one is closed.
+ * <p>
+ * While the session is open, {@link ProjectOperations#getPomFromModuleName}
+ * returns the module's {@link Pom} as edited so far, so that checks made
+ * during the session (e.g. whether a dependency is registered) see its
+ * earlier edits. The module's {@link ProjectMetadata} isn't updated until the
+ * session has been closed.
+ *
+ * @since 2.0
+ */
+public class PomEditSession {
+
+  private final List<String> descriptionsOfChange = new ArrayList<String>();
+  private final Document document;
+  private Pom editedPom;
+  private final FileManager fileManager;
+  private boolean modified;
+  private int openCount = 1;
+  private final AbstractProjectOperations projectOperations;
+  private final Pom pom;
+  private final PomFactory pomFactory;
+  private boolean writeImmediately;
+
+  /**
+   * Constructor that reads the given POM
+   *
+   * @param projectOperations the operations that opened this session
+   *            (required)
+   * @param fileManager the file manager to read and write the POM with
+   *            (required)
+   * @param pomFactory the factory to re-read the edited POM with; can be
+   *            <code>null</code>, in which case reads during the session see
+   *            the POM as it was when the session was opened
+   * @param pom the POM to edit (required)
+   */
+  PomEditSession(final AbstractProjectOperations projectOperations,
+      final FileManager fileManager, final PomFactory pomFactory, final Pom pom) {
+    Validate.notNull(projectOperations, "Project operations required");
+    Validate.notNull(fileManager, "File manager required");
+    Validate.notNull(pom, "POM required");
+    this.fileManager = fileManager;
+    this.pom = pom;
+    this.pomFactory = pomFactory;
+    this.projectOperations = projectOperations;
+    document = XmlUtils.readXml(fileManager.getInputStream(pom.getPath()));
+  }
+
+  /**
+   * Records a change made to this session's document
+   *
+   * @param descriptionOfChange a description of the change for the user (can
+   *            be blank)
+   * @param writeImmediately whether the change needs to be written to disk
+   *            as soon as the session is closed, as opposed to being
+   *            deferred until the end of the current operation
+   */
+  void addChange(final String descriptionOfChange, final boolean writeImmediately) {
+    if (StringUtils.isNotBlank(descriptionOfChange)) {
+      descriptionsOfChange.add(descriptionOfChange);
+    }
+    modified = true;
+    this.writeImmediately |= writeImmediately;
+    // Re-read on the next request
+    editedPom = null;
+  }
+
+  /**
+   * Closes this session. When this is the outermost session for its POM and
+   * any changes were made, the edited document is written out, along with a
+   * description of all those changes.
+   */
+  public void close() {
+    Validate.validState(openCount > 0, "This POM edit session has already been closed");
+    openCount--;
+    if (openCount > 0) {
+      return;
+    }
+    projectOperations.pomEditSessionClosed(this);
+    if (!modified) {
+      return;
+    }
+    fileManager.createOrUpdateTextFileIfRequired(pom.getPath(), XmlUtils.nodeToString(document),
+        StringUtils.join(descriptionsOfChange, "; "), writeImmediately);
+  }
+
+  /**
+   * Returns the DOM of the POM being edited
+   *
+   * @return a non-<code>null</code> document
+   */
+  public Document getDocument() {
+    return document;
+  }
+
+  /**
+   * Returns the POM being edited, including the changes recorded so far
+   *
+   * @return a non-<code>null</code> POM
+   */
+  Pom getEditedPom() {
+    if (!modified || pomFactory == null) {
+      return pom;
+    }
+    if (editedPom == null) {
+      editedPom =
+          pomFactory.getInstance(document.getDocumentElement(), pom.getPath(),
+              pom.getModuleName());
+    }
+    return editedPom;
+  }
+
+  /**
+   * Returns the POM being edited, as it was when the session was opened
+   *
+   * @return a non-<code>null</code> POM
+   */
+  public Pom getPom() {
+    return pom;
+  }
+
+  /**
+   * Re-opens this session for a nested edit
+   */
+  void reopen() {
+    openCount++;
+  }
+}
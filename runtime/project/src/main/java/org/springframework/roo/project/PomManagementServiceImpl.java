@@ -1,5 +1,6 @@
 package org.springframework.roo.project;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -13,9 +14,17 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
+import javax.xml.parsers.DocumentBuilderFactory;
+
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
@@ -31,12 +40,12 @@ import org.springframework.roo.metadata.MetadataService;
 import org.springframework.roo.process.manager.FileManager;
 import org.springframework.roo.project.maven.Pom;
 import org.springframework.roo.project.maven.PomFactory;
+import org.springframework.roo.shell.ProjectStateVersion;
 import org.springframework.roo.shell.Shell;
 import org.springframework.roo.support.logging.HandlerUtils;
 import org.springframework.roo.support.osgi.OSGiUtils;
 import org.springframework.roo.support.util.FileUtils;
 import org.springframework.roo.support.util.XmlUtils;
-import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
 @Component
@@ -80,7 +89,7 @@ public class PomManagementServiceImpl implements PomManagementService {
 
   private static final String SEPARATOR = File.separator;
   private static final String DEFAULT_POM_NAME = "pom.xml";
-  private static final String DEFAULT_RELATIVE_PATH = ".." + SEPARATOR + DEFAULT_POM_NAME;
+  private static final int MAX_PARSER_THREADS = 4;
 
   FileManager fileManager;
   FileMonitorService fileMonitorService;
@@ -90,7 +99,10 @@ public class PomManagementServiceImpl implements PomManagementService {
   Shell shell;
 
   private String focusedModulePath;
+  /** The contents each POM had when it was last parsed, keyed by its path */
+  private final Map<String, String> parsedPomContents = new HashMap<String, String>();
   private final Map<String, Pom> pomMap = new LinkedHashMap<String, Pom>();
+  private final Map<String, Pom> pomsByModuleName = new HashMap<String, Pom>();
   private String projectRootDirectory;
   private final Set<String> toBeParsed = new HashSet<String>();
 
@@ -101,6 +113,7 @@ public class PomManagementServiceImpl implements PomManagementService {
    */
   void addPom(final Pom pom) {
     pomMap.put(pom.getPath(), pom);
+    indexPomsByModuleName();
   }
 
   private void findUnparsedPoms() {
@@ -158,20 +171,12 @@ public class PomManagementServiceImpl implements PomManagementService {
   }
 
   public Collection<String> getModuleNames() {
-    final Set<String> moduleNames = new HashSet<String>();
-    for (final Pom module : pomMap.values()) {
-      moduleNames.add(module.getModuleName());
-    }
-    return moduleNames;
+    return new HashSet<String>(pomsByModuleName.keySet());
   }
 
   public Pom getPomFromModuleName(final String moduleName) {
-    for (final Pom pom : getPoms()) {
-      if (pom.getModuleName().equals(moduleName)) {
-        return pom;
-      }
-    }
-    return null;
+    updatePomCache();
+    return pomsByModuleName.get(moduleName);
   }
 
   public Pom getPomFromPath(final String pomPath) {
@@ -189,9 +194,54 @@ public class PomManagementServiceImpl implements PomManagementService {
     return pomMap.get(projectRootDirectory + SEPARATOR + DEFAULT_POM_NAME);
   }
 
+  /**
+   * Parses the given POM contents, in parallel if there are several of them.
+   * Each task uses its own document builder, as these aren't thread safe.
+   * 
+   * @param pomContents the contents of each POM to parse, keyed by its path
+   * @return the root element of each POM, keyed by its path
+   */
+  private Map<String, Element> parsePoms(final Map<String, String> pomContents) {
+    final Map<String, Element> rootElements = new LinkedHashMap<String, Element>();
+    if (pomContents.size() == 1) {
+      final Entry<String, String> pom = pomContents.entrySet().iterator().next();
+      rootElements.put(pom.getKey(), XmlUtils.stringToElement(pom.getValue()));
+      return rootElements;
+    }
+
+    final Map<String, Future<Element>> futures = new LinkedHashMap<String, Future<Element>>();
+    final int threads =
+        Math.max(1,
+            Math.min(MAX_PARSER_THREADS,
+                Math.min(pomContents.size(), Runtime.getRuntime().availableProcessors())));
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (final Entry<String, String> pom : pomContents.entrySet()) {
+        futures.put(pom.getKey(), executor.submit(new Callable<Element>() {
+          public Element call() throws Exception {
+            return DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(pom.getValue().getBytes())).getDocumentElement();
+          }
+        }));
+      }
+      for (final Entry<String, Future<Element>> future : futures.entrySet()) {
+        rootElements.put(future.getKey(), future.getValue().get());
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (final ExecutionException e) {
+      throw new IllegalStateException("Unable to parse POM", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    return rootElements;
+  }
+
   private Set<Pom> parseUnparsedPoms() {
-    final Map<String, String> pomModuleMap = new HashMap<String, String>();
-    final Set<Pom> newPoms = new HashSet<Pom>();
+    // Read the changed POMs, skipping any whose contents are what we last
+    // parsed, e.g. because they were only touched
+    final Map<String, String> changedPoms = new LinkedHashMap<String, String>();
     for (final Iterator<String> iter = toBeParsed.iterator(); iter.hasNext();) {
       final String pathToChangedPom = iter.next();
       if (new File(pathToChangedPom).exists()) {
@@ -202,103 +252,33 @@ public class PomManagementServiceImpl implements PomManagementService {
         } catch (IOException ignored) {
         }
         if (StringUtils.isNotBlank(pomContents)) {
-          final Element rootElement = XmlUtils.stringToElement(pomContents);
-          resolvePoms(rootElement, pathToChangedPom, pomModuleMap);
-          final String moduleName = getModuleName(FileUtils.getFirstDirectory(pathToChangedPom));
-          final Pom pom = getPomFactory().getInstance(rootElement, pathToChangedPom, moduleName);
-          Validate.notNull(pom, "POM is null for module '%s' and path '%s'", moduleName,
-              pathToChangedPom);
-          pomMap.put(pathToChangedPom, pom);
-          newPoms.add(pom);
-          iter.remove();
-        }
-      }
-    }
-    return newPoms;
-  }
-
-  private void resolveChildModulePoms(final Element pomRoot, final String pomPath,
-      final Map<String, String> pomSet) {
-    for (final Element module : XmlUtils.findElements("/project/modules/module", pomRoot)) {
-      final String moduleName = module.getTextContent();
-      if (StringUtils.isNotBlank(moduleName)) {
-        final String modulePath = resolveRelativePath(pomPath, moduleName);
-        final boolean alreadyDiscovered = pomSet.containsKey(modulePath);
-        pomSet.put(modulePath, moduleName);
-        if (!alreadyDiscovered) {
-          final Document pomDocument =
-              XmlUtils.readXml(getFileManager().getInputStream(modulePath));
-          final Element root = pomDocument.getDocumentElement();
-          resolvePoms(root, modulePath, pomSet);
+          if (pomMap.containsKey(pathToChangedPom)
+              && pomContents.equals(parsedPomContents.get(pathToChangedPom))) {
+            iter.remove();
+          } else {
+            changedPoms.put(pathToChangedPom, pomContents);
+          }
         }
       }
     }
-  }
 
-  private void resolveParentPom(final String pomPath, final Map<String, String> pomSet,
-      final Element parentElement) {
-    final String relativePath =
-        XmlUtils.getTextContent("/relativePath", parentElement, DEFAULT_RELATIVE_PATH);
-    final String parentPomPath = resolveRelativePath(pomPath, relativePath);
-    final boolean alreadyDiscovered = pomSet.containsKey(parentPomPath);
-    if (!alreadyDiscovered) {
-      pomSet.put(parentPomPath, pomSet.get(parentPomPath));
-      if (new File(parentPomPath).isFile()) {
-        final Document pomDocument =
-            XmlUtils.readXml(getFileManager().getInputStream(parentPomPath));
-        final Element root = pomDocument.getDocumentElement();
-        resolvePoms(root, parentPomPath, pomSet);
-      }
-    }
-  }
-
-  private void resolvePoms(final Element pomRoot, final String pomPath,
-      final Map<String, String> pomSet) {
-    pomSet.put(pomPath, pomSet.get(pomPath)); // ensures this key exists
-
-    final Element parentElement = XmlUtils.findFirstElement("/project/parent", pomRoot);
-    if (parentElement != null) {
-      resolveParentPom(pomPath, pomSet, parentElement);
-    }
-
-    resolveChildModulePoms(pomRoot, pomPath, pomSet);
-  }
-
-  private String resolveRelativePath(String relativeTo, final String relativePath) {
-    if (relativeTo.endsWith(SEPARATOR)) {
-      relativeTo = relativeTo.substring(0, relativeTo.length() - 1);
-    }
-    while (new File(relativeTo).isFile()) {
-      relativeTo = relativeTo.substring(0, relativeTo.lastIndexOf(SEPARATOR));
-    }
-    final String[] relativePathSegments = relativePath.split(FileUtils.getFileSeparatorAsRegex());
-
-    int backCount = 0;
-    for (final String relativePathSegment : relativePathSegments) {
-      if (relativePathSegment.equals("..")) {
-        backCount++;
-      } else {
-        break;
-      }
-    }
-    final StringBuilder sb = new StringBuilder();
-    for (int i = backCount; i < relativePathSegments.length; i++) {
-      sb.append(relativePathSegments[i]);
-      sb.append(SEPARATOR);
-    }
-
-    while (backCount > 0) {
-      relativeTo = relativeTo.substring(0, relativeTo.lastIndexOf(SEPARATOR));
-      backCount--;
-    }
-    String path = relativeTo + SEPARATOR + sb.toString();
-    if (new File(path).isDirectory()) {
-      path = path + DEFAULT_POM_NAME;
+    final Set<Pom> newPoms = new HashSet<Pom>();
+    if (changedPoms.isEmpty()) {
+      return newPoms;
     }
-    if (path.endsWith(SEPARATOR)) {
-      path = path.substring(0, path.length() - 1);
+    for (final Entry<String, Element> rootElement : parsePoms(changedPoms).entrySet()) {
+      final String pathToChangedPom = rootElement.getKey();
+      final String moduleName = getModuleName(FileUtils.getFirstDirectory(pathToChangedPom));
+      final Pom pom =
+          getPomFactory().getInstance(rootElement.getValue(), pathToChangedPom, moduleName);
+      Validate.notNull(pom, "POM is null for module '%s' and path '%s'", moduleName,
+          pathToChangedPom);
+      pomMap.put(pathToChangedPom, pom);
+      parsedPomContents.put(pathToChangedPom, changedPoms.get(pathToChangedPom));
+      newPoms.add(pom);
+      toBeParsed.remove(pathToChangedPom);
     }
-    return path;
+    return newPoms;
   }
 
   public void setFocusedModule(final Pom focusedModule) {
@@ -310,6 +290,19 @@ public class PomManagementServiceImpl implements PomManagementService {
     getShell().setPromptPath(focusedModule.getModuleName());
   }
 
+  /**
+   * Rebuilds the index of POMs by module name; where two POMs have the same
+   * module name, the first one in the POM map wins
+   */
+  private void indexPomsByModuleName() {
+    pomsByModuleName.clear();
+    for (final Pom pom : pomMap.values()) {
+      if (!pomsByModuleName.containsKey(pom.getModuleName())) {
+        pomsByModuleName.put(pom.getModuleName(), pom);
+      }
+    }
+  }
+
   private void sortPomMap() {
     final List<String> sortedPomPaths = new ArrayList<String>(pomMap.keySet());
     Collections.sort(sortedPomPaths, new PomComparator(pomMap));
@@ -319,6 +312,7 @@ public class PomManagementServiceImpl implements PomManagementService {
     }
     pomMap.clear();
     pomMap.putAll(sortedPomMap);
+    indexPomsByModuleName();
   }
 
   private void updatePomCache() {
@@ -326,6 +320,7 @@ public class PomManagementServiceImpl implements PomManagementService {
     final Collection<Pom> newPoms = parseUnparsedPoms();
     if (!newPoms.isEmpty()) {
       sortPomMap();
+      ProjectStateVersion.increment();
     }
     updateProjectMetadataForModules(newPoms);
   }
@@ -1,5 +1,6 @@
 package org.springframework.roo.project;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -22,8 +23,10 @@ import org.springframework.roo.shell.CliOption;
 import org.springframework.roo.shell.CliOptionAutocompleteIndicator;
 import org.springframework.roo.shell.CliOptionVisibilityIndicator;
 import org.springframework.roo.shell.CommandMarker;
+import org.springframework.roo.shell.CommandTimelineListener;
 import org.springframework.roo.shell.Shell;
 import org.springframework.roo.shell.ShellContext;
+import org.springframework.roo.support.logging.CommandTimeline;
 import org.springframework.roo.support.logging.HandlerUtils;
 
 /**
@@ -42,6 +45,7 @@ public class ProjectCommands implements CommandMarker {
   private static final String PROJECT_SCAN_SPEED_COMMAND = "project scan speed";
   private static final String PROJECT_SCAN_STATUS_COMMAND = "project scan status";
   private static final String PROJECT_SCAN_NOW_COMMAND = "project scan now";
+  private static final String TIMELINE_FILE = ".roo/timeline.json";
 
   protected final static Logger LOGGER = HandlerUtils.getLogger(ProjectCommands.class);
 
@@ -52,6 +56,7 @@ public class ProjectCommands implements CommandMarker {
   private Shell shell;
   private ProjectOperations projectOperations;
   private MavenOperations mavenOperations;
+  private CommandTimelineListener timelineListener;
 
   protected void activate(final ComponentContext context) {
     this.context = context.getBundleContext();
@@ -124,9 +129,13 @@ public class ProjectCommands implements CommandMarker {
 
   @CliCommand(value = DEVELOPMENT_MODE_COMMAND,
       help = "Switches the system into development mode (greater diagnostic information)")
-  public String developmentMode(@CliOption(key = {"", "enabled"}, mandatory = false,
-      specifiedDefaultValue = "true", unspecifiedDefaultValue = "true",
-      help = "Activates development mode") final boolean enabled) {
+  public String developmentMode(
+      @CliOption(key = {"", "enabled"}, mandatory = false, specifiedDefaultValue = "true",
+          unspecifiedDefaultValue = "true", help = "Activates development mode") final boolean enabled,
+      @CliOption(key = "timeline", mandatory = false, specifiedDefaultValue = "true",
+          unspecifiedDefaultValue = "false",
+          help = "Shows where the time of each command goes, and appends it as JSON to "
+              + TIMELINE_FILE) final boolean timeline) {
 
     if (processManager == null) {
       processManager = getProcessManager();
@@ -142,6 +151,17 @@ public class ProjectCommands implements CommandMarker {
 
     processManager.setDevelopmentMode(enabled);
     shell.setDevelopmentMode(enabled);
+
+    if (timelineListener != null) {
+      shell.removeListener(timelineListener);
+      timelineListener = null;
+    }
+    CommandTimeline.setEnabled(enabled && timeline);
+    if (CommandTimeline.isEnabled()) {
+      timelineListener = new CommandTimelineListener(new File(shell.getHome(), TIMELINE_FILE));
+      shell.addListerner(timelineListener);
+      return "Development mode set to " + enabled + ", with command timelines";
+    }
     return "Development mode set to " + enabled;
   }
 
@@ -248,6 +248,22 @@ public interface ProjectOperations {
    */
   void addResource(final String moduleName, Resource resource);
 
+  /**
+   * Opens a session in which any number of edits can be made to the given
+   * module's POM, while reading and writing it only once. Until the session
+   * is closed, the methods of this interface that modify that POM apply their
+   * changes to the session's DOM, and {@link #getPomFromModuleName(String)}
+   * reflects them.
+   * 
+   * @param moduleName the name of the module to act upon (required)
+   * @return a session to be closed by the caller once done (never
+   *         <code>null</code>)
+   * @throws IllegalArgumentException if this method is called before the
+   *             {@link ProjectMetadata} is available
+   * @since 2.0
+   */
+  PomEditSession beginPomEdit(String moduleName);
+
   /**
    * Attempts to add the specified package into the specified plugin execution. 
    * If the package already exists or the execution does not exist in the specified plugin, the
@@ -337,7 +353,8 @@ public interface ProjectOperations {
   PathResolver getPathResolver();
 
   /**
-   * Returns the given module's {@link Pom}
+   * Returns the given module's {@link Pom}, including the edits made so far
+   * by any open {@link PomEditSession}
    * 
    * @param moduleName the fully-qualified name of the module (required)
    * @return
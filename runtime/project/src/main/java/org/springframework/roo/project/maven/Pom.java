@@ -4,8 +4,8 @@ import static org.springframework.roo.project.Path.ROOT;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -41,7 +41,15 @@ public class Pom {
   public static final String ROOT_MODULE_SYMBOL = "~";
 
   private final Set<Plugin> buildPlugins = new LinkedHashSet<Plugin>();
+  /** The build plugins' coordinates, including their versions */
+  private final Set<GAV> buildPluginGavs = new HashSet<GAV>();
+  /** The build plugins keyed by "groupId:artifactId" */
+  private final Map<String, Set<Plugin>> buildPluginsByCoordinates =
+      new HashMap<String, Set<Plugin>>();
   private final Set<Dependency> dependencies = new LinkedHashSet<Dependency>();
+  /** The dependencies keyed by "groupId:artifactId" */
+  private final Map<String, Set<Dependency>> dependenciesByCoordinates =
+      new HashMap<String, Set<Dependency>>();
   private final Set<Filter> filters = new LinkedHashSet<Filter>();
   private final GAV gav;
   private final String moduleName;
@@ -53,6 +61,9 @@ public class Pom {
   private final Map<Path, PhysicalPath> pathLocations = new LinkedHashMap<Path, PhysicalPath>();
   private final Set<Repository> pluginRepositories = new LinkedHashSet<Repository>();
   private final Set<Property> pomProperties = new LinkedHashSet<Property>();
+  /** The properties keyed by name, in declaration order */
+  private final Map<String, Set<Property>> pomPropertiesByName =
+      new HashMap<String, Set<Property>>();
   private final Set<Repository> repositories = new LinkedHashSet<Repository>();
   private final Set<Resource> resources = new LinkedHashSet<Resource>();
   private final String sourceDirectory; // TODO use pathCache instead
@@ -134,6 +145,7 @@ public class Pom {
     CollectionUtils.populate(this.resources, resources);
 
     cachePhysicalPaths(paths);
+    indexCoordinates();
   }
 
   /**
@@ -155,6 +167,46 @@ public class Pom {
     }
   }
 
+  /**
+   * Returns the key under which the given artifact is indexed
+   */
+  private static String getCoordinatesKey(final String groupId, final String artifactId) {
+    return groupId + ":" + artifactId;
+  }
+
+  /**
+   * Adds the given value to the set held in the given index under the given
+   * key
+   */
+  private static <T> void index(final Map<String, Set<T>> index, final String key, final T value) {
+    Set<T> values = index.get(key);
+    if (values == null) {
+      values = new LinkedHashSet<T>();
+      index.put(key, values);
+    }
+    values.add(value);
+  }
+
+  /**
+   * Indexes the dependencies and build plugins by their coordinates, and the
+   * properties by their names, so that looking them up doesn't require a
+   * scan of the whole POM
+   */
+  private void indexCoordinates() {
+    for (final Plugin plugin : buildPlugins) {
+      buildPluginGavs.add(plugin.getGAV());
+      index(buildPluginsByCoordinates,
+          getCoordinatesKey(plugin.getGroupId(), plugin.getArtifactId()), plugin);
+    }
+    for (final Dependency dependency : dependencies) {
+      index(dependenciesByCoordinates,
+          getCoordinatesKey(dependency.getGroupId(), dependency.getArtifactId()), dependency);
+    }
+    for (final Property property : pomProperties) {
+      index(pomPropertiesByName, property.getName(), property);
+    }
+  }
+
   /**
    * Indicates whether it's valid to add the given {@link Dependency} to this
    * POM.
@@ -199,11 +251,11 @@ public class Pom {
   public Set<Plugin> getBuildPluginsExcludingVersion(final Plugin plugin) {
     Validate.notNull(plugin, "Plugin to locate is required");
     final Set<Plugin> result = new HashSet<Plugin>();
-    for (final Plugin p : buildPlugins) {
-      if (plugin.getArtifactId().equals(p.getArtifactId())
-          && plugin.getGroupId().equals(p.getGroupId())) {
-        result.add(p);
-      }
+    final Set<Plugin> candidates =
+        buildPluginsByCoordinates.get(getCoordinatesKey(plugin.getGroupId(),
+            plugin.getArtifactId()));
+    if (candidates != null) {
+      result.addAll(candidates);
     }
     return result;
   }
@@ -224,11 +276,17 @@ public class Pom {
    */
   public Set<Dependency> getDependenciesExcludingVersion(final Dependency dependency) {
     final Set<Dependency> result = new HashSet<Dependency>();
-    for (final Dependency d : dependencies) {
-      if (dependency != null && dependency.getArtifactId().equals(d.getArtifactId())
-          && dependency.getGroupId().equals(d.getGroupId())
-          && dependency.getType().equals(d.getType())) {
-        result.add(d);
+    if (dependency == null) {
+      return result;
+    }
+    final Set<Dependency> candidates =
+        dependenciesByCoordinates.get(getCoordinatesKey(dependency.getGroupId(),
+            dependency.getArtifactId()));
+    if (candidates != null) {
+      for (final Dependency d : candidates) {
+        if (dependency.getType().equals(d.getType())) {
+          result.add(d);
+        }
       }
     }
     return result;
@@ -349,10 +407,9 @@ public class Pom {
   public Set<Property> getPropertiesExcludingValue(final Property property) {
     Validate.notNull(property, "Property to locate is required");
     final Set<Property> result = new HashSet<Property>();
-    for (final Property p : pomProperties) {
-      if (property.getName().equals(p.getName())) {
-        result.add(p);
-      }
+    final Set<Property> candidates = pomPropertiesByName.get(property.getName());
+    if (candidates != null) {
+      result.addAll(candidates);
     }
     return result;
   }
@@ -366,12 +423,11 @@ public class Pom {
    */
   public Property getProperty(final String name) {
     Validate.notBlank(name, "Property name to locate is required");
-    for (final Property p : pomProperties) {
-      if (name.equals(p.getName())) {
-        return p;
-      }
+    final Set<Property> candidates = pomPropertiesByName.get(name);
+    if (candidates == null) {
+      return null;
     }
-    return null;
+    return candidates.iterator().next();
   }
 
   public Set<Repository> getRepositories() {
@@ -556,21 +612,14 @@ public class Pom {
   * @return <code>false</code> if a <code>null</code> dependency is given
   */
   public boolean isDependencyRegistered(final Dependency dependency, boolean checkVersion) {
-    if (checkVersion) {
-      return dependency != null && dependencies.contains(dependency);
+    if (dependency == null) {
+      return false;
     }
-
-    boolean registered = false;
-    Iterator<Dependency> it = dependencies.iterator();
-    while (it.hasNext()) {
-      Dependency dp = it.next();
-      if (dependency.getGroupId().equals(dp.getGroupId())
-          && dependency.getArtifactId().equals(dp.getArtifactId())) {
-        registered = true;
-        break;
-      }
+    if (checkVersion) {
+      return dependencies.contains(dependency);
     }
-    return dependency != null && registered;
+    return dependenciesByCoordinates.containsKey(getCoordinatesKey(dependency.getGroupId(),
+        dependency.getArtifactId()));
   }
 
   /**
@@ -592,12 +641,7 @@ public class Pom {
    * @return false if <code>null</code> coordinates are given
    */
   public boolean isPluginRegistered(final GAV gav) {
-    for (final Plugin existingPlugin : buildPlugins) {
-      if (existingPlugin.getGAV().equals(gav)) {
-        return true;
-      }
-    }
-    return false;
+    return buildPluginGavs.contains(gav);
   }
 
   /**
@@ -3,9 +3,13 @@ package org.springframework.roo.project;
 import static org.apache.commons.io.IOUtils.LINE_SEPARATOR;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -15,11 +19,15 @@ import java.util.Collection;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.roo.metadata.MetadataService;
 import org.springframework.roo.process.manager.FileManager;
 import org.springframework.roo.project.maven.Pom;
+import org.springframework.roo.project.maven.PomFactory;
+import org.springframework.roo.support.util.XmlUtils;
+import org.w3c.dom.Element;
 
 /**
  * Unit test of {@link MavenOperationsImpl}
@@ -59,6 +67,8 @@ public class MavenOperationsImplTest {
   @Mock
   private PathResolver mockPathResolver;
   @Mock
+  private PomFactory mockPomFactory;
+  @Mock
   private PomManagementService mockPomManagementService;
   @Mock
   private ProjectMetadata mockProjectMetadata;
@@ -158,4 +168,68 @@ public class MavenOperationsImplTest {
     verify(mockFileManager).createOrUpdateTextFileIfRequired(eq(POM_PATH), eq(expectedPom),
         (String) any(), eq(false));
   }
+
+  @Test
+  public void testPomEditSessionReadsAndWritesPomOnce() {
+    // Set up
+    when(mockFileManager.getInputStream(POM_PATH)).thenReturn(
+        new ByteArrayInputStream("<project></project>".getBytes()));
+    when(mockMetadataService.get(ProjectMetadata.getProjectIdentifier(""))).thenReturn(
+        mockProjectMetadata);
+    final Pom pom = mock(Pom.class);
+    when(pom.getPath()).thenReturn(POM_PATH);
+    when(mockProjectMetadata.getPom()).thenReturn(pom);
+
+    // Invoke
+    final PomEditSession session = projectOperations.beginPomEdit("");
+    try {
+      projectOperations.addProperty("", new Property("foo.version", "1.0"));
+      projectOperations.addProperty("", new Property("bar.version", "2.0"));
+      verify(mockFileManager, never()).createOrUpdateTextFileIfRequired(eq(POM_PATH),
+          (String) any(), (String) any(), eq(false));
+    } finally {
+      session.close();
+    }
+
+    // Check
+    final ArgumentCaptor<String> contents = ArgumentCaptor.forClass(String.class);
+    verify(mockFileManager, times(1)).getInputStream(POM_PATH);
+    verify(mockFileManager, times(1)).createOrUpdateTextFileIfRequired(eq(POM_PATH),
+        contents.capture(), (String) any(), eq(false));
+    assertTrue(contents.getValue().contains("<foo.version>1.0</foo.version>"));
+    assertTrue(contents.getValue().contains("<bar.version>2.0</bar.version>"));
+  }
+
+  @Test
+  public void testPomEditSessionEditsAreVisibleToReads() {
+    // Set up
+    when(mockFileManager.getInputStream(POM_PATH)).thenReturn(
+        new ByteArrayInputStream("<project></project>".getBytes()));
+    when(mockMetadataService.get(ProjectMetadata.getProjectIdentifier(""))).thenReturn(
+        mockProjectMetadata);
+    final Pom pom = mock(Pom.class);
+    when(pom.getPath()).thenReturn(POM_PATH);
+    when(pom.getModuleName()).thenReturn("");
+    when(mockProjectMetadata.getPom()).thenReturn(pom);
+    final Pom editedPom = mock(Pom.class);
+    when(editedPom.getPath()).thenReturn(POM_PATH);
+    when(mockPomFactory.getInstance(any(Element.class), eq(POM_PATH), eq(""))).thenReturn(
+        editedPom);
+    projectOperations.pomFactory = mockPomFactory;
+
+    // Invoke and check
+    final PomEditSession session = projectOperations.beginPomEdit("");
+    try {
+      assertSame(pom, projectOperations.getPomFromModuleName(""));
+      projectOperations.addProperty("", new Property("foo.version", "1.0"));
+      assertSame(editedPom, projectOperations.getPomFromModuleName(""));
+      final ArgumentCaptor<Element> root = ArgumentCaptor.forClass(Element.class);
+      verify(mockPomFactory).getInstance(root.capture(), eq(POM_PATH), eq(""));
+      assertEquals("1.0", XmlUtils.getTextContent("/project/properties/foo.version",
+          root.getValue()));
+    } finally {
+      session.close();
+    }
+    assertSame(pom, projectOperations.getPomFromModuleName(""));
+  }
 }
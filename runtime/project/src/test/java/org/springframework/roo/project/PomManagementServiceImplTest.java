@@ -6,6 +6,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -235,6 +236,26 @@ public class PomManagementServiceImplTest {
     assertEquals(0, poms.size());
   }
 
+  @Test
+  public void testGetPomFromModuleNameDoesNotReparseUnchangedPom() throws Exception {
+    // Set up
+    setUpWorkingDirectory("single");
+    final String canonicalPath = getCanonicalPath("single/pom.xml");
+    when(mockFileMonitorService.getDirtyFiles(PomManagementServiceImpl.class.getName()))
+        .thenReturn(Arrays.asList(canonicalPath));
+    final Pom mockPom = getMockPom(ROOT_MODULE_NAME, canonicalPath);
+
+    // Invoke
+    final Pom firstPom = service.getPomFromModuleName(ROOT_MODULE_NAME);
+    final Pom secondPom = service.getPomFromModuleName(ROOT_MODULE_NAME);
+
+    // Check
+    assertEquals(mockPom, firstPom);
+    assertEquals(mockPom, secondPom);
+    verify(mockPomFactory, times(1)).getInstance(any(Element.class), eq(canonicalPath),
+        eq(ROOT_MODULE_NAME));
+  }
+
   private void verifyProjectMetadataNotification(final String... moduleNames) {
     for (final String moduleName : moduleNames) {
       final String projectMetadataId = ProjectMetadata.getProjectIdentifier(moduleName);
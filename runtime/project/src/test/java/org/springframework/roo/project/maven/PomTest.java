@@ -2,6 +2,7 @@ package org.springframework.roo.project.maven;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -19,6 +20,7 @@ import org.springframework.roo.project.DependencyType;
 import org.springframework.roo.project.LogicalPath;
 import org.springframework.roo.project.Path;
 import org.springframework.roo.project.PhysicalPath;
+import org.springframework.roo.project.Property;
 import org.springframework.roo.support.util.FileUtils;
 
 /**
@@ -203,4 +205,22 @@ public class PomTest {
     // Invoke and check
     assertFalse(pom.hasDependencyExcludingVersion(null));
   }
+
+  @Test
+  public void testGetPropertyByName() {
+    // Set up
+    final Property fooVersion = new Property("foo.version", "1.0");
+    final Property otherFooVersion = new Property("foo.version", "2.0");
+    final Property barVersion = new Property("bar.version", "3.0");
+    final Pom pom =
+        new Pom(GROUP_ID, ARTIFACT_ID, VERSION, JAR, null, null, null, Arrays.asList(fooVersion,
+            barVersion, otherFooVersion), null, null, null, null, null, null, null, null,
+            PROJECT_ROOT + File.separator + "pom.xml", ROOT_MODULE, null);
+
+    // Invoke and check
+    assertEquals(fooVersion, pom.getProperty("foo.version"));
+    assertEquals(barVersion, pom.getProperty("bar.version"));
+    assertNull(pom.getProperty("baz.version"));
+    assertEquals(2, pom.getPropertiesExcludingValue(new Property("foo.version")).size());
+  }
 }
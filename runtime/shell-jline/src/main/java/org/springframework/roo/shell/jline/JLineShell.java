@@ -46,6 +46,7 @@ import org.springframework.roo.shell.event.ShellStatus.Status;
 import org.springframework.roo.shell.event.ShellStatusListener;
 import org.springframework.roo.support.logging.HandlerUtils;
 import org.springframework.roo.support.util.AnsiEscapeCode;
+import org.springframework.roo.support.util.PomVersionUtils;
 import org.springframework.roo.support.util.XmlUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -122,6 +123,10 @@ public abstract class JLineShell extends AbstractShell implements CommandMarker,
     if (statusListener != null) {
       removeShellStatusListener(statusListener);
     }
+    synchronized (flashInfoMap) {
+      // Let the flash message renderer see that we're shutting down
+      flashInfoMap.notifyAll();
+    }
   }
 
   private ConsoleReader createAnsiWindowsReader() throws Exception {
@@ -290,9 +295,15 @@ public abstract class JLineShell extends AbstractShell implements CommandMarker,
         // Display right now
         doAnsiFlash(flashInfo.rowNumber, flashInfo.flashLevel, flashInfo.flashMessage);
       }
+      // Wake the renderer, which sleeps while there are no messages
+      flashInfoMap.notifyAll();
     }
   }
 
+  private boolean isShuttingDown() {
+    return shellStatus.getStatus().equals(Status.SHUTTING_DOWN) || shutdownHookFired;
+  }
+
   private void flashMessageRenderer() {
     if (!reader.getTerminal().isANSISupported()) {
       return;
@@ -301,8 +312,16 @@ public abstract class JLineShell extends AbstractShell implements CommandMarker,
     // correctly
     final Thread t = new Thread(new Runnable() {
       public void run() {
-        while (!shellStatus.getStatus().equals(Status.SHUTTING_DOWN) && !shutdownHookFired) {
+        while (!isShuttingDown()) {
           synchronized (flashInfoMap) {
+            // Nothing to redraw until a message is flashed
+            while (flashInfoMap.isEmpty() && !isShuttingDown()) {
+              try {
+                flashInfoMap.wait();
+              } catch (final InterruptedException e) {
+                return;
+              }
+            }
             final long now = System.currentTimeMillis();
 
             final Set<String> toRemove = new HashSet<String>();
@@ -330,6 +349,7 @@ public abstract class JLineShell extends AbstractShell implements CommandMarker,
         }
       }
     }, "Spring Roo JLine Flash Message Manager");
+    t.setDaemon(true);
     t.start();
   }
 
@@ -508,7 +528,15 @@ public abstract class JLineShell extends AbstractShell implements CommandMarker,
 
     // Handle any "execute-then-quit" operation
     final String rooArgs = System.getProperty("roo.args");
-    if (rooArgs != null && !"".equals(rooArgs)) {
+    if (ShellDaemon.isDaemonMode()) {
+      // Serve command lines from daemon clients until idle or asked to quit
+      setShellStatus(Status.USER_INPUT);
+      new ShellDaemon(this).serve();
+      if (exitShellRequest == null) {
+        executeCommand("quit");
+      }
+      setShellStatus(Status.SHUTTING_DOWN);
+    } else if (rooArgs != null && !"".equals(rooArgs)) {
       setShellStatus(Status.USER_INPUT);
       final boolean success = executeCommand(rooArgs);
       if (exitShellRequest == null) {
@@ -583,33 +611,13 @@ public abstract class JLineShell extends AbstractShell implements CommandMarker,
   }
 
   private String getRooProjectVersion() {
-    String homePath = getHome().getPath();
-    String pomPath = homePath + "/pom.xml";
-    File pom = new File(pomPath);
-    try {
-      if (pom.exists()) {
-        InputStream is = new FileInputStream(pom);
-        Document docXml = XmlUtils.readXml(is);
-        Element document = docXml.getDocumentElement();
-        Element rooVersionElement = XmlUtils.findFirstElement("properties/roo.version", document);
-        String rooVersion = rooVersionElement.getTextContent();
-
-        return rooVersion;
-      }
-
-      return "UNKNOWN";
-
-    } catch (FileNotFoundException e) {
-      e.printStackTrace();
-    }
-
-    return "";
+    return PomVersionUtils.getRooVersion(new File(getHome().getPath(), "pom.xml"));
   }
 
   private boolean isDifferentVersion() {
     String rooVersion = getRooProjectVersion();
 
-    if ("UNKNOWN".equals(rooVersion)) {
+    if (PomVersionUtils.UNKNOWN_VERSION.equals(rooVersion)) {
       return false;
     }
 
@@ -0,0 +1,296 @@
+package org.springframework.roo.shell.jline;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Properties;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.springframework.roo.shell.ExitShellRequest;
+import org.springframework.roo.shell.Shell;
+import org.springframework.roo.support.logging.HandlerUtils;
+
+/**
+ * Keeps a started shell resident for one project, executing the command lines
+ * sent to it by <code>org.springframework.roo.bootstrap.DaemonClient</code>
+ * and streaming their output back, so that repeated non-interactive
+ * invocations (e.g. from CI jobs) don't each pay for starting Roo and
+ * scanning the project.
+ * <p>
+ * The daemon listens on a loopback socket whose port, along with a random
+ * token that clients must send first, is written to {@link #DAEMON_FILE} in
+ * the project's directory. Only clients able to read that file can use the
+ * daemon. Each project has a single daemon: it holds an exclusive lock on
+ * {@link #DAEMON_LOCK_FILE} while it runs, and a daemon started while another
+ * holds it exits at once, leaving clients to the one already running. The
+ * daemon exits once no
+ * client has connected for <code>roo.daemon.timeout</code> milliseconds
+ * (thirty minutes by default), or when a client sends <code>quit</code>. A
+ * connected client that sends nothing for as long is disconnected, so that it
+ * can't keep the daemon from timing out.
+ * <p>
+ * The protocol is line-based: the client sends the token, then one command
+ * per line, then closes its output. The daemon replies with the output of
+ * each command, followed by a line made of {@link #EXIT_CODE_PREFIX} and the
+ * exit code (zero if every command succeeded).
+ *
+ * @since 2.0
+ */
+public class ShellDaemon {
+
+  /**
+   * The file, relative to the project's directory, that gives the daemon's
+   * port and token; must match <code>DaemonClient</code>
+   */
+  public static final String DAEMON_FILE = ".roo/daemon.properties";
+
+  /**
+   * The file, relative to the project's directory, that the running daemon
+   * keeps locked
+   */
+  static final String DAEMON_LOCK_FILE = ".roo/daemon.lock";
+
+  /**
+   * The start of the last line sent to a client; must match
+   * <code>DaemonClient</code>
+   */
+  public static final String EXIT_CODE_PREFIX = "\u0000roo-exit:";
+
+  private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000;
+  private static final Logger LOGGER = HandlerUtils.getLogger(ShellDaemon.class);
+
+  /**
+   * Indicates whether the shell should run as a daemon rather than reading
+   * commands from the console; set by the <code>roo.daemon</code> system
+   * property
+   *
+   * @return see above
+   */
+  public static boolean isDaemonMode() {
+    return Boolean.getBoolean("roo.daemon");
+  }
+
+  private final File daemonFile;
+  private final File lockFile;
+  private final long idleTimeoutMillis;
+  private final Shell shell;
+  private final String token;
+
+  /**
+   * Constructor
+   *
+   * @param shell the shell to execute the commands (required)
+   */
+  public ShellDaemon(final Shell shell) {
+    Validate.notNull(shell, "Shell required");
+    this.shell = shell;
+    daemonFile = new File(shell.getHome(), DAEMON_FILE);
+    lockFile = new File(shell.getHome(), DAEMON_LOCK_FILE);
+    idleTimeoutMillis = Long.getLong("roo.daemon.timeout", DEFAULT_IDLE_TIMEOUT_MILLIS);
+    final byte[] bytes = new byte[16];
+    new SecureRandom().nextBytes(bytes);
+    final StringBuilder sb = new StringBuilder();
+    for (final byte b : bytes) {
+      sb.append(String.format("%02x", b));
+    }
+    token = sb.toString();
+  }
+
+  /**
+   * Serves clients until the idle timeout elapses or a client asks the shell
+   * to exit. Clients are served one at a time, on the calling thread. Returns
+   * at once if another daemon already serves the project.
+   */
+  public void serve() {
+    RandomAccessFile lockAccess = null;
+    FileLock lock = null;
+    ServerSocket serverSocket = null;
+    final int timeoutMillis = (int) Math.min(idleTimeoutMillis, Integer.MAX_VALUE);
+    try {
+      lockFile.getParentFile().mkdirs();
+      lockAccess = new RandomAccessFile(lockFile, "rw");
+      try {
+        lock = lockAccess.getChannel().tryLock();
+      } catch (final OverlappingFileLockException e) {
+        // Held by another daemon in this JVM
+      }
+      if (lock == null) {
+        LOGGER.info("Another Spring Roo daemon already serves " + shell.getHome()
+            + ", so exiting");
+        return;
+      }
+      serverSocket = new ServerSocket(0, 1, InetAddress.getByName(null));
+      serverSocket.setSoTimeout(timeoutMillis);
+      writeDaemonFile(serverSocket.getLocalPort());
+      LOGGER.info("Spring Roo daemon listening for " + shell.getHome());
+      while (shell.getExitShellRequest() == null) {
+        final Socket socket;
+        try {
+          socket = serverSocket.accept();
+        } catch (final SocketTimeoutException e) {
+          LOGGER.info("No command received for " + idleTimeoutMillis + " ms, so exiting");
+          return;
+        }
+        try {
+          // Otherwise a client that stops sending would block us forever
+          socket.setSoTimeout(timeoutMillis);
+          serveClient(socket);
+        } catch (final SocketTimeoutException e) {
+          LOGGER.warning("Disconnected daemon client idle for " + idleTimeoutMillis + " ms");
+        } catch (final IOException e) {
+          LOGGER.warning("Lost connection to daemon client: " + e.getMessage());
+        } finally {
+          IOUtils.closeQuietly(socket);
+        }
+      }
+    } catch (final IOException e) {
+      throw new IllegalStateException("Cannot start Spring Roo daemon", e);
+    } finally {
+      IOUtils.closeQuietly(serverSocket);
+      // Leave the file of any other daemon in place
+      if (lock != null && isOwnDaemonFile()) {
+        daemonFile.delete();
+      }
+      // Closing the file releases the lock
+      IOUtils.closeQuietly(lockAccess);
+    }
+  }
+
+  /**
+   * Indicates whether the daemon file exists and gives this daemon's token
+   */
+  private boolean isOwnDaemonFile() {
+    if (!daemonFile.isFile()) {
+      return false;
+    }
+    final Properties properties = new Properties();
+    InputStream inputStream = null;
+    try {
+      inputStream = new FileInputStream(daemonFile);
+      properties.load(inputStream);
+    } catch (final IOException e) {
+      return false;
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+    return token.equals(properties.getProperty("token"));
+  }
+
+  private void serveClient(final Socket socket) throws IOException {
+    final BufferedReader in =
+        new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+    final PrintWriter out =
+        new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), "UTF-8"), true);
+    if (!isToken(in.readLine())) {
+      LOGGER.warning("Rejected daemon client with an invalid token");
+      return;
+    }
+
+    final Handler handler = new Handler() {
+      @Override
+      public void close() {}
+
+      @Override
+      public void flush() {
+        out.flush();
+      }
+
+      @Override
+      public void publish(final LogRecord record) {
+        if (isLoggable(record)) {
+          out.print(getFormatter().format(record));
+          out.flush();
+        }
+      }
+    };
+    handler.setFormatter(new Formatter() {
+      @Override
+      public String format(final LogRecord record) {
+        final StringWriter sw = new StringWriter();
+        final PrintWriter pw = new PrintWriter(sw);
+        pw.println(formatMessage(record));
+        if (record.getThrown() != null) {
+          record.getThrown().printStackTrace(pw);
+        }
+        pw.flush();
+        return sw.toString();
+      }
+    });
+
+    final Logger rootLogger = Logger.getLogger("");
+    rootLogger.addHandler(handler);
+    boolean success = true;
+    try {
+      String line;
+      while (shell.getExitShellRequest() == null && (line = in.readLine()) != null) {
+        if (StringUtils.isNotBlank(line)) {
+          success &= shell.executeCommand(line);
+        }
+      }
+    } finally {
+      rootLogger.removeHandler(handler);
+    }
+
+    final ExitShellRequest exitShellRequest = shell.getExitShellRequest();
+    final int exitCode;
+    if (exitShellRequest != null && exitShellRequest != ExitShellRequest.NORMAL_EXIT) {
+      exitCode = exitShellRequest.getExitCode();
+    } else {
+      exitCode = success ? 0 : 1;
+    }
+    out.println(EXIT_CODE_PREFIX + exitCode);
+    out.flush();
+  }
+
+  /**
+   * Indicates whether the given line is this daemon's token, taking the same
+   * time whichever character differs
+   */
+  private boolean isToken(final String line) throws IOException {
+    return line != null
+        && MessageDigest.isEqual(token.getBytes("UTF-8"), line.getBytes("UTF-8"));
+  }
+
+  private void writeDaemonFile(final int port) throws IOException {
+    daemonFile.getParentFile().mkdirs();
+    // Only the user running the daemon may read its token
+    daemonFile.delete();
+    daemonFile.createNewFile();
+    daemonFile.setReadable(false, false);
+    daemonFile.setReadable(true, true);
+
+    final Properties properties = new Properties();
+    properties.setProperty("port", String.valueOf(port));
+    properties.setProperty("token", token);
+    OutputStream outputStream = null;
+    try {
+      outputStream = new FileOutputStream(daemonFile);
+      properties.store(outputStream, "Spring Roo daemon for this project");
+    } finally {
+      IOUtils.closeQuietly(outputStream);
+    }
+  }
+}
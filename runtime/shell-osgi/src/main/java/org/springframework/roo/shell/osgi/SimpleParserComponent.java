@@ -1,5 +1,7 @@
 package org.springframework.roo.shell.osgi;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import org.apache.felix.scr.annotations.Component;
@@ -9,6 +11,9 @@ import org.apache.felix.scr.annotations.ReferencePolicy;
 import org.apache.felix.scr.annotations.ReferenceStrategy;
 import org.apache.felix.scr.annotations.References;
 import org.apache.felix.scr.annotations.Service;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
 import org.osgi.service.component.ComponentContext;
 import org.springframework.roo.shell.AbstractShell;
 import org.springframework.roo.shell.CommandMarker;
@@ -16,6 +21,7 @@ import org.springframework.roo.shell.Parser;
 import org.springframework.roo.shell.SimpleParser;
 import org.springframework.roo.support.api.AddOnSearch;
 import org.springframework.roo.support.api.AddOnSearch.SearchType;
+import org.springframework.roo.support.logging.HandlerUtils;
 
 /**
  * OSGi component launcher for {@link SimpleParser}.
@@ -29,16 +35,73 @@ import org.springframework.roo.support.api.AddOnSearch.SearchType;
     policy = ReferencePolicy.DYNAMIC, referenceInterface = AddOnSearch.class,
     cardinality = ReferenceCardinality.OPTIONAL_UNARY)})
 public class SimpleParserComponent extends SimpleParser implements CommandMarker {
+
+  private static final Logger LOGGER = HandlerUtils.getLogger(SimpleParserComponent.class);
+
+  /**
+   * The filter of the service the start-level bundle registers while the
+   * components of lazily started add-ons are still activating
+   */
+  private static final String LAZY_STARTUP_PENDING_FILTER = "(roo.startup.lazy.pending=true)";
+  private static final long LAZY_STARTUP_TIMEOUT_MILLIS = 60000;
+
   private AddOnSearch addOnSearch;
+  /**
+   * Open while the start-level bundle reports lazily started add-ons as
+   * pending
+   */
+  private volatile CountDownLatch lazyStartup = new CountDownLatch(0);
+  private final ServiceListener lazyStartupListener = new ServiceListener() {
+    public void serviceChanged(final ServiceEvent event) {
+      if (event.getType() == ServiceEvent.REGISTERED) {
+        lazyStartup = new CountDownLatch(1);
+      } else if (event.getType() == ServiceEvent.UNREGISTERING) {
+        lazyStartup.countDown();
+      }
+    }
+  };
 
   protected void activate(final ComponentContext cContext) {
     context = cContext.getBundleContext();
+    addComponentChangeListener();
+    try {
+      // Listen first, so that an unregistration after the check is seen
+      context.addServiceListener(lazyStartupListener, LAZY_STARTUP_PENDING_FILTER);
+      if (context.getServiceReferences((String) null, LAZY_STARTUP_PENDING_FILTER) != null) {
+        lazyStartup = new CountDownLatch(1);
+      }
+    } catch (final InvalidSyntaxException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  protected void deactivate(final ComponentContext cContext) {
+    context.removeServiceListener(lazyStartupListener);
+    lazyStartup.countDown();
+    removeComponentChangeListener();
   }
 
   protected void bindAddOnSearch(final AddOnSearch s) {
     addOnSearch = s;
   }
 
+  @Override
+  protected boolean hasPendingCommands() {
+    return lazyStartup.getCount() > 0;
+  }
+
+  @Override
+  protected void awaitPendingCommands() {
+    LOGGER.info("Waiting for add-ons to finish starting...");
+    try {
+      if (!lazyStartup.await(LAZY_STARTUP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+        LOGGER.warning("Add-ons still starting after " + LAZY_STARTUP_TIMEOUT_MILLIS + " ms");
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   @Override
   protected void commandNotFound(final Logger logger, final String buffer) {
     logger.warning("Command '" + buffer + "' not found (for assistance press "
@@ -31,6 +31,8 @@ import org.osgi.service.component.annotations.Component;
 import org.springframework.roo.shell.event.AbstractShellStatusPublisher;
 import org.springframework.roo.shell.event.ShellStatus;
 import org.springframework.roo.shell.event.ShellStatus.Status;
+import org.springframework.roo.support.logging.CommandTimeline;
+import org.springframework.roo.support.logging.CommandTimeline.Span;
 import org.springframework.roo.support.logging.HandlerUtils;
 import org.springframework.roo.support.util.CollectionUtils;
 
@@ -201,21 +203,26 @@ public abstract class AbstractShell extends AbstractShellStatusPublisher impleme
     final ExecutionStrategy executionStrategy = getExecutionStrategy();
     boolean flashedMessage = false;
     while (executionStrategy == null || !executionStrategy.isReadyForCommands()) {
-      // Wait
-      try {
-        Thread.sleep(500);
-      } catch (final InterruptedException ignore) {
-      }
       if (!flashedMessage) {
         flash(Level.INFO, "Please wait - still loading", MY_SLOT);
         flashedMessage = true;
       }
+      // Wait, returning as soon as the system is ready
+      try {
+        if (executionStrategy == null) {
+          Thread.sleep(500);
+        } else {
+          executionStrategy.waitUntilReadyForCommands(500);
+        }
+      } catch (final InterruptedException ignore) {
+      }
     }
     if (flashedMessage) {
       flash(Level.INFO, "", MY_SLOT);
     }
 
     ParseResult parseResult = null;
+    Span commandSpan = null;
     try {
       // We support simple block comments; ie a single pair per line
       if (!inBlockComment && line.contains("/*") && line.contains("*/")) {
@@ -248,7 +255,13 @@ public abstract class AbstractShell extends AbstractShellStatusPublisher impleme
         setShellStatus(Status.EXECUTION_SUCCESS);
         return true;
       }
-      parseResult = getParser().parse(line);
+      commandSpan = CommandTimeline.begin(line.trim());
+      final Span parseSpan = CommandTimeline.start("parse");
+      try {
+        parseResult = getParser().parse(line);
+      } finally {
+        parseSpan.end();
+      }
       if (parseResult == null) {
         return false;
       }
@@ -257,7 +270,13 @@ public abstract class AbstractShell extends AbstractShellStatusPublisher impleme
       } catch (final Exception ignored) {
       }
       setShellStatus(Status.EXECUTING);
-      final Object result = executionStrategy.execute(parseResult);
+      final Object result;
+      final Span executeSpan = CommandTimeline.start("execute");
+      try {
+        result = executionStrategy.execute(parseResult);
+      } finally {
+        executeSpan.end();
+      }
       setShellStatus(Status.EXECUTION_RESULT_PROCESSING);
       if (result != null) {
         if (result instanceof ExitShellRequest) {
@@ -298,6 +317,14 @@ public abstract class AbstractShell extends AbstractShellStatusPublisher impleme
       }
       return false;
     } finally {
+      // The command may have changed the project in ways that aren't
+      // visible on disk (e.g. the focused module)
+      ProjectStateVersion.increment();
+      // Discard the timeline if no listener reported it, or end this
+      // command's span within that of the script running it
+      if (commandSpan != null) {
+        commandSpan.end();
+      }
       setShellStatus(Status.USER_INPUT);
     }
   }
@@ -476,12 +503,19 @@ public abstract class AbstractShell extends AbstractShellStatusPublisher impleme
   public void script(@CliOption(key = {"", "file"}, help = "The file to locate and execute",
       mandatory = true) final File script, @CliOption(key = "lineNumbers", mandatory = false,
       specifiedDefaultValue = "true", unspecifiedDefaultValue = "false",
-      help = "Display line numbers when executing the script") final boolean lineNumbers) {
+      help = "Display line numbers when executing the script") final boolean lineNumbers,
+      @CliOption(key = "batch", mandatory = false, specifiedDefaultValue = "true",
+          unspecifiedDefaultValue = "false",
+          help = "Execute the script as a single transaction, undoing all of it if any command "
+              + "fails") final boolean batch) {
 
     Validate.notNull(script, "Script file to parse is required");
     final double startedNanoseconds = System.nanoTime();
 
     final InputStream inputStream = openScript(script);
+    if (batch) {
+      getExecutionStrategy().beginBatch();
+    }
     try {
       int i = 0;
       for (final String line : IOUtils.readLines(inputStream)) {
@@ -504,6 +538,9 @@ public abstract class AbstractShell extends AbstractShellStatusPublisher impleme
     } catch (final IOException e) {
       throw new IllegalStateException(e);
     } finally {
+      if (batch) {
+        getExecutionStrategy().endBatch();
+      }
       IOUtils.closeQuietly(inputStream);
       final double executionDurationInSeconds =
           (System.nanoTime() - startedNanoseconds) / 1000000000D;
@@ -0,0 +1,165 @@
+package org.springframework.roo.shell;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * An immutable index of the {@link CliCommand}s offered by a set of
+ * {@link CommandMarker}s, built once so that parsing, completion and help
+ * don't have to reflect over every command class each time they look for a
+ * command.
+ * <p>
+ * Command values are held in sorted order, so that the commands starting
+ * with a given word can be looked up as a range rather than by scanning them
+ * all.
+ *
+ * @since 2.0
+ */
+public class CommandRegistry {
+
+  /**
+   * A {@link CliCommand} method along with the details extracted from it
+   */
+  public static class RegisteredCommand {
+
+    private final CliCommand cliCommand;
+    private final Set<CliOption> cliOptions;
+    private final Method method;
+    private final CommandMarker target;
+
+    RegisteredCommand(final CommandMarker target, final Method method,
+        final CliCommand cliCommand) {
+      this.cliCommand = cliCommand;
+      this.method = method;
+      this.target = target;
+      final Set<CliOption> options = new LinkedHashSet<CliOption>();
+      for (final Annotation[] annotations : method.getParameterAnnotations()) {
+        for (final Annotation annotation : annotations) {
+          if (annotation instanceof CliOption) {
+            options.add((CliOption) annotation);
+          }
+        }
+      }
+      cliOptions = Collections.unmodifiableSet(options);
+    }
+
+    public CliCommand getCliCommand() {
+      return cliCommand;
+    }
+
+    /**
+     * Returns the options of this command, in the order of the method's
+     * parameters
+     *
+     * @return a non-<code>null</code> set
+     */
+    public Set<CliOption> getCliOptions() {
+      return cliOptions;
+    }
+
+    public Method getMethod() {
+      return method;
+    }
+
+    public CommandMarker getTarget() {
+      return target;
+    }
+  }
+
+  /**
+   * The highest possible character, for finding the keys that start with a
+   * given prefix
+   */
+  private static final char MAX_CHAR = Character.MAX_VALUE;
+
+  private final List<RegisteredCommand> commands = new ArrayList<RegisteredCommand>();
+  private final Map<Method, RegisteredCommand> commandsByMethod =
+      new HashMap<Method, RegisteredCommand>();
+  private final SortedMap<String, List<RegisteredCommand>> commandsByValue =
+      new TreeMap<String, List<RegisteredCommand>>();
+
+  /**
+   * Constructor
+   *
+   * @param commandMarkers the objects offering the commands (required)
+   */
+  public CommandRegistry(final Collection<? extends CommandMarker> commandMarkers) {
+    Validate.notNull(commandMarkers, "Command markers required");
+    for (final CommandMarker commandMarker : commandMarkers) {
+      for (final Method method : commandMarker.getClass().getMethods()) {
+        final CliCommand cliCommand = method.getAnnotation(CliCommand.class);
+        if (cliCommand == null) {
+          continue;
+        }
+        final RegisteredCommand command = new RegisteredCommand(commandMarker, method, cliCommand);
+        commands.add(command);
+        commandsByMethod.put(method, command);
+        for (final String value : cliCommand.value()) {
+          List<RegisteredCommand> commandsWithValue = commandsByValue.get(value);
+          if (commandsWithValue == null) {
+            commandsWithValue = new ArrayList<RegisteredCommand>(1);
+            commandsByValue.put(value, commandsWithValue);
+          }
+          commandsWithValue.add(command);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the commands that could match the given buffer, i.e. those
+   * having a value whose first word starts with the first word of the
+   * buffer. Each candidate still has to be matched against the whole buffer.
+   *
+   * @param buffer the user's input (required)
+   * @return a non-<code>null</code> map of command values to the commands
+   *         having that value, sorted by value
+   */
+  public SortedMap<String, List<RegisteredCommand>> getCandidates(final String buffer) {
+    Validate.notNull(buffer, "Buffer required");
+    final String firstWord = StringUtils.substringBefore(buffer, " ");
+    if (firstWord.length() == 0) {
+      return Collections.unmodifiableSortedMap(commandsByValue);
+    }
+    return Collections.unmodifiableSortedMap(commandsByValue.subMap(firstWord, firstWord
+        + MAX_CHAR));
+  }
+
+  /**
+   * Returns the options of the given command method
+   *
+   * @param method the method annotated with {@link CliCommand} (required)
+   * @return a non-<code>null</code> set, in the order of the method's
+   *         parameters
+   */
+  public Set<CliOption> getCliOptions(final Method method) {
+    final RegisteredCommand command = commandsByMethod.get(method);
+    if (command == null) {
+      // Not a registered command (e.g. added after this registry was built)
+      return new RegisteredCommand(null, method, null).getCliOptions();
+    }
+    return command.getCliOptions();
+  }
+
+  /**
+   * Returns every registered command
+   *
+   * @return a non-<code>null</code> list
+   */
+  public List<RegisteredCommand> getCommands() {
+    return Collections.unmodifiableList(commands);
+  }
+}
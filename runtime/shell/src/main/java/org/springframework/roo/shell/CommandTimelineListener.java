@@ -0,0 +1,68 @@
+package org.springframework.roo.shell;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.logging.Logger;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.springframework.roo.support.logging.CommandTimeline;
+import org.springframework.roo.support.logging.CommandTimeline.Span;
+import org.springframework.roo.support.logging.HandlerUtils;
+
+/**
+ * Reports the {@link CommandTimeline} of each command once it has run: shows
+ * it in the shell and appends it to a file as one line of JSON, so that slow
+ * scripts can be analysed afterwards.
+ *
+ * @since 2.0
+ */
+public class CommandTimelineListener implements CommandListener {
+
+  private static final Logger LOGGER = HandlerUtils.getLogger(CommandTimelineListener.class);
+
+  private final File jsonFile;
+
+  /**
+   * Constructor
+   *
+   * @param jsonFile the file to append each command's timeline to (required)
+   */
+  public CommandTimelineListener(final File jsonFile) {
+    Validate.notNull(jsonFile, "JSON file required");
+    this.jsonFile = jsonFile;
+  }
+
+  public void onCommandBegin(final ParseResult parseResult) {}
+
+  public void onCommandFails() {
+    report(false);
+  }
+
+  public void onCommandSuccess() {
+    report(true);
+  }
+
+  private void report(final boolean success) {
+    final Span span = CommandTimeline.finish();
+    if (span == null) {
+      return;
+    }
+    LOGGER.info(span.toTree());
+
+    final String json = span.toJson();
+    Writer writer = null;
+    try {
+      jsonFile.getParentFile().mkdirs();
+      writer = new FileWriter(jsonFile, true);
+      writer.write("{\"time\":" + System.currentTimeMillis() + ",\"success\":" + success
+          + ",\"timeline\":" + json + "}\n");
+    } catch (final IOException e) {
+      LOGGER.warning("Cannot write command timeline to " + jsonFile + ": " + e.getMessage());
+    } finally {
+      IOUtils.closeQuietly(writer);
+    }
+  }
+}
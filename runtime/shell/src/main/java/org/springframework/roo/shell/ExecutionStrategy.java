@@ -13,6 +13,19 @@ package org.springframework.roo.shell;
  */
 public interface ExecutionStrategy {
 
+  /**
+   * Begins a batch, in which the commands executed by the command currently
+   * being executed become part of it, so that they succeed or fail as a
+   * whole. Must be matched by a call to {@link #endBatch()} before the
+   * current command completes.
+   */
+  void beginBatch();
+
+  /**
+   * Ends the batch begun by the matching call to {@link #beginBatch()}
+   */
+  void endBatch();
+
   /**
    * Executes the method indicated by the {@link ParseResult}.
    * 
@@ -32,6 +45,19 @@ public interface ExecutionStrategy {
    */
   boolean isReadyForCommands();
 
+  /**
+   * Waits until commands are able to be presented, as indicated by
+   * {@link #isReadyForCommands()}, returning as soon as they are rather
+   * than at the caller's next poll.
+   * 
+   * @param timeoutMillis the longest time to wait, in milliseconds
+   * @return whether commands can now be presented (<code>false</code> if the
+   *         timeout elapsed first)
+   * @throws InterruptedException if the calling thread is interrupted while
+   *             waiting
+   */
+  boolean waitUntilReadyForCommands(long timeoutMillis) throws InterruptedException;
+
   /**
    * Indicates the execution runtime should be terminated. This allows it to
    * cleanup before returning control flow to the caller. Necessary for clean
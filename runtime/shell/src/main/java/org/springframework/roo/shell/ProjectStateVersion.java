@@ -0,0 +1,43 @@
+package org.springframework.roo.shell;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A counter of changes to the state of the user's project, such as POMs
+ * being re-parsed, types being added, changed or removed, or a command being
+ * executed.
+ * <p>
+ * Anything derived purely from the project's state (e.g. whether a command
+ * is currently available) can be cached for as long as this version is
+ * unchanged. Components that change the project's state in a way that isn't
+ * already covered by the above should call {@link #increment()}.
+ *
+ * @since 2.0
+ */
+public final class ProjectStateVersion {
+
+  private static final AtomicLong VERSION = new AtomicLong();
+
+  /**
+   * Returns the current version of the project's state
+   *
+   * @return a number that changes whenever the project's state does
+   */
+  public static long get() {
+    return VERSION.get();
+  }
+
+  /**
+   * Records that the project's state has changed
+   *
+   * @return the new version
+   */
+  public static long increment() {
+    return VERSION.incrementAndGet();
+  }
+
+  /**
+   * Constructor is private to prevent instantiation
+   */
+  private ProjectStateVersion() {}
+}
@@ -4,6 +4,8 @@ import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Service;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.BundleEvent;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
 import org.osgi.service.component.ComponentContext;
 
 /**
@@ -19,7 +21,18 @@ import org.osgi.service.component.ComponentContext;
 @Service
 public class RooBundleActivatorImpl implements RooBundleActivator {
 
+  // Commands and converters can register after their bundle has started
+  // (e.g. when the start level doesn't wait for them), so their
+  // registration counts as a change too
+  private static final String COMMANDS_AND_CONVERTERS_FILTER = "(|(objectClass="
+      + CommandMarker.class.getName() + ")(objectClass=" + Converter.class.getName() + "))";
+
   private Long lastTimeBundleChange;
+  private final ServiceListener serviceListener = new ServiceListener() {
+    public void serviceChanged(final ServiceEvent event) {
+      setLastTimeBundleChange(System.currentTimeMillis());
+    }
+  };
 
   protected void activate(ComponentContext context) throws Exception {
     start(context.getBundleContext());
@@ -28,11 +41,13 @@ public class RooBundleActivatorImpl implements RooBundleActivator {
   @Override
   public void start(BundleContext context) throws Exception {
     context.addBundleListener(this);
+    context.addServiceListener(serviceListener, COMMANDS_AND_CONVERTERS_FILTER);
   }
 
   @Override
   public void stop(BundleContext context) throws Exception {
     context.removeBundleListener(this);
+    context.removeServiceListener(serviceListener);
   }
 
   @Override
@@ -5,10 +5,7 @@ import static org.springframework.roo.shell.CliOption.EMPTY;
 import static org.springframework.roo.shell.CliOption.NULL;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.net.URISyntaxException;
@@ -35,13 +32,18 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
 import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
 import org.osgi.framework.ServiceReference;
+import org.springframework.roo.shell.CommandRegistry.RegisteredCommand;
+import org.springframework.roo.support.logging.CommandTimeline;
+import org.springframework.roo.support.logging.CommandTimeline.Span;
 import org.springframework.roo.support.logging.HandlerUtils;
 import org.springframework.roo.support.util.CollectionUtils;
-import org.springframework.roo.support.util.XmlUtils;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import org.springframework.roo.support.util.PomVersionUtils;
 
 /**
  * Default implementation of {@link Parser}.
@@ -145,6 +147,13 @@ public class SimpleParser implements Parser {
 
   private final Map<String, MethodTarget> availabilityIndicators =
       new HashMap<String, MethodTarget>();
+  // The results of the availability indicators, by command, as of the
+  // project state version below
+  private final Map<String, Boolean> availabilityByCommand = new HashMap<String, Boolean>();
+  private long availabilityProjectStateVersion = -1;
+  // Incremented whenever the above results are discarded
+  private long availabilityGeneration;
+  private final ComponentChangeListener componentChangeListener = new ComponentChangeListener();
   private final Map<String, MethodTarget> dynamicMandatoryIndicators =
       new HashMap<String, MethodTarget>();
   private final Map<String, MethodTarget> optionVisibilityIndicators =
@@ -152,6 +161,8 @@ public class SimpleParser implements Parser {
   private final Map<String, MethodTarget> optionAutocompleteIndicators =
       new HashMap<String, MethodTarget>();
   private final Set<CommandMarker> commands = new HashSet<CommandMarker>();
+  // Built from the above commands when first needed after they change
+  private CommandRegistry commandRegistry;
   private final Set<Converter<?>> converters = new HashSet<Converter<?>>();
 
   // ROO-3697: Include global parameters in all Spring Roo commands.
@@ -162,6 +173,8 @@ public class SimpleParser implements Parser {
   public final void add(final CommandMarker command) {
     synchronized (mutex) {
       commands.add(command);
+      commandRegistry = null;
+      clearAvailabilityCache();
       for (final Method method : command.getClass().getMethods()) {
 
         // Getting method availability indicators
@@ -270,6 +283,42 @@ public class SimpleParser implements Parser {
     }
   }
 
+  /**
+   * Indicates whether commands are still being registered (e.g. by add-ons
+   * that start after the shell), so that the parser should wait for them
+   * before reporting a command as not found. This implementation returns
+   * <code>false</code>.
+   *
+   * @return see above
+   * @since 2.0
+   */
+  protected boolean hasPendingCommands() {
+    return false;
+  }
+
+  /**
+   * Waits, for a bounded time, until the commands being registered are
+   * registered. Called without holding the parser's lock, which their
+   * registration needs. This implementation returns immediately.
+   *
+   * @since 2.0
+   */
+  protected void awaitPendingCommands() {}
+
+  /**
+   * Indicates whether the given input matches no command, not even an
+   * unavailable one, while commands are still being registered
+   */
+  private boolean isAwaitingCommand(final String rawInput) {
+    if (rawInput == null || !hasPendingCommands()) {
+      return false;
+    }
+    synchronized (mutex) {
+      loadConvertersAndCommands();
+      return locateTargets(normalise(rawInput), true, false).isEmpty();
+    }
+  }
+
   protected void commandNotFound(final Logger logger, final String buffer) {
     logger.warning("Command '" + buffer + "' not found (for assistance press "
         + AbstractShell.completionKeys + " or type \"hint\" then hit ENTER)");
@@ -985,17 +1034,135 @@ public class SimpleParser implements Parser {
     return availabilityIndicators.get(command);
   }
 
-  private Set<CliOption> getCliOptions(final Annotation[][] parameterAnnotations) {
-    final Set<CliOption> cliOptions = new LinkedHashSet<CliOption>();
-    for (final Annotation[] annotations : parameterAnnotations) {
-      for (final Annotation annotation : annotations) {
-        if (annotation instanceof CliOption) {
-          final CliOption cliOption = (CliOption) annotation;
-          cliOptions.add(cliOption);
+  /**
+   * Indicates whether the given command is currently available, according
+   * to the availability indicator of any of its values
+   *
+   * @param command the command to check
+   * @return <code>true</code> if it has no availability indicator
+   */
+  private boolean isAvailable(final RegisteredCommand command) {
+    final Span span = CommandTimeline.start("availability");
+    try {
+      Boolean available = null;
+      for (final String value : command.getCliCommand().value()) {
+        final MethodTarget mt = getAvailabilityIndicator(value);
+        if (mt != null) {
+          Validate.isTrue(available == null,
+              "More than one availability indicator is defined for '"
+                  + command.getMethod().toGenericString() + "'");
+          available = isAvailable(value, mt);
+          // We should "break" here, but we loop over all to ensure no
+          // conflicting availability indicators are defined
         }
       }
+      return available == null || available;
+    } finally {
+      span.end();
+    }
+  }
+
+  private void clearAvailabilityCache() {
+    synchronized (availabilityByCommand) {
+      availabilityByCommand.clear();
+      availabilityGeneration++;
+    }
+  }
+
+  /**
+   * Indicates whether the given command is available, invoking its
+   * availability indicator only if the project's state or the installed
+   * components have changed since it was last invoked
+   *
+   * @param command the command value
+   * @param availabilityIndicator the command's availability indicator
+   * @return see above
+   */
+  private boolean isAvailable(final String command, final MethodTarget availabilityIndicator) {
+    final long projectStateVersion = ProjectStateVersion.get();
+    final long generation;
+    synchronized (availabilityByCommand) {
+      if (projectStateVersion != availabilityProjectStateVersion) {
+        availabilityByCommand.clear();
+        availabilityGeneration++;
+        availabilityProjectStateVersion = projectStateVersion;
+      }
+      final Boolean cachedAvailability = availabilityByCommand.get(command);
+      if (cachedAvailability != null) {
+        return cachedAvailability;
+      }
+      generation = availabilityGeneration;
+    }
+
+    // Invoked without holding the lock, as indicators can be slow or call
+    // back into the shell
+    final boolean available;
+    try {
+      available =
+          (Boolean) availabilityIndicator.getMethod().invoke(availabilityIndicator.getTarget());
+    } catch (final Exception e) {
+      // Not cached, as the indicator might well succeed next time (e.g.
+      // once a service it needs has been registered)
+      return false;
+    }
+    synchronized (availabilityByCommand) {
+      // Unless the results were discarded in the meantime
+      if (generation == availabilityGeneration) {
+        availabilityByCommand.put(command, available);
+      }
+    }
+    return available;
+  }
+
+  /**
+   * Starts discarding the cached command availability whenever a bundle or
+   * service changes, as availability indicators commonly depend on which
+   * add-ons and services are present. Requires the {@link #context}.
+   *
+   * @since 2.0
+   */
+  protected void addComponentChangeListener() {
+    context.addBundleListener(componentChangeListener);
+    context.addServiceListener(componentChangeListener);
+  }
+
+  /**
+   * Stops discarding the cached command availability on bundle and service
+   * changes
+   *
+   * @since 2.0
+   */
+  protected void removeComponentChangeListener() {
+    context.removeBundleListener(componentChangeListener);
+    context.removeServiceListener(componentChangeListener);
+  }
+
+  /**
+   * Discards the cached command availability on any bundle or service change
+   */
+  private class ComponentChangeListener implements BundleListener, ServiceListener {
+
+    public void bundleChanged(final BundleEvent event) {
+      clearAvailabilityCache();
+    }
+
+    public void serviceChanged(final ServiceEvent event) {
+      clearAvailabilityCache();
+    }
+  }
+
+  /**
+   * Returns the registry of the currently known commands
+   *
+   * @return a non-<code>null</code> registry
+   */
+  private CommandRegistry getCommandRegistry() {
+    synchronized (mutex) {
+      if (commandRegistry == null) {
+        commandRegistry = new CommandRegistry(commands);
+      }
+      return commandRegistry;
     }
-    return cliOptions;
   }
 
   /**
@@ -1063,15 +1230,7 @@ public class SimpleParser implements Parser {
 
       // Return commands list
       final SortedSet<String> result = new TreeSet<String>(COMPARATOR);
-      for (final Object o : commands) {
-        final Method[] methods = o.getClass().getMethods();
-        for (final Method m : methods) {
-          final CliCommand cmd = m.getAnnotation(CliCommand.class);
-          if (cmd != null) {
-            result.addAll(Arrays.asList(cmd.value()));
-          }
-        }
-      }
+      result.addAll(getCommandRegistry().getCandidates("").keySet());
       return result;
     }
   }
@@ -1126,48 +1285,21 @@ public class SimpleParser implements Parser {
     Validate.notNull(buffer, "Buffer required");
     final Collection<MethodTarget> result = new HashSet<MethodTarget>();
 
-    // The reflection could certainly be optimised, but it's good enough for
-    // now (and cached reflection
-    // is unlikely to be noticeable to a human being using the CLI)
-    for (final CommandMarker command : commands) {
-      for (final Method method : command.getClass().getMethods()) {
-        final CliCommand cmd = method.getAnnotation(CliCommand.class);
-        if (cmd != null) {
-          // We have a @CliCommand.
-          if (checkAvailabilityIndicators) {
-            // Decide if this @CliCommand is available at this
-            // moment
-            Boolean available = null;
-            for (final String value : cmd.value()) {
-              final MethodTarget mt = getAvailabilityIndicator(value);
-              if (mt != null) {
-                Validate.isTrue(
-                    available == null,
-                    "More than one availability indicator is defined for '"
-                        + method.toGenericString() + "'");
-                try {
-                  available = (Boolean) mt.getMethod().invoke(mt.getTarget());
-                  // We should "break" here, but we loop over
-                  // all to ensure no conflicting availability
-                  // indicators are defined
-                } catch (final Exception e) {
-                  available = false;
-                }
-              }
-            }
-            // Skip this @CliCommand if it's not available
-            if (available != null && !available) {
-              continue;
-            }
-          }
-
-          for (final String value : cmd.value()) {
-            final String remainingBuffer = isMatch(buffer, value, strictMatching);
-            if (remainingBuffer != null) {
-              result.add(new MethodTarget(method, command, remainingBuffer, value));
-            }
-          }
+    // Only the commands starting with the buffer's first word can match it
+    for (final Entry<String, List<RegisteredCommand>> candidate : getCommandRegistry()
+        .getCandidates(buffer).entrySet()) {
+      final String value = candidate.getKey();
+      final String remainingBuffer = isMatch(buffer, value, strictMatching);
+      if (remainingBuffer == null) {
+        continue;
+      }
+      for (final RegisteredCommand command : candidate.getValue()) {
+        // Skip this @CliCommand if it's not available at this moment
+        if (checkAvailabilityIndicators && !isAvailable(command)) {
+          continue;
         }
+        result.add(new MethodTarget(command.getMethod(), command.getTarget(), remainingBuffer,
+            value));
       }
     }
     return result;
@@ -1185,6 +1317,9 @@ public class SimpleParser implements Parser {
   }
 
   public ParseResult parse(final String rawInput) {
+    if (isAwaitingCommand(rawInput)) {
+      awaitPendingCommands();
+    }
     synchronized (mutex) {
 
       // Load converters and commands if needed
@@ -1251,7 +1386,8 @@ public class SimpleParser implements Parser {
         shellContext.setParameter(parameter, value);
       }
 
-      final Set<CliOption> cliOptions = getCliOptions(parameterAnnotations);
+      final Set<CliOption> cliOptions =
+          getCommandRegistry().getCliOptions(methodTarget.getMethod());
       for (final CliOption cliOption : cliOptions) {
         final Class<?> requiredType =
             methodTarget.getMethod().getParameterTypes()[arguments.size()];
@@ -1365,7 +1501,12 @@ public class SimpleParser implements Parser {
           }
 
           // Use the converter
-          result = c.convertFromText(value, requiredType, cliOption.optionContext());
+          final Span conversionSpan = CommandTimeline.start("conversion");
+          try {
+            result = c.convertFromText(value, requiredType, cliOption.optionContext());
+          } finally {
+            conversionSpan.end();
+          }
 
           // If the option has been specified to be mandatory then the
           // result should never be null
@@ -1684,6 +1825,8 @@ public class SimpleParser implements Parser {
   public final void remove(final CommandMarker command) {
     synchronized (mutex) {
       commands.remove(command);
+      commandRegistry = null;
+      clearAvailabilityCache();
       for (final Method m : command.getClass().getMethods()) {
         final CliAvailabilityIndicator availability =
             m.getAnnotation(CliAvailabilityIndicator.class);
@@ -1761,7 +1904,7 @@ public class SimpleParser implements Parser {
   private boolean isDifferentVersion() {
     String rooVersion = getRooProjectVersion();
 
-    if ("UNKNOWN".equals(rooVersion)) {
+    if (PomVersionUtils.UNKNOWN_VERSION.equals(rooVersion)) {
       return false;
     }
 
@@ -1769,27 +1912,7 @@ public class SimpleParser implements Parser {
   }
 
   private String getRooProjectVersion() {
-    String homePath = new File(".").getPath();
-    String pomPath = homePath + "/pom.xml";
-    File pom = new File(pomPath);
-    try {
-      if (pom.exists()) {
-        InputStream is = new FileInputStream(pom);
-        Document docXml = XmlUtils.readXml(is);
-        Element document = docXml.getDocumentElement();
-        Element rooVersionElement = XmlUtils.findFirstElement("properties/roo.version", document);
-        String rooVersion = rooVersionElement.getTextContent();
-
-        return rooVersion;
-      }
-
-      return "UNKNOWN";
-
-    } catch (FileNotFoundException e) {
-      e.printStackTrace();
-    }
-
-    return "";
+    return PomVersionUtils.getRooVersion(new File(new File(".").getPath(), "pom.xml"));
   }
 
   public static String versionInfoWithoutGit() {
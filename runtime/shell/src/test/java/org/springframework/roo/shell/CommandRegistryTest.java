@@ -0,0 +1,84 @@
+package org.springframework.roo.shell;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.roo.shell.CommandRegistry.RegisteredCommand;
+
+/**
+ * Unit test of {@link CommandRegistry}
+ *
+ * @since 2.0
+ */
+public class CommandRegistryTest {
+
+  public static class TestCommands implements CommandMarker {
+
+    @CliCommand(value = "web mvc setup")
+    public void webMvcSetup() {}
+
+    @CliCommand(value = {"web mvc view", "web mvc views"})
+    public void webMvcView(@CliOption(key = "name") final String name, @CliOption(
+        key = "package") final String packageName) {}
+
+    @CliCommand(value = "entity jpa")
+    public void entityJpa() {}
+  }
+
+  // Fixture
+  private CommandRegistry registry;
+
+  @Before
+  public void setUp() {
+    registry = new CommandRegistry(Collections.singleton(new TestCommands()));
+  }
+
+  @Test
+  public void testGetCandidatesForBlankBufferReturnsEveryValue() {
+    assertEquals(
+        Arrays.asList("entity jpa", "web mvc setup", "web mvc view", "web mvc views"),
+        new ArrayList<String>(registry.getCandidates("").keySet()));
+  }
+
+  @Test
+  public void testGetCandidatesReturnsValuesStartingWithFirstWord() {
+    assertEquals(Arrays.asList("web mvc setup", "web mvc view", "web mvc views"),
+        new ArrayList<String>(registry.getCandidates("we mvc").keySet()));
+  }
+
+  @Test
+  public void testGetCandidatesForUnknownWordIsEmpty() {
+    assertTrue(registry.getCandidates("security").isEmpty());
+  }
+
+  @Test
+  public void testGetCliOptionsInParameterOrder() throws Exception {
+    final Method method =
+        TestCommands.class.getMethod("webMvcView", String.class, String.class);
+    final List<String> keys = new ArrayList<String>();
+    for (final CliOption cliOption : registry.getCliOptions(method)) {
+      keys.add(cliOption.key()[0]);
+    }
+    assertEquals(Arrays.asList("name", "package"), keys);
+  }
+
+  @Test
+  public void testCommandWithSeveralValuesIsRegisteredOnce() {
+    int webMvcViews = 0;
+    for (final RegisteredCommand command : registry.getCommands()) {
+      if ("webMvcView".equals(command.getMethod().getName())) {
+        webMvcViews++;
+      }
+    }
+    assertEquals(1, webMvcViews);
+    assertEquals(3, registry.getCommands().size());
+  }
+}
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.Hashtable;
 import java.util.List;
 import java.util.SortedMap;
 import java.util.SortedSet;
@@ -16,9 +17,12 @@ import org.apache.commons.io.IOUtils;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.FrameworkListener;
 import org.osgi.framework.ServiceEvent;
 import org.osgi.framework.ServiceListener;
 import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.startlevel.StartLevel;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -40,14 +44,47 @@ import org.w3c.dom.NodeList;
  * Note that this functionality is only provided for services (simple components
  * are insufficient). Services must be defined in the XML file indicated by the
  * "Service-Component" manifest header.
+ * <p>
+ * The services of bundles whose symbolic names start with one of the
+ * comma-separated prefixes given by the <code>roo.startup.lazy</code> system
+ * property (e.g. <code>org.springframework.roo.addon.</code>) are not waited
+ * for, so that the shell accepts commands as soon as its core services are
+ * running while those bundles' components carry on activating. Until they
+ * have all activated, a service with the {@link #LAZY_STARTUP_PENDING}
+ * property is registered, which lets the shell wait for them before reporting
+ * a command as unknown. Setting the
+ * <code>roo.startup.report</code> system property prints a report of the
+ * slowest bundles and components to start once the start level changes.
  * 
  * @author Ben Alex
  */
 public class Activator implements BundleActivator {
 
+  /**
+   * The property of the service registered while the components of lazily
+   * started bundles are still activating
+   */
+  public static final String LAZY_STARTUP_PENDING = "roo.startup.lazy.pending";
+
   /** key: required class, any one of its services interfaces */
   private final SortedMap<String, String> requiredImplementations = new TreeMap<String, String>();
   private final SortedSet<String> runningImplementations = new TreeSet<String>();
+  /** key: lazily started class, any one of its services interfaces */
+  private final SortedMap<String, String> lazyImplementations = new TreeMap<String, String>();
+  private final SortedSet<String> runningLazyImplementations = new TreeSet<String>();
+  private BundleContext context;
+  private ServiceRegistration lazyStartupRegistration;
+  private StartupProfiler startupProfiler;
+  /** Reports the startup once the start level has changed to 99 */
+  private final FrameworkListener startupReporter = new FrameworkListener() {
+    public void frameworkEvent(final FrameworkEvent event) {
+      // Setting the start level returns before the framework changes it
+      if (event.getType() == FrameworkEvent.STARTLEVEL_CHANGED
+          && startLevel.getStartLevel() >= 99) {
+        reportStartup();
+      }
+    }
+  };
   private StartLevel startLevel;
   private ServiceReference startLevelServiceReference;
 
@@ -94,7 +131,48 @@ public class Activator implements BundleActivator {
     }
   }
 
+  private synchronized void lazyImplementationStarted(final String className) {
+    if (className == null || lazyStartupRegistration == null
+        || !lazyImplementations.containsKey(className)) {
+      return;
+    }
+    runningLazyImplementations.add(className);
+    if (runningLazyImplementations.equals(lazyImplementations.keySet())) {
+      lazyStartupRegistration.unregister();
+      lazyStartupRegistration = null;
+    }
+  }
+
+  private boolean isLazy(final Bundle bundle, final String[] lazyBundlePrefixes) {
+    final String symbolicName = bundle.getSymbolicName();
+    if (symbolicName == null) {
+      return false;
+    }
+    for (final String prefix : lazyBundlePrefixes) {
+      if (prefix.length() > 0 && symbolicName.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private synchronized void reportStartup() {
+    if (startupProfiler == null) {
+      return;
+    }
+    context.removeFrameworkListener(startupReporter);
+    context.removeBundleListener(startupProfiler);
+    context.removeServiceListener(startupProfiler);
+    System.out.println(startupProfiler.getReport(Integer.getInteger("roo.startup.report.limit",
+        20)));
+    startupProfiler = null;
+  }
+
   public void process(final URL url) {
+    process(url, requiredImplementations);
+  }
+
+  private void process(final URL url, final SortedMap<String, String> implementations) {
     Document document;
     InputStream is = null;
     try {
@@ -153,24 +231,43 @@ public class Activator implements BundleActivator {
       }
 
       if (componentName != null && serviceInterface != null) {
-        requiredImplementations.put(componentName, serviceInterface);
+        implementations.put(componentName, serviceInterface);
       }
     }
   }
 
   public void start(final BundleContext context) throws Exception {
+    this.context = context;
+    if (System.getProperty("roo.startup.report") != null) {
+      startupProfiler = new StartupProfiler();
+      context.addBundleListener(startupProfiler);
+      context.addServiceListener(startupProfiler);
+      context.addFrameworkListener(startupReporter);
+    }
     startLevelServiceReference = context.getServiceReference(StartLevel.class.getName());
     startLevel = (StartLevel) context.getService(startLevelServiceReference);
+    final String[] lazyBundlePrefixes =
+        System.getProperty("roo.startup.lazy", "").trim().split("\\s*,\\s*");
     for (final Bundle bundle : context.getBundles()) {
+      // The services of lazy bundles can carry on starting after the start
+      // level changes
+      final SortedMap<String, String> implementations =
+          isLazy(bundle, lazyBundlePrefixes) ? lazyImplementations : requiredImplementations;
       final String value = bundle.getHeaders().get("Service-Component");
       if (value != null) {
         List<String> componentDescriptions = Arrays.asList(value.split("\\s*,\\s*"));
         for (String desc : componentDescriptions) {
           final URL url = bundle.getResource(desc);
-          process(url);
+          process(url, implementations);
         }
       }
     }
+    if (!lazyImplementations.isEmpty()) {
+      final Hashtable<String, Object> properties = new Hashtable<String, Object>();
+      properties.put(LAZY_STARTUP_PENDING, Boolean.TRUE);
+      lazyStartupRegistration =
+          context.registerService(Activator.class.getName(), this, properties);
+    }
 
     // Ensure I'm notified of other services changes
     final BundleContext myContext = context;
@@ -186,6 +283,7 @@ public class Activator implements BundleActivator {
           return;
         }
         if (event.getType() == ServiceEvent.REGISTERED) {
+          lazyImplementationStarted(className);
           if (requiredImplementations.keySet().contains(className)) {
             runningImplementations.add(className);
             potentiallyChangeStartLevel();
@@ -200,6 +298,15 @@ public class Activator implements BundleActivator {
     });
 
     // Now identify if any services I was interested in are already running
+    for (final String lazyService : lazyImplementations.keySet()) {
+      final ServiceReference[] srs =
+          context.getServiceReferences(lazyImplementations.get(lazyService), null);
+      if (srs != null) {
+        for (final ServiceReference sr : srs) {
+          lazyImplementationStarted(getClassName(sr, context));
+        }
+      }
+    }
     for (final String requiredService : requiredImplementations.keySet()) {
       final String correspondingInterface = requiredImplementations.get(requiredService);
       final ServiceReference[] srs = context.getServiceReferences(correspondingInterface, null);
@@ -223,6 +330,18 @@ public class Activator implements BundleActivator {
   }
 
   public void stop(final BundleContext context) throws Exception {
+    synchronized (this) {
+      if (startupProfiler != null) {
+        context.removeFrameworkListener(startupReporter);
+        context.removeBundleListener(startupProfiler);
+        context.removeServiceListener(startupProfiler);
+        startupProfiler = null;
+      }
+      if (lazyStartupRegistration != null) {
+        lazyStartupRegistration.unregister();
+        lazyStartupRegistration = null;
+      }
+    }
     context.ungetService(startLevelServiceReference);
   }
 }
@@ -0,0 +1,122 @@
+package org.springframework.roo.startlevel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.SynchronousBundleListener;
+
+/**
+ * Records how long Roo takes to start: when each bundle is resolved, how long
+ * each takes to start, and when each declarative services component registers
+ * its service. Components are activated one after another, so the time since
+ * the previous registration approximates how long a component took to
+ * activate.
+ * <p>
+ * Times are measured from when this profiler was created, i.e. when the start
+ * level bundle started.
+ *
+ * @since 2.0
+ */
+class StartupProfiler implements SynchronousBundleListener, ServiceListener {
+
+  private static class Timing {
+
+    final long millis;
+    final String name;
+
+    Timing(final String name, final long millis) {
+      this.name = name;
+      this.millis = millis;
+    }
+  }
+
+  private static final Comparator<Timing> SLOWEST_FIRST = new Comparator<Timing>() {
+    public int compare(final Timing timing1, final Timing timing2) {
+      return timing1.millis < timing2.millis ? 1 : timing1.millis == timing2.millis ? 0 : -1;
+    }
+  };
+
+  private final List<Timing> bundleStarts = new ArrayList<Timing>();
+  private final Map<Long, Long> bundleStartTimes = new HashMap<Long, Long>();
+  private final List<Timing> componentActivations = new ArrayList<Timing>();
+  private final long createdAt = System.currentTimeMillis();
+  private long lastRegistrationAt = createdAt;
+  private int resolvedBundles;
+  private long lastResolvedAt;
+
+  public synchronized void bundleChanged(final BundleEvent event) {
+    final Bundle bundle = event.getBundle();
+    final long now = System.currentTimeMillis();
+    switch (event.getType()) {
+      case BundleEvent.RESOLVED:
+        resolvedBundles++;
+        lastResolvedAt = now;
+        break;
+      case BundleEvent.STARTING:
+        bundleStartTimes.put(bundle.getBundleId(), now);
+        break;
+      case BundleEvent.STARTED:
+        final Long startedAt = bundleStartTimes.remove(bundle.getBundleId());
+        if (startedAt != null) {
+          bundleStarts.add(new Timing(bundle.getSymbolicName(), now - startedAt));
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  public synchronized void serviceChanged(final ServiceEvent event) {
+    if (event.getType() != ServiceEvent.REGISTERED) {
+      return;
+    }
+    final ServiceReference sr = event.getServiceReference();
+    final Object componentName = sr.getProperty("component.name");
+    if (componentName == null) {
+      // Not a declarative services component
+      return;
+    }
+    final long now = System.currentTimeMillis();
+    componentActivations.add(new Timing(componentName.toString(), now - lastRegistrationAt));
+    lastRegistrationAt = now;
+  }
+
+  /**
+   * Returns a report of the slowest bundles and components to start
+   *
+   * @param limit the most bundles and components to list
+   * @return a multi-line report
+   */
+  synchronized String getReport(final int limit) {
+    final String lineSeparator = System.getProperty("line.separator");
+    final StringBuilder report = new StringBuilder();
+    report.append("Spring Roo started in ").append(System.currentTimeMillis() - createdAt)
+        .append(" ms");
+    report.append(lineSeparator).append(resolvedBundles).append(" bundles resolved by ")
+        .append(lastResolvedAt == 0 ? 0 : lastResolvedAt - createdAt).append(" ms");
+    appendSlowest(report, "bundle starts", bundleStarts, limit, lineSeparator);
+    appendSlowest(report, "component activations", componentActivations, limit, lineSeparator);
+    return report.toString();
+  }
+
+  private void appendSlowest(final StringBuilder report, final String title,
+      final List<Timing> timings, final int limit, final String lineSeparator) {
+    final List<Timing> slowest = new ArrayList<Timing>(timings);
+    Collections.sort(slowest, SLOWEST_FIRST);
+    report.append(lineSeparator).append("Slowest ").append(title).append(" (of ")
+        .append(timings.size()).append("):");
+    for (final Timing timing : slowest.subList(0, Math.min(limit, slowest.size()))) {
+      report.append(lineSeparator).append("  ").append(timing.millis).append(" ms ")
+          .append(timing.name);
+    }
+  }
+}
@@ -0,0 +1,311 @@
+package org.springframework.roo.support.logging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Records where the time taken by a shell command goes, as a tree of named
+ * spans (parsing, conversion, the command itself, file scans, metadata
+ * notifications, etc.).
+ * <p>
+ * Spans are only recorded on the thread that began the command, and only
+ * while the timeline is enabled, so that instrumented code costs next to
+ * nothing otherwise. Instrumented code brackets each phase like this:
+ *
+ * <pre>
+ * final CommandTimeline.Span span = CommandTimeline.start(&quot;file scan&quot;);
+ * try {
+ *   ...
+ * } finally {
+ *   span.end();
+ * }
+ * </pre>
+ *
+ * Spans with the same name and parent are merged, keeping a count of how
+ * often that phase ran, and a span started within a span of the same name
+ * (e.g. a metadata notification causing another) is folded into the outer
+ * one. This keeps the timeline of a long command readable. A command run by
+ * another (e.g. a line of a script) is recorded as a span of the outer
+ * command, whose timeline includes it.
+ *
+ * @since 2.0
+ */
+public final class CommandTimeline {
+
+  /**
+   * A phase of a command, possibly run several times
+   */
+  public static class Span {
+
+    private final Map<String, Span> children = new LinkedHashMap<String, Span>();
+    // Whether this span is that of a command, as opposed to a phase of one
+    private boolean command;
+    private int count;
+    private final String name;
+    private final Span parent;
+    private long startNanos;
+    private long totalNanos;
+
+    Span(final String name, final Span parent) {
+      this.name = name;
+      this.parent = parent;
+    }
+
+    /**
+     * Ends this run of the phase, along with any phase within it left open
+     * (e.g. by an exception); does nothing if it has already ended
+     */
+    public void end() {
+      if (!isOpen()) {
+        return;
+      }
+      while (CURRENT.get() != this) {
+        CURRENT.get().endRun();
+      }
+      endRun();
+    }
+
+    private void endRun() {
+      totalNanos += System.nanoTime() - startNanos;
+      CURRENT.set(parent);
+    }
+
+    private boolean isOpen() {
+      for (Span span = CURRENT.get(); span != null; span = span.parent) {
+        if (span == this) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Returns the phases run within this one, in the order they first ran
+     *
+     * @return a non-<code>null</code> list
+     */
+    public List<Span> getChildren() {
+      return Collections.unmodifiableList(new ArrayList<Span>(children.values()));
+    }
+
+    /**
+     * Returns how many times this phase ran
+     *
+     * @return at least one
+     */
+    public int getCount() {
+      return count;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Returns the total time spent in this phase
+     *
+     * @return a number of milliseconds
+     */
+    public long getTotalMillis() {
+      return totalNanos / 1000000;
+    }
+
+    void start() {
+      count++;
+      startNanos = System.nanoTime();
+      CURRENT.set(this);
+    }
+
+    private void appendJson(final StringBuilder json) {
+      json.append("{\"name\":");
+      appendJsonString(json, name);
+      json.append(",\"count\":").append(count);
+      json.append(",\"millis\":").append(getTotalMillis());
+      if (!children.isEmpty()) {
+        json.append(",\"spans\":[");
+        boolean first = true;
+        for (final Span child : children.values()) {
+          if (!first) {
+            json.append(',');
+          }
+          child.appendJson(json);
+          first = false;
+        }
+        json.append(']');
+      }
+      json.append('}');
+    }
+
+    private void appendTree(final StringBuilder tree, final String indent) {
+      tree.append(indent).append(name).append(' ').append(getTotalMillis()).append(" ms");
+      if (count > 1) {
+        tree.append(" (").append(count).append("x)");
+      }
+      for (final Span child : children.values()) {
+        tree.append(LINE_SEPARATOR);
+        child.appendTree(tree, indent + "  ");
+      }
+    }
+
+    /**
+     * Returns this span and those within it as a single line of JSON
+     *
+     * @return a non-blank JSON object
+     */
+    public String toJson() {
+      final StringBuilder json = new StringBuilder();
+      appendJson(json);
+      return json.toString();
+    }
+
+    /**
+     * Returns this span and those within it as an indented tree, one span
+     * per line
+     *
+     * @return non-blank text
+     */
+    public String toTree() {
+      final StringBuilder tree = new StringBuilder();
+      appendTree(tree, "");
+      return tree.toString();
+    }
+  }
+
+  /**
+   * Returned when no timeline is being recorded on the current thread, so
+   * that callers don't have to check
+   */
+  private static final Span NOT_RECORDED = new Span("", null) {
+    @Override
+    public void end() {}
+  };
+
+  private static final ThreadLocal<Span> CURRENT = new ThreadLocal<Span>();
+  private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+  private static volatile boolean enabled;
+
+  private static void appendJsonString(final StringBuilder json, final String value) {
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          json.append("\\\"");
+          break;
+        case '\\':
+          json.append("\\\\");
+          break;
+        case '\n':
+          json.append("\\n");
+          break;
+        case '\r':
+          json.append("\\r");
+          break;
+        case '\t':
+          json.append("\\t");
+          break;
+        default:
+          if (c < ' ') {
+            json.append(String.format("\\u%04x", (int) c));
+          } else {
+            json.append(c);
+          }
+      }
+    }
+    json.append('"');
+  }
+
+  /**
+   * Starts recording the timeline of a command on the current thread; does
+   * nothing unless the timeline is enabled. If another command's timeline is
+   * being recorded (e.g. that of the script running this command), the
+   * command is recorded as a span within the current one instead.
+   *
+   * @param commandLine the command being executed (required)
+   * @return the command's span, to {@link Span#end()} once the command is
+   *         over (never <code>null</code>)
+   */
+  public static Span begin(final String commandLine) {
+    Validate.notNull(commandLine, "Command line required");
+    final Span span;
+    if (CURRENT.get() != null) {
+      span = start(commandLine);
+    } else if (enabled) {
+      span = new Span(commandLine, null);
+      span.start();
+    } else {
+      span = NOT_RECORDED;
+    }
+    if (span != NOT_RECORDED) {
+      span.command = true;
+    }
+    return span;
+  }
+
+  /**
+   * Stops recording the current thread's timeline, unless the current command
+   * is running within another one, whose timeline will include it
+   *
+   * @return the command's span, or <code>null</code> if no timeline was being
+   *         recorded on this thread or the command is running within another
+   */
+  public static Span finish() {
+    Span span = CURRENT.get();
+    if (span == null) {
+      return null;
+    }
+    while (!span.command && span.parent != null) {
+      span = span.parent;
+    }
+    if (span.parent != null) {
+      return null;
+    }
+    span.end();
+    return span;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables or disables the recording of command timelines; takes effect
+   * from the next command
+   *
+   * @param enabled whether to record timelines
+   */
+  public static void setEnabled(final boolean enabled) {
+    CommandTimeline.enabled = enabled;
+  }
+
+  /**
+   * Starts a run of the given phase within the current one
+   *
+   * @param name the name of the phase (required)
+   * @return the span to {@link Span#end()} when the phase is over (never
+   *         <code>null</code>)
+   */
+  public static Span start(final String name) {
+    final Span current = CURRENT.get();
+    if (current == null || name.equals(current.name)) {
+      return NOT_RECORDED;
+    }
+    Span span = current.children.get(name);
+    if (span == null) {
+      span = new Span(name, current);
+      current.children.put(name, span);
+    }
+    span.start();
+    return span;
+  }
+
+  /**
+   * Constructor is private to prevent instantiation
+   */
+  private CommandTimeline() {}
+}
@@ -0,0 +1,98 @@
+package org.springframework.roo.support.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.w3c.dom.Element;
+
+/**
+ * Reads the <code>roo.version</code> property of a project's POM. The value
+ * is cached until the POM changes on disk, so that the components checking
+ * it on every command (the shell, the parser and the file monitor) share a
+ * single read of the file.
+ *
+ * @since 2.0
+ */
+public final class PomVersionUtils {
+
+  private static class CachedVersion {
+
+    final long lastModified;
+    final long length;
+    final String rooVersion;
+
+    CachedVersion(final long lastModified, final long length, final String rooVersion) {
+      this.lastModified = lastModified;
+      this.length = length;
+      this.rooVersion = rooVersion;
+    }
+  }
+
+  /**
+   * The value returned when there is no such POM or property
+   */
+  public static final String UNKNOWN_VERSION = "UNKNOWN";
+
+  private static final String ROO_VERSION_XPATH = "properties/roo.version";
+
+  private static final Map<String, CachedVersion> VERSIONS = new HashMap<String, CachedVersion>();
+
+  /**
+   * Returns the value of the <code>roo.version</code> property of the given
+   * POM
+   *
+   * @param pom the POM file (required)
+   * @return {@link #UNKNOWN_VERSION} if the POM doesn't exist or doesn't
+   *         define that property
+   */
+  public static String getRooVersion(final File pom) {
+    Validate.notNull(pom, "POM file required");
+    final String path = pom.getAbsolutePath();
+    final long lastModified = pom.lastModified();
+    final long length = pom.length();
+    if (lastModified == 0) {
+      // No such file (or not accessible)
+      return UNKNOWN_VERSION;
+    }
+
+    synchronized (VERSIONS) {
+      final CachedVersion cachedVersion = VERSIONS.get(path);
+      if (cachedVersion != null && cachedVersion.lastModified == lastModified
+          && cachedVersion.length == length) {
+        return cachedVersion.rooVersion;
+      }
+
+      final String rooVersion = readRooVersion(pom);
+      VERSIONS.put(path, new CachedVersion(lastModified, length, rooVersion));
+      return rooVersion;
+    }
+  }
+
+  private static String readRooVersion(final File pom) {
+    InputStream inputStream = null;
+    try {
+      inputStream = new FileInputStream(pom);
+      final Element root = XmlUtils.readXml(inputStream).getDocumentElement();
+      final Element rooVersionElement = XmlUtils.findFirstElement(ROO_VERSION_XPATH, root);
+      if (rooVersionElement == null) {
+        return UNKNOWN_VERSION;
+      }
+      return rooVersionElement.getTextContent();
+    } catch (final IOException e) {
+      return UNKNOWN_VERSION;
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+
+  /**
+   * Constructor is private to prevent instantiation
+   */
+  private PomVersionUtils() {}
+}
@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -57,11 +58,36 @@ import org.xml.sax.SAXException;
  */
 public final class XmlUtils {
 
-  private static final Map<String, XPathExpression> COMPILED_EXPRESSION_CACHE =
-      new HashMap<String, XPathExpression>();
+  /**
+   * Neither {@link XPath} nor {@link XPathExpression} instances are thread
+   * safe, so each thread compiles and caches its own expressions.
+   */
+  private static final ThreadLocal<Map<String, XPathExpression>> COMPILED_EXPRESSION_CACHE =
+      new ThreadLocal<Map<String, XPathExpression>>() {
+        @Override
+        protected Map<String, XPathExpression> initialValue() {
+          return new HashMap<String, XPathExpression>();
+        }
+      };
+  // Nor are these factories, so access to them is synchronized
   private static final DocumentBuilderFactory FACTORY = DocumentBuilderFactory.newInstance();
   private static final TransformerFactory TRANSFORMER_FACTORY = TransformerFactory.newInstance();
-  private static final XPath XPATH = XPathFactory.newInstance().newXPath();
+  private static final ThreadLocal<XPath> XPATH = new ThreadLocal<XPath>() {
+    @Override
+    protected XPath initialValue() {
+      synchronized (XPathFactory.class) {
+        return XPathFactory.newInstance().newXPath();
+      }
+    }
+  };
+
+  /**
+   * Relative paths made only of element names (e.g.
+   * <code>dependencies/dependency</code>), which are found by walking the
+   * DOM rather than by evaluating XPath
+   */
+  private static final Pattern SIMPLE_ELEMENT_PATH = Pattern
+      .compile("[A-Za-z_][\\w.-]*(/[A-Za-z_][\\w.-]*)*");
 
   /**
    * Checks the presented element for illegal characters that could cause
@@ -132,8 +158,10 @@ public final class XmlUtils {
   public static Transformer createIndentingTransformer() {
     Transformer transformer;
     try {
-      TRANSFORMER_FACTORY.setAttribute("indent-number", 4);
-      transformer = TRANSFORMER_FACTORY.newTransformer();
+      synchronized (TRANSFORMER_FACTORY) {
+        TRANSFORMER_FACTORY.setAttribute("indent-number", 4);
+        transformer = TRANSFORMER_FACTORY.newTransformer();
+      }
     } catch (final Exception e) {
       throw new IllegalStateException(e);
     }
@@ -207,6 +235,81 @@ public final class XmlUtils {
     return new StreamResult(writer);
   }
 
+  private static XPathExpression compile(final String xPathExpression)
+      throws XPathExpressionException {
+    final Map<String, XPathExpression> compiledExpressions = COMPILED_EXPRESSION_CACHE.get();
+    XPathExpression expr = compiledExpressions.get(xPathExpression);
+    if (expr == null) {
+      expr = XPATH.get().compile(xPathExpression);
+      compiledExpressions.put(xPathExpression, expr);
+    }
+    return expr;
+  }
+
+  /**
+   * Adds the elements at the given simple path below the given node to the
+   * given list, in document order, matching names as the XPath engine does
+   * for the DOMs this class creates
+   *
+   * @param steps the element names making up the path
+   * @param step the index of the step to match against the node's children
+   * @param node the node whose children to match
+   * @param firstOnly whether to stop at the first matching element
+   * @param elements the list to add the matching elements to
+   * @return whether to stop looking (i.e. the first element was wanted and
+   *         has been found)
+   */
+  private static boolean findElementsByPath(final String[] steps, final int step,
+      final Node node, final boolean firstOnly, final List<Element> elements) {
+    for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+      if (child.getNodeType() != Node.ELEMENT_NODE || !hasName(child, steps[step])) {
+        continue;
+      }
+      if (step == steps.length - 1) {
+        elements.add((Element) child);
+        if (firstOnly) {
+          return true;
+        }
+      } else if (findElementsByPath(steps, step + 1, child, firstOnly, elements)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the elements at the given path below the given node, if the path
+   * is simple enough to find them without XPath
+   *
+   * @return <code>null</code> if the path needs evaluating as XPath
+   */
+  private static List<Element> findElementsByPath(final String path, final Node node,
+      final boolean firstOnly) {
+    if (!SIMPLE_ELEMENT_PATH.matcher(path).matches()) {
+      return null;
+    }
+    final List<Element> elements = new ArrayList<Element>();
+    findElementsByPath(StringUtils.split(path, '/'), 0, node, firstOnly, elements);
+    return elements;
+  }
+
+  /**
+   * Indicates whether the given element matches an unprefixed XPath name test
+   */
+  private static boolean hasName(final Node element, final String name) {
+    final String localName = element.getLocalName();
+    if (localName != null) {
+      // Namespace-aware DOM; the name test only matches elements in no
+      // namespace
+      return element.getNamespaceURI() == null && localName.equals(name);
+    }
+    // Any prefix is ignored by the name test
+    final String nodeName = element.getNodeName();
+    return nodeName.endsWith(name)
+        && (nodeName.length() == name.length() || nodeName.charAt(nodeName.length()
+            - name.length() - 1) == ':');
+  }
+
   /**
    * Checks in under a given root element whether it can find a child elements
    * which match the XPath expression supplied. Returns a {@link List} of
@@ -220,16 +323,16 @@ public final class XmlUtils {
    *         an empty list (never null)
    */
   public static List<Element> findElements(final String xPathExpression, final Element root) {
+    final List<Element> elementsByPath = findElementsByPath(xPathExpression, root, false);
+    if (elementsByPath != null) {
+      return elementsByPath;
+    }
+
     final List<Element> elements = new ArrayList<Element>();
     NodeList nodes = null;
 
     try {
-      XPathExpression expr = COMPILED_EXPRESSION_CACHE.get(xPathExpression);
-      if (expr == null) {
-        expr = XPATH.compile(xPathExpression);
-        COMPILED_EXPRESSION_CACHE.put(xPathExpression, expr);
-      }
-      nodes = (NodeList) expr.evaluate(root, XPathConstants.NODESET);
+      nodes = (NodeList) compile(xPathExpression).evaluate(root, XPathConstants.NODESET);
     } catch (final XPathExpressionException e) {
       throw new IllegalArgumentException("Unable evaluate xpath expression", e);
     }
@@ -251,12 +354,7 @@ public final class XmlUtils {
   public static Node findFirstAttribute(final String xPathExpression, final Element element) {
     Node attr = null;
     try {
-      XPathExpression expr = COMPILED_EXPRESSION_CACHE.get(xPathExpression);
-      if (expr == null) {
-        expr = XPATH.compile(xPathExpression);
-        COMPILED_EXPRESSION_CACHE.put(xPathExpression, expr);
-      }
-      attr = (Node) expr.evaluate(element, XPathConstants.NODE);
+      attr = (Node) compile(xPathExpression).evaluate(element, XPathConstants.NODE);
     } catch (final XPathExpressionException e) {
       throw new IllegalArgumentException("Unable evaluate xpath expression", e);
     }
@@ -311,14 +409,13 @@ public final class XmlUtils {
   public static Node findNode(final String xPathExpression, final Node root) {
     Validate.notBlank(xPathExpression, "XPath expression required");
     Validate.notNull(root, "Root element required");
+    final List<Element> elementsByPath = findElementsByPath(xPathExpression, root, true);
+    if (elementsByPath != null) {
+      return elementsByPath.isEmpty() ? null : elementsByPath.get(0);
+    }
     Node node = null;
     try {
-      XPathExpression expr = COMPILED_EXPRESSION_CACHE.get(xPathExpression);
-      if (expr == null) {
-        expr = XPATH.compile(xPathExpression);
-        COMPILED_EXPRESSION_CACHE.put(xPathExpression, expr);
-      }
-      node = (Node) expr.evaluate(root, XPathConstants.NODE);
+      node = (Node) compile(xPathExpression).evaluate(root, XPathConstants.NODE);
     } catch (final XPathExpressionException e) {
       throw new IllegalArgumentException("Unable evaluate XPath expression '" + xPathExpression
           + "'", e);
@@ -364,7 +461,9 @@ public final class XmlUtils {
   public static DocumentBuilder getDocumentBuilder() {
     // factory.setNamespaceAware(true);
     try {
-      return FACTORY.newDocumentBuilder();
+      synchronized (FACTORY) {
+        return FACTORY.newDocumentBuilder();
+      }
     } catch (final ParserConfigurationException e) {
       throw new IllegalStateException(e);
     }
@@ -461,12 +560,10 @@ public final class XmlUtils {
       return null;
     }
     try {
-      return FACTORY.newDocumentBuilder().parse(new ByteArrayInputStream(xml.getBytes()))
+      return getDocumentBuilder().parse(new ByteArrayInputStream(xml.getBytes()))
           .getDocumentElement();
     } catch (final IOException e) {
       throw new IllegalStateException(e);
-    } catch (final ParserConfigurationException e) {
-      throw new IllegalStateException(e);
     } catch (final SAXException e) {
       throw new IllegalStateException(e);
     }
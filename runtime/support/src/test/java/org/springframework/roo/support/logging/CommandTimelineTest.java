@@ -0,0 +1,102 @@
+package org.springframework.roo.support.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.roo.support.logging.CommandTimeline.Span;
+
+/**
+ * Unit test of {@link CommandTimeline}
+ *
+ * @since 2.0
+ */
+public class CommandTimelineTest {
+
+  @After
+  public void tearDown() {
+    CommandTimeline.finish();
+    CommandTimeline.setEnabled(false);
+  }
+
+  @Test
+  public void testNothingIsRecordedWhenDisabled() {
+    CommandTimeline.begin("project setup");
+    CommandTimeline.start("parse").end();
+    assertNull(CommandTimeline.finish());
+  }
+
+  @Test
+  public void testSpansWithTheSameNameAreMerged() {
+    CommandTimeline.setEnabled(true);
+    CommandTimeline.begin("project setup");
+    final Span parse = CommandTimeline.start("parse");
+    CommandTimeline.start("conversion").end();
+    CommandTimeline.start("conversion").end();
+    parse.end();
+
+    final Span command = CommandTimeline.finish();
+    assertEquals("project setup", command.getName());
+    final List<Span> children = command.getChildren();
+    assertEquals(1, children.size());
+    final Span conversion = children.get(0).getChildren().get(0);
+    assertEquals("conversion", conversion.getName());
+    assertEquals(2, conversion.getCount());
+  }
+
+  @Test
+  public void testNestedSpanWithTheSameNameIsFolded() {
+    CommandTimeline.setEnabled(true);
+    CommandTimeline.begin("entity jpa");
+    final Span outer = CommandTimeline.start("metadata");
+    CommandTimeline.start("metadata").end();
+    outer.end();
+
+    final Span metadata = CommandTimeline.finish().getChildren().get(0);
+    assertEquals(1, metadata.getCount());
+    assertEquals(0, metadata.getChildren().size());
+  }
+
+  @Test
+  public void testFinishEndsSpansLeftOpen() {
+    CommandTimeline.setEnabled(true);
+    CommandTimeline.begin("entity jpa");
+    CommandTimeline.start("execute");
+    CommandTimeline.start("command");
+
+    assertEquals("entity jpa", CommandTimeline.finish().getName());
+    assertNull(CommandTimeline.finish());
+  }
+
+  @Test
+  public void testScriptLinesAreRecordedWithinTheScript() {
+    CommandTimeline.setEnabled(true);
+    final Span script = CommandTimeline.begin("script demo.roo");
+    final Span execute = CommandTimeline.start("execute");
+    final Span line = CommandTimeline.begin("entity jpa");
+    CommandTimeline.start("parse");
+    // The line's timeline is part of the script's
+    assertNull(CommandTimeline.finish());
+    line.end();
+    execute.end();
+
+    assertSame(script, CommandTimeline.finish());
+    final Span lineSpan = script.getChildren().get(0).getChildren().get(0);
+    assertEquals("entity jpa", lineSpan.getName());
+    assertEquals("parse", lineSpan.getChildren().get(0).getName());
+    assertNull(CommandTimeline.finish());
+  }
+
+  @Test
+  public void testToJsonEscapesNames() {
+    CommandTimeline.setEnabled(true);
+    CommandTimeline.begin("say \"hi\"");
+
+    assertEquals("{\"name\":\"say \\\"hi\\\"\",\"count\":1,\"millis\":0}", CommandTimeline
+        .finish().toJson());
+  }
+}
@@ -0,0 +1,99 @@
+package org.springframework.roo.support.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+/**
+ * Unit test of {@link XmlUtils}
+ *
+ * @since 2.0
+ */
+public class XmlUtilsTest {
+
+  private static final String XML = "<project xmlns:sec=\"urn:sec\"><deps><dep id=\"1\"/>"
+      + "<other/><sec:dep id=\"2\"/></deps><deps><dep id=\"3\"><dep id=\"4\"/></dep></deps>"
+      + "</project>";
+
+  private static List<String> getIds(final List<Element> elements) {
+    final List<String> ids = new ArrayList<String>();
+    for (final Element element : elements) {
+      ids.add(element.getAttribute("id"));
+    }
+    return ids;
+  }
+
+  @Test
+  public void testFindElementsBySimplePathMatchesXPath() {
+    final Element root = XmlUtils.stringToElement(XML);
+
+    // Predicates make XmlUtils evaluate the path as XPath
+    assertEquals(getIds(XmlUtils.findElements("deps/dep[true()]", root)),
+        getIds(XmlUtils.findElements("deps/dep", root)));
+    assertEquals(Arrays.asList("1", "2", "3"),
+        getIds(XmlUtils.findElements("deps/dep", root)));
+    assertEquals(Collections.singletonList("4"),
+        getIds(XmlUtils.findElements("deps/dep/dep", root)));
+  }
+
+  @Test
+  public void testFindFirstElementBySimplePath() {
+    final Element root = XmlUtils.stringToElement(XML);
+
+    assertEquals("1", XmlUtils.findFirstElement("deps/dep", root).getAttribute("id"));
+    assertEquals("4", XmlUtils.findFirstElement("deps/dep/dep", root).getAttribute("id"));
+    assertNull(XmlUtils.findFirstElement("deps/missing", root));
+  }
+
+  @Test
+  public void testSimplePathIgnoresNamespacedElementsOfNamespaceAwareDom() throws Exception {
+    final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+    factory.setNamespaceAware(true);
+    final Element root =
+        factory.newDocumentBuilder().parse(new ByteArrayInputStream(XML.getBytes()))
+            .getDocumentElement();
+
+    assertEquals(getIds(XmlUtils.findElements("deps/dep[true()]", root)),
+        getIds(XmlUtils.findElements("deps/dep", root)));
+  }
+
+  @Test
+  public void testFindElementsFromSeveralThreads() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+      for (int i = 0; i < 8; i++) {
+        results.add(executor.submit(new Callable<Integer>() {
+          public Integer call() {
+            // DOM reads aren't thread safe, so each thread has its own
+            final Element root = XmlUtils.stringToElement(XML);
+            int found = 0;
+            for (int j = 0; j < 200; j++) {
+              found += XmlUtils.findElements("deps/dep[@id]", root).size();
+            }
+            return found;
+          }
+        }));
+      }
+      for (final Future<Integer> result : results) {
+        assertEquals(Integer.valueOf(600), result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}